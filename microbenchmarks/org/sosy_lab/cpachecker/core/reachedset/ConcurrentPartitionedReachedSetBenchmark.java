@@ -0,0 +1,94 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmark for several threads that concurrently add states to, query, and remove states from a
+ * shared {@link ConcurrentPartitionedReachedSet}. Each thread has its own states, which are
+ * created as in {@link ReachedSetBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentPartitionedReachedSetBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SharedReachedSet {
+
+    @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+    public String program;
+
+    @Param({"4"})
+    public int statesPerLocation;
+
+    ConcurrentPartitionedReachedSet reached;
+    ImmutableList<AbstractState> locationStates;
+
+    @Setup
+    public void setup() throws Exception {
+      Configuration config = BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL).build();
+      CFA cfa = BenchmarkFixtures.parseProgram(config, program);
+      LocationCPA cpa = LocationCPA.create(cfa, config);
+      reached = new ConcurrentPartitionedReachedSet(cpa, TraversalMethod.BFS);
+      locationStates = ReachedSetBenchmark.locationStates(cpa, cfa);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadStates {
+
+    ImmutableList<ARGState> states;
+
+    @Setup
+    public void setup(SharedReachedSet pShared) {
+      states = ReachedSetBenchmark.createStates(pShared.locationStates, pShared.statesPerLocation);
+    }
+  }
+
+  @Benchmark
+  public int addGetReachedRemove(SharedReachedSet pShared, ThreadStates pStates) {
+    ConcurrentPartitionedReachedSet reached = pShared.reached;
+    int sum = 0;
+    for (ARGState state : pStates.states) {
+      reached.add(state, SingletonPrecision.getInstance());
+      sum += reached.getReached(state).size();
+    }
+    for (ARGState state : pStates.states) {
+      reached.remove(state);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,113 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmarks for adding states to a {@link ReachedSet} and querying the states at the same
+ * location. The states are {@link ARGState}s that wrap the location states of all CFA nodes of a
+ * program, with several states per location.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReachedSetBenchmark {
+
+  private static final Precision PRECISION = SingletonPrecision.getInstance();
+
+  @State(Scope.Benchmark)
+  public static class Fixture {
+
+    @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+    public String program;
+
+    @Param({"NORMAL", "LOCATIONMAPPED", "PARTITIONED", "CONCURRENTPARTITIONED"})
+    public String reachedSet;
+
+    @Param({"4"})
+    public int statesPerLocation;
+
+    ConfigurableProgramAnalysis cpa;
+    ReachedSetFactory factory;
+    ImmutableList<ARGState> states;
+
+    @Setup
+    public void setup() throws Exception {
+      Configuration config =
+          BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL)
+              .setOption("analysis.reachedSet", reachedSet)
+              .build();
+      CFA cfa = BenchmarkFixtures.parseProgram(config, program);
+      cpa = LocationCPA.create(cfa, config);
+      factory = new ReachedSetFactory(config, LogManager.createNullLogManager());
+      states = createStates(locationStates(cpa, cfa), statesPerLocation);
+    }
+  }
+
+  /** Return the location states of all CFA nodes. */
+  static ImmutableList<AbstractState> locationStates(ConfigurableProgramAnalysis pCpa, CFA pCfa)
+      throws InterruptedException {
+    ImmutableList.Builder<AbstractState> states = ImmutableList.builder();
+    for (CFANode node : pCfa.getAllNodes()) {
+      states.add(pCpa.getInitialState(node, StateSpacePartition.getDefaultPartition()));
+    }
+    return states.build();
+  }
+
+  /** Return new ARG states that wrap each of the given states the given number of times. */
+  static ImmutableList<ARGState> createStates(
+      ImmutableList<AbstractState> pLocationStates, int pStatesPerLocation) {
+    ImmutableList.Builder<ARGState> states = ImmutableList.builder();
+    for (int i = 0; i < pStatesPerLocation; i++) {
+      for (AbstractState locationState : pLocationStates) {
+        states.add(new ARGState(locationState, null));
+      }
+    }
+    return states.build();
+  }
+
+  @Benchmark
+  public int addAndGetReached(Fixture pFixture) {
+    ReachedSet reached = pFixture.factory.create(pFixture.cpa);
+    int sum = 0;
+    for (ARGState state : pFixture.states) {
+      reached.add(state, PRECISION);
+      sum += reached.getReached(state).size();
+    }
+    return sum;
+  }
+}
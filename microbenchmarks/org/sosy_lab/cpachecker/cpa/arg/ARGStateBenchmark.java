@@ -0,0 +1,76 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building and traversing an ARG. The ARG consists of chains of states with a
+ * branching at every fourth state and a covered state at every tenth state, which is similar to
+ * the ARGs of typical analyses. Run with "-prof gc" to see the memory that is allocated per ARG
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ARGStateBenchmark {
+
+  @Param({"100000"})
+  public int size;
+
+  private List<ARGState> buildARG() {
+    Random random = new Random(0);
+    List<ARGState> states = new ArrayList<>(size);
+    states.add(new ARGState(null, null));
+    for (int i = 1; i < size; i++) {
+      ARGState parent = states.get(i % 4 == 0 ? random.nextInt(i) : i - 1);
+      ARGState state = new ARGState(null, parent);
+      if (i % 10 == 0) {
+        state.setCovered(states.get(random.nextInt(i)));
+      }
+      states.add(state);
+    }
+    return states;
+  }
+
+  @Benchmark
+  public List<ARGState> build() {
+    return buildARG();
+  }
+
+  @Benchmark
+  public int buildAndTraverse() {
+    return buildARG().get(0).getSubgraph().size();
+  }
+
+  @Benchmark
+  public int buildAndRemove() {
+    List<ARGState> states = buildARG();
+    for (int i = states.size() - 1; i > 0; i -= 3) {
+      states.get(i).removeFromARG();
+    }
+    return states.get(0).getChildren().size();
+  }
+}
@@ -0,0 +1,166 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsCache.CacheResult;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * Benchmark for {@link ConstraintsCache}. In the setup, a stream of queries is recorded as {@link
+ * ConstraintsSolver} would issue it during symbolic execution of a program with nested branches:
+ * each branch adds a literal over a small number of variables to the path constraints, and paths
+ * with contradicting literals are infeasible and not explored further. The benchmark replays this
+ * stream against a fresh cache and adds the recorded result whenever the cache cannot answer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstraintsCacheBenchmark {
+
+  private static final class Query {
+    private final ImmutableSet<BooleanFormula> constraints;
+    private final boolean isUnsat;
+
+    private Query(ImmutableSet<BooleanFormula> pConstraints, boolean pIsUnsat) {
+      constraints = pConstraints;
+      isUnsat = pIsUnsat;
+    }
+  }
+
+  /** Maximal number of nested branches on a path. */
+  @Param({"12", "16"})
+  public int depth;
+
+  /** Number of variables that occur in branch conditions. */
+  @Param({"24"})
+  public int variables;
+
+  @Param({"0", "1000"})
+  public int cacheSize;
+
+  private Solver solver;
+  private ImmutableList<Query> stream;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration config = BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL).build();
+    solver =
+        Solver.create(config, LogManager.createNullLogManager(), ShutdownNotifier.createDummy());
+    BooleanFormulaManagerView bfmgr = solver.getFormulaManager().getBooleanFormulaManager();
+
+    List<BooleanFormula> vars = new ArrayList<>(variables);
+    for (int i = 0; i < variables; i++) {
+      vars.add(bfmgr.makeVariable("x" + i));
+    }
+    Random random = new Random(0);
+    int[] branchVariables = new int[depth];
+    for (int i = 0; i < depth; i++) {
+      branchVariables[i] = random.nextInt(variables);
+    }
+
+    ImmutableList.Builder<Query> queries = ImmutableList.builder();
+    recordQueries(
+        bfmgr,
+        vars,
+        branchVariables,
+        0,
+        new boolean[variables],
+        new boolean[variables],
+        ImmutableSet.of(),
+        queries);
+    stream = queries.build();
+  }
+
+  /** Explore both branches at the given depth and record a query for each of them. */
+  private void recordQueries(
+      BooleanFormulaManagerView pBfmgr,
+      List<BooleanFormula> pVars,
+      int[] pBranchVariables,
+      int pDepth,
+      boolean[] pAssigned,
+      boolean[] pValues,
+      ImmutableSet<BooleanFormula> pPath,
+      ImmutableList.Builder<Query> pQueries) {
+    if (pDepth == depth) {
+      return;
+    }
+    int var = pBranchVariables[pDepth];
+    for (boolean value : new boolean[] {true, false}) {
+      BooleanFormula literal = value ? pVars.get(var) : pBfmgr.not(pVars.get(var));
+      ImmutableSet<BooleanFormula> path =
+          ImmutableSet.<BooleanFormula>builder().addAll(pPath).add(literal).build();
+      boolean isUnsat = pAssigned[var] && pValues[var] != value;
+      pQueries.add(new Query(path, isUnsat));
+
+      if (!isUnsat) {
+        boolean wasAssigned = pAssigned[var];
+        pAssigned[var] = true;
+        pValues[var] = value;
+        recordQueries(
+            pBfmgr, pVars, pBranchVariables, pDepth + 1, pAssigned, pValues, path, pQueries);
+        pAssigned[var] = wasAssigned;
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    solver.close();
+  }
+
+  @Benchmark
+  public int replayStream() {
+    ConstraintsCache cache =
+        ConstraintsCache.create(true, true, cacheSize, new ConstraintsStatistics());
+    int unsat = 0;
+    for (Query query : stream) {
+      CacheResult result = cache.getCachedResult(query.constraints);
+      if (result.isUnsat()) {
+        unsat++;
+      } else if (!result.isSat()) {
+        if (query.isUnsat) {
+          cache.addUnsat(query.constraints);
+          unsat++;
+        } else {
+          cache.addSat(query.constraints, ImmutableList.of());
+        }
+      }
+    }
+    return unsat;
+  }
+}
@@ -0,0 +1,128 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the arithmetic operations of {@link CompoundBitVectorInterval} on operands that
+ * consist of several disjoint intervals, as they occur after joining branches.
+ *
+ * <p>Bit vectors of up to 63 bits (unsigned) or 64 bits (signed) use long arithmetic, the others
+ * use BigInteger arithmetic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompoundBitVectorIntervalBenchmark {
+
+  @Param({"32", "64", "128"})
+  public int size;
+
+  @Param({"true", "false"})
+  public boolean signed;
+
+  @Param({"false"})
+  public boolean allowSignedWrapAround;
+
+  private CompoundBitVectorInterval left;
+  private CompoundBitVectorInterval right;
+  private CompoundBitVectorInterval shiftDistance;
+  private BitVectorInfo castTarget;
+
+  @Setup
+  public void setup() {
+    BitVectorInfo info = BitVectorInfo.from(size, signed);
+    left =
+        compound(info, signed ? -100 : 100, 200)
+            .unionWith(compound(info, 300, 310))
+            .unionWith(compound(info, 1000, 1 << 20));
+    right =
+        compound(info, 1, 7)
+            .unionWith(compound(info, 16, 16))
+            .unionWith(compound(info, 64, 1 << 10));
+    shiftDistance = compound(info, 1, 3);
+    castTarget = BitVectorInfo.from(2 * size, signed);
+  }
+
+  private static CompoundBitVectorInterval compound(BitVectorInfo pInfo, long pLow, long pHigh) {
+    return CompoundBitVectorInterval.of(
+        BitVectorInterval.of(pInfo, BigInteger.valueOf(pLow), BigInteger.valueOf(pHigh)));
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval add() {
+    return left.add(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval multiply() {
+    return left.multiply(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval divide() {
+    return left.divide(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval modulo() {
+    return left.modulo(right, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval shiftLeft() {
+    return left.shiftLeft(shiftDistance, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval shiftRight() {
+    return left.shiftRight(shiftDistance, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval negate() {
+    return left.negate(allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval cast() {
+    return left.cast(castTarget, allowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return left.contains(right);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval unionWith() {
+    return left.unionWith(right);
+  }
+
+  @Benchmark
+  public CompoundBitVectorInterval intersectWith() {
+    return left.intersectWith(right);
+  }
+}
@@ -0,0 +1,101 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmark for {@link InvariantsTransferRelation} along a path through a program, with all
+ * variables being tracked. Most of the time is spent in the arithmetic of {@link
+ * CompoundBitVectorInterval}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvariantsTransferRelationBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  private TransferRelation transferRelation;
+  private AbstractState initialState;
+  private Precision precision;
+  private ImmutableList<CFAEdge> path;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration config =
+        BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL)
+            .setOption("cpa.invariants.analyzeTargetPathsOnly", "false")
+            .setOption("cpa.invariants.analyzeRelevantVariablesOnly", "false")
+            .setOption("cpa.invariants.interestingVariableLimit", "-1")
+            .build();
+    CFA cfa = BenchmarkFixtures.parseProgram(config, program);
+    path = BenchmarkFixtures.straightLinePath(cfa);
+
+    InvariantsCPA cpa =
+        (InvariantsCPA)
+            InvariantsCPA.factory()
+                .setConfiguration(config)
+                .setLogger(LogManager.createNullLogManager())
+                .setShutdownNotifier(ShutdownNotifier.createDummy())
+                .set(cfa, CFA.class)
+                .set(Specification.alwaysSatisfied(), Specification.class)
+                .createInstance();
+    transferRelation = cpa.getTransferRelation();
+    initialState =
+        cpa.getInitialState(cfa.getMainFunction(), StateSpacePartition.getDefaultPartition());
+    precision =
+        cpa.getInitialPrecision(cfa.getMainFunction(), StateSpacePartition.getDefaultPartition());
+  }
+
+  @Benchmark
+  public AbstractState successorsAlongPath() throws CPATransferException, InterruptedException {
+    AbstractState state = initialState;
+    for (CFAEdge edge : path) {
+      Collection<? extends AbstractState> successors =
+          transferRelation.getAbstractSuccessorsForEdge(state, precision, edge);
+      if (successors.isEmpty()) {
+        break;
+      }
+      state = Iterables.getOnlyElement(successors);
+    }
+    return state;
+  }
+}
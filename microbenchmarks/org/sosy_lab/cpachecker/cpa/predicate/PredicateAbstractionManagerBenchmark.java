@@ -0,0 +1,137 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.regions.SymbolicRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Benchmark for {@link PredicateAbstractionManager#buildAbstraction}. The block formula is the
+ * encoding of a path through a program, and the predicates are all atoms of this formula.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateAbstractionManagerBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  @Param({"SMTINTERPOL"})
+  public Solvers solverToUse;
+
+  /** Without the cache each invocation computes the abstraction from scratch. */
+  @Param({"false"})
+  public boolean useCache;
+
+  private Solver solver;
+  private PredicateAbstractionManager pamgr;
+  private CFANode location;
+  private PathFormula blockFormula;
+  private ImmutableList<AbstractionPredicate> predicates;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration config =
+        BenchmarkFixtures.configurationFor(solverToUse)
+            .setOption("cpa.predicate.abs.useCache", Boolean.toString(useCache))
+            .build();
+    LogManager logger = LogManager.createNullLogManager();
+    ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+    CFA cfa = BenchmarkFixtures.parseProgram(config, program);
+
+    solver = Solver.create(config, logger, shutdownNotifier);
+    FormulaManagerView fmgr = solver.getFormulaManager();
+    PathFormulaManager pfmgr =
+        new PathFormulaManagerImpl(
+            fmgr, config, logger, shutdownNotifier, cfa, AnalysisDirection.FORWARD);
+    AbstractionManager amgr =
+        new AbstractionManager(new SymbolicRegionManager(solver), config, logger, solver);
+    PredicateAbstractionManagerOptions options = new PredicateAbstractionManagerOptions(config);
+    PredicateAbstractionsStorage abstractionStorage =
+        new PredicateAbstractionsStorage(options.getReuseAbstractionsFrom(), logger, fmgr, null);
+    pamgr =
+        new PredicateAbstractionManager(
+            amgr,
+            pfmgr,
+            solver,
+            options,
+            new WeakeningOptions(config),
+            abstractionStorage,
+            null,
+            logger,
+            shutdownNotifier,
+            new PredicateAbstractionStatistics(),
+            TrivialInvariantSupplier.INSTANCE);
+
+    ImmutableList<CFAEdge> path = BenchmarkFixtures.straightLinePath(cfa);
+    PathFormula pf = pfmgr.makeEmptyPathFormula();
+    for (CFAEdge edge : path) {
+      pf = pfmgr.makeAnd(pf, edge);
+    }
+    blockFormula = pf;
+    location = path.isEmpty() ? cfa.getMainFunction() : path.get(path.size() - 1).getSuccessor();
+
+    ImmutableList.Builder<AbstractionPredicate> preds = ImmutableList.builder();
+    for (BooleanFormula atom : fmgr.extractAtoms(fmgr.uninstantiate(pf.getFormula()), false)) {
+      preds.add(amgr.makePredicate(atom));
+    }
+    predicates = preds.build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    solver.close();
+  }
+
+  @Benchmark
+  public AbstractionFormula buildAbstraction() throws SolverException, InterruptedException {
+    return pamgr.buildAbstraction(
+        location, Optional.empty(), blockFormula.getFormula(), blockFormula, predicates);
+  }
+}
@@ -0,0 +1,116 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgePointsTo;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGRegion;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGKnownSymValue;
+import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGValue;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmarks for inserting edges into a {@link CLangSMG}. There is one heap object per variable
+ * declared in a program, and each object contains a pointer to the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CLangSMGBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  private MachineModel machineModel;
+  private List<SMGRegion> objects;
+  private List<SMGValue> pointers;
+  private CLangSMG populated;
+
+  @Setup
+  public void setup() throws Exception {
+    CFA cfa =
+        BenchmarkFixtures.parseProgram(
+            BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL).build(), program);
+    machineModel = cfa.getMachineModel();
+    long pointerSize = machineModel.getSizeofPtrInBits();
+
+    objects = new ArrayList<>();
+    pointers = new ArrayList<>();
+    for (CVariableDeclaration decl : BenchmarkFixtures.variableDeclarations(cfa)) {
+      // each object has room for two pointers, the second one is written by copyAndInsertEdge()
+      BigInteger size = machineModel.getSizeofInBits(decl.getType());
+      objects.add(
+          new SMGRegion(
+              Math.max(size.longValueExact(), 2 * pointerSize), decl.getQualifiedName()));
+      pointers.add(SMGKnownSymValue.valueOf(pointers.size() + 1));
+    }
+
+    checkState(!objects.isEmpty(), "Program %s declares no variables", program);
+
+    populated = new CLangSMG(machineModel);
+    insertEdges(populated);
+  }
+
+  private void insertEdges(CLangSMG pSmg) {
+    long pointerSize = machineModel.getSizeofPtrInBits();
+    for (int i = 0; i < objects.size(); i++) {
+      SMGRegion object = objects.get(i);
+      SMGValue pointer = pointers.get(i);
+      pSmg.addHeapObject(object);
+      pSmg.addValue(pointer);
+      pSmg.addPointsToEdge(new SMGEdgePointsTo(pointer, object, 0));
+      SMGValue next = pointers.get((i + 1) % pointers.size());
+      pSmg.addHasValueEdge(new SMGEdgeHasValue(pointerSize, 0, object, next));
+    }
+  }
+
+  @Benchmark
+  public CLangSMG insertIntoEmptySMG() {
+    CLangSMG smg = new CLangSMG(machineModel);
+    insertEdges(smg);
+    return smg;
+  }
+
+  @Benchmark
+  public CLangSMG copyAndInsertEdge() {
+    CLangSMG smg = populated.copyOf();
+    SMGRegion object = objects.get(0);
+    smg.addHasValueEdge(
+        new SMGEdgeHasValue(
+            machineModel.getSizeofPtrInBits(),
+            machineModel.getSizeofPtrInBits(),
+            object,
+            pointers.get(0)));
+    return smg;
+  }
+}
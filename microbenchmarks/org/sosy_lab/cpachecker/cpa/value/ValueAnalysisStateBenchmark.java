@@ -0,0 +1,135 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmarks for copying, assigning, and comparing {@link ValueAnalysisState}s that contain a value
+ * for each variable declared in a program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueAnalysisStateBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  private MachineModel machineModel;
+  private ImmutableList<CVariableDeclaration> variables;
+
+  private ValueAnalysisState full;
+  private ValueAnalysisState fullCopy;
+  private ValueAnalysisState fullInterned;
+  private ValueAnalysisState half;
+
+  @Setup
+  public void setup() throws Exception {
+    CFA cfa =
+        BenchmarkFixtures.parseProgram(
+            BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL).build(), program);
+    machineModel = cfa.getMachineModel();
+    variables = BenchmarkFixtures.variableDeclarations(cfa);
+
+    full = assignAll(1);
+    fullCopy = assignAll(1); // equal, but does not share the map with full
+    fullInterned = assignAll(1);
+    ValueAnalysisStateInterner interner =
+        new ValueAnalysisStateInterner(new StatCounter("hash-consed states"));
+    CFANode location = cfa.getMainFunction();
+    interner.intern(full, location);
+    interner.intern(fullInterned, location); // shares the map with full
+    half = new ValueAnalysisState(machineModel);
+    for (int i = 0; i < variables.size(); i += 2) {
+      CVariableDeclaration decl = variables.get(i);
+      half.assignConstant(
+          MemoryLocation.fromQualifiedName(decl.getQualifiedName()),
+          new NumericValue(1),
+          decl.getType());
+    }
+  }
+
+  private ValueAnalysisState assignAll(long pValue) {
+    ValueAnalysisState state = new ValueAnalysisState(machineModel);
+    for (CVariableDeclaration decl : variables) {
+      state.assignConstant(
+          MemoryLocation.fromQualifiedName(decl.getQualifiedName()),
+          new NumericValue(pValue),
+          decl.getType());
+    }
+    return state;
+  }
+
+  @Benchmark
+  public ValueAnalysisState copy() {
+    return ValueAnalysisState.copyOf(full);
+  }
+
+  @Benchmark
+  public ValueAnalysisState assign() {
+    return assignAll(2);
+  }
+
+  @Benchmark
+  public ValueAnalysisState copyAndReassign() {
+    ValueAnalysisState state = ValueAnalysisState.copyOf(full);
+    for (CVariableDeclaration decl : variables) {
+      state.assignConstant(
+          MemoryLocation.fromQualifiedName(decl.getQualifiedName()),
+          new NumericValue(2),
+          decl.getType());
+    }
+    return state;
+  }
+
+  @Benchmark
+  public boolean isLessOrEqualEqualStates() {
+    return full.isLessOrEqual(fullCopy);
+  }
+
+  @Benchmark
+  public boolean isLessOrEqualHashConsedStates() {
+    return full.isLessOrEqual(fullInterned);
+  }
+
+  @Benchmark
+  public boolean isLessOrEqualSubsumed() {
+    return full.isLessOrEqual(half);
+  }
+
+  @Benchmark
+  public boolean isLessOrEqualNotSubsumed() {
+    return half.isLessOrEqual(full);
+  }
+}
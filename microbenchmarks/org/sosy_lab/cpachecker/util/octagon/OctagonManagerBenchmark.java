@@ -0,0 +1,118 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the native and the Java implementation of {@link OctagonManager} (integers).
+ * The octagons relate each variable only to its neighbors, like the octagons of a typical program
+ * where most variables are independent of each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1) // the native library can only be loaded once per JVM
+public class OctagonManagerBenchmark {
+
+  @Param({"NATIVE", "JAVA", "JAVA_SPARSE"})
+  public String implementation;
+
+  @Param({"10", "50"})
+  public int variables;
+
+  private OctagonManager manager;
+  private Octagon chain;
+  private Octagon shiftedChain;
+
+  @Setup
+  public void setup() {
+    switch (implementation) {
+      case "NATIVE":
+        manager = new OctagonIntManager();
+        break;
+      case "JAVA":
+        manager = new JavaOctagonManager(true, false);
+        break;
+      case "JAVA_SPARSE":
+        manager = new JavaOctagonManager(true, true);
+        break;
+      default:
+        throw new AssertionError(implementation);
+    }
+    chain = createChain(0);
+    shiftedChain = createChain(1);
+  }
+
+  /** 0 <= x_0 <= 10 + offset and x_i - x_(i+1) <= 1 for all i */
+  private Octagon createChain(int offset) {
+    Octagon result = manager.universe(variables);
+    result = addBinConstraint(result, 0, 0, 0, 10 + offset); // x_0 <= 10 + offset
+    result = addBinConstraint(result, 1, 0, 0, 0); // -x_0 <= 0
+    for (int i = 0; i + 1 < variables; i++) {
+      result = addBinConstraint(result, 3, i, i + 1, 1); // x_i - x_(i+1) <= 1
+    }
+    return result;
+  }
+
+  /** Add one constraint like OctagonState does. */
+  private Octagon addBinConstraint(Octagon pOctagon, int pType, int pX, int pY, long pC) {
+    NumArray constraint = manager.init_num_t(4);
+    manager.num_set_int(constraint, 0, pType);
+    manager.num_set_int(constraint, 1, pX);
+    manager.num_set_int(constraint, 2, pY);
+    manager.num_set_int(constraint, 3, pC);
+    Octagon result = manager.addBinConstraint(pOctagon, 1, constraint);
+    manager.num_clear_n(constraint, 4);
+    return result;
+  }
+
+  /** Assign x_i := x_i + 1 to all variables and ask for the bounds, like in a loop body. */
+  @Benchmark
+  public Octagon assignments() {
+    NumArray assignment = manager.init_num_t(variables + 1);
+    Octagon result = chain;
+    for (int i = 0; i < variables; i++) {
+      for (int j = 0; j <= variables; j++) {
+        manager.num_set_int(assignment, j, (j == i || j == variables) ? 1 : 0);
+      }
+      result = manager.assingVar(result, i, assignment);
+    }
+    manager.getVariableBounds(result, variables - 1);
+    manager.num_clear_n(assignment, variables + 1);
+    return result;
+  }
+
+  /** Intersect two octagons, which needs a full closure for checking emptiness. */
+  @Benchmark
+  public boolean intersectionAndClosure() {
+    return manager.isEmpty(manager.intersection(chain, shiftedChain));
+  }
+
+  /** Join, widen, and check inclusion, like at a loop head. */
+  @Benchmark
+  public boolean joinAndWiden() {
+    Octagon join = manager.union(chain, shiftedChain);
+    Octagon widened = manager.widening(chain, join);
+    return manager.isIncludedIn(join, widened);
+  }
+}
@@ -0,0 +1,96 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmark for {@link PathFormulaManagerImpl#makeAnd(PathFormula, CFAEdge)}, which encodes the
+ * edges of a path through a program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFormulaManagerBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  @Param({"SMTINTERPOL"})
+  public Solvers solverToUse;
+
+  @Param({"true", "false"})
+  public boolean handlePointerAliasing;
+
+  private Solver solver;
+  private PathFormulaManager pfmgr;
+  private ImmutableList<CFAEdge> path;
+
+  @Setup
+  public void setup() throws Exception {
+    Configuration config =
+        BenchmarkFixtures.configurationFor(solverToUse)
+            .setOption(
+                "cpa.predicate.handlePointerAliasing", Boolean.toString(handlePointerAliasing))
+            .build();
+    LogManager logger = LogManager.createNullLogManager();
+    CFA cfa = BenchmarkFixtures.parseProgram(config, program);
+    path = BenchmarkFixtures.straightLinePath(cfa);
+
+    solver = Solver.create(config, logger, ShutdownNotifier.createDummy());
+    pfmgr =
+        new PathFormulaManagerImpl(
+            solver.getFormulaManager(),
+            config,
+            logger,
+            ShutdownNotifier.createDummy(),
+            cfa,
+            AnalysisDirection.FORWARD);
+  }
+
+  @TearDown
+  public void tearDown() {
+    solver.close();
+  }
+
+  @Benchmark
+  public PathFormula makeAndAlongPath() throws CPATransferException, InterruptedException {
+    PathFormula pf = pfmgr.makeEmptyPathFormula();
+    for (CFAEdge edge : path) {
+      pf = pfmgr.makeAnd(pf, edge);
+    }
+    return pf;
+  }
+}
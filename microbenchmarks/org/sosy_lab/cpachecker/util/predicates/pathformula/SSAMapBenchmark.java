@@ -0,0 +1,101 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.collect.MapsDifference;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+import org.sosy_lab.cpachecker.util.test.BenchmarkFixtures;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Benchmarks for building and merging {@link SSAMap}s, using the variables declared in a program
+ * as keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SSAMapBenchmark {
+
+  @Param({BenchmarkFixtures.SMALL_PROGRAM, BenchmarkFixtures.LARGE_PROGRAM})
+  public String program;
+
+  private Map<String, CType> variables;
+  private SSAMap ssa1;
+  private SSAMap ssa2;
+
+  @Setup
+  public void setup() throws Exception {
+    CFA cfa =
+        BenchmarkFixtures.parseProgram(
+            BenchmarkFixtures.configurationFor(Solvers.SMTINTERPOL).build(), program);
+    variables = new LinkedHashMap<>();
+    for (CVariableDeclaration decl : BenchmarkFixtures.variableDeclarations(cfa)) {
+      variables.putIfAbsent(decl.getQualifiedName(), decl.getType());
+    }
+
+    ssa1 = buildMap();
+    // the second map differs in every other variable, as after a branching
+    SSAMapBuilder builder = ssa1.builder();
+    int i = 0;
+    for (Entry<String, CType> var : variables.entrySet()) {
+      if (i++ % 2 == 0) {
+        builder.setIndex(var.getKey(), var.getValue(), builder.getIndex(var.getKey()) + 1);
+      }
+    }
+    ssa2 = builder.build();
+  }
+
+  private SSAMap buildMap() {
+    SSAMapBuilder builder = SSAMap.emptySSAMap().builder();
+    for (Entry<String, CType> var : variables.entrySet()) {
+      builder.setIndex(var.getKey(), var.getValue(), 1);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public SSAMap build() {
+    return buildMap();
+  }
+
+  @Benchmark
+  public SSAMap incrementAll() {
+    SSAMapBuilder builder = ssa1.builder();
+    for (Entry<String, CType> var : variables.entrySet()) {
+      builder.setIndex(var.getKey(), var.getValue(), builder.getIndex(var.getKey()) + 1);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public SSAMap merge() {
+    return SSAMap.merge(ssa1, ssa2, MapsDifference.ignoreMapsDifference());
+  }
+}
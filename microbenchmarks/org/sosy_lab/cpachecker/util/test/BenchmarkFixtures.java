@@ -0,0 +1,114 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.test;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+
+/**
+ * Helper methods for the JMH microbenchmarks that provide realistic inputs by parsing programs
+ * from <code>test/programs</code>. Paths are relative to the CPAchecker directory, which is the
+ * working directory when the benchmarks are started with <code>ant run-microbenchmarks</code>.
+ */
+public final class BenchmarkFixtures {
+
+  /** Programs that are used as default fixture by the benchmarks that analyze a CFA. */
+  public static final String SMALL_PROGRAM = "test/programs/simple/SynchronousSimulator.c";
+
+  public static final String LARGE_PROGRAM = "test/programs/simple/pointerAnalysis.cil.c";
+
+  private BenchmarkFixtures() {}
+
+  /**
+   * Create a configuration for benchmarks (writing output files is disabled) that selects the
+   * given SMT solver and theories supported by it.
+   *
+   * @return A {@link ConfigurationBuilder} which can be further modified and then can be used to
+   *     {@link ConfigurationBuilder#build()} a {@link Configuration} object.
+   */
+  public static ConfigurationBuilder configurationFor(Solvers pSolver)
+      throws InvalidConfigurationException {
+    ConfigurationBuilder builder =
+        TestDataTools.configurationForTest().setOption("solver.solver", pSolver.name());
+    switch (pSolver) {
+      case SMTINTERPOL:
+        builder.setOption("cpa.predicate.encodeBitvectorAs", "INTEGER");
+        builder.setOption("cpa.predicate.encodeFloatAs", "RATIONAL");
+        break;
+      case PRINCESS:
+        builder.setOption("cpa.predicate.encodeBitvectorAs", "INTEGER");
+        builder.setOption("cpa.predicate.encodeFloatAs", "INTEGER");
+        break;
+      default:
+        builder.setOption("cpa.predicate.encodeBitvectorAs", "BITVECTOR");
+        builder.setOption("cpa.predicate.encodeFloatAs", "FLOAT");
+    }
+    return builder;
+  }
+
+  /** Parse the given program file and create its CFA. */
+  public static CFA parseProgram(Configuration pConfig, String pProgram)
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
+    CFACreator creator =
+        new CFACreator(pConfig, LogManager.createNullLogManager(), ShutdownNotifier.createDummy());
+    return creator.parseFileAndCreateCFA(ImmutableList.of(pProgram));
+  }
+
+  /** Return the declarations of all variables (global and local) of a CFA. */
+  public static ImmutableList<CVariableDeclaration> variableDeclarations(CFA pCfa) {
+    ImmutableList.Builder<CVariableDeclaration> result = ImmutableList.builder();
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        if (edge instanceof CDeclarationEdge
+            && ((CDeclarationEdge) edge).getDeclaration() instanceof CVariableDeclaration) {
+          result.add((CVariableDeclaration) ((CDeclarationEdge) edge).getDeclaration());
+        }
+      }
+    }
+    return result.build();
+  }
+
+  /**
+   * Return the edges of a path through the program that starts at the main function and always
+   * follows the first leaving edge. Function calls are skipped by following the summary edge, and
+   * the path ends at the first node that is visited twice or has no leaving edges.
+   */
+  public static ImmutableList<CFAEdge> straightLinePath(CFA pCfa) {
+    ImmutableList.Builder<CFAEdge> result = ImmutableList.builder();
+    Set<CFANode> visited = new HashSet<>();
+    CFANode node = pCfa.getMainFunction();
+    while (visited.add(node) && node.getNumLeavingEdges() > 0) {
+      CFAEdge edge = node.getLeavingEdge(0);
+      if (edge instanceof FunctionCallEdge) {
+        node = node.getLeavingSummaryEdge().getSuccessor();
+      } else {
+        result.add(edge);
+        node = edge.getSuccessor();
+      }
+    }
+    return result.build();
+  }
+}
@@ -10,11 +10,16 @@ package org.sosy_lab.cpachecker.cfa;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -31,11 +36,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -98,6 +106,7 @@ import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.ParallelMapper;
 import org.sosy_lab.cpachecker.util.cwriter.CFAToCTranslator;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
@@ -269,6 +278,16 @@ public class CFACreator {
           + "identical CFAs for each function, only with different names.")
   private boolean useCFACloningForMultiThreadedPrograms = false;
 
+  @Option(
+      secure = true,
+      name = "cfa.constructionThreads",
+      description =
+          "number of threads for the parts of the CFA construction that can be done in parallel"
+              + " (simplification and analysis of each function), 0 for the number of available"
+              + " processors. The CFA is the same for every value.")
+  @IntegerOption(min = 0)
+  private int threads = 1;
+
   @Option(secure=true, name="cfa.findLiveVariables",
           description="By enabling this option the variables that are live are"
               + " computed for each edge of the cfa. Live means that their value"
@@ -292,8 +311,10 @@ public class CFACreator {
   private final List<FileLocation> commentPositions = new ArrayList<>();
   private final List<SyntacticBlock> blocks = new ArrayList<>();
 
+  private static final int SERIALIZATION_BUFFER_SIZE = 1 << 16;
+
   private final LogManager logger;
-  private final Parser parser;
+  private @Nullable Parser parser = null;
   private final ShutdownNotifier shutdownNotifier;
   private static final String EXAMPLE_JAVA_METHOD_NAME =
       "Please note that a method has to be given in the following notation:\n <ClassName>_"
@@ -304,10 +325,18 @@ public class CFACreator {
 
     private final Timer parserInstantiationTime = new Timer();
     private final Timer totalTime = new Timer();
-    private Timer parsingTime;
-    private Timer conversionTime;
+    private final Timer deserializationTime = new Timer();
+    private @Nullable Timer parsingTime;
+    private @Nullable Timer conversionTime;
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
+    private final Timer simplificationTime = new Timer();
+    private final Timer functionPointerTime = new Timer();
+    private final Timer reversePostorderTime = new Timer();
+    private final Timer loopStructureTime = new Timer();
+    private final Timer callEdgesTime = new Timer();
+    private final Timer variableClassificationTime = new Timer();
+    private final Timer liveVariablesTime = new Timer();
     private final Timer exportTime = new Timer();
     private final List<Statistics> statisticsCollection;
     private final LogManager logger;
@@ -324,12 +353,26 @@ public class CFACreator {
 
     @Override
     public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
-      out.println("  Time for loading parser:    " + parserInstantiationTime);
+      if (parsingTime != null) {
+        out.println("  Time for loading parser:    " + parserInstantiationTime);
+      }
       out.println("  Time for CFA construction:  " + totalTime);
-      out.println("    Time for parsing file(s): " + parsingTime);
-      out.println("    Time for AST to CFA:      " + conversionTime);
+      if (deserializationTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for deserialization: " + deserializationTime);
+      }
+      if (parsingTime != null) {
+        out.println("    Time for parsing file(s): " + parsingTime);
+        out.println("    Time for AST to CFA:      " + conversionTime);
+      }
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
+      printTimer(out, "      Time for simplification:        ", simplificationTime);
+      printTimer(out, "      Time for function pointers:     ", functionPointerTime);
+      printTimer(out, "      Time for reverse postorder:     ", reversePostorderTime);
+      printTimer(out, "      Time for loop structure:        ", loopStructureTime);
+      printTimer(out, "      Time for call edges:            ", callEdgesTime);
+      printTimer(out, "      Time for variable classification:", variableClassificationTime);
+      printTimer(out, "      Time for live variables:        ", liveVariablesTime);
 
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
@@ -340,6 +383,12 @@ public class CFACreator {
       }
     }
 
+    private static void printTimer(PrintStream out, String label, Timer timer) {
+      if (timer.getNumberOfIntervals() > 0) {
+        out.println(label + timer);
+      }
+    }
+
     @Override
     public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
       for (Statistics st : statisticsCollection) {
@@ -351,6 +400,12 @@ public class CFACreator {
   private final CFACreatorStatistics stats;
   private final Configuration config;
 
+  /** The language of the input program, which differs from {@link #language} for LLVM. */
+  private final Language inputLanguage;
+
+  /** The names of the programs that are parsed, as given by the user. */
+  private ImmutableList<String> programNames = ImmutableList.of();
+
   public CFACreator(Configuration config, LogManager logger, ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
 
@@ -360,8 +415,11 @@ public class CFACreator {
     this.logger = logger;
     this.shutdownNotifier = pShutdownNotifier;
     this.stats = new CFACreatorStatistics(logger);
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
 
-    stats.parserInstantiationTime.start();
+    inputLanguage = language;
     String regExPattern;
     switch (language) {
       case JAVA:
@@ -370,7 +428,6 @@ public class CFACreator {
           throw new InvalidConfigurationException(
               "Entry function for java programs must match pattern " + regExPattern);
         }
-        parser = Parsers.getJavaParser(logger, config, mainFunctionName);
         break;
       case C:
         regExPattern = "^" + VALID_C_FUNCTION_NAME_PATTERN + "$";
@@ -378,6 +435,29 @@ public class CFACreator {
           throw new InvalidConfigurationException(
               "Entry function for c programs must match pattern " + regExPattern);
         }
+        break;
+      case LLVM:
+        language = Language.C; // After parsing we will have a CFA representing C code
+        break;
+
+      default:
+        throw new AssertionError();
+    }
+
+    // Loading the parser is delayed until it is needed, because a serialized CFA may be used.
+  }
+
+  private Parser getParser() throws InvalidConfigurationException {
+    if (parser != null) {
+      return parser;
+    }
+
+    stats.parserInstantiationTime.start();
+    switch (inputLanguage) {
+      case JAVA:
+        parser = Parsers.getJavaParser(logger, config, mainFunctionName);
+        break;
+      case C:
         CParser outerParser =
             CParser.Factory.getParser(
                 logger, CParser.Factory.getOptions(config), machineModel, shutdownNotifier);
@@ -404,7 +484,6 @@ public class CFACreator {
         break;
       case LLVM:
         parser = Parsers.getLlvmParser(logger, machineModel);
-        language = Language.C; // After parsing we will have a CFA representing C code
         break;
 
       default:
@@ -415,6 +494,29 @@ public class CFACreator {
     stats.conversionTime = parser.getCFAConstructionTime();
 
     stats.parserInstantiationTime.stop();
+    return parser;
+  }
+
+  /**
+   * Create the preprocessor that is run on the programs before parsing, or return null if the
+   * parser reads the programs directly.
+   */
+  private @Nullable Preprocessor createPreprocessor() throws InvalidConfigurationException {
+    if (inputLanguage != Language.C) {
+      return null;
+    } else if (useClang) {
+      return new ClangPreprocessor(config, logger);
+    } else if (usePreprocessor) {
+      return new CPreprocessor(config, logger);
+    }
+    return null;
+  }
+
+  /** The preprocessor as input for {@link CFASerializationHeader}. */
+  private CFASerializationHeader.@Nullable TranslationUnitReader getTranslationUnitReader()
+      throws InvalidConfigurationException {
+    Preprocessor preprocessor = createPreprocessor();
+    return preprocessor == null ? null : preprocessor::preprocess;
   }
 
   /**
@@ -460,6 +562,8 @@ public class CFACreator {
 
     stats.totalTime.start();
     try {
+      programNames = ImmutableList.copyOf(sourceFiles);
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -498,6 +602,64 @@ public class CFACreator {
     }
   }
 
+  /**
+   * Read a CFA that was written with option cfa.serialize, if it was created for the given
+   * programs and the current configuration, i.e., if the programs and their headers were not
+   * changed since then and the machine model and all options that influence the CFA are the same.
+   *
+   * @param pFile The file that contains the serialized CFA.
+   * @param sourceFiles The programs that would be parsed otherwise.
+   * @return The CFA, or an empty Optional if it cannot be used (the reason is logged).
+   * @throws InvalidConfigurationException If the preprocessor cannot be created.
+   */
+  public Optional<CFA> readSerializedCFA(Path pFile, List<String> sourceFiles)
+      throws InvalidConfigurationException, InterruptedException {
+    if (!Files.isReadable(pFile)) {
+      logger.log(Level.INFO, "No serialized CFA found in", pFile, ", parsing program.");
+      return Optional.empty();
+    }
+
+    logger.log(Level.FINE, "Reading serialized CFA from", pFile);
+    programNames = ImmutableList.copyOf(sourceFiles);
+    stats.totalTime.start();
+    stats.deserializationTime.start();
+    try (InputStream inputStream = Files.newInputStream(pFile);
+        InputStream gzipInputStream = new GZIPInputStream(inputStream, SERIALIZATION_BUFFER_SIZE);
+        ObjectInputStream ois =
+            new ObjectInputStream(
+                new BufferedInputStream(gzipInputStream, SERIALIZATION_BUFFER_SIZE))) {
+
+      CFASerializationHeader header = (CFASerializationHeader) ois.readObject();
+      String mismatch =
+          header.findMismatch(programNames, machineModel, config, getTranslationUnitReader());
+      if (mismatch != null) {
+        logger.log(
+            Level.INFO, "Cannot use serialized CFA from", pFile, "because", mismatch + ".");
+        return Optional.empty();
+      }
+      shutdownNotifier.shutdownIfNecessary();
+
+      CFA cfa = (CFA) ois.readObject();
+      CFANode.reserveNodeNumbers(cfa.getAllNodes());
+      logger.log(
+          Level.INFO,
+          "Read CFA with",
+          cfa.getNumberOfFunctions(),
+          "functions from",
+          pFile,
+          ", parsing was skipped.");
+      return Optional.of(cfa);
+
+    } catch (IOException | ClassNotFoundException | ClassCastException | ParserException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not read serialized CFA, parsing program instead");
+      return Optional.empty();
+    } finally {
+      stats.deserializationTime.stop();
+      stats.totalTime.stop();
+    }
+  }
+
   @VisibleForTesting
   static FunctionEntryNode getJavaMainMethod(
       List<String> sourceFiles, String mainFunction, Map<String, FunctionEntryNode> cfas)
@@ -538,7 +700,20 @@ public class CFACreator {
                 "Method " + mainFunction + " not found.\n" + EXAMPLE_JAVA_METHOD_NAME));
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction)
+      throws InvalidConfigurationException, InterruptedException, ParserException {
+    try (ParallelMapper mapper = new ParallelMapper(threads, "CFA construction")) {
+      return createCFA(pParseResult, pMainFunction, mapper);
+    }
+  }
+
+  /**
+   * Create the CFA from the parse result. Passes that work on each function independently use the
+   * given mapper, all other passes are sequential.
+   */
+  private CFA createCFA(
+      ParseResult pParseResult, FunctionEntryNode pMainFunction, ParallelMapper pMapper)
+      throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -565,7 +740,7 @@ public class CFACreator {
     // SECOND, do those post-processings that change the CFA by adding/removing nodes/edges
     stats.processingTime.start();
 
-    cfa = postProcessingOnMutableCFAs(cfa, pParseResult.getGlobalDeclarations());
+    cfa = postProcessingOnMutableCFAs(cfa, pParseResult.getGlobalDeclarations(), pMapper);
 
     // Check CFA again after post-processings
     stats.checkTime.start();
@@ -578,15 +753,24 @@ public class CFACreator {
     // THIRD, do read-only post-processings on each single function CFA
 
     // Annotate CFA nodes with reverse postorder information for later use.
-    for (FunctionEntryNode function : cfa.getAllFunctionHeads()) {
-      CFAReversePostorder sorter = new CFAReversePostorder();
-      sorter.assignSorting(function);
-    }
+    // This changes only the nodes of each function, so functions can be handled in parallel.
+    stats.reversePostorderTime.start();
+    pMapper.map(
+        cfa.getAllFunctionHeads(),
+        function -> {
+          CFAReversePostorder sorter = new CFAReversePostorder();
+          sorter.assignSorting(function);
+          return function;
+        },
+        RuntimeException.class);
+    stats.reversePostorderTime.stop();
 
     // get loop information
     // (needs post-order information)
     if (useLoopStructure) {
-      addLoopStructure(cfa);
+      stats.loopStructureTime.start();
+      addLoopStructure(cfa, pMapper);
+      stats.loopStructureTime.stop();
     }
 
     // instrument the cfa, if any configuration regarding that is set (needs loop structure)
@@ -595,8 +779,10 @@ public class CFACreator {
     // FOURTH, insert call and return edges and build the supergraph
     if (interprocedural) {
       logger.log(Level.FINE, "Analysis is interprocedural, adding super edges.");
+      stats.callEdgesTime.start();
       CFASecondPassBuilder spbuilder = new CFASecondPassBuilder(cfa, language, logger, config);
       spbuilder.insertCallEdgesRecursively();
+      stats.callEdgesTime.stop();
     }
 
     // FIFTH, do post-processings on the supergraph
@@ -611,12 +797,15 @@ public class CFACreator {
     // Get information about variables, needed for some analysis.
     final Optional<VariableClassification> varClassification;
     if (language == Language.C) {
+      stats.variableClassificationTime.start();
       try {
         VariableClassificationBuilder builder = new VariableClassificationBuilder(config, logger);
         varClassification = Optional.of(builder.build(cfa));
         builder.collectStatistics(stats.statisticsCollection);
       } catch (UnrecognizedCodeException e) {
         throw new CParserException(e);
+      } finally {
+        stats.variableClassificationTime.stop();
       }
     } else {
       varClassification = Optional.empty();
@@ -625,10 +814,12 @@ public class CFACreator {
     // create the live variables if the variable classification is present
     if (findLiveVariables &&
         (varClassification.isPresent() || cfa.getLanguage() != Language.C)) {
+      stats.liveVariablesTime.start();
       cfa.setLiveVariables(LiveVariables.create(varClassification,
                                                 pParseResult.getGlobalDeclarations(),
                                                 cfa, logger, shutdownNotifier,
                                                 config));
+      stats.liveVariablesTime.stop();
     }
 
     stats.processingTime.stop();
@@ -653,7 +844,8 @@ public class CFACreator {
         || ((serializeCfaFile != null) && serializeCfa)
         || (exportCfaPixelFile != null)
         || (exportCfaToCFile != null && exportCfaToC)) {
-      exportCFAAsync(immutableCFA);
+      boolean hasAnnotations = !commentPositions.isEmpty();
+      exportCFAAsync(immutableCFA, hasAnnotations);
     }
 
     logger.log(
@@ -682,10 +874,10 @@ public class CFACreator {
    * ParseResult is only a Wrapper for the CFAs of the functions and global declarations.
    */
   private ParseResult parseToCFAs(final String program)
-      throws ParserException, InterruptedException {
+      throws InvalidConfigurationException, ParserException, InterruptedException {
     final ParseResult parseResult;
 
-    parseResult = parser.parseString("test", program);
+    parseResult = getParser().parseString("test", program);
     if (parseResult.isEmpty()) {
       switch (language) {
       case JAVA:
@@ -715,7 +907,7 @@ public class CFACreator {
       // TODO Thus verification is different
     }
 
-    parseResult = parser.parseFiles(sourceFiles);
+    parseResult = getParser().parseFiles(sourceFiles);
 
     if (parseResult.isEmpty()) {
       switch (language) {
@@ -739,11 +931,15 @@ public class CFACreator {
    * @return either a modified old CFA or a complete new CFA
    */
   private MutableCFA postProcessingOnMutableCFAs(
-      MutableCFA cfa, final List<Pair<ADeclaration, String>> globalDeclarations)
-      throws InvalidConfigurationException, CParserException {
+      MutableCFA cfa,
+      final List<Pair<ADeclaration, String>> globalDeclarations,
+      final ParallelMapper mapper)
+      throws InvalidConfigurationException, CParserException, InterruptedException {
     // remove all edges which don't have any effect on the program
     if (simplifyCfa) {
-      CFASimplifier.simplifyCFA(cfa);
+      stats.simplificationTime.start();
+      CFASimplifier.simplifyCFA(cfa, mapper);
+      stats.simplificationTime.stop();
     }
 
     if (moveDeclarationsToFunctionStart) {
@@ -763,9 +959,11 @@ public class CFACreator {
 
     // add function pointer edges
     if (language == Language.C && fptrCallEdges) {
+      stats.functionPointerTime.start();
       CFunctionPointerResolver fptrResolver = new CFunctionPointerResolver(cfa, globalDeclarations, config, logger);
       fptrResolver.resolveFunctionPointers();
       fptrResolver.collectStatistics(stats.statisticsCollection);
+      stats.functionPointerTime.stop();
     }
 
     // Transform pthread_create(.., &func) -> func()
@@ -974,9 +1172,10 @@ public class CFACreator {
     return mainFunction;
   }
 
-  private void addLoopStructure(MutableCFA cfa) {
+  private void addLoopStructure(MutableCFA cfa, ParallelMapper mapper)
+      throws InterruptedException {
     try {
-      cfa.setLoopStructure(LoopStructure.getLoopStructure(cfa));
+      cfa.setLoopStructure(LoopStructure.getLoopStructure(cfa, mapper));
 
     } catch (ParserException e) {
       // don't abort here, because if the analysis doesn't need the loop information, we can continue
@@ -1122,13 +1321,13 @@ v.addInitializer(initializer);
     }
   }
 
-  private void exportCFAAsync(final CFA cfa) {
+  private void exportCFAAsync(final CFA cfa, final boolean hasAnnotations) {
     // Execute asynchronously, this may take several seconds for large programs on slow disks.
     // This is safe because we don't modify the CFA from this point on.
-    Concurrency.newThread("CFA export thread", () -> exportCFA(cfa)).start();
+    Concurrency.newThread("CFA export thread", () -> exportCFA(cfa, hasAnnotations)).start();
   }
 
-  private void exportCFA(final CFA cfa) {
+  private void exportCFA(final CFA cfa, final boolean hasAnnotations) {
     stats.exportTime.start();
 
     // write CFA to file
@@ -1184,14 +1383,29 @@ v.addInitializer(initializer);
 
     if (serializeCfa && serializeCfaFile != null) {
       try {
+        // the header allows to check whether the CFA can be reused, cf. readSerializedCFA()
+        CFASerializationHeader header =
+            CFASerializationHeader.create(
+                programNames,
+                cfa,
+                getTranslationUnitReader(),
+                machineModel,
+                config,
+                hasAnnotations);
         MoreFiles.createParentDirectories(serializeCfaFile);
         try (OutputStream outputStream = Files.newOutputStream(serializeCfaFile);
-            OutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
-            ObjectOutputStream oos = new ObjectOutputStream(gzipOutputStream)) {
+            OutputStream gzipOutputStream =
+                new GZIPOutputStream(outputStream, SERIALIZATION_BUFFER_SIZE);
+            ObjectOutputStream oos =
+                new ObjectOutputStream(
+                    new BufferedOutputStream(gzipOutputStream, SERIALIZATION_BUFFER_SIZE))) {
+          oos.writeObject(header);
           oos.writeObject(cfa);
         }
-      } catch (IOException e) {
+      } catch (IOException | InvalidConfigurationException | ParserException e) {
         logger.logUserException(Level.WARNING, e, "Could not serialize CFA to file.");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
       }
     }
 
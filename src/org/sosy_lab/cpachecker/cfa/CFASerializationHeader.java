@@ -0,0 +1,269 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+
+/**
+ * Information that is written in front of a serialized CFA and that allows to decide whether the
+ * serialized CFA can be used instead of parsing the program again: the names of the programs, a
+ * hash of the content of every program file and of every header that is included with {@code
+ * #include "..."}, a hash of the preprocessed translation units if a preprocessor is used (which
+ * covers all files that the preprocessor read), the machine model, and a fingerprint of all options
+ * that influence the CFA.
+ */
+final class CFASerializationHeader implements Serializable {
+
+  private static final long serialVersionUID = 2315328453620553151L;
+
+  /** Options that influence the CFA, given as prefixes of the option names. */
+  private static final ImmutableList<String> RELEVANT_OPTION_PREFIXES =
+      ImmutableList.of(
+          "analysis.entryFunction ",
+          "analysis.functionPointer",
+          "analysis.interprocedural ",
+          "analysis.machineModel ",
+          "analysis.matchAssignedFunctionPointers",
+          "analysis.replace",
+          "analysis.summaryEdges ",
+          "analysis.threadOperationsTransform ",
+          "analysis.useGlobalVars ",
+          "analysis.useLoopStructure ",
+          "cfa.",
+          "java.",
+          "language ",
+          "liveVar.",
+          "parser.");
+
+  /** Options that match {@link #RELEVANT_OPTION_PREFIXES} but do not influence the CFA. */
+  private static final ImmutableSet<String> IGNORED_OPTIONS =
+      ImmutableSet.of("cfa.serialize", "cfa.serializeFile");
+
+  private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+
+  private static final Pattern INCLUDE_DIRECTIVE =
+      Pattern.compile("^\\s*#\\s*include\\s*\"([^\"]+)\"", Pattern.MULTILINE);
+
+  /** Returns a program as it is given to the parser, i.e., the output of the preprocessor. */
+  @FunctionalInterface
+  interface TranslationUnitReader {
+    String read(Path pProgram) throws ParserException, InterruptedException;
+  }
+
+  private final ImmutableList<String> programNames;
+  private final Language language;
+
+  /**
+   * Hash of the content of each program file and included header, the empty string for names that
+   * are not readable files.
+   */
+  private final ImmutableMap<String, String> fileHashes;
+
+  /** Hash of each preprocessed program, empty if no preprocessor is used. */
+  private final ImmutableMap<String, String> translationUnitHashes;
+
+  private final MachineModel machineModel;
+  private final String optionsFingerprint;
+  private final boolean hasAnnotations;
+
+  private CFASerializationHeader(
+      ImmutableList<String> pProgramNames,
+      Language pLanguage,
+      ImmutableMap<String, String> pFileHashes,
+      ImmutableMap<String, String> pTranslationUnitHashes,
+      MachineModel pMachineModel,
+      String pOptionsFingerprint,
+      boolean pHasAnnotations) {
+    programNames = pProgramNames;
+    language = pLanguage;
+    fileHashes = pFileHashes;
+    translationUnitHashes = pTranslationUnitHashes;
+    machineModel = pMachineModel;
+    optionsFingerprint = pOptionsFingerprint;
+    hasAnnotations = pHasAnnotations;
+  }
+
+  /**
+   * Create the header for a CFA.
+   *
+   * @param pProgramNames the names of the programs as given by the user
+   * @param pCfa the CFA that is serialized
+   * @param pPreprocessor the preprocessor that is run on the programs before parsing, if any
+   * @param pHasAnnotations whether the program contains ACSL annotations, which are not part of
+   *     the serialized CFA
+   */
+  static CFASerializationHeader create(
+      Collection<String> pProgramNames,
+      CFA pCfa,
+      @Nullable TranslationUnitReader pPreprocessor,
+      MachineModel pMachineModel,
+      Configuration pConfig,
+      boolean pHasAnnotations)
+      throws ParserException, InterruptedException {
+    Set<String> files = new LinkedHashSet<>(pProgramNames);
+    for (Path file : pCfa.getFileNames()) {
+      files.add(file.toString());
+    }
+    if (pCfa.getLanguage() == Language.C) {
+      for (Path file : collectIncludedFiles(pCfa.getFileNames())) {
+        files.add(file.toString());
+      }
+    }
+    ImmutableMap.Builder<String, String> fileHashes = ImmutableMap.builder();
+    for (String file : files) {
+      fileHashes.put(file, hashFile(file));
+    }
+    return new CFASerializationHeader(
+        ImmutableList.copyOf(pProgramNames),
+        pCfa.getLanguage(),
+        fileHashes.build(),
+        hashTranslationUnits(pProgramNames, pPreprocessor),
+        pMachineModel,
+        computeOptionsFingerprint(pConfig),
+        pHasAnnotations);
+  }
+
+  /**
+   * Check whether the serialized CFA can be used for the given programs and configuration.
+   *
+   * @param pPreprocessor the preprocessor that is run on the programs before parsing, if any
+   * @return null if the CFA can be used, otherwise a description of the reason why it cannot be
+   *     used
+   */
+  @Nullable String findMismatch(
+      Collection<String> pProgramNames,
+      MachineModel pMachineModel,
+      Configuration pConfig,
+      @Nullable TranslationUnitReader pPreprocessor)
+      throws ParserException, InterruptedException {
+    if (!programNames.equals(ImmutableList.copyOf(pProgramNames))) {
+      return "it was created for different programs";
+    }
+    if (language == Language.JAVA) {
+      // the Java parser reads all classes from the class path, which we cannot check
+      return "changes of Java programs cannot be detected";
+    }
+    if (machineModel != pMachineModel) {
+      return "it was created for machine model " + machineModel;
+    }
+    if (!optionsFingerprint.equals(computeOptionsFingerprint(pConfig))) {
+      return "it was created with different options";
+    }
+    if (hasAnnotations) {
+      return "the program contains ACSL annotations";
+    }
+    for (Map.Entry<String, String> fileHash : fileHashes.entrySet()) {
+      if (!fileHash.getValue().equals(hashFile(fileHash.getKey()))) {
+        return "the file " + fileHash.getKey() + " was changed";
+      }
+    }
+    // the preprocessor may have read other files (e.g., system headers) than the parser
+    if (!translationUnitHashes.equals(hashTranslationUnits(pProgramNames, pPreprocessor))) {
+      return "the preprocessed program was changed";
+    }
+    return null;
+  }
+
+  private static ImmutableMap<String, String> hashTranslationUnits(
+      Collection<String> pProgramNames, @Nullable TranslationUnitReader pPreprocessor)
+      throws ParserException, InterruptedException {
+    if (pPreprocessor == null) {
+      return ImmutableMap.of();
+    }
+    ImmutableMap.Builder<String, String> hashes = ImmutableMap.builder();
+    for (String program : new LinkedHashSet<>(pProgramNames)) {
+      String translationUnit = pPreprocessor.read(Path.of(program));
+      hashes.put(program, Hashing.sha256().hashString(translationUnit, UTF_8).toString());
+    }
+    return hashes.build();
+  }
+
+  /**
+   * Collect the files that the given C files include with {@code #include "..."}, also
+   * transitively. Like the parser, which has no include paths, we resolve the names relative to the
+   * directory of the including file. Directives in inactive preprocessor branches are collected,
+   * too, which can only cause additional files to be checked. System headers ({@code #include
+   * <...>}) are only covered by the hash of the preprocessed program.
+   */
+  private static Set<Path> collectIncludedFiles(Collection<Path> pFiles) {
+    Set<Path> visited = new LinkedHashSet<>(pFiles);
+    Set<Path> included = new LinkedHashSet<>();
+    Deque<Path> waitlist = new ArrayDeque<>(pFiles);
+    while (!waitlist.isEmpty()) {
+      Path file = waitlist.pop();
+      String content;
+      try {
+        // ISO-8859-1 maps every byte to a character, so reading never fails for other encodings
+        content = Files.readString(file, ISO_8859_1);
+      } catch (IOException e) {
+        continue; // hashFile() reports the file as missing if necessary
+      }
+      Path directory = file.toAbsolutePath().getParent();
+      Matcher matcher = INCLUDE_DIRECTIVE.matcher(content);
+      while (matcher.find()) {
+        Path header = directory.resolve(matcher.group(1)).normalize();
+        if (Files.isRegularFile(header) && visited.add(header)) {
+          included.add(header);
+          waitlist.push(header);
+        }
+      }
+    }
+    return included;
+  }
+
+  private static String hashFile(String pFile) {
+    Path path = Path.of(pFile);
+    if (!Files.isRegularFile(path)) {
+      return "";
+    }
+    try {
+      return MoreFiles.asByteSource(path).hash(Hashing.sha256()).toString();
+    } catch (IOException e) {
+      return "";
+    }
+  }
+
+  private static String computeOptionsFingerprint(Configuration pConfig) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String option : new TreeSet<>(LINE_SPLITTER.splitToList(pConfig.asPropertiesString()))) {
+      String name = option.substring(0, Math.max(option.indexOf(" = "), 0));
+      if (!IGNORED_OPTIONS.contains(name)
+          && RELEVANT_OPTION_PREFIXES.stream().anyMatch(option::startsWith)) {
+        hasher.putString(option, UTF_8).putChar('\n');
+      }
+    }
+    return hasher.hash().toString();
+  }
+}
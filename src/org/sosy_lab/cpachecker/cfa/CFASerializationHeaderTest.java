@@ -0,0 +1,155 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.TreeMultimap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.CFASerializationHeader.TranslationUnitReader;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class CFASerializationHeaderTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Configuration config;
+  private Path program;
+  private Path header;
+  private ImmutableList<String> programNames;
+
+  /** The output of the fake preprocessor. */
+  private String preprocessed = "int x;";
+
+  private final TranslationUnitReader preprocessor = file -> preprocessed;
+
+  @Before
+  public void setUp() throws Exception {
+    config = TestDataTools.configurationForTest().build();
+    program = tempFolder.newFile("program.c").toPath();
+    header = tempFolder.newFile("header.h").toPath();
+    Files.writeString(program, "#include \"header.h\"\nint main() { return X; }\n", UTF_8);
+    Files.writeString(header, "#define X 0\n", UTF_8);
+    programNames = ImmutableList.of(program.toString());
+  }
+
+  private CFA makeCfa(Language pLanguage) {
+    FunctionExitNode exit = new FunctionExitNode(CFunctionDeclaration.DUMMY);
+    FunctionEntryNode entry =
+        new CFunctionEntryNode(
+            FileLocation.DUMMY, CFunctionDeclaration.DUMMY, exit, Optional.empty());
+    exit.setEntryNode(entry);
+    TreeMap<String, FunctionEntryNode> functions = new TreeMap<>();
+    functions.put(entry.getFunctionName(), entry);
+    TreeMultimap<String, CFANode> nodes = TreeMultimap.create();
+    nodes.put(entry.getFunctionName(), entry);
+    nodes.put(exit.getFunctionName(), exit);
+    return new MutableCFA(
+        MachineModel.LINUX32, functions, nodes, entry, ImmutableList.of(program), pLanguage);
+  }
+
+  private CFASerializationHeader createHeader(TranslationUnitReader pPreprocessor)
+      throws Exception {
+    return CFASerializationHeader.create(
+        programNames,
+        makeCfa(Language.C),
+        pPreprocessor,
+        MachineModel.LINUX32,
+        config,
+        false);
+  }
+
+  @Test
+  public void testUnchangedProgramMatches() throws Exception {
+    CFASerializationHeader serialized = createHeader(null);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, null)).isNull();
+  }
+
+  @Test
+  public void testChangedHeaderInvalidates() throws Exception {
+    CFASerializationHeader serialized = createHeader(null);
+    Files.writeString(header, "#define X 1\n", UTF_8);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, null))
+        .contains(header.toString());
+  }
+
+  @Test
+  public void testChangedTransitivelyIncludedHeaderInvalidates() throws Exception {
+    Path nested = tempFolder.newFolder("include").toPath().resolve("nested.h");
+    Files.writeString(nested, "#define Y 0\n", UTF_8);
+    Files.writeString(header, "#include \"include/nested.h\"\n#define X Y\n", UTF_8);
+    CFASerializationHeader serialized = createHeader(null);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, null)).isNull();
+
+    Files.writeString(nested, "#define Y 1\n", UTF_8);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, null))
+        .contains(nested.toString());
+  }
+
+  @Test
+  public void testChangedPreprocessorOutputInvalidates() throws Exception {
+    CFASerializationHeader serialized = createHeader(preprocessor);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, preprocessor))
+        .isNull();
+
+    // e.g., a changed system header that only the preprocessor read
+    preprocessed = "int y;";
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, preprocessor))
+        .contains("preprocessed");
+  }
+
+  @Test
+  public void testMachineModelAndOptionsInvalidate() throws Exception {
+    CFASerializationHeader serialized = createHeader(null);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX64, config, null))
+        .isNotNull();
+
+    Configuration otherOptions =
+        TestDataTools.configurationForTest().setOption("cfa.simplifyCfa", "false").build();
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, otherOptions, null))
+        .isNotNull();
+
+    Configuration irrelevantOptions =
+        TestDataTools.configurationForTest().setOption("cfa.serialize", "true").build();
+    assertThat(
+            serialized.findMismatch(programNames, MachineModel.LINUX32, irrelevantOptions, null))
+        .isNull();
+  }
+
+  @Test
+  public void testJavaProgramsAreNotReused() throws Exception {
+    CFASerializationHeader serialized =
+        CFASerializationHeader.create(
+            programNames,
+            makeCfa(Language.JAVA),
+            null,
+            MachineModel.LINUX32,
+            config,
+            false);
+    assertThat(serialized.findMismatch(programNames, MachineModel.LINUX32, config, null))
+        .isNotNull();
+  }
+}
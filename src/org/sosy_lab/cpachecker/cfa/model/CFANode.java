@@ -20,7 +20,7 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import org.sosy_lab.common.UniqueIdGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.sosy_lab.cpachecker.cfa.ast.AFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
@@ -32,7 +32,7 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   private static final long serialVersionUID = 5168350921309486536L;
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  private static final AtomicInteger nextNodeNumber = new AtomicInteger();
 
   private final int nodeNumber;
 
@@ -75,7 +75,7 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   public CFANode(AFunctionDeclaration pFunction) {
     function = pFunction;
-    nodeNumber = idGenerator.getFreshId();
+    nodeNumber = nextNodeNumber.getAndIncrement();
   }
 
   public int getNodeNumber() {
@@ -293,6 +293,20 @@ public class CFANode implements Comparable<CFANode>, Serializable {
     enteringEdges = new ArrayList<>(1);
   }
 
+  /**
+   * Make sure that nodes that are created from now on get numbers different from the numbers of
+   * the given nodes. This needs to be called once after a CFA was deserialized, because the node
+   * numbers are read from the serialized CFA and not taken from the counter for fresh numbers.
+   */
+  public static void reserveNodeNumbers(Iterable<CFANode> pNodes) {
+    int maxNodeNumber = -1;
+    for (CFANode node : pNodes) {
+      maxNodeNumber = Math.max(maxNodeNumber, node.nodeNumber);
+    }
+    int firstFreeNumber = maxNodeNumber + 1;
+    nextNodeNumber.accumulateAndGet(firstFreeNumber, Math::max);
+  }
+
   public void addOutOfScopeVariables(Collection<CSimpleDeclaration> pOutOfScopeVariables) {
     if (outOfScopeVariables == null) { // lazy
       outOfScopeVariables = new LinkedHashSet<>();
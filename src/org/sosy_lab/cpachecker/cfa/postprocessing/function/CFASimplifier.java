@@ -23,6 +23,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.ParallelMapper;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -44,32 +45,59 @@ public class CFASimplifier {
    */
   public static void simplifyCFA(MutableCFA cfa) {
     for (CFANode root : cfa.getAllFunctionHeads()) {
-      simplifyFunction(root, cfa);
+      simplifyFunction(root, cfa.getFunctionNodes(root.getFunctionName()))
+          .forEach(cfa::removeNode);
+    }
+  }
+
+  /**
+   * Simplify the cfa like {@link #simplifyCFA(MutableCFA)}, but handle several functions
+   * concurrently. The result is the same as with {@link #simplifyCFA(MutableCFA)}.
+   *
+   * @param cfa The cfa which should be simplified
+   * @param mapper The mapper that is used for processing the functions
+   */
+  public static void simplifyCFA(MutableCFA cfa, ParallelMapper mapper)
+      throws InterruptedException {
+    List<List<CFANode>> removedNodes =
+        mapper.map(
+            cfa.getAllFunctionHeads(),
+            root -> simplifyFunction(root, cfa.getFunctionNodes(root.getFunctionName())),
+            RuntimeException.class);
+    // the cfa itself is not thread-safe, so we update it afterwards
+    for (List<CFANode> nodes : removedNodes) {
+      nodes.forEach(cfa::removeNode);
     }
   }
 
   /**
    * This method makes the simplification step for a single function, the
    * root node is the node where the search for possible simplifications starts.
+   * It changes only nodes and edges of the given function, such that it can be called
+   * concurrently for different functions.
    *
    * @param root start node for simplification
-   * @param cfa The cfa where the simplifications should be applied
+   * @param functionNodes the nodes of the function
+   * @return the nodes that were removed from the function and need to be removed from the cfa
    */
-  private static void simplifyFunction(final CFANode root, final MutableCFA cfa) {
+  private static List<CFANode> simplifyFunction(
+      final CFANode root, final Set<CFANode> functionNodes) {
     // We want to eliminate branching with two empty branches (only blank edges).
     // Inner branches need to be eliminated first.
 
     // The list of all branching points in this function.
-    final Deque<CFANode> branchingPoints = findBranchingPoints(root, cfa);
+    final Deque<CFANode> branchingPoints = findBranchingPoints(root, functionNodes);
     assert branchingPoints.size() == new HashSet<>(branchingPoints).size()
         : "branchingPoints contains duplicate CFANode " + branchingPoints;
 
     // We need to simplify inner branches first, thus we iterate backwards through the queue.
+    final List<CFANode> removedNodes = new ArrayList<>();
     while (!branchingPoints.isEmpty()) {
       final CFANode branchingPoint = branchingPoints.pollLast();
 
-      simplifyBranching(branchingPoint, cfa);
+      simplifyBranching(branchingPoint, removedNodes);
     }
+    return removedNodes;
   }
 
   /**
@@ -78,7 +106,8 @@ public class CFASimplifier {
    * @param root The entry point of the CFA.
    * @return A queue of CFANodes that are branching points, in post order.
    */
-  private static Deque<CFANode> findBranchingPoints(final CFANode root, MutableCFA cfa) {
+  private static Deque<CFANode> findBranchingPoints(
+      final CFANode root, final Set<CFANode> functionNodes) {
 
     // at first we check if there is at least one branching with following blank
     // edges, if not we can immediately return an empty list as it is not possible
@@ -87,7 +116,7 @@ public class CFASimplifier {
     // changing one part of the code other part might then also be changeable
 
     boolean foundAtLeastOneBlankEdgeAssume = false;
-    for (CFANode node : cfa.getFunctionNodes(root.getFunctionName())) {
+    for (CFANode node : functionNodes) {
       if (node.getNumLeavingEdges() == 2) {
         CFAEdge edge1 = node.getLeavingEdge(0);
         CFAEdge edge2 = node.getLeavingEdge(1);
@@ -169,9 +198,10 @@ public class CFASimplifier {
   /**
    * Simplify one branching in the CFA at the given node (if possible).
    * @param branchingPoint The root of the branching (needs to have 2 outgoing AssumeEdges).
-   * @param cfa the cfa which should be simplified
+   * @param removedNodes the list to which the removed nodes are added
    */
-  private static void simplifyBranching(final CFANode branchingPoint, final MutableCFA cfa) {
+  private static void simplifyBranching(
+      final CFANode branchingPoint, final List<CFANode> removedNodes) {
     CFANode leftEndpoint  = findEndOfBlankEdgeChain(branchingPoint.getLeavingEdge(0).getSuccessor());
     CFANode rightEndpoint = findEndOfBlankEdgeChain(branchingPoint.getLeavingEdge(1).getSuccessor());
 
@@ -188,7 +218,7 @@ public class CFASimplifier {
         removedFileLocations.add(leftEdge.getFileLocation());
         CFANode toRemove = leftEdge.getSuccessor();
         toRemove.removeEnteringEdge(leftEdge);
-        removeChainOfNodes(toRemove, endpoint, cfa, removedFileLocations);
+        removeChainOfNodes(toRemove, endpoint, removedNodes, removedFileLocations);
       }
       {
         branchingPoint.removeLeavingEdge(rightEdge);
@@ -196,13 +226,13 @@ public class CFASimplifier {
         removedFileLocations.add(rightEdge.getFileLocation());
         CFANode toRemove = rightEdge.getSuccessor();
         toRemove.removeEnteringEdge(rightEdge);
-        removeChainOfNodes(toRemove, endpoint, cfa, removedFileLocations);
+        removeChainOfNodes(toRemove, endpoint, removedNodes, removedFileLocations);
       }
 
       // Maybe there are more outgoing blank edges from the endpoint,
       // also remove them.
       final CFANode endpoint2 = findEndOfBlankEdgeChain(endpoint);
-      removeChainOfNodes(endpoint, endpoint2, cfa, removedFileLocations);
+      removeChainOfNodes(endpoint, endpoint2, removedNodes, removedFileLocations);
 
       CFAEdge blankEdge = new BlankEdge("skipped unnecessary edges",
           FileLocation.merge(removedFileLocations), branchingPoint, endpoint2, "skipped unnecessary edges");
@@ -226,7 +256,7 @@ public class CFASimplifier {
   }
 
   private static void removeChainOfNodes(final CFANode start, final CFANode endpoint,
-      final MutableCFA cfa, final List<FileLocation> removedFileLocations) {
+      final List<CFANode> removedNodes, final List<FileLocation> removedFileLocations) {
     CFANode toRemove = start;
 
     while (!toRemove.equals(endpoint)) {
@@ -238,7 +268,7 @@ public class CFASimplifier {
 
       CFAEdge leavingEdge = toRemove.getLeavingEdge(0);
       toRemove.removeLeavingEdge(leavingEdge);
-      cfa.removeNode(toRemove);
+      removedNodes.add(toRemove);
 
       CFANode nextNode = leavingEdge.getSuccessor();
       nextNode.removeEnteringEdge(leavingEdge);
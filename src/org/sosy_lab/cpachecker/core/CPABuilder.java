@@ -38,6 +38,8 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
@@ -70,13 +72,29 @@ public class CPABuilder {
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final ReachedSetFactory reachedSetFactory;
+  private final @Nullable Participant exchangeParticipant;
 
   public CPABuilder(Configuration pConfig, LogManager pLogger, ShutdownNotifier pShutdownNotifier,
       ReachedSetFactory pReachedSetFactory) throws InvalidConfigurationException {
+    this(pConfig, pLogger, pShutdownNotifier, pReachedSetFactory, null);
+  }
+
+  /**
+   * Create a builder whose CPAs exchange information with other analyses via the given participant
+   * of an {@link ExchangeBus} (if not null), if they support this.
+   */
+  public CPABuilder(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      ReachedSetFactory pReachedSetFactory,
+      @Nullable Participant pExchangeParticipant)
+      throws InvalidConfigurationException {
     this.config = pConfig;
     this.logger = pLogger;
     this.shutdownNotifier = pShutdownNotifier;
     this.reachedSetFactory = pReachedSetFactory;
+    this.exchangeParticipant = pExchangeParticipant;
     config.inject(this);
   }
 
@@ -348,6 +366,9 @@ public class CPABuilder {
     if (cfa != null) {
       factory.set(cfa, CFA.class);
     }
+    if (exchangeParticipant != null) {
+      factory.set(exchangeParticipant, Participant.class);
+    }
 
     createAndSetChildrenCPAs(
         cpaConfig, factory, cpas, cfa, specification, pAggregatedReachedSets);
@@ -19,20 +19,17 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.io.Resources;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.logging.Level;
-import java.util.zip.GZIPInputStream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.AbstractMBean;
 import org.sosy_lab.common.Optionals;
@@ -192,7 +189,10 @@ public class CPAchecker {
     name = "analysis.serializedCfaFile",
     description =
         "if this option is used, the CFA will be loaded from the given file "
-            + "instead of parsed from sourcefile."
+            + "instead of parsed from sourcefile, if the file was written with cfa.serialize "
+            + "for the same source files (including headers and the output of the "
+            + "preprocessor), machine model, and CFA options (otherwise the program is parsed "
+            + "as usual)."
   )
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private @Nullable Path serializedCfaFile = null;
@@ -432,9 +432,6 @@ public class CPAchecker {
               + "together with the input file to cpachecker-users@googlegroups.com.\n");
       logger.log(Level.INFO, msg);
 
-    } catch (ClassNotFoundException e) {
-      logger.logUserException(Level.SEVERE, e, "Could not read serialized CFA. Class is missing.");
-
     } catch (InvalidConfigurationException e) {
       logger.logUserException(Level.SEVERE, e, "Invalid configuration");
 
@@ -455,29 +452,27 @@ public class CPAchecker {
   }
 
   private CFA parse(List<String> fileNames, MainCPAStatistics stats)
-      throws InvalidConfigurationException, IOException, ParserException, InterruptedException,
-      ClassNotFoundException {
+      throws InvalidConfigurationException, IOException, ParserException, InterruptedException {
 
-    final CFA cfa;
-    if (serializedCfaFile == null) {
-      // parse file and create CFA
-      logger.logf(Level.INFO, "Parsing CFA from file(s) \"%s\"", Joiner.on(", ").join(fileNames));
-      CFACreator cfaCreator = new CFACreator(config, logger, shutdownNotifier);
-      stats.setCFACreator(cfaCreator);
-      cfa = cfaCreator.parseFileAndCreateCFA(fileNames);
+    CFACreator cfaCreator = new CFACreator(config, logger, shutdownNotifier);
+    stats.setCFACreator(cfaCreator);
 
-    } else {
-      // load CFA from serialization file
+    if (serializedCfaFile != null) {
+      // load CFA from serialization file, if it matches the program and configuration
       logger.logf(Level.INFO, "Reading CFA from file \"%s\"", serializedCfaFile);
-      try (InputStream inputStream = Files.newInputStream(serializedCfaFile);
-          InputStream gzipInputStream = new GZIPInputStream(inputStream);
-          ObjectInputStream ois = new ObjectInputStream(gzipInputStream)) {
-        cfa = (CFA) ois.readObject();
+      Optional<CFA> serializedCfa = cfaCreator.readSerializedCFA(serializedCfaFile, fileNames);
+      if (serializedCfa.isPresent()) {
+        CFA cfa = serializedCfa.orElseThrow();
+        assert CFACheck.check(cfa.getMainFunction(), null, cfa.getMachineModel());
+        stats.setCFA(cfa);
+        return cfa;
       }
-
-      assert CFACheck.check(cfa.getMainFunction(), null, cfa.getMachineModel());
     }
 
+    // parse file and create CFA
+    logger.logf(Level.INFO, "Parsing CFA from file(s) \"%s\"", Joiner.on(", ").join(fileNames));
+    CFA cfa = cfaCreator.parseFileAndCreateCFA(fileNames);
+
     stats.setCFA(cfa);
     return cfa;
   }
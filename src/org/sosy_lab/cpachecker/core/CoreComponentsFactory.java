@@ -55,6 +55,7 @@ import org.sosy_lab.cpachecker.core.algorithm.composition.CompositionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.counterexamplecheck.CounterexampleCheckAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.explainer.Explainer;
 import org.sosy_lab.cpachecker.core.algorithm.impact.ImpactAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.incremental.IncrementalAnalysisAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.mpv.MPVAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.mpv.MPVReachedSet;
 import org.sosy_lab.cpachecker.core.algorithm.parallel_bam.ParallelBAMAlgorithm;
@@ -70,6 +71,7 @@ import org.sosy_lab.cpachecker.core.algorithm.residualprogram.TestGoalToConditio
 import org.sosy_lab.cpachecker.core.algorithm.residualprogram.slicing.SlicingAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.termination.TerminationAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.termination.validation.NonTerminationWitnessValidator;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets.AggregatedReachedSetManager;
@@ -105,6 +107,14 @@ public class CoreComponentsFactory {
       description = "use adjustable conditions algorithm")
   private boolean useAdjustableConditions = false;
 
+  @Option(
+      secure = true,
+      name = "algorithm.incremental",
+      description =
+          "reuse the ARG of the analysis of a previous version of the program for all unchanged"
+              + " functions (cf. options incremental.*)")
+  private boolean useIncrementalAnalysis = false;
+
   @Option(secure = true, name = "algorithm.pdr", description = "use PDR algorithm")
   private boolean usePDR = false;
 
@@ -404,6 +414,20 @@ public class CoreComponentsFactory {
       ShutdownNotifier pShutdownNotifier,
       AggregatedReachedSets pAggregatedReachedSets)
       throws InvalidConfigurationException {
+    this(pConfig, pLogger, pShutdownNotifier, pAggregatedReachedSets, null);
+  }
+
+  /**
+   * Create a factory whose CPAs use the given participant of an exchange bus (if not null), e.g.,
+   * for analyses that run concurrently with other analyses.
+   */
+  public CoreComponentsFactory(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      AggregatedReachedSets pAggregatedReachedSets,
+      @Nullable Participant pExchangeParticipant)
+      throws InvalidConfigurationException {
     config = pConfig;
     logger = pLogger;
 
@@ -427,7 +451,13 @@ public class CoreComponentsFactory {
     }
 
     reachedSetFactory = new ReachedSetFactory(config, logger);
-    cpaFactory = new CPABuilder(config, logger, shutdownNotifier, reachedSetFactory);
+    cpaFactory =
+        new CPABuilder(
+            config,
+            logger,
+            shutdownNotifier,
+            reachedSetFactory,
+            pExchangeParticipant);
 
     if (checkCounterexamplesWithBDDCPARestriction) {
       checkCounterexamples = true;
@@ -574,6 +604,10 @@ public class CoreComponentsFactory {
                 .newInstance();
       }
 
+      if (useIncrementalAnalysis) {
+        algorithm = new IncrementalAnalysisAlgorithm(algorithm, cpa, cfa, config, logger);
+      }
+
       if (usePDR) {
         algorithm =
             new PdrAlgorithm(
@@ -56,6 +56,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ConcurrentPartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
@@ -481,22 +482,36 @@ class MainCPAStatistics implements Statistics {
 
     if (reached instanceof PartitionedReachedSet) {
       PartitionedReachedSet p = (PartitionedReachedSet)reached;
-      int partitions = p.getNumberOfPartitions();
-      out.println("  Number of partitions:          " + partitions);
-      out.println("    Avg size of partitions:      " + reachedSize / partitions);
-      Map.Entry<Object, Collection<AbstractState>> maxPartition = p.getMaxPartition();
-      out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
-      if (maxPartition.getValue().size() > 1) {
-        out.println(" (with key " + maxPartition.getKey() + ")");
-      } else {
-        out.println();
-      }
+      printPartitionStatistics(
+          out, reachedSize, p.getNumberOfPartitions(), p.getMaxPartition());
+    } else if (reached instanceof ConcurrentPartitionedReachedSet) {
+      ConcurrentPartitionedReachedSet p = (ConcurrentPartitionedReachedSet) reached;
+      printPartitionStatistics(
+          out, reachedSize, p.getNumberOfPartitions(), p.getMaxPartition());
     }
     out.println(
         "  Number of target states:       "
             + from(reached).filter(AbstractStates::isTargetState).size());
   }
 
+  private static void printPartitionStatistics(
+      PrintStream out,
+      int reachedSize,
+      int partitions,
+      Map.Entry<Object, Collection<AbstractState>> maxPartition) {
+    out.println("  Number of partitions:          " + partitions);
+    if (partitions == 0) {
+      return;
+    }
+    out.println("    Avg size of partitions:      " + reachedSize / partitions);
+    out.print  ("    Max size of partitions:      " + maxPartition.getValue().size());
+    if (maxPartition.getValue().size() > 1) {
+      out.println(" (with key " + maxPartition.getKey() + ")");
+    } else {
+      out.println();
+    }
+  }
+
   private void printCfaStatistics(PrintStream out) {
     if (cfa != null) {
       StatisticsWriter.writingStatisticsTo(out)
@@ -54,6 +54,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.CoreComponentsFactory;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -74,6 +75,7 @@ import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.resources.ThreadCpuTimeLimit;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 @Options(prefix = "parallelAlgorithm")
 public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
@@ -93,6 +95,14 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<AnnotatedValue<Path>> configFiles;
 
+  @Option(
+      secure = true,
+      description =
+          "Exchange intermediate results between the analyses while they are running, e.g.,"
+              + " precision increments of value analysis are used as source of predicates"
+              + " by predicate analysis.")
+  private boolean exchangeInformation = false;
+
   private static final String SUCCESS_MESSAGE =
       "One of the parallel analyses has finished successfully, cancelling all other runs.";
 
@@ -102,6 +112,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   private final CFA cfa;
   private final Specification specification;
   private final ParallelAlgorithmStatistics stats;
+  private final @Nullable ExchangeBus exchangeBus;
 
   private ParallelAnalysisResult finalResult = null;
   private CFANode mainEntryNode = null;
@@ -132,6 +143,13 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     aggregatedReachedSetManager = new AggregatedReachedSetManager();
     aggregatedReachedSetManager.addAggregated(pAggregatedReachedSets);
 
+    if (exchangeInformation) {
+      exchangeBus = new ExchangeBus();
+      stats.exchangeBus = exchangeBus;
+    } else {
+      exchangeBus = null;
+    }
+
     ImmutableList.Builder<Callable<ParallelAnalysisResult>> analysesBuilder =
         ImmutableList.builder();
     for (AnnotatedValue<Path> p : configFiles) {
@@ -297,7 +315,8 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
             singleConfig,
             singleLogger,
             singleShutdownManager.getNotifier(),
-            aggregatedReachedSetManager.asView());
+            aggregatedReachedSetManager.asView(),
+            exchangeBus == null ? null : exchangeBus.join(singleConfigFileName.toString()));
 
     final ConfigurableProgramAnalysis cpa = coreComponents.createCPA(cfa, specification);
     final Algorithm algorithm = coreComponents.createAlgorithm(cpa, cfa, specification);
@@ -565,6 +584,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     private final List<StatisticsEntry> allAnalysesStats = new CopyOnWriteArrayList<>();
     private int noOfAlgorithmsUsed = 0;
     private String successfulAnalysisName = null;
+    private @Nullable ExchangeBus exchangeBus = null;
 
     ParallelAlgorithmStatistics(LogManager pLogger) {
       logger = checkNotNull(pLogger);
@@ -589,6 +609,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       if (successfulAnalysisName != null) {
         out.println("Successful analysis: " + successfulAnalysisName);
       }
+      if (exchangeBus != null) {
+        exchangeBus.printStatistics(StatisticsWriter.writingStatisticsTo(out));
+      }
       printSubStatistics(out, result);
     }
 
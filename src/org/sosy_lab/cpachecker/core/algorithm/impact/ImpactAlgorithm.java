@@ -131,7 +131,17 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
     fmgr = solver.getFormulaManager();
     bfmgr = fmgr.getBooleanFormulaManager();
     pfmgr = new CachingPathFormulaManager(new PathFormulaManagerImpl(fmgr, config, logger, pShutdownNotifier, cfa, AnalysisDirection.FORWARD));
-    imgr = new InterpolationManager(pfmgr, solver, cfa.getLoopStructure(), cfa.getVarClassification(), config, pShutdownNotifier, logger);
+    // Impact needs an inductive sequence of interpolants
+    imgr =
+        new InterpolationManager(
+            pfmgr,
+            solver,
+            cfa.getLoopStructure(),
+            cfa.getVarClassification(),
+            config,
+            pShutdownNotifier,
+            logger,
+            true);
   }
 
   public AbstractState getInitialState(CFANode location) throws InterruptedException {
@@ -0,0 +1,161 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.incremental;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * A fingerprint of each function of a CFA, which allows to compute which functions differ
+ * between two versions of a program, and which nodes of an unchanged function correspond to each
+ * other.
+ *
+ * <p>The fingerprint of a function is a hash of its declaration and of the code and the structure
+ * of its edges. It does not depend on node numbers or file locations, so moving or renumbering a
+ * function does not change it. Calls to other functions are only represented by the code of the
+ * call, so a function is not changed if only one of its callees is changed.
+ */
+final class FunctionFingerprints implements Serializable {
+
+  private static final long serialVersionUID = -4409284529536096567L;
+
+  private static final class Fingerprint implements Serializable {
+
+    private static final long serialVersionUID = 4893466722862066624L;
+
+    private final String hash;
+
+    /** The node numbers of all nodes of the function in canonical order. */
+    private final ImmutableList<Integer> nodeNumbers;
+
+    private Fingerprint(String pHash, ImmutableList<Integer> pNodeNumbers) {
+      hash = pHash;
+      nodeNumbers = pNodeNumbers;
+    }
+  }
+
+  private final ImmutableMap<String, Fingerprint> functions;
+
+  private FunctionFingerprints(ImmutableMap<String, Fingerprint> pFunctions) {
+    functions = pFunctions;
+  }
+
+  static FunctionFingerprints of(CFA pCfa) {
+    ImmutableMap.Builder<String, Fingerprint> functions = ImmutableMap.builder();
+    for (Map.Entry<String, FunctionEntryNode> function : pCfa.getAllFunctions().entrySet()) {
+      functions.put(function.getKey(), computeFingerprint(function.getValue()));
+    }
+    return new FunctionFingerprints(functions.build());
+  }
+
+  /**
+   * Traverse the function in breadth-first order, following the leaving edges of each node in
+   * their order and staying inside the function, and hash all nodes and edges.
+   */
+  private static Fingerprint computeFingerprint(FunctionEntryNode pEntry) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pEntry.getFunctionDefinition().toASTString(), UTF_8).putChar('\n');
+
+    Map<CFANode, Integer> indices = new HashMap<>();
+    ImmutableList.Builder<Integer> nodeNumbers = ImmutableList.builder();
+    Queue<CFANode> waitlist = new ArrayDeque<>();
+    indices.put(pEntry, 0);
+    nodeNumbers.add(pEntry.getNodeNumber());
+    waitlist.add(pEntry);
+
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.poll();
+      hasher.putInt(indices.get(node)).putBoolean(node.isLoopStart());
+
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        hasher.putString(edge.getEdgeType().name(), UTF_8);
+        hasher.putString(edge.getCode(), UTF_8).putChar('\n');
+        if (edge.getEdgeType() == CFAEdgeType.FunctionCallEdge
+            || edge.getEdgeType() == CFAEdgeType.FunctionReturnEdge) {
+          // leaves the function, the call is represented by the summary edge
+          continue;
+        }
+
+        CFANode successor = edge.getSuccessor();
+        Integer index = indices.get(successor);
+        if (index == null) {
+          index = indices.size();
+          indices.put(successor, index);
+          nodeNumbers.add(successor.getNodeNumber());
+          waitlist.add(successor);
+        }
+        hasher.putInt(index);
+      }
+    }
+    return new Fingerprint(hasher.hash().toString(), nodeNumbers.build());
+  }
+
+  int size() {
+    return functions.size();
+  }
+
+  /**
+   * Return the names of the functions of this version of the program that do not exist or are
+   * different in the given version.
+   */
+  ImmutableSet<String> getChangedFunctions(FunctionFingerprints pOther) {
+    ImmutableSet.Builder<String> changed = ImmutableSet.builder();
+    for (Map.Entry<String, Fingerprint> function : functions.entrySet()) {
+      Fingerprint other = pOther.functions.get(function.getKey());
+      if (other == null || !other.hash.equals(function.getValue().hash)) {
+        changed.add(function.getKey());
+      }
+    }
+    return changed.build();
+  }
+
+  /**
+   * Map the node numbers of all unchanged functions of this version of the program to the
+   * corresponding nodes of the given version.
+   *
+   * @param pOther the fingerprints of the given version
+   * @param pOtherCfa the CFA of the given version
+   */
+  ImmutableMap<Integer, CFANode> mapUnchangedNodes(FunctionFingerprints pOther, CFA pOtherCfa) {
+    Map<Integer, CFANode> otherNodes = new HashMap<>();
+    for (CFANode node : pOtherCfa.getAllNodes()) {
+      otherNodes.put(node.getNodeNumber(), node);
+    }
+
+    ImmutableMap.Builder<Integer, CFANode> mapping = ImmutableMap.builder();
+    for (Map.Entry<String, Fingerprint> function : functions.entrySet()) {
+      Fingerprint fingerprint = function.getValue();
+      Fingerprint other = pOther.functions.get(function.getKey());
+      if (other == null || !other.hash.equals(fingerprint.hash)) {
+        continue;
+      }
+      // same hash implies same traversal, so nodes at the same position correspond
+      for (int i = 0; i < fingerprint.nodeNumbers.size(); i++) {
+        mapping.put(fingerprint.nodeNumbers.get(i), otherNodes.get(other.nodeNumbers.get(i)));
+      }
+    }
+    return mapping.build();
+  }
+}
@@ -0,0 +1,438 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.incremental;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.globalinfo.NodeTranslatingObjectInputStream;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+
+/**
+ * Algorithm for incremental verification of a sequence of program versions.
+ *
+ * <p>After the analysis, the ARG is written to a file together with {@link FunctionFingerprints}
+ * of the CFA. When the next version of the program is analyzed, the ARG of the previous version
+ * is read and all states that are located in a changed function, all their successors, and all
+ * target states are removed. The remaining states are put into the reached set, their parents are
+ * put into the waitlist, and the wrapped algorithm continues from there, such that only the
+ * changed parts of the program are explored again.
+ *
+ * <p>This requires that all abstract states are serializable, like for proof-carrying code. The
+ * precisions of the previous analysis are not reused, all states get the initial precision.
+ */
+@Options(prefix = "incremental")
+public class IncrementalAnalysisAlgorithm implements Algorithm, StatisticsProvider, Statistics {
+
+  private static final String FORMAT_VERSION = "CPAchecker incremental ARG 1";
+
+  /**
+   * Options that may differ between versions. Changes of the program itself are detected by
+   * comparing the CFAs, and the other options do not influence the analysis result.
+   */
+  private static final ImmutableList<String> IRRELEVANT_OPTION_PREFIXES =
+      ImmutableList.of(
+          "analysis.programNames",
+          "incremental.",
+          "java.classpath",
+          "java.sourcepath",
+          "log.",
+          "output.",
+          "statistics.");
+
+  @Option(
+      secure = true,
+      description =
+          "File with the ARG of the analysis of a previous version of the program. All parts of"
+              + " the ARG that belong to unchanged functions are reused.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path inputFile = null;
+
+  @Option(
+      secure = true,
+      description =
+          "File to which the ARG is written after the analysis, such that an analysis of a later"
+              + " version of the program can reuse it.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path outputFile = Path.of("incrementalARG.ser.gz");
+
+  private final Algorithm algorithm;
+  private final CFA cfa;
+  private final LogManager logger;
+  private final String configFingerprint;
+
+  private boolean isFirstRun = true;
+  private @Nullable FunctionFingerprints functions = null;
+  private final Set<ARGState> reusedStates = new HashSet<>();
+
+  private final StatTimer readTime = new StatTimer("Time for reading previous ARG");
+  private final StatTimer writeTime = new StatTimer("Time for writing ARG");
+  private int numFunctions = 0;
+  private int numChangedFunctions = 0;
+  private int numPreviousStates = 0;
+  private int numRecomputedStates = 0;
+
+  public IncrementalAnalysisAlgorithm(
+      Algorithm pAlgorithm,
+      ConfigurableProgramAnalysis pCpa,
+      CFA pCfa,
+      Configuration pConfig,
+      LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    CPAs.retrieveCPAOrFail(pCpa, ARGCPA.class, IncrementalAnalysisAlgorithm.class);
+    algorithm = pAlgorithm;
+    cfa = pCfa;
+    logger = pLogger;
+    configFingerprint = computeConfigFingerprint(pConfig);
+  }
+
+  private static String computeConfigFingerprint(Configuration pConfig) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String option :
+        new TreeSet<>(
+            Splitter.on('\n').omitEmptyStrings().splitToList(pConfig.asPropertiesString()))) {
+      if (IRRELEVANT_OPTION_PREFIXES.stream().noneMatch(option::startsWith)) {
+        hasher.putString(option, UTF_8).putChar('\n');
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private FunctionFingerprints getFunctions() {
+    if (functions == null) {
+      functions = FunctionFingerprints.of(cfa);
+      numFunctions = functions.size();
+    }
+    return functions;
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    if (isFirstRun && inputFile != null && !Files.exists(inputFile)) {
+      logger.log(Level.INFO, "No previous ARG found in", inputFile, ", analyzing from scratch.");
+    } else if (isFirstRun && inputFile != null && pReachedSet.size() == 1) {
+      readTime.start();
+      try {
+        readPreviousARG(inputFile, pReachedSet);
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not read ARG of previous analysis, analyzing from scratch");
+      } finally {
+        readTime.stop();
+      }
+    }
+    isFirstRun = false;
+
+    AlgorithmStatus status = algorithm.run(pReachedSet);
+
+    numRecomputedStates = 0;
+    for (AbstractState state : pReachedSet) {
+      if (!reusedStates.contains(state)) {
+        numRecomputedStates++;
+      }
+    }
+
+    if (outputFile != null) {
+      writeTime.start();
+      try {
+        writeARG(outputFile, pReachedSet);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write ARG for incremental analysis");
+      } finally {
+        writeTime.stop();
+      }
+    }
+    return status;
+  }
+
+  /**
+   * Write the reached set. After the index of the root state, for each state we write the number
+   * of its location, whether it is a target state or in the waitlist, the indices of its covering
+   * state and its parents, and the wrapped state. All states are written to the same stream, such
+   * that shared parts of states are written only once.
+   */
+  private void writeARG(Path pFile, UnmodifiableReachedSet pReached) throws IOException {
+    List<ARGState> states = new ArrayList<>(pReached.size());
+    Map<ARGState, Integer> indices = new HashMap<>();
+    for (AbstractState state : pReached) {
+      indices.put((ARGState) state, states.size());
+      states.add((ARGState) state);
+    }
+    Set<AbstractState> waitlist = ImmutableSet.copyOf(pReached.getWaitlist());
+
+    MoreFiles.createParentDirectories(pFile);
+    try (OutputStream out = Files.newOutputStream(pFile);
+        OutputStream gzipOut = new GZIPOutputStream(out);
+        ObjectOutputStream oos = new ObjectOutputStream(gzipOut)) {
+      oos.writeUTF(FORMAT_VERSION);
+      oos.writeUTF(configFingerprint);
+      oos.writeObject(getFunctions());
+
+      oos.writeInt(states.size());
+      // the root is the first state of the reached set, but not necessarily the first in the ARG
+      oos.writeInt(indices.getOrDefault(pReached.getFirstState(), -1));
+      for (ARGState state : states) {
+        CFANode location = AbstractStates.extractLocation(state);
+        oos.writeInt(location == null ? -1 : location.getNodeNumber());
+        oos.writeBoolean(state.isTarget());
+        oos.writeBoolean(waitlist.contains(state));
+        oos.writeInt(state.isCovered() ? indices.getOrDefault(state.getCoveringState(), -1) : -1);
+
+        List<Integer> parents = new ArrayList<>(state.getParents().size());
+        for (ARGState parent : state.getParents()) {
+          Integer parentIndex = indices.get(parent);
+          if (parentIndex != null) {
+            parents.add(parentIndex);
+          }
+        }
+        oos.writeInt(parents.size());
+        for (int parentIndex : parents) {
+          oos.writeInt(parentIndex);
+        }
+
+        oos.writeObject(state.getWrappedState());
+      }
+    }
+  }
+
+  /**
+   * Read the ARG of the previous analysis, remove all states that need to be recomputed, and
+   * replace the content of the given reached set with the remaining states.
+   */
+  private void readPreviousARG(Path pFile, ReachedSet pReached)
+      throws IOException, ClassNotFoundException {
+    final int n;
+    final int rootIndex;
+    final int[] locations;
+    final boolean[] isTarget;
+    final boolean[] isWaiting;
+    final int[] coveringStates;
+    final int[][] parents;
+    final AbstractState[] wrappedStates;
+    final ImmutableMap<Integer, CFANode> unchangedNodes;
+
+    try (InputStream in = Files.newInputStream(pFile);
+        InputStream gzipIn = new GZIPInputStream(in);
+        NodeTranslatingObjectInputStream ois = new NodeTranslatingObjectInputStream(gzipIn)) {
+      if (!ois.readUTF().equals(FORMAT_VERSION)) {
+        logger.log(Level.WARNING, "File", pFile, "has an unknown format, analyzing from scratch.");
+        return;
+      }
+      if (!ois.readUTF().equals(configFingerprint)) {
+        logger.log(
+            Level.INFO,
+            "ARG in",
+            pFile,
+            "was created with a different configuration, analyzing from scratch.");
+        return;
+      }
+
+      FunctionFingerprints previousFunctions = (FunctionFingerprints) ois.readObject();
+      numChangedFunctions = previousFunctions.getChangedFunctions(getFunctions()).size();
+      unchangedNodes = previousFunctions.mapUnchangedNodes(getFunctions(), cfa);
+
+      n = ois.readInt();
+      rootIndex = ois.readInt();
+      locations = new int[n];
+      isTarget = new boolean[n];
+      isWaiting = new boolean[n];
+      coveringStates = new int[n];
+      parents = new int[n][];
+      wrappedStates = new AbstractState[n];
+
+      // States in changed functions refer to nodes that do not exist anymore. We let them refer
+      // to the main function while reading, they are removed afterwards anyway.
+      CFANode placeholder = cfa.getMainFunction();
+      ois.setNodeNumberTranslation(
+          nodeNumber -> unchangedNodes.getOrDefault(nodeNumber, placeholder));
+      for (int i = 0; i < n; i++) {
+        locations[i] = ois.readInt();
+        isTarget[i] = ois.readBoolean();
+        isWaiting[i] = ois.readBoolean();
+        coveringStates[i] = ois.readInt();
+        parents[i] = new int[ois.readInt()];
+        for (int j = 0; j < parents[i].length; j++) {
+          parents[i][j] = ois.readInt();
+        }
+        wrappedStates[i] = (AbstractState) ois.readObject();
+      }
+    }
+    numPreviousStates = n;
+
+    // invalidate all states in changed functions and all target states, and their successors
+    List<List<Integer>> children = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      children.add(new ArrayList<>(1));
+    }
+    for (int i = 0; i < n; i++) {
+      for (int parent : parents[i]) {
+        children.get(parent).add(i);
+      }
+    }
+    boolean[] isInvalid = new boolean[n];
+    Deque<Integer> waitlist = new ArrayDeque<>();
+    for (int i = 0; i < n; i++) {
+      if (isTarget[i] || !unchangedNodes.containsKey(locations[i])) {
+        isInvalid[i] = true;
+        waitlist.add(i);
+      }
+    }
+    while (!waitlist.isEmpty()) {
+      for (int child : children.get(waitlist.pop())) {
+        if (!isInvalid[child]) {
+          isInvalid[child] = true;
+          waitlist.add(child);
+        }
+      }
+    }
+    if (rootIndex < 0 || rootIndex >= n || isInvalid[rootIndex]) {
+      logger.log(Level.INFO, "No part of the previous ARG can be reused.");
+      return;
+    }
+
+    ARGState[] states = new ARGState[n];
+    for (int i = 0; i < n; i++) {
+      if (!isInvalid[i]) {
+        states[i] = new ARGState(wrappedStates[i], null);
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      if (isInvalid[i]) {
+        for (int parent : parents[i]) {
+          // the frontier of the reused part needs to be expanded again
+          isWaiting[parent] = true;
+        }
+        continue;
+      }
+      for (int parent : parents[i]) {
+        if (!isInvalid[parent]) {
+          states[i].addParent(states[parent]);
+        }
+      }
+      if (coveringStates[i] >= 0) {
+        if (isInvalid[coveringStates[i]]) {
+          isWaiting[i] = true;
+        } else {
+          states[i].setCovered(states[coveringStates[i]]);
+        }
+      }
+    }
+
+    Precision precision = pReached.getPrecision(pReached.getFirstState());
+    pReached.clear();
+    // the root is added first, such that it is the first state of the reached set again
+    List<Integer> order = new ArrayList<>(n);
+    order.add(rootIndex);
+    for (int i = 0; i < n; i++) {
+      if (i != rootIndex) {
+        order.add(i);
+      }
+    }
+    for (int i : order) {
+      if (isInvalid[i]) {
+        continue;
+      }
+      if (isWaiting[i] && !states[i].isCovered()) {
+        pReached.add(states[i], precision);
+      } else {
+        if (!states[i].isCovered()) {
+          states[i].markExpanded();
+        }
+        pReached.addNoWaitlist(states[i], precision);
+      }
+      reusedStates.add(states[i]);
+    }
+    logger.log(
+        Level.INFO,
+        "Reusing",
+        reusedStates.size(),
+        "of",
+        n,
+        "states of the previous analysis,",
+        numChangedFunctions,
+        "functions have changed.");
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(this);
+    if (algorithm instanceof StatisticsProvider) {
+      ((StatisticsProvider) algorithm).collectStatistics(pStatsCollection);
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    writingStatisticsTo(pOut)
+        .put("Number of functions", numFunctions)
+        .put("Number of changed functions", numChangedFunctions)
+        .put("Number of states of previous analysis", numPreviousStates)
+        .put("Number of reused states", reusedStates.size())
+        .put("Number of invalidated states", numPreviousStates - reusedStates.size())
+        .put("Number of recomputed states", numRecomputedStates)
+        .put(readTime)
+        .put(writeTime);
+  }
+
+  @Override
+  public @Nullable String getName() {
+    return "Incremental analysis";
+  }
+}
@@ -12,7 +12,6 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
@@ -22,16 +21,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAccumulator;
@@ -41,6 +34,7 @@ import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -84,6 +78,21 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path runningRSESeriesFile = Path.of("RSESeries.csv");
 
+  @Option(
+      secure = true,
+      description =
+          "execute reached-sets of blocks on the critical path of the dependency graph first,"
+              + " i.e., blocks with the longest chain of other blocks waiting for them")
+  private boolean prioritizeCriticalPath = true;
+
+  @Option(
+      secure = true,
+      description =
+          "maximal number of reached-sets that a thread executes in a row before it returns to"
+              + " the pool, which avoids overhead for blocks with small reached-sets")
+  @IntegerOption(min = 1)
+  private int maxBatchSize = 8;
+
   private final ParallelBAMStatistics stats = new ParallelBAMStatistics();
   private final LogManager logger;
   private final LogManagerWithoutDuplicates oneTimeLogger;
@@ -124,12 +133,10 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     final int numberOfCores = getNumberOfCores();
     oneTimeLogger.logfOnce(Level.INFO, "creating pool for %d threads", numberOfCores);
 
-    ThreadFactory threadFactory =
-        new ThreadFactoryBuilder()
-            .setDaemon(true) // for killing hanging threads at program exit
-            .setNameFormat("ParallelBAM-thread-%d")
-            .build();
-    final ExecutorService pool = Executors.newFixedThreadPool(numberOfCores, threadFactory);
+    stats.poolSize = numberOfCores;
+    final ReachedSetExecutorScheduler pool =
+        new ReachedSetExecutorScheduler(
+            numberOfCores, prioritizeCriticalPath, maxBatchSize, stats.batchSize);
     final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
     final AtomicBoolean terminateAnalysis = new AtomicBoolean(false);
     final AtomicInteger scheduledJobs = new AtomicInteger(0);
@@ -243,9 +250,10 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
         .forEach(
             entry -> {
               ReachedSetExecutor rse = entry.getValue();
-              CompletableFuture<Void> job = rse.getWaitingTasks();
-              try {
-                job.get(5, TimeUnit.SECONDS);
+              if (rse.hasPendingTasks()) {
+                // the pool was terminated before all tasks were executed
+                errors.add(new RejectedExecutionException("unexecuted tasks for " + rse));
+              } else {
                 stats.executionCounter.insertValue(entry.getValue().execCounter);
                 stats.unfinishedRSEcounter.inc();
 
@@ -256,14 +264,8 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
                     otherRScontainsTarget.set(true);
                   }
                 }
-
-              } catch (RejectedExecutionException
-                  | ExecutionException
-                  | InterruptedException
-                  | TimeoutException e) {
-                errors.add(e);
               }
-              logger.log(Level.ALL, "finishing", rse, job.isCompletedExceptionally());
+              logger.log(Level.ALL, "finishing", rse);
             });
 
     if (!errors.isEmpty()) {
@@ -330,6 +332,9 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
     final StatHist histActiveThreads = new StatHist("Active threads");
     final StatHist executionCounter = new StatHist("RSE execution counter");
     private final StatCounter unfinishedRSEcounter = new StatCounter("unfinished reached-sets");
+    final StatHist queueWaitTime = new StatHist("Waiting time of tasks in queue (microseconds)");
+    final StatHist batchSize = new StatHist("Reached-sets executed per batch");
+    private int poolSize = 0;
 
     final StatisticsSeries<Integer> runningRSESeries =
         (runningRSESeriesFile == null)
@@ -342,8 +347,21 @@ public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
       StatisticsUtils.write(pOut, 0, 50, histActiveThreads);
       StatisticsUtils.write(pOut, 0, 50, executionCounter);
       StatisticsUtils.write(pOut, 0, 50, unfinishedRSEcounter);
+      StatisticsUtils.write(pOut, 0, 50, queueWaitTime);
+      StatisticsUtils.write(pOut, 0, 50, batchSize);
       StatisticsUtils.write(pOut, 0, 50, wallTime);
       StatisticsUtils.write(pOut, 0, 50, threadTime);
+      if (poolSize > 0) {
+        // fraction of the available thread time that was used for executing reached-sets
+        StatisticsUtils.write(
+            pOut,
+            1,
+            50,
+            "Thread utilization",
+            StatisticsUtils.toPercent(
+                threadTime.getSumTime().asNanos(),
+                wallTime.getConsumedTime().asNanos() * (double) poolSize));
+      }
       StatisticsUtils.write(pOut, 1, 50, addingStatesTime);
       StatisticsUtils.write(pOut, 1, 50, terminationCheckTime);
       if (runningRSESeriesFile != null) {
@@ -20,19 +20,21 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.graph.Traverser;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -84,7 +86,7 @@ class ReachedSetExecutor {
   /** important central data structure, shared over all threads, need to be synchronized. */
   private final ConcurrentMap<ReachedSet, ReachedSetExecutor> reachedSetMapping;
 
-  private final ExecutorService pool;
+  private final ReachedSetExecutorScheduler pool;
 
   private final BAMCPAWithBreakOnMissingBlock bamcpa;
   private final AlgorithmFactory algorithmFactory;
@@ -126,8 +128,23 @@ class ReachedSetExecutor {
   private final Multimap<ReachedSetExecutor, AbstractState> dependingFrom =
       LinkedHashMultimap.create();
 
-  /** This future contains the list of tasks to be executed with this RSE. */
-  private CompletableFuture<Void> waitingTask;
+  /** The tasks to be executed with this RSE, in order. Synchronized access needed! */
+  private final Deque<Runnable> pendingTasks = new ArrayDeque<>();
+
+  /** Whether this RSE is scheduled for executing its pending tasks. Synchronized access needed! */
+  private boolean isScheduled = false;
+
+  /**
+   * The length of the longest chain of RSEs that wait for the current one, used as priority for
+   * scheduling. Blocks on the critical path of the dependency graph have a higher priority.
+   */
+  private final AtomicInteger dependencyDepth = new AtomicInteger(0);
+
+  /**
+   * The RSEs that the current one has waited for, whose dependency depth depends on the one of the
+   * current RSE.
+   */
+  private final Set<ReachedSetExecutor> dependencies = ConcurrentHashMap.newKeySet();
 
   public ReachedSetExecutor(
       BAMCPAWithBreakOnMissingBlock pBamCpa,
@@ -135,7 +152,7 @@ class ReachedSetExecutor {
       Block pBlock,
       boolean pIsMainReachedSet,
       ConcurrentMap<ReachedSet, ReachedSetExecutor> pReachedSetMapping,
-      ExecutorService pPool,
+      ReachedSetExecutorScheduler pPool,
       AlgorithmFactory pAlgorithmFactory,
       ShutdownNotifier pShutdownNotifier,
       ParallelBAMStatistics pStats,
@@ -166,9 +183,6 @@ class ReachedSetExecutor {
     threadTimer = stats.threadTime.getNewTimer();
     addingStatesTimer = stats.addingStatesTime.getNewTimer();
     terminationCheckTimer = stats.terminationCheckTime.getNewTimer();
-
-    // initialization with a NOOP, more tasks are appended later
-    waitingTask = CompletableFuture.runAsync(() -> {}, pool);
   }
 
   public Runnable asRunnable() {
@@ -185,14 +199,73 @@ class ReachedSetExecutor {
     return () -> apply0(copy);
   }
 
-  synchronized void addNewTask(Runnable r) {
+  void addNewTask(Runnable r) {
     scheduledJobs.incrementAndGet();
-    waitingTask = waitingTask.thenRunAsync(r, pool).exceptionally(new ExceptionHandler(this));
+    final long queuedTime = System.nanoTime();
+    Runnable task =
+        () -> {
+          stats.queueWaitTime.insertValue(
+              TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - queuedTime));
+          r.run();
+        };
+
+    final boolean needsScheduling;
+    synchronized (this) {
+      pendingTasks.add(task);
+      needsScheduling = !isScheduled;
+      isScheduled = true;
+    }
+    if (needsScheduling) {
+      try {
+        pool.schedule(this);
+      } catch (RejectedExecutionException e) {
+        // pool will shutdown on forced termination after timeout and throw lots of them.
+        errors.add(e);
+        terminateAnalysis.set(true);
+      }
+    }
+  }
+
+  /**
+   * Execute all pending tasks of this RSE, including those that are added meanwhile. Only called
+   * by the scheduler, which guarantees that the RSE is executed by at most one thread at a time.
+   */
+  void executePendingTasks() {
+    while (true) {
+      final Runnable task;
+      synchronized (this) {
+        task = pendingTasks.poll();
+        if (task == null) {
+          isScheduled = false;
+          return;
+        }
+      }
+      task.run();
+    }
   }
 
   /** use only for debugging and exception handling */
-  CompletableFuture<Void> getWaitingTasks() {
-    return waitingTask;
+  synchronized boolean hasPendingTasks() {
+    return !pendingTasks.isEmpty();
+  }
+
+  int getDependencyDepth() {
+    return dependencyDepth.get();
+  }
+
+  /**
+   * Raise the dependency depth of this RSE to at least the given value, and the ones of all RSEs
+   * it has waited for accordingly. The dependency graph is acyclic, because recursion is not
+   * supported.
+   */
+  private void raiseDependencyDepth(int pDepth) {
+    int old = dependencyDepth.getAndAccumulate(pDepth, Math::max);
+    if (old < pDepth) {
+      pool.updatePriority(this);
+      for (ReachedSetExecutor subRse : dependencies) {
+        subRse.raiseDependencyDepth(pDepth + 1);
+      }
+    }
   }
 
   private void apply0(Collection<AbstractState> pStatesToBeAdded) {
@@ -413,6 +486,8 @@ class ReachedSetExecutor {
       MissingBlockAbstractionState pBsme, final ReachedSetExecutor subRse) {
     logger.logf(level, "%s :: %s -> %s", this, this, subRse);
     dependsOn.add(pBsme.getState());
+    dependencies.add(subRse);
+    subRse.raiseDependencyDepth(dependencyDepth.get() + 1);
     synchronized (subRse.dependingFrom) {
       subRse.dependingFrom.put(this, pBsme.getState());
     }
@@ -567,26 +642,4 @@ class ReachedSetExecutor {
     Collections.sort(dependencies); // for deterministic dot-graphs
     return "digraph DEPENDENCIES {\n  " + Joiner.on(";\n  ").join(dependencies) + ";\n}\n";
   }
-
-  class ExceptionHandler implements Function<Throwable, Void> {
-
-    private final ReachedSetExecutor rse;
-
-    public ExceptionHandler(ReachedSetExecutor pRse) {
-      rse = pRse;
-    }
-
-    @Override
-    public Void apply(Throwable e) {
-      // if (e instanceof RejectedExecutionException || e instanceof CompletionException) {
-      // pool will shutdown on forced termination after timeout and throw lots of them.
-      // we could ignore those exceptions.
-      // }
-
-      errors.add(e);
-      rse.terminateAnalysis.set(true);
-
-      return null;
-    }
-  }
 }
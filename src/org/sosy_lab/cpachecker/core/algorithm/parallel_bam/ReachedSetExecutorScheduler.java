@@ -0,0 +1,186 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.statistics.StatHist;
+
+/**
+ * A scheduler for {@link ReachedSetExecutor}s that executes them on a fixed thread pool in the
+ * order of their priority.
+ *
+ * <p>Each RSE is scheduled at most once at a time, and executes all of its pending tasks when it
+ * runs. This guarantees single-threaded access to its reached-set. All threads take the scheduled
+ * RSEs from one common priority queue: if enabled, RSEs with a longer chain of other RSEs waiting
+ * for them, i.e., RSEs on the critical path of the dependency graph, are executed first. Otherwise,
+ * and for RSEs with the same priority, the order is FIFO. The priority of an RSE is read when it
+ * is scheduled and has to be updated with {@link #updatePriority} when it changes while the RSE
+ * is waiting.
+ *
+ * <p>Each task of the pool executes several scheduled RSEs in a row, such that blocks with small
+ * reached-sets do not cause one pool task each.
+ */
+final class ReachedSetExecutorScheduler {
+
+  private static final Comparator<ScheduledRSE> ORDER =
+      Comparator.<ScheduledRSE>comparingInt(s -> -s.priority).thenComparingLong(s -> s.sequence);
+
+  private final ExecutorService pool;
+  private final boolean prioritizeCriticalPath;
+  private final int maxBatchSize;
+  private final StatHist batchSize;
+
+  @GuardedBy("this")
+  private final PriorityQueue<ScheduledRSE> queue = new PriorityQueue<>(ORDER);
+
+  /** The entries of {@link #queue} by their RSE, for updating the priority. */
+  @GuardedBy("this")
+  private final Map<ReachedSetExecutor, ScheduledRSE> queued = new HashMap<>();
+
+  @GuardedBy("this")
+  private long sequence = 0;
+
+  ReachedSetExecutorScheduler(
+      int pNumberOfThreads,
+      boolean pPrioritizeCriticalPath,
+      int pMaxBatchSize,
+      StatHist pBatchSize) {
+    checkArgument(pNumberOfThreads > 0);
+    checkArgument(pMaxBatchSize > 0);
+    prioritizeCriticalPath = pPrioritizeCriticalPath;
+    maxBatchSize = pMaxBatchSize;
+    batchSize = checkNotNull(pBatchSize);
+
+    ThreadFactory threadFactory =
+        new ThreadFactoryBuilder()
+            .setDaemon(true) // for killing hanging threads at program exit
+            .setNameFormat("ParallelBAM-thread-%d")
+            .build();
+    pool = Executors.newFixedThreadPool(pNumberOfThreads, threadFactory);
+  }
+
+  /**
+   * Schedule the given RSE for the execution of its pending tasks.
+   *
+   * @throws RejectedExecutionException if the scheduler was shut down
+   */
+  void schedule(ReachedSetExecutor pRse) {
+    ScheduledRSE scheduled;
+    synchronized (this) {
+      checkArgument(!queued.containsKey(pRse), "RSE is already scheduled: %s", pRse);
+      scheduled = new ScheduledRSE(pRse, getPriority(pRse), sequence++);
+      queue.add(scheduled);
+      queued.put(pRse, scheduled);
+    }
+    try {
+      pool.execute(this::executeBatch);
+    } catch (RejectedExecutionException e) {
+      synchronized (this) {
+        if (queue.remove(scheduled)) {
+          queued.remove(pRse);
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Re-read the priority of the given RSE if it is waiting for its execution. Nothing happens if
+   * it is not scheduled or already running.
+   */
+  void updatePriority(ReachedSetExecutor pRse) {
+    if (!prioritizeCriticalPath) {
+      return;
+    }
+    synchronized (this) {
+      ScheduledRSE old = queued.get(pRse);
+      if (old == null) {
+        return;
+      }
+      int priority = getPriority(pRse);
+      if (priority != old.priority) {
+        // keep the position among RSEs with the same priority
+        ScheduledRSE updated = new ScheduledRSE(pRse, priority, old.sequence);
+        queue.remove(old);
+        queue.add(updated);
+        queued.put(pRse, updated);
+      }
+    }
+  }
+
+  private int getPriority(ReachedSetExecutor pRse) {
+    return prioritizeCriticalPath ? pRse.getDependencyDepth() : 0;
+  }
+
+  private synchronized @Nullable ReachedSetExecutor poll() {
+    ScheduledRSE scheduled = queue.poll();
+    if (scheduled == null) {
+      return null;
+    }
+    queued.remove(scheduled.rse);
+    return scheduled.rse;
+  }
+
+  /** Execute the RSEs with the highest priority, until the batch is full or nothing is left. */
+  private void executeBatch() {
+    int executed = 0;
+    ReachedSetExecutor rse;
+    while (executed < maxBatchSize && (rse = poll()) != null) {
+      rse.executePendingTasks();
+      executed++;
+    }
+    if (executed > 0) {
+      batchSize.insertValue(executed);
+    }
+  }
+
+  /** Let the already scheduled tasks finish, but do not accept new ones. */
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /** Cancel all tasks and interrupt the running ones. */
+  void shutdownNow() {
+    pool.shutdownNow();
+  }
+
+  boolean awaitTermination(long pTimeout, TimeUnit pUnit) throws InterruptedException {
+    return pool.awaitTermination(pTimeout, pUnit);
+  }
+
+  boolean isTerminated() {
+    return pool.isTerminated();
+  }
+
+  private static final class ScheduledRSE {
+    private final ReachedSetExecutor rse;
+    private final int priority;
+    private final long sequence;
+
+    private ScheduledRSE(ReachedSetExecutor pRse, int pPriority, long pSequence) {
+      rse = pRse;
+      priority = pPriority;
+      sequence = pSequence;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.parallel_bam;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.statistics.StatHist;
+
+/**
+ * Unit tests for the order in which {@link ReachedSetExecutorScheduler} executes the scheduled
+ * RSEs. The scheduler has only one thread, which is blocked by the first RSE until all others are
+ * scheduled.
+ */
+public class ReachedSetExecutorSchedulerTest {
+
+  private final List<String> executed = new CopyOnWriteArrayList<>();
+  private final CountDownLatch blockerStarted = new CountDownLatch(1);
+  private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+
+  private ReachedSetExecutorScheduler scheduler;
+
+  @After
+  public void tearDown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private ReachedSetExecutor mockRse(String pName, AtomicInteger pDepth) {
+    ReachedSetExecutor rse = mock(ReachedSetExecutor.class);
+    when(rse.getDependencyDepth()).thenAnswer(call -> pDepth.get());
+    doAnswer(
+            call -> {
+              executed.add(pName);
+              return null;
+            })
+        .when(rse)
+        .executePendingTasks();
+    return rse;
+  }
+
+  /** Create a scheduler with one thread and schedule an RSE that blocks this thread. */
+  private void startBlockedScheduler(boolean pPrioritizeCriticalPath) throws InterruptedException {
+    scheduler =
+        new ReachedSetExecutorScheduler(1, pPrioritizeCriticalPath, 100, new StatHist("batches"));
+    ReachedSetExecutor blocker = mock(ReachedSetExecutor.class);
+    doAnswer(
+            call -> {
+              blockerStarted.countDown();
+              releaseBlocker.await();
+              return null;
+            })
+        .when(blocker)
+        .executePendingTasks();
+    scheduler.schedule(blocker);
+    assertThat(blockerStarted.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private void releaseAndAwaitTermination() throws InterruptedException {
+    releaseBlocker.countDown();
+    scheduler.shutdown();
+    assertThat(scheduler.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void executeByDependencyDepthThenFifo() throws InterruptedException {
+    startBlockedScheduler(true);
+    scheduler.schedule(mockRse("a", new AtomicInteger(0)));
+    scheduler.schedule(mockRse("b", new AtomicInteger(2)));
+    scheduler.schedule(mockRse("c", new AtomicInteger(1)));
+    scheduler.schedule(mockRse("d", new AtomicInteger(0)));
+    releaseAndAwaitTermination();
+
+    assertThat(executed).containsExactly("b", "c", "a", "d").inOrder();
+  }
+
+  @Test
+  public void executeByUpdatedDependencyDepth() throws InterruptedException {
+    startBlockedScheduler(true);
+    AtomicInteger depthOfA = new AtomicInteger(0);
+    ReachedSetExecutor a = mockRse("a", depthOfA);
+    scheduler.schedule(a);
+    scheduler.schedule(mockRse("b", new AtomicInteger(2)));
+    scheduler.schedule(mockRse("c", new AtomicInteger(1)));
+    AtomicInteger depthOfD = new AtomicInteger(0);
+    ReachedSetExecutor d = mockRse("d", depthOfD);
+    scheduler.schedule(d);
+
+    // a is now on the critical path, d has the same depth as c but was scheduled later
+    depthOfA.set(3);
+    scheduler.updatePriority(a);
+    depthOfD.set(1);
+    scheduler.updatePriority(d);
+    releaseAndAwaitTermination();
+
+    assertThat(executed).containsExactly("a", "b", "c", "d").inOrder();
+  }
+
+  @Test
+  public void executeFifoWithoutPrioritization() throws InterruptedException {
+    startBlockedScheduler(false);
+    scheduler.schedule(mockRse("a", new AtomicInteger(0)));
+    scheduler.schedule(mockRse("b", new AtomicInteger(2)));
+    AtomicInteger depthOfC = new AtomicInteger(1);
+    ReachedSetExecutor c = mockRse("c", depthOfC);
+    scheduler.schedule(c);
+    depthOfC.set(5);
+    scheduler.updatePriority(c);
+    releaseAndAwaitTermination();
+
+    assertThat(executed).containsExactly("a", "b", "c").inOrder();
+  }
+
+  @Test
+  public void rejectAfterShutdown() throws InterruptedException {
+    startBlockedScheduler(true);
+    releaseAndAwaitTermination();
+
+    ReachedSetExecutor rse = mockRse("a", new AtomicInteger(0));
+    assertThrows(RejectedExecutionException.class, () -> scheduler.schedule(rse));
+    assertThat(executed).isEmpty();
+  }
+}
@@ -12,12 +12,17 @@ import java.util.Collection;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 /**
  * Standard stop-sep operator
+ *
+ * <p>Reached states whose {@link AbstractStateWithCoverageSignature coverage signature} shows that
+ * they cannot cover the new state are skipped without calling the (potentially expensive) partial
+ * order of the domain.
  */
 public class StopSepOperator implements StopOperator {
 
@@ -35,7 +40,18 @@ public class StopSepOperator implements StopOperator {
   public boolean stop(AbstractState el, Collection<AbstractState> reached, Precision precision)
     throws CPAException, InterruptedException {
 
+    boolean hasSignature = el instanceof AbstractStateWithCoverageSignature;
+    long signature =
+        hasSignature ? ((AbstractStateWithCoverageSignature) el).getCoverageSignature() : 0;
+
     for (AbstractState reachedState : reached) {
+      if (hasSignature
+          && reachedState instanceof AbstractStateWithCoverageSignature
+          && !AbstractStateWithCoverageSignature.mayBeLessOrEqual(
+              signature,
+              ((AbstractStateWithCoverageSignature) reachedState).getCoverageSignature())) {
+        continue;
+      }
       if (domain.isLessOrEqual(el, reachedState)) {
         return true;
       }
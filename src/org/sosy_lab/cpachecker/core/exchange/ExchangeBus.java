@@ -0,0 +1,193 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.exchange;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * A bus for exchanging intermediate results between analyses that run concurrently, e.g., the
+ * analyses of a parallel portfolio. Each analysis joins the bus as a {@link Participant}, which can
+ * publish messages on a {@link Topic} and subscribe to the messages of the other participants.
+ *
+ * <p>Each topic is an append-only list of messages that is never blocked: publishing appends a
+ * message with a compare-and-set operation, and each {@link Subscription} only keeps a pointer to
+ * the last message it has delivered. Thus a subscription also delivers the messages that were
+ * published before it was created, and neither slow consumers nor crashed analyses block the
+ * others. Messages are kept for the whole run and should therefore be small and immutable.
+ */
+public final class ExchangeBus {
+
+  /**
+   * Precision increments of value analysis: the memory locations that need to be tracked at the
+   * given program locations to rule out an infeasible counterexample.
+   */
+  public static final Topic<ImmutableSetMultimap<CFANode, MemoryLocation>>
+      VALUE_PRECISION_INCREMENTS = new Topic<>("Value-analysis precision increments");
+
+  private final ConcurrentMap<Topic<?>, Channel<?>> channels = new ConcurrentHashMap<>();
+
+  /** Create a new participant with the given name (used for logging). */
+  public Participant join(String pName) {
+    return new Participant(pName);
+  }
+
+  @SuppressWarnings("unchecked") // the channel of a topic has the same type as the topic
+  private <T> Channel<T> getChannel(Topic<T> pTopic) {
+    return (Channel<T>) channels.computeIfAbsent(pTopic, t -> new Channel<T>());
+  }
+
+  public void printStatistics(StatisticsWriter pWriter) {
+    for (Map.Entry<Topic<?>, Channel<?>> entry : channels.entrySet()) {
+      Channel<?> channel = entry.getValue();
+      pWriter
+          .put(entry.getKey().name, "")
+          .beginLevel()
+          .put("Number of published messages", channel.published)
+          .put("Number of delivered messages", channel.delivered)
+          .endLevel();
+    }
+  }
+
+  /** A topic of the bus, whose messages have the type {@code T}. */
+  public static final class Topic<T> {
+
+    private final String name;
+
+    private Topic(String pName) {
+      name = checkNotNull(pName);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** An analysis that takes part in the exchange of information. */
+  public final class Participant {
+
+    private final String name;
+
+    private Participant(String pName) {
+      name = checkNotNull(pName);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /** Publish a message for the other participants. */
+    public <T> void publish(Topic<T> pTopic, T pContent) {
+      Channel<T> channel = getChannel(pTopic);
+      channel.append(new Message<>(checkNotNull(pContent), this));
+      channel.published.increment();
+    }
+
+    /**
+     * Subscribe to the messages of the other participants on the given topic, including those that
+     * were published before.
+     */
+    public <T> Subscription<T> subscribe(Topic<T> pTopic) {
+      return new Subscription<>(getChannel(pTopic), this);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * A subscription of one participant to one topic. A subscription is not thread-safe and should
+   * be used by only one thread.
+   */
+  public static final class Subscription<T> {
+
+    private final Channel<T> channel;
+    private final Participant subscriber;
+    private Message<T> lastDelivered;
+
+    private Subscription(Channel<T> pChannel, Participant pSubscriber) {
+      channel = pChannel;
+      subscriber = pSubscriber;
+      lastDelivered = pChannel.head;
+    }
+
+    /**
+     * Return the messages of the other participants that were published since the last call, in
+     * the order of their publication.
+     */
+    public List<T> poll() {
+      ImmutableList.Builder<T> result = ImmutableList.builder();
+      int count = 0;
+      for (Message<T> m = lastDelivered.next.get(); m != null; m = m.next.get()) {
+        lastDelivered = m;
+        if (m.sender != subscriber) {
+          result.add(checkNotNull(m.content));
+          count++;
+        }
+      }
+      if (count > 0) {
+        channel.delivered.add(count);
+      }
+      return result.build();
+    }
+  }
+
+  private static final class Message<T> {
+
+    private final @Nullable T content; // null only for the head of a channel
+    private final @Nullable Participant sender;
+    private final AtomicReference<Message<T>> next = new AtomicReference<>();
+
+    private Message(@Nullable T pContent, @Nullable Participant pSender) {
+      content = pContent;
+      sender = pSender;
+    }
+  }
+
+  private static final class Channel<T> {
+
+    private final Message<T> head = new Message<>(null, null);
+    private final AtomicReference<Message<T>> tail = new AtomicReference<>(head);
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+
+    private void append(Message<T> pMessage) {
+      while (true) {
+        Message<T> last = tail.get();
+        Message<T> next = last.next.get();
+        if (next == null) {
+          if (last.next.compareAndSet(null, pMessage)) {
+            // if this fails, another thread has already advanced the tail
+            tail.compareAndSet(last, pMessage);
+            return;
+          }
+        } else {
+          // another thread has appended a message, but not yet advanced the tail
+          tail.compareAndSet(last, next);
+        }
+      }
+    }
+  }
+}
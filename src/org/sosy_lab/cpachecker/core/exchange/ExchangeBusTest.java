@@ -0,0 +1,103 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.exchange;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Subscription;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/** Unit tests for {@link ExchangeBus}. */
+public class ExchangeBusTest {
+
+  private static final int THREADS = 4;
+  private static final int MESSAGES_PER_THREAD = 1000;
+
+  private ExchangeBus bus;
+  private Participant alice;
+  private Participant bob;
+
+  @Before
+  public void setUp() {
+    bus = new ExchangeBus();
+    alice = bus.join("alice");
+    bob = bus.join("bob");
+  }
+
+  private static ImmutableSetMultimap<CFANode, MemoryLocation> message(String pVariable) {
+    return ImmutableSetMultimap.of(
+        CFANode.newDummyCFANode("f"), MemoryLocation.forIdentifier(pVariable));
+  }
+
+  @Test
+  public void testDeliveryToOthers() {
+    Subscription<ImmutableSetMultimap<CFANode, MemoryLocation>> aliceSub =
+        alice.subscribe(ExchangeBus.VALUE_PRECISION_INCREMENTS);
+    Subscription<ImmutableSetMultimap<CFANode, MemoryLocation>> bobSub =
+        bob.subscribe(ExchangeBus.VALUE_PRECISION_INCREMENTS);
+
+    ImmutableSetMultimap<CFANode, MemoryLocation> m1 = message("x");
+    ImmutableSetMultimap<CFANode, MemoryLocation> m2 = message("y");
+    alice.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, m1);
+    alice.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, m2);
+
+    assertThat(aliceSub.poll()).isEmpty();
+    assertThat(bobSub.poll()).containsExactly(m1, m2).inOrder();
+    assertThat(bobSub.poll()).isEmpty();
+
+    ImmutableSetMultimap<CFANode, MemoryLocation> m3 = message("z");
+    bob.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, m3);
+    assertThat(aliceSub.poll()).containsExactly(m3);
+    assertThat(bobSub.poll()).isEmpty();
+  }
+
+  @Test
+  public void testLateSubscription() {
+    ImmutableSetMultimap<CFANode, MemoryLocation> m1 = message("x");
+    alice.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, m1);
+
+    Participant carol = bus.join("carol");
+    assertThat(carol.subscribe(ExchangeBus.VALUE_PRECISION_INCREMENTS).poll()).containsExactly(m1);
+  }
+
+  @Test
+  public void testConcurrentPublishing() throws InterruptedException {
+    Subscription<ImmutableSetMultimap<CFANode, MemoryLocation>> bobSub =
+        bob.subscribe(ExchangeBus.VALUE_PRECISION_INCREMENTS);
+    ImmutableSetMultimap<CFANode, MemoryLocation> m = message("x");
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Participant publisher = bus.join("publisher " + i);
+      threads.add(
+          new Thread(
+              () -> {
+                for (int j = 0; j < MESSAGES_PER_THREAD; j++) {
+                  publisher.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, m);
+                }
+              }));
+    }
+    threads.forEach(Thread::start);
+
+    int received = 0;
+    for (Thread thread : threads) {
+      received += bobSub.poll().size();
+      thread.join();
+    }
+    received += bobSub.poll().size();
+    assertThat(received).isEqualTo(THREADS * MESSAGES_PER_THREAD);
+  }
+}
@@ -0,0 +1,51 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.interfaces;
+
+import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+
+/**
+ * Interface for abstract states that provide a cheap over-approximation of their coverage
+ * relation, such that most pairs of states that do not cover each other can be recognized without
+ * calling {@link AbstractDomain#isLessOrEqual(AbstractState, AbstractState)}. This is used by
+ * {@link StopSepOperator}.
+ *
+ * <p>The signature is a set of bits (like a Bloom filter), e.g., one bit per tracked variable. It
+ * has to fulfill the following property for all states e1 and e2 of the same CPA: if e1 is less or
+ * equal than e2 (with respect to every domain that is used for these states), then every bit that
+ * is set in the signature of e2 is also set in the signature of e1. In other words, a state with
+ * a bit that is not set in the signature of another state can never cover that other state.
+ */
+public interface AbstractStateWithCoverageSignature extends AbstractState {
+
+  /**
+   * Return the signature of this state (see the interface documentation). The signature of a
+   * state must not change while the state is in the reached set, and computing it should be cheap
+   * (it is retrieved once per pair of states in the stop operator).
+   */
+  long getCoverageSignature();
+
+  /**
+   * Return the bit that represents the given object (e.g., a variable) in a signature. This
+   * method can be used to build signatures in the style of Bloom filters: states that track more
+   * variables are smaller and need to have more bits set.
+   */
+  static long signatureBit(Object pKey) {
+    // use the upper bits of a multiplicative hash, the lower bits of hash codes are often similar
+    return 1L << ((pKey.hashCode() * 0x9E3779B9) >>> 26);
+  }
+
+  /**
+   * Check whether the signatures allow that the state with the first signature is less or equal
+   * than the state with the second signature. If this method returns false, it is not.
+   */
+  static boolean mayBeLessOrEqual(long pSignature, long pOtherSignature) {
+    return (pOtherSignature & ~pSignature) == 0;
+  }
+}
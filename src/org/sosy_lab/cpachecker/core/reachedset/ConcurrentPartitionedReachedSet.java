@@ -0,0 +1,728 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Striped;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.AbstractSortedWaitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+
+/**
+ * Thread-safe variant of {@link PartitionedReachedSet}. States are partitioned by the key returned
+ * from {@link Partitionable#getPartitionKey()}, and {@link #getReached(AbstractState)} returns
+ * exactly the states with an equal partition key, in the order in which they were added.
+ *
+ * <p>Modifications of the reached set are guarded by a lock that is striped by partition key, such
+ * that threads working on different partitions (e.g., different locations) rarely block each
+ * other. There is no global lock on the path of adding or removing a state: The order of states
+ * is given by sequence numbers from an atomic counter, the first and last state are updated
+ * atomically, and partitions that become empty are removed. The waitlist is only modified while
+ * the lock of the partition of the respective state is held (except for popping), such that the
+ * waitlist never contains states that are not in the reached set.
+ *
+ * <p>For the traversal methods {@link TraversalMethod#BFS} and {@link TraversalMethod#DFS}, the
+ * waitlist is a concurrent map ordered by sequence numbers. For every other waitlist (e.g., sorted
+ * waitlists), the configured waitlist is used and guarded by its own lock, which is then shared by
+ * all threads.
+ *
+ * <p>All collections returned by this class are unmodifiable live views. Their iterators are
+ * weakly consistent, i.e., they never throw {@link java.util.ConcurrentModificationException},
+ * but may or may not reflect modifications that happen during the iteration.
+ */
+public class ConcurrentPartitionedReachedSet implements ReachedSet {
+
+  private static final int LOCK_STRIPES = 64;
+
+  /** Replacement for the partition key null, which is not supported by concurrent maps. */
+  private static final Object NULL_KEY = new Object();
+
+  /** Waitlist key of entries that are not in the waitlist. */
+  private static final long NOT_WAITING = -1;
+
+  /** An entry of the reached set, the sequence number determines the order of the states. */
+  private static final class ReachedEntry {
+    private final long id;
+    private final AbstractState state;
+    private volatile Precision precision;
+
+    /** Key of the entry in an {@link OrderedWaitlist}, or NOT_WAITING. */
+    private final AtomicLong waitlistKey = new AtomicLong(NOT_WAITING);
+
+    private ReachedEntry(long pId, AbstractState pState, Precision pPrecision) {
+      id = pId;
+      state = pState;
+      precision = pPrecision;
+    }
+  }
+
+  private final ConfigurableProgramAnalysis cpa;
+
+  /** Source of sequence numbers for the order of states and for the waitlist. */
+  private final AtomicLong nextId = new AtomicLong();
+
+  private final ConcurrentMap<AbstractState, ReachedEntry> reached = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, ReachedEntry> orderedReached =
+      new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<Object, ConcurrentNavigableMap<Long, AbstractState>>
+      partitionedReached = new ConcurrentHashMap<>();
+  private final Striped<Lock> partitionLocks = Striped.lock(LOCK_STRIPES);
+
+  private final Set<AbstractState> unmodifiableReached = new ReachedView();
+
+  /**
+   * Number of states, which determines whether an added state becomes the first state. This is
+   * updated atomically with respect to other adds and removes, unlike the size of {@link
+   * #reached}.
+   */
+  private final AtomicInteger reachedCount = new AtomicInteger();
+
+  private final AtomicReference<@Nullable ReachedEntry> firstEntry = new AtomicReference<>();
+  private final AtomicReference<@Nullable ReachedEntry> lastEntry = new AtomicReference<>();
+
+  private final ConcurrentWaitlist waitlist;
+
+  public ConcurrentPartitionedReachedSet(
+      ConfigurableProgramAnalysis pCpa, WaitlistFactory waitlistFactory) {
+    cpa = checkNotNull(pCpa);
+    if (waitlistFactory == TraversalMethod.BFS || waitlistFactory == TraversalMethod.DFS) {
+      waitlist = new OrderedWaitlist(waitlistFactory == TraversalMethod.DFS);
+    } else {
+      waitlist = new LockedWaitlist(waitlistFactory.createWaitlistInstance());
+    }
+  }
+
+  @Override
+  public void add(AbstractState state, Precision precision) {
+    add(state, precision, /*updateWaitlist=*/ true);
+  }
+
+  @Override
+  public void addNoWaitlist(AbstractState state, Precision precision) {
+    add(state, precision, /*updateWaitlist=*/ false);
+  }
+
+  private void add(AbstractState state, Precision precision, boolean updateWaitlist) {
+    checkNotNull(state);
+    checkNotNull(precision);
+
+    Object key = getPartitionKey(state);
+    Lock lock = partitionLocks.get(key);
+    lock.lock();
+    try {
+      ReachedEntry previous = reached.get(state);
+      if (previous != null) {
+        // State was already in the reached set, cf. DefaultReachedSet for why we do nothing here.
+        checkArgument(
+            precision.equals(previous.precision),
+            "State added to reached set which is already contained, but with a different"
+                + " precision");
+        return;
+      }
+
+      ReachedEntry entry = new ReachedEntry(nextId.getAndIncrement(), state, precision);
+      reached.put(state, entry);
+      orderedReached.put(entry.id, entry);
+      partitionedReached
+          .computeIfAbsent(key, k -> new ConcurrentSkipListMap<>())
+          .put(entry.id, state);
+
+      if (reachedCount.getAndIncrement() == 0) {
+        firstEntry.set(entry);
+      }
+      lastEntry.accumulateAndGet(
+          entry, (current, added) -> current == null || added.id > current.id ? added : current);
+
+      if (updateWaitlist) {
+        waitlist.add(entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> toAdd) {
+    for (Pair<AbstractState, Precision> pair : toAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState s) {
+    checkNotNull(s);
+
+    Lock lock = partitionLocks.get(getPartitionKey(s));
+    lock.lock();
+    try {
+      ReachedEntry entry = reached.get(s);
+      checkArgument(entry != null, "State has to be in the reached set");
+      waitlist.addIfAbsent(entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void updatePrecision(AbstractState s, Precision newPrecision) {
+    checkNotNull(s);
+    checkNotNull(newPrecision);
+
+    Lock lock = partitionLocks.get(getPartitionKey(s));
+    lock.lock();
+    try {
+      ReachedEntry entry = reached.get(s);
+      checkArgument(
+          entry != null, "State needs to be in the reached set in order to change the precision.");
+      entry.precision = newPrecision;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove(AbstractState state) {
+    checkNotNull(state);
+
+    Object key = getPartitionKey(state);
+    Lock lock = partitionLocks.get(key);
+    lock.lock();
+    try {
+      ReachedEntry entry = reached.remove(state);
+      if (entry == null) {
+        return;
+      }
+      waitlist.remove(entry);
+      orderedReached.remove(entry.id);
+      reachedCount.decrementAndGet();
+      firstEntry.compareAndSet(entry, null);
+      lastEntry.compareAndSet(entry, null);
+
+      // Partitions are only created and removed while holding the lock of their key.
+      ConcurrentNavigableMap<Long, AbstractState> partition = partitionedReached.get(key);
+      partition.remove(entry.id);
+      if (partition.isEmpty()) {
+        partitionedReached.remove(key);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    for (AbstractState state : toRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState state) {
+    checkNotNull(state);
+    ReachedEntry entry = reached.get(state);
+    if (entry != null) {
+      waitlist.remove(entry);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < partitionLocks.size(); i++) {
+      partitionLocks.getAt(i).lock();
+    }
+    try {
+      waitlist.clear();
+      reached.clear();
+      orderedReached.clear();
+      partitionedReached.clear();
+      reachedCount.set(0);
+      firstEntry.set(null);
+      lastEntry.set(null);
+    } finally {
+      for (int i = partitionLocks.size() - 1; i >= 0; i--) {
+        partitionLocks.getAt(i).unlock();
+      }
+    }
+  }
+
+  @Override
+  public void clearWaitlist() {
+    waitlist.clear();
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return unmodifiableReached;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return unmodifiableReached.iterator();
+  }
+
+  @Override
+  public Stream<AbstractState> stream() {
+    return orderedReached.values().stream().map(entry -> entry.state);
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return Collections.unmodifiableCollection(
+        Collections2.transform(orderedReached.values(), entry -> entry.precision));
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState state) {
+    return new PartitionView(getPartitionKey(state));
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode location) {
+    checkNotNull(location);
+    return asCollection();
+  }
+
+  /** Returns the partition key of a state, with null being replaced by {@link #NULL_KEY}. */
+  private Object getPartitionKey(AbstractState pState) {
+    checkNotNull(pState);
+    assert pState instanceof Partitionable
+        : "Partitionable states necessary for ConcurrentPartitionedReachedSet";
+    Object key = ((Partitionable) pState).getPartitionKey();
+    return key == null ? NULL_KEY : key;
+  }
+
+  public int getNumberOfPartitions() {
+    return partitionedReached.size();
+  }
+
+  public Map.Entry<Object, Collection<AbstractState>> getMaxPartition() {
+    int max = 0;
+    Map.Entry<Object, Collection<AbstractState>> maxPartition = null;
+
+    for (Map.Entry<Object, ConcurrentNavigableMap<Long, AbstractState>> partition :
+        partitionedReached.entrySet()) {
+      int size = partition.getValue().size();
+      if (size > max) {
+        max = size;
+        Object key = partition.getKey() == NULL_KEY ? null : partition.getKey();
+        maxPartition = Maps.immutableEntry(key, new PartitionView(partition.getKey()));
+      }
+    }
+    return maxPartition;
+  }
+
+  @Override
+  public @Nullable AbstractState getFirstState() {
+    ReachedEntry entry = firstEntry.get();
+    return entry == null ? null : entry.state;
+  }
+
+  @Override
+  public @Nullable AbstractState getLastState() {
+    ReachedEntry entry = lastEntry.get();
+    return entry == null ? null : entry.state;
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    return !waitlist.isEmpty();
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    return new AbstractCollection<>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        return waitlist.snapshot().iterator();
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof AbstractState)) {
+          return false;
+        }
+        ReachedEntry entry = reached.get(obj);
+        return entry != null && waitlist.contains(entry);
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return waitlist.isEmpty();
+      }
+
+      @Override
+      public int size() {
+        return waitlist.size();
+      }
+
+      @Override
+      public String toString() {
+        return waitlist.snapshot().toString();
+      }
+    };
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    return waitlist.pop();
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState state) {
+    checkNotNull(state);
+    ReachedEntry entry = reached.get(state);
+    checkArgument(entry != null, "State not in reached set:\n%s", state);
+    return entry.precision;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super AbstractState, ? super Precision> pAction) {
+    checkNotNull(pAction);
+    for (ReachedEntry entry : orderedReached.values()) {
+      pAction.accept(entry.state, entry.precision);
+    }
+  }
+
+  @Override
+  public boolean contains(AbstractState state) {
+    checkNotNull(state);
+    return reached.containsKey(state);
+  }
+
+  @Override
+  public int size() {
+    return reached.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return reached.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return unmodifiableReached.toString();
+  }
+
+  @Override
+  public ImmutableMap<String, AbstractStatValue> getStatistics() {
+    return waitlist.getStatistics();
+  }
+
+  @Override
+  public ConfigurableProgramAnalysis getCPA() {
+    return cpa;
+  }
+
+  /** Unmodifiable view on all reached states in the order in which they were added. */
+  private final class ReachedView extends AbstractSet<AbstractState> {
+
+    @Override
+    public Iterator<AbstractState> iterator() {
+      return Iterators.unmodifiableIterator(
+          Iterators.transform(orderedReached.values().iterator(), entry -> entry.state));
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      return obj != null && reached.containsKey(obj);
+    }
+
+    @Override
+    public int size() {
+      return reached.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return reached.isEmpty();
+    }
+  }
+
+  /**
+   * Unmodifiable view on the states of one partition. The partition is looked up on every access,
+   * such that the view stays valid if the partition is removed when it becomes empty and created
+   * again later.
+   */
+  private final class PartitionView extends AbstractCollection<AbstractState> {
+
+    private final Object key;
+
+    private PartitionView(Object pKey) {
+      key = pKey;
+    }
+
+    private @Nullable ConcurrentNavigableMap<Long, AbstractState> partition() {
+      return partitionedReached.get(key);
+    }
+
+    @Override
+    public Iterator<AbstractState> iterator() {
+      ConcurrentNavigableMap<Long, AbstractState> partition = partition();
+      if (partition == null) {
+        return Collections.emptyIterator();
+      }
+      return Iterators.unmodifiableIterator(partition.values().iterator());
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      if (!(obj instanceof AbstractState)) {
+        return false;
+      }
+      ReachedEntry entry = reached.get(obj);
+      ConcurrentNavigableMap<Long, AbstractState> partition = partition();
+      return entry != null && partition != null && partition.containsKey(entry.id);
+    }
+
+    @Override
+    public int size() {
+      ConcurrentNavigableMap<Long, AbstractState> partition = partition();
+      return partition == null ? 0 : partition.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      ConcurrentNavigableMap<Long, AbstractState> partition = partition();
+      return partition == null || partition.isEmpty();
+    }
+  }
+
+  /**
+   * The operations on the waitlist that this reached set needs. Methods that modify the waitlist
+   * for a given entry are only called while the lock of the partition of the entry is held.
+   */
+  private interface ConcurrentWaitlist {
+
+    /** Add an entry that was just added to the reached set and cannot be in the waitlist. */
+    void add(ReachedEntry pEntry);
+
+    void addIfAbsent(ReachedEntry pEntry);
+
+    void remove(ReachedEntry pEntry);
+
+    boolean contains(ReachedEntry pEntry);
+
+    AbstractState pop();
+
+    boolean isEmpty();
+
+    int size();
+
+    void clear();
+
+    /** Returns the states of the waitlist, in the order in which they would be popped. */
+    ImmutableList<AbstractState> snapshot();
+
+    ImmutableMap<String, AbstractStatValue> getStatistics();
+  }
+
+  /**
+   * Lock-free waitlist for BFS and DFS, ordered by sequence numbers that are assigned whenever an
+   * entry is added. Each entry stores its current key, such that removing and checking for an
+   * entry does not need to search.
+   */
+  private final class OrderedWaitlist implements ConcurrentWaitlist {
+
+    private final boolean lifo;
+    private final ConcurrentNavigableMap<Long, ReachedEntry> waiting =
+        new ConcurrentSkipListMap<>();
+
+    // size() of ConcurrentSkipListMap is linear, but CPAAlgorithm asks for it in every iteration
+    private final AtomicInteger size = new AtomicInteger();
+
+    private OrderedWaitlist(boolean pLifo) {
+      lifo = pLifo;
+    }
+
+    @Override
+    public void add(ReachedEntry pEntry) {
+      addIfAbsent(pEntry);
+    }
+
+    @Override
+    public void addIfAbsent(ReachedEntry pEntry) {
+      long key = nextId.getAndIncrement();
+      while (true) {
+        long current = pEntry.waitlistKey.get();
+        if (current != NOT_WAITING && waiting.containsKey(current)) {
+          return; // already waiting
+        }
+        // The key may be stale if the entry was just popped, so replace it by compare-and-set,
+        // such that pop() does not reset the new key.
+        if (pEntry.waitlistKey.compareAndSet(current, key)) {
+          size.incrementAndGet();
+          waiting.put(key, pEntry);
+          return;
+        }
+      }
+    }
+
+    @Override
+    public void remove(ReachedEntry pEntry) {
+      long key = pEntry.waitlistKey.getAndSet(NOT_WAITING);
+      if (key != NOT_WAITING && waiting.remove(key) != null) {
+        size.decrementAndGet();
+      }
+    }
+
+    @Override
+    public boolean contains(ReachedEntry pEntry) {
+      long key = pEntry.waitlistKey.get();
+      return key != NOT_WAITING && waiting.containsKey(key);
+    }
+
+    @Override
+    public AbstractState pop() {
+      Map.Entry<Long, ReachedEntry> next = lifo ? waiting.pollLastEntry() : waiting.pollFirstEntry();
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      size.decrementAndGet();
+      ReachedEntry entry = next.getValue();
+      // fails only if the entry was removed concurrently
+      entry.waitlistKey.compareAndSet(next.getKey(), NOT_WAITING);
+      return entry.state;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return waiting.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return Math.max(0, size.get());
+    }
+
+    @Override
+    public void clear() {
+      Map.Entry<Long, ReachedEntry> next;
+      while ((next = waiting.pollFirstEntry()) != null) {
+        size.decrementAndGet();
+        next.getValue().waitlistKey.compareAndSet(next.getKey(), NOT_WAITING);
+      }
+    }
+
+    @Override
+    public ImmutableList<AbstractState> snapshot() {
+      Collection<ReachedEntry> entries =
+          lifo ? waiting.descendingMap().values() : waiting.values();
+      return FluentIterable.from(entries).transform(entry -> entry.state).toList();
+    }
+
+    @Override
+    public ImmutableMap<String, AbstractStatValue> getStatistics() {
+      return ImmutableMap.of();
+    }
+  }
+
+  /** Configured (not thread-safe) waitlist, all accesses are guarded by one lock. */
+  private static final class LockedWaitlist implements ConcurrentWaitlist {
+
+    @GuardedBy("this")
+    private final Waitlist delegate;
+
+    private LockedWaitlist(Waitlist pDelegate) {
+      delegate = checkNotNull(pDelegate);
+    }
+
+    @Override
+    public synchronized void add(ReachedEntry pEntry) {
+      delegate.add(pEntry.state);
+    }
+
+    @Override
+    public synchronized void addIfAbsent(ReachedEntry pEntry) {
+      if (!delegate.contains(pEntry.state)) {
+        delegate.add(pEntry.state);
+      }
+    }
+
+    @Override
+    public synchronized void remove(ReachedEntry pEntry) {
+      delegate.remove(pEntry.state);
+    }
+
+    @Override
+    public synchronized boolean contains(ReachedEntry pEntry) {
+      return delegate.contains(pEntry.state);
+    }
+
+    @Override
+    public synchronized AbstractState pop() {
+      return delegate.pop();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+      return delegate.isEmpty();
+    }
+
+    @Override
+    public synchronized int size() {
+      return delegate.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+      delegate.clear();
+    }
+
+    @Override
+    public synchronized ImmutableList<AbstractState> snapshot() {
+      return ImmutableList.copyOf(delegate.iterator());
+    }
+
+    @Override
+    public synchronized ImmutableMap<String, AbstractStatValue> getStatistics() {
+      if (delegate instanceof AbstractSortedWaitlist) {
+        return ImmutableMap.copyOf(((AbstractSortedWaitlist<?>) delegate).getDelegationCounts());
+      }
+      return ImmutableMap.of();
+    }
+  }
+}
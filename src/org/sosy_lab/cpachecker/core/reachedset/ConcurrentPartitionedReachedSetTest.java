@@ -0,0 +1,252 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.cpa.alwaystop.AlwaysTopCPA;
+
+public class ConcurrentPartitionedReachedSetTest {
+
+  private static final class TestState implements AbstractState, Partitionable {
+
+    private final @Nullable Object key;
+
+    TestState(@Nullable Object pKey) {
+      key = pKey;
+    }
+
+    @Override
+    public @Nullable Object getPartitionKey() {
+      return key;
+    }
+  }
+
+  private ConcurrentPartitionedReachedSet reached;
+
+  @Before
+  public void setUp() {
+    reached = new ConcurrentPartitionedReachedSet(AlwaysTopCPA.INSTANCE, TraversalMethod.BFS);
+  }
+
+  @Test
+  public void testPartitions() {
+    TestState a1 = new TestState("a");
+    TestState b1 = new TestState("b");
+    TestState a2 = new TestState("a");
+    TestState n1 = new TestState(null);
+
+    for (TestState state : ImmutableList.of(a1, b1, a2, n1)) {
+      reached.add(state, SingletonPrecision.getInstance());
+    }
+
+    assertThat(reached.getReached(new TestState("a"))).containsExactly(a1, a2).inOrder();
+    assertThat(reached.getReached(b1)).containsExactly(b1);
+    assertThat(reached.getReached(new TestState(null))).containsExactly(n1);
+    assertThat(reached.getReached(new TestState("c"))).isEmpty();
+    assertThat(reached.asCollection()).containsExactly(a1, b1, a2, n1).inOrder();
+    assertThat(reached.getFirstState()).isSameInstanceAs(a1);
+    assertThat(reached.getLastState()).isSameInstanceAs(n1);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(3);
+    assertThat(reached.getMaxPartition().getKey()).isEqualTo("a");
+  }
+
+  @Test
+  public void testReachedViewIsLive() {
+    TestState a1 = new TestState("a");
+    TestState a2 = new TestState("a");
+    reached.add(a1, SingletonPrecision.getInstance());
+
+    var partition = reached.getReached(a1);
+    reached.remove(a1);
+    assertThat(partition).isEmpty();
+    assertThat(reached.getFirstState()).isNull();
+
+    reached.add(a2, SingletonPrecision.getInstance());
+    assertThat(partition).containsExactly(a2);
+  }
+
+  @Test
+  public void testEmptyPartitionsAreRemoved() {
+    TestState a1 = new TestState("a");
+    TestState b1 = new TestState("b");
+    reached.add(a1, SingletonPrecision.getInstance());
+    reached.add(b1, SingletonPrecision.getInstance());
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(2);
+
+    reached.remove(a1);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(1);
+    assertThat(reached.getMaxPartition().getKey()).isEqualTo("b");
+    assertThat(reached.getReached(new TestState("a"))).isEmpty();
+
+    // looking up a partition does not create it
+    assertThat(reached.getReached(new TestState("c"))).isEmpty();
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(1);
+  }
+
+  @Test
+  public void testWaitlistOrder() {
+    TestState a1 = new TestState("a");
+    TestState b1 = new TestState("b");
+    TestState a2 = new TestState("a");
+    for (TraversalMethod traversal : ImmutableList.of(TraversalMethod.BFS, TraversalMethod.DFS)) {
+      reached = new ConcurrentPartitionedReachedSet(AlwaysTopCPA.INSTANCE, traversal);
+      for (TestState state : ImmutableList.of(a1, b1, a2)) {
+        reached.add(state, SingletonPrecision.getInstance());
+      }
+      List<TestState> expected =
+          traversal == TraversalMethod.BFS
+              ? ImmutableList.of(a1, b1, a2)
+              : ImmutableList.of(a2, b1, a1);
+      assertThat(reached.getWaitlist()).containsExactlyElementsIn(expected).inOrder();
+      assertThat(reached.getWaitlist()).hasSize(3);
+
+      // a re-added state is handled like a newly added state
+      assertThat(reached.popFromWaitlist()).isSameInstanceAs(expected.get(0));
+      reached.reAddToWaitlist(expected.get(0));
+      reached.reAddToWaitlist(expected.get(1));
+      List<TestState> popped = new ArrayList<>();
+      while (reached.hasWaitingState()) {
+        popped.add((TestState) reached.popFromWaitlist());
+      }
+      assertThat(popped)
+          .containsExactlyElementsIn(
+              traversal == TraversalMethod.BFS
+                  ? ImmutableList.of(b1, a2, a1)
+                  : ImmutableList.of(a2, b1, a1))
+          .inOrder();
+      assertThat(reached.getWaitlist()).isEmpty();
+    }
+  }
+
+  @Test
+  public void testOtherWaitlist() {
+    reached = new ConcurrentPartitionedReachedSet(AlwaysTopCPA.INSTANCE, TraversalMethod.RAND);
+    TestState a1 = new TestState("a");
+    TestState b1 = new TestState("b");
+    reached.add(a1, SingletonPrecision.getInstance());
+    reached.add(b1, SingletonPrecision.getInstance());
+    reached.reAddToWaitlist(a1);
+
+    assertThat(reached.getWaitlist()).containsExactly(a1, b1);
+    reached.remove(a1);
+    assertThat(reached.getWaitlist()).containsExactly(b1);
+    assertThat(reached.popFromWaitlist()).isSameInstanceAs(b1);
+    assertThat(reached.hasWaitingState()).isFalse();
+  }
+
+  @Test
+  public void testWaitlist() {
+    TestState a1 = new TestState("a");
+    TestState b1 = new TestState("b");
+    reached.add(a1, SingletonPrecision.getInstance());
+    reached.addNoWaitlist(b1, SingletonPrecision.getInstance());
+
+    assertThat(reached.getWaitlist()).containsExactly(a1);
+    assertThat(reached.popFromWaitlist()).isSameInstanceAs(a1);
+    assertThat(reached.hasWaitingState()).isFalse();
+
+    reached.reAddToWaitlist(b1);
+    assertThat(reached.getWaitlist()).containsExactly(b1);
+    reached.remove(b1);
+    assertThat(reached.hasWaitingState()).isFalse();
+    assertThat(reached.asCollection()).containsExactly(a1);
+  }
+
+  @Test
+  public void testConcurrentModification() throws Exception {
+    final int threads = 8;
+    final int statesPerThread = 1000;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int i = 0; i < statesPerThread; i++) {
+                    TestState state = new TestState(i % 10);
+                    reached.add(state, SingletonPrecision.getInstance());
+                    // iterating over a partition while it is modified must not fail
+                    assertThat(reached.getReached(state)).contains(state);
+                    if (i % 2 == 0) {
+                      reached.remove(state);
+                    }
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertThat(reached.size()).isEqualTo(threads * statesPerThread / 2);
+    assertThat(reached.getWaitlist()).hasSize(threads * statesPerThread / 2);
+    int sum = 0;
+    for (int key = 0; key < 10; key++) {
+      sum += reached.getReached(new TestState(key)).size();
+    }
+    assertThat(sum).isEqualTo(reached.size());
+  }
+
+  @Test
+  public void testConcurrentAddAndRemove() throws Exception {
+    final int states = 20000;
+    final List<TestState> toAdd = new ArrayList<>();
+    for (int i = 0; i < states; i++) {
+      toAdd.add(new TestState(i % 10));
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> adder =
+          pool.submit(
+              () -> {
+                for (TestState state : toAdd) {
+                  reached.add(state, SingletonPrecision.getInstance());
+                }
+              });
+      // remove each state as soon as it is visible, i.e., possibly while it is still being added
+      Future<?> remover =
+          pool.submit(
+              () -> {
+                for (TestState state : toAdd) {
+                  while (!reached.contains(state)) {
+                    Thread.onSpinWait();
+                  }
+                  reached.remove(state);
+                }
+              });
+      adder.get();
+      remover.get();
+    } finally {
+      pool.shutdownNow();
+    }
+
+    // no state may remain in the waitlist without being in the reached set
+    assertThat(reached.isEmpty()).isTrue();
+    assertThat(reached.getWaitlist()).isEmpty();
+    assertThat(reached.getFirstState()).isNull();
+    assertThat(reached.getLastState()).isNull();
+  }
+}
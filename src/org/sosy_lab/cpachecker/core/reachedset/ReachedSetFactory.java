@@ -44,7 +44,7 @@ import org.sosy_lab.cpachecker.cpa.usage.storage.UsageConfiguration;
 public class ReachedSetFactory {
 
   private enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, USAGE
+    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED, CONCURRENTPARTITIONED, USAGE
   }
 
   @Option(
@@ -179,6 +179,8 @@ public class ReachedSetFactory {
             + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
             + "\nPSEUDOPARTITIONED: based on PARTITIONED, uses additional info about the states' lattice "
             + "(maybe faster for some special analyses which use merge_sep and stop_sep"
+            + "\nCONCURRENTPARTITIONED: like PARTITIONED, but thread-safe "
+            + "(for analyses that access the reached set from several threads)"
   )
   private ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
@@ -283,6 +285,9 @@ public class ReachedSetFactory {
     case PSEUDOPARTITIONED:
         reached = new PseudoPartitionedReachedSet(cpa, waitlistFactory);
         break;
+    case CONCURRENTPARTITIONED:
+        reached = new ConcurrentPartitionedReachedSet(cpa, waitlistFactory);
+        break;
     case LOCATIONMAPPED:
         reached = new LocationMappedReachedSet(cpa, waitlistFactory);
         break;
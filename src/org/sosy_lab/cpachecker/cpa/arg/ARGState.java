@@ -19,7 +19,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.graph.Traverser;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -42,14 +41,15 @@ import org.sosy_lab.cpachecker.util.AbstractStates;
 public class ARGState extends AbstractSerializableSingleWrapperState
     implements Comparable<ARGState>, Graphable, Splitable {
 
-  private static final long serialVersionUID = 2608287648397165040L;
+  private static final long serialVersionUID = -6218407396440812575L;
 
-  // We use a List here although we would like to have a Set
-  // because ArrayList is much more memory efficient than e.g. LinkedHashSet.
+  // We store the children and parents in the compact representation of CompactStateList
+  // instead of a Set or List because there are millions of states and most of them have only
+  // one parent and one child, so the memory overhead of a collection would dominate.
   // Also these collections are small and so a slow contains() method won't hurt.
   // To enforce set semantics, do not add elements except through addparent()!
-  private final Collection<ARGState> children = new ArrayList<>(1);
-  private final Collection<ARGState> parents = new ArrayList<>(1);
+  private @Nullable Object children = null;
+  private @Nullable Object parents = null;
 
   private ARGState mCoveredBy = null;
   private Set<ARGState> mCoveredByThis = null; // lazy initialization because rarely needed
@@ -84,7 +84,7 @@ public class ARGState extends AbstractSerializableSingleWrapperState
    * @return A unmodifiable collection of ARGStates without duplicates.
    */
   public Collection<ARGState> getParents() {
-    return Collections.unmodifiableCollection(parents);
+    return CompactStateList.view(() -> parents);
   }
 
   public void addParent(ARGState pOtherParent) {
@@ -92,12 +92,12 @@ public class ARGState extends AbstractSerializableSingleWrapperState
     assert !destroyed : "Don't use destroyed ARGState " + this;
 
     // Manually enforce set semantics.
-    if (!parents.contains(pOtherParent)) {
-      assert !pOtherParent.children.contains(this);
-      parents.add(pOtherParent);
-      pOtherParent.children.add(this);
+    if (!CompactStateList.contains(parents, pOtherParent)) {
+      assert !CompactStateList.contains(pOtherParent.children, this);
+      parents = CompactStateList.add(parents, pOtherParent);
+      pOtherParent.children = CompactStateList.add(pOtherParent.children, this);
     } else {
-      assert pOtherParent.children.contains(this);
+      assert CompactStateList.contains(pOtherParent.children, this);
     }
   }
 
@@ -107,7 +107,7 @@ public class ARGState extends AbstractSerializableSingleWrapperState
    */
   public Collection<ARGState> getChildren() {
     assert !destroyed : "Don't use destroyed ARGState " + this;
-    return Collections.unmodifiableCollection(children);
+    return CompactStateList.view(() -> children);
   }
 
   /**
@@ -292,10 +292,10 @@ public class ARGState extends AbstractSerializableSingleWrapperState
   }
 
   void deleteChild(ARGState child) {
-    assert children.contains(child);
-    assert child.parents.contains(this);
-    children.remove(child);
-    child.parents.remove(this);
+    assert CompactStateList.contains(children, child);
+    assert CompactStateList.contains(child.parents, this);
+    children = CompactStateList.remove(children, child);
+    child.parents = CompactStateList.remove(child.parents, this);
   }
 
   // counterexample
@@ -383,9 +383,9 @@ public class ARGState extends AbstractSerializableSingleWrapperState
     sb.append(stateId);
     if (!destroyed) {
       sb.append(", Parents: ");
-      sb.append(stateIdsOf(parents));
+      sb.append(stateIdsOf(getParents()));
       sb.append(", Children: ");
-      sb.append(stateIdsOf(children));
+      sb.append(stateIdsOf(getChildren()));
 
       if (mCoveredBy != null) {
         sb.append(", Covered by: ");
@@ -470,18 +470,18 @@ public class ARGState extends AbstractSerializableSingleWrapperState
     assert !destroyed : "Don't use destroyed ARGState " + this;
 
     // clear children
-    for (ARGState child : children) {
-      assert child.parents.contains(this);
-      child.parents.remove(this);
+    for (ARGState child : getChildren()) {
+      assert CompactStateList.contains(child.parents, this);
+      child.parents = CompactStateList.remove(child.parents, this);
     }
-    children.clear();
+    children = null;
 
     // clear parents
-    for (ARGState parent : parents) {
-      assert parent.children.contains(this);
-      parent.children.remove(this);
+    for (ARGState parent : getParents()) {
+      assert CompactStateList.contains(parent.children, this);
+      parent.children = CompactStateList.remove(parent.children, this);
     }
-    parents.clear();
+    parents = null;
   }
 
   /**
@@ -501,19 +501,19 @@ public class ARGState extends AbstractSerializableSingleWrapperState
     assert !this.equals(replacement) : "Don't replace ARGState " + this + " with itself";
 
     // copy children
-    for (ARGState child : children) {
-      assert child.parents.contains(this) : "Inconsistent ARG at " + this;
-      child.parents.remove(this);
+    for (ARGState child : getChildren()) {
+      assert CompactStateList.contains(child.parents, this) : "Inconsistent ARG at " + this;
+      child.parents = CompactStateList.remove(child.parents, this);
       child.addParent(replacement);
     }
-    children.clear();
+    children = null;
 
-    for (ARGState parent : parents) {
-      assert parent.children.contains(this) : "Inconsistent ARG at " + this;
-      parent.children.remove(this);
+    for (ARGState parent : getParents()) {
+      assert CompactStateList.contains(parent.children, this) : "Inconsistent ARG at " + this;
+      parent.children = CompactStateList.remove(parent.children, this);
       replacement.addParent(parent);
     }
-    parents.clear();
+    parents = null;
 
     if (mCoveredByThis != null) {
       if (replacement.mCoveredByThis == null) {
@@ -567,12 +567,12 @@ public class ARGState extends AbstractSerializableSingleWrapperState
     assert !destroyed : "Don't use destroyed ARGState " + this;
 
     // Manually enforce set semantics.
-    if (parents.contains(pOtherParent)) {
-      assert pOtherParent.children.contains(this);
-      parents.remove(pOtherParent);
-      pOtherParent.children.remove(this);
+    if (CompactStateList.contains(parents, pOtherParent)) {
+      assert CompactStateList.contains(pOtherParent.children, this);
+      parents = CompactStateList.remove(parents, pOtherParent);
+      pOtherParent.children = CompactStateList.remove(pOtherParent.children, this);
     } else {
-      assert !pOtherParent.children.contains(this) : "Problem detected!";
+      assert !CompactStateList.contains(pOtherParent.children, this) : "Problem detected!";
     }
   }
 }
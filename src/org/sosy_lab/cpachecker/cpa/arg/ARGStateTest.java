@@ -0,0 +1,85 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+/** Unit tests for the parent and child relations of {@link ARGState}. */
+public class ARGStateTest {
+
+  @Test
+  public void childrenInInsertionOrder() {
+    ARGState root = new ARGState(null, null);
+    List<ARGState> children = new ArrayList<>();
+    Collection<ARGState> view = root.getChildren();
+    assertThat(view).isEmpty();
+
+    // more children than fit into the array representation
+    for (int i = 0; i < 20; i++) {
+      ARGState child = new ARGState(null, root);
+      children.add(child);
+      assertThat(child.getParents()).containsExactly(root);
+      assertThat(view).containsExactlyElementsIn(children).inOrder();
+    }
+
+    for (int i = 19; i >= 0; i -= 2) {
+      children.remove(i).removeFromARG();
+      assertThat(view).containsExactlyElementsIn(children).inOrder();
+    }
+    while (!children.isEmpty()) {
+      children.remove(0).removeFromARG();
+      assertThat(view).containsExactlyElementsIn(children).inOrder();
+    }
+    assertThat(view).isEmpty();
+  }
+
+  @Test
+  public void setSemantics() {
+    ARGState parent1 = new ARGState(null, null);
+    ARGState parent2 = new ARGState(null, null);
+    ARGState child = new ARGState(null, parent1);
+
+    child.addParent(parent1);
+    child.addParent(parent2);
+    assertThat(child.getParents()).containsExactly(parent1, parent2).inOrder();
+    assertThat(parent1.getChildren()).containsExactly(child);
+
+    child.removeParent(parent1);
+    child.removeParent(parent1);
+    assertThat(child.getParents()).containsExactly(parent2);
+    assertThat(parent1.getChildren()).isEmpty();
+    assertThat(parent2.getChildren()).containsExactly(child);
+  }
+
+  @Test
+  public void replaceInARG() {
+    ARGState root = new ARGState(null, null);
+    ARGState state = new ARGState(null, root);
+    ARGState child1 = new ARGState(null, state);
+    ARGState child2 = new ARGState(null, state);
+    ARGState covered = new ARGState(null, root);
+    covered.setCovered(state);
+
+    ARGState replacement = new ARGState(null, null);
+    state.replaceInARGWith(replacement);
+
+    assertThat(state.isDestroyed()).isTrue();
+    assertThat(root.getChildren()).containsExactly(covered, replacement).inOrder();
+    assertThat(replacement.getParents()).containsExactly(root);
+    assertThat(replacement.getChildren()).containsExactly(child1, child2).inOrder();
+    assertThat(child1.getParents()).containsExactly(replacement);
+    assertThat(covered.getCoveringState()).isEqualTo(replacement);
+    assertThat(replacement.getCoveredByThis()).containsExactly(covered);
+  }
+}
@@ -0,0 +1,159 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import com.google.common.collect.Iterators;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Static helper methods for storing the parents or children of an {@link ARGState} in a single
+ * field. Most states have only one parent and few children, and a separate {@link ArrayList} for
+ * each of these relations needs more memory than the state itself.
+ *
+ * <p>The field contains null if there are no states, the state itself if there is exactly one, an
+ * array of exactly the right size for a few states, and an {@link ArrayList} for many states.
+ * Arrays are never modified after they were stored in the field, every change creates a new array.
+ * The order of the states is the insertion order, like for a list.
+ */
+final class CompactStateList {
+
+  /** The maximal number of states that are stored in an array instead of a list. */
+  private static final int MAX_ARRAY_SIZE = 8;
+
+  private CompactStateList() {}
+
+  static int size(@Nullable Object pStates) {
+    if (pStates == null) {
+      return 0;
+    } else if (pStates instanceof ARGState) {
+      return 1;
+    } else if (pStates instanceof ARGState[]) {
+      return ((ARGState[]) pStates).length;
+    } else {
+      return asList(pStates).size();
+    }
+  }
+
+  static boolean contains(@Nullable Object pStates, ARGState pState) {
+    if (pStates == null) {
+      return false;
+    } else if (pStates instanceof ARGState) {
+      return pStates.equals(pState);
+    } else if (pStates instanceof ARGState[]) {
+      for (ARGState state : (ARGState[]) pStates) {
+        if (state.equals(pState)) {
+          return true;
+        }
+      }
+      return false;
+    } else {
+      return asList(pStates).contains(pState);
+    }
+  }
+
+  /** Add a state (that is not yet contained) and return the new value for the field. */
+  static Object add(@Nullable Object pStates, ARGState pState) {
+    if (pStates == null) {
+      return pState;
+    } else if (pStates instanceof ARGState) {
+      return new ARGState[] {(ARGState) pStates, pState};
+    } else if (pStates instanceof ARGState[]) {
+      ARGState[] states = (ARGState[]) pStates;
+      if (states.length < MAX_ARRAY_SIZE) {
+        ARGState[] result = Arrays.copyOf(states, states.length + 1);
+        result[states.length] = pState;
+        return result;
+      }
+      List<ARGState> result = new ArrayList<>(2 * MAX_ARRAY_SIZE);
+      Collections.addAll(result, states);
+      result.add(pState);
+      return result;
+    } else {
+      asList(pStates).add(pState);
+      return pStates;
+    }
+  }
+
+  /** Remove a state (if contained) and return the new value for the field. */
+  static @Nullable Object remove(@Nullable Object pStates, ARGState pState) {
+    if (pStates == null) {
+      return null;
+    } else if (pStates instanceof ARGState) {
+      return pStates.equals(pState) ? null : pStates;
+    } else if (pStates instanceof ARGState[]) {
+      ARGState[] states = (ARGState[]) pStates;
+      int index = Arrays.asList(states).indexOf(pState);
+      if (index < 0) {
+        return pStates;
+      } else if (states.length == 2) {
+        return states[1 - index];
+      }
+      ARGState[] result = new ARGState[states.length - 1];
+      System.arraycopy(states, 0, result, 0, index);
+      System.arraycopy(states, index + 1, result, index, result.length - index);
+      return result;
+    } else {
+      List<ARGState> states = asList(pStates);
+      states.remove(pState);
+      return states.isEmpty() ? null : pStates;
+    }
+  }
+
+  static Iterator<ARGState> iterator(@Nullable Object pStates) {
+    if (pStates == null) {
+      return Collections.emptyIterator();
+    } else if (pStates instanceof ARGState) {
+      return Iterators.singletonIterator((ARGState) pStates);
+    } else if (pStates instanceof ARGState[]) {
+      return Iterators.forArray((ARGState[]) pStates);
+    } else {
+      return Collections.unmodifiableList(asList(pStates)).iterator();
+    }
+  }
+
+  /**
+   * Return an unmodifiable view of the states in a field, which always reflects the current value
+   * of the field.
+   */
+  static AbstractCollection<ARGState> view(Supplier<@Nullable Object> pField) {
+    return new AbstractCollection<>() {
+      @Override
+      public Iterator<ARGState> iterator() {
+        return CompactStateList.iterator(pField.get());
+      }
+
+      @Override
+      public int size() {
+        return CompactStateList.size(pField.get());
+      }
+
+      @Override
+      public boolean contains(Object pObj) {
+        return pObj instanceof ARGState && CompactStateList.contains(pField.get(), (ARGState) pObj);
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return pField.get() == null;
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<ARGState> asList(Object pStates) {
+    return (List<ARGState>) pStates;
+  }
+}
@@ -18,6 +18,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
@@ -39,6 +41,9 @@ public class Automaton {
   private final ImmutableList<AutomatonInternalState> states;
   private final AutomatonInternalState initState;
 
+  /** Statistics about parsing the automaton from a witness, if it was parsed from one. */
+  private @Nullable GraphMLParseStatistics parseStatistics = null;
+
   public Automaton(String pName, Map<String, AutomatonVariable> pVars, List<AutomatonInternalState> pStates,
       String pInitialStateName) throws InvalidAutomatonException {
     this.name = pName;
@@ -79,6 +84,14 @@ public class Automaton {
     return states.size();
   }
 
+  Optional<GraphMLParseStatistics> getParseStatistics() {
+    return Optional.ofNullable(parseStatistics);
+  }
+
+  void setParseStatistics(GraphMLParseStatistics pParseStatistics) {
+    parseStatistics = pParseStatistics;
+  }
+
   /**
    * Prints the contents of a DOT file representing this automaton to the PrintStream.
    *
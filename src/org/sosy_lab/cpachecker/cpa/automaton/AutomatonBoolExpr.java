@@ -401,6 +401,10 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
       return CONST_FALSE;
     }
 
+    String getFunctionName() {
+      return functionName;
+    }
+
     @Override
     public String toString() {
       return "MATCH FUNCTIONCALL \"" + functionName + "\"";
@@ -1031,6 +1035,14 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
           .anyMatch(matchDescriptor);
     }
 
+    FunctionEntryNode getMainEntry() {
+      return mainEntry;
+    }
+
+    java.util.function.Predicate<FileLocation> getDescriptor() {
+      return matchDescriptor;
+    }
+
     @Override
     public String toString() {
       return "MATCH " + matchDescriptor;
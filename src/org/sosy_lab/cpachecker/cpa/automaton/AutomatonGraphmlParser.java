@@ -8,6 +8,9 @@
 
 package org.sosy_lab.cpachecker.cpa.automaton;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
@@ -25,6 +28,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -36,7 +41,6 @@ import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -50,11 +54,13 @@ import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.Collections3;
@@ -65,6 +71,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
@@ -102,11 +109,6 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.sosy_lab.cpachecker.util.expressions.ToCExpressionVisitor;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -291,7 +293,17 @@ public class AutomatonGraphmlParser {
             cfa.getMachineModel(),
             shutdownNotifier);
 
-    AutomatonGraphmlParserState graphMLParserState = setupGraphMLParser(pInputStream);
+    Timer totalTime = new Timer();
+    Timer readTime = new Timer();
+    totalTime.start();
+    readTime.start();
+    GraphMLDocumentData docDat = new GraphMLDocumentData();
+    AutomatonGraphmlParserState graphMLParserState;
+    try {
+      graphMLParserState = setupGraphMLParser(pInputStream, docDat);
+    } finally {
+      readTime.stop();
+    }
 
     WitnessType graphType = graphMLParserState.getWitnessType();
     if ((noCorrectnessValidation && graphType.equals(WitnessType.CORRECTNESS_WITNESS))
@@ -324,6 +336,16 @@ public class AutomatonGraphmlParser {
     // the automaton will be an ISA if specified
     automaton = invariantsSpecAutomaton.build(automaton, config, logger, shutdownNotifier, cfa);
 
+    totalTime.stop();
+    automaton.setParseStatistics(
+        new GraphMLParseStatistics(
+            totalTime.getSumTime(),
+            readTime.getSumTime(),
+            docDat.getNumberOfNodes(),
+            docDat.getNumberOfEdges(),
+            docDat.getNumberOfDistinctStrings(),
+            docDat.getMaxHeapUsage()));
+
     if (automatonDumpFile != null) {
       try (Writer w = IO.openOutputFile(automatonDumpFile, Charset.defaultCharset())) {
         automaton.writeDotFile(w);
@@ -1017,50 +1039,53 @@ public class AutomatonGraphmlParser {
 
   /**
    * Initializes the GraphML-parser state by parsing the XML document from the given input stream
-   * into an intermediate representation.
+   * into an intermediate representation. The edges of the document are converted into {@link
+   * GraphMLTransition}s while the document is read.
    *
    * @param pInputStream the input stream to read from.
+   * @param pDocDat the GraphML-document-data helper that reads the document.
    * @return the initialized parser state.
    * @throws IOException if reading from the input stream fails.
    * @throws WitnessParseException if the initial validity checks for conformity with the witness
    *     format fail.
    */
-  private AutomatonGraphmlParserState setupGraphMLParser(InputStream pInputStream)
+  private AutomatonGraphmlParserState setupGraphMLParser(
+      InputStream pInputStream, GraphMLDocumentData pDocDat)
       throws IOException, WitnessParseException {
 
-    GraphMLDocumentData docDat = parseXML(pInputStream);
-
-    checkFields(docDat.getGraph());
-
-    WitnessType graphType = getWitnessType(docDat.getGraph());
-    Set<Property> specType = getSpecAsProperties(docDat.getGraph());
+    Map<String, GraphMLState> states = new LinkedHashMap<>();
+    Multimap<GraphMLState, GraphMLTransition> enteringTransitions = LinkedHashMultimap.create();
+    Multimap<GraphMLState, GraphMLTransition> leavingTransitions = LinkedHashMultimap.create();
+    NumericIdProvider numericIdProvider = NumericIdProvider.create();
+    Set<GraphMLState> entryStates = new LinkedHashSet<>();
+    pDocDat.read(
+        pInputStream,
+        transition ->
+            collectEdgeData(
+                pDocDat,
+                states,
+                entryStates,
+                leavingTransitions,
+                enteringTransitions,
+                numericIdProvider,
+                transition));
+
+    checkFields(pDocDat.getGraph());
+
+    WitnessType graphType = getWitnessType(pDocDat.getGraph());
+    Set<Property> specType = getSpecAsProperties(pDocDat.getGraph());
 
     // Extract the information on the automaton ----
-    Node nameAttribute = docDat.getGraph().getAttributes().getNamedItem("name");
+    String nameAttribute = pDocDat.getGraph().getAttribute("name");
     String automatonName = WITNESS_AUTOMATON_NAME;
     if (nameAttribute != null) {
-      automatonName += "_" + nameAttribute.getTextContent();
+      automatonName += "_" + nameAttribute;
     }
 
-    Map<String, GraphMLState> states = new LinkedHashMap<>();
-    Multimap<GraphMLState, GraphMLTransition> enteringTransitions = LinkedHashMultimap.create();
-    Multimap<GraphMLState, GraphMLTransition> leavingTransitions = LinkedHashMultimap.create();
-    NumericIdProvider numericIdProvider = NumericIdProvider.create();
-    Set<GraphMLState> entryStates = new LinkedHashSet<>();
-    for (Node transition : docDat.getTransitions()) {
-      collectEdgeData(
-          docDat,
-          states,
-          entryStates,
-          leavingTransitions,
-          enteringTransitions,
-          numericIdProvider,
-          transition);
-    }
-    if (states.size() < docDat.idToNodeMap.size()) {
-      for (String stateId : docDat.idToNodeMap.keySet()) {
+    if (states.size() < pDocDat.idToNodeMap.size()) {
+      for (String stateId : pDocDat.idToNodeMap.keySet()) {
         if (!states.containsKey(stateId)) {
-          states.put(stateId, parseState(docDat, states, stateId, Optional.empty()));
+          states.put(stateId, parseState(pDocDat, states, stateId, Optional.empty()));
         }
       }
     }
@@ -1101,24 +1126,7 @@ public class AutomatonGraphmlParser {
     return state;
   }
 
-  private GraphMLDocumentData parseXML(InputStream pInputStream)
-      throws WitnessParseException, IOException {
-
-    // Parse the XML document ----
-    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-
-    Document doc;
-    try {
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      doc = docBuilder.parse(pInputStream);
-    } catch (ParserConfigurationException | SAXException e) {
-      throw new WitnessParseException(e);
-    }
-
-    return new GraphMLDocumentData(doc);
-  }
-
-  private void checkFields(Node graphNode) throws IOException, WitnessParseException {
+  private void checkFields(GraphMLElement graphNode) throws IOException, WitnessParseException {
 
     checkHashSum(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.PROGRAMHASH));
     checkArchitecture(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.ARCHITECTURE));
@@ -1156,7 +1164,7 @@ public class AutomatonGraphmlParser {
     return functionExitMatcher;
   }
 
-  private static boolean entersLoopHead(Node pTransition) throws WitnessParseException {
+  private static boolean entersLoopHead(GraphMLElement pTransition) throws WitnessParseException {
     Set<String> loopHeadFlags =
         GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ENTERLOOPHEAD);
     if (!loopHeadFlags.isEmpty()) {
@@ -1200,8 +1208,8 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which line numbers to assume.
    * @return a predicate to match file locations based on the line numbers specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(Node pTransition)
-      throws WitnessParseException {
+  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(
+      GraphMLElement pTransition) throws WitnessParseException {
     Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
@@ -1254,7 +1262,8 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which character offset to assume.
    * @return a predicate to match file locations based on the offsets specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(Node pTransition) throws WitnessParseException {
+  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(
+      GraphMLElement pTransition) throws WitnessParseException {
     Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
@@ -1308,7 +1317,8 @@ public class AutomatonGraphmlParser {
    * @return an automaton-transition condition for specific branches of an assumption corresponding
    *     to the control case specified by the given transition.
    */
-  private static AutomatonBoolExpr getAssumeCaseMatcher(Node pTransition) throws WitnessParseException {
+  private static AutomatonBoolExpr getAssumeCaseMatcher(GraphMLElement pTransition)
+      throws WitnessParseException {
     Set<String> assumeCaseTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.CONTROLCASE);
 
     if (!assumeCaseTags.isEmpty()) {
@@ -1339,7 +1349,8 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> getThread(
-      Node pTransition, NumericIdProvider pNumericIdProvider) throws WitnessParseException {
+      GraphMLElement pTransition, NumericIdProvider pNumericIdProvider)
+      throws WitnessParseException {
     return parseThreadId(
         pTransition,
         pNumericIdProvider,
@@ -1359,7 +1370,10 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> parseThreadId(
-      Node pTransition, NumericIdProvider pNumericIdProvider, KeyDef pKey, String pErrorMessage)
+      GraphMLElement pTransition,
+      NumericIdProvider pNumericIdProvider,
+      KeyDef pKey,
+      String pErrorMessage)
       throws WitnessParseException {
     Set<String> threadIdTags = GraphMLDocumentData.getDataOnNode(pTransition, pKey);
 
@@ -1405,7 +1419,7 @@ public class AutomatonGraphmlParser {
       Multimap<GraphMLState, GraphMLTransition> pLeavingEdges,
       Multimap<GraphMLState, GraphMLTransition> pEnteringEdges,
       NumericIdProvider pNumericThreadIdProvider,
-      Node pTransition)
+      GraphMLElement pTransition)
       throws WitnessParseException {
     String sourceStateId =
         GraphMLDocumentData.getAttributeValue(
@@ -1453,14 +1467,14 @@ public class AutomatonGraphmlParser {
     pLeavingEdges.put(source, transition);
     pEnteringEdges.put(target, transition);
 
-    Element sourceStateNode = pDocDat.getNodeWithId(sourceStateId);
+    GraphMLElement sourceStateNode = pDocDat.getNodeWithId(sourceStateId);
     if (sourceStateNode == null) {
       throw new WitnessParseException(
           String.format(
               "Source %s of transition %s does not exist.",
               sourceStateId, transitionToString(pTransition)));
     }
-    Element targetStateNode = pDocDat.getNodeWithId(targetStateId);
+    GraphMLElement targetStateNode = pDocDat.getNodeWithId(targetStateId);
     if (targetStateNode == null) {
       throw new WitnessParseException(
           String.format(
@@ -1496,14 +1510,14 @@ public class AutomatonGraphmlParser {
       GraphMLDocumentData pDocDat,
       Map<String, GraphMLState> pStates,
       String pStateId,
-      Optional<Node> pReference)
+      Optional<GraphMLElement> pReference)
       throws WitnessParseException {
     GraphMLState result = pStates.get(pStateId);
     if (result != null) {
       return result;
     }
 
-    Element stateNode = pDocDat.getNodeWithId(pStateId);
+    GraphMLElement stateNode = pDocDat.getNodeWithId(pStateId);
     if (stateNode == null) {
       final String message;
       if (pReference.isPresent()) {
@@ -1532,7 +1546,7 @@ public class AutomatonGraphmlParser {
     return result;
   }
 
-  private static Optional<String> parseSingleDataValue(Node pEdge,
+  private static Optional<String> parseSingleDataValue(GraphMLElement pEdge,
       KeyDef pKey,
       String pErrorMessage) throws WitnessParseException {
     Set<String> values =
@@ -1548,7 +1562,7 @@ public class AutomatonGraphmlParser {
    * @param pAutomaton the GraphML graph node representing the witness automaton.
    * @return the witness-automaton type of an automaton represented as a GraphML graph.
    */
-  private WitnessType getWitnessType(Node pAutomaton) throws WitnessParseException {
+  private WitnessType getWitnessType(GraphMLElement pAutomaton) throws WitnessParseException {
     Set<String> witnessTypeText =
         GraphMLDocumentData.getDataOnNode(pAutomaton, KeyDef.WITNESS_TYPE);
     final WitnessType witnessType;
@@ -1572,7 +1586,7 @@ public class AutomatonGraphmlParser {
     return witnessType;
   }
 
-  private Set<Property> getSpecAsProperties(final Node pAutomaton) {
+  private Set<Property> getSpecAsProperties(final GraphMLElement pAutomaton) {
     Set<String> specText = GraphMLDocumentData.getDataOnNode(pAutomaton, KeyDef.SPECIFICATION);
     if (specText.isEmpty()) {
       return ImmutableSet.of(CommonVerificationProperty.REACHABILITY);
@@ -1611,26 +1625,24 @@ public class AutomatonGraphmlParser {
     return CommonVerificationProperty.valueOf(prop.trim());
   }
 
-  private static String transitionToString(Node pTransition) {
+  private static String transitionToString(GraphMLElement pTransition) {
     if (pTransition == null) {
       return "null";
     }
-    NamedNodeMap attributes = pTransition.getAttributes();
-    if (attributes != null) {
-      Node id = attributes.getNamedItem("id");
-      if (id != null) {
-        return id.getNodeValue();
-      }
+    String id = pTransition.getAttribute("id");
+    if (id != null) {
+      return id;
     }
     return pTransition.toString();
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey)
+  private static void checkRequiredField(GraphMLElement pGraphNode, KeyDef pKey)
       throws WitnessParseException {
     checkRequiredField(pGraphNode, pKey, false);
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey, boolean pAcceptEmpty)
+  private static void checkRequiredField(
+      GraphMLElement pGraphNode, KeyDef pKey, boolean pAcceptEmpty)
       throws WitnessParseException {
     Iterable<String> data = GraphMLDocumentData.getDataOnNode(pGraphNode, pKey);
     if (Iterables.isEmpty(data)) {
@@ -1979,49 +1991,236 @@ public class AutomatonGraphmlParser {
 
   }
 
-  private static class GraphMLDocumentData {
+  /** Receives the edges of a GraphML document while the document is read. */
+  @FunctionalInterface
+  @VisibleForTesting
+  interface GraphMLEdgeConsumer {
+    void accept(GraphMLElement pEdge) throws WitnessParseException;
+  }
 
-    private final Node graph;
+  /**
+   * The graph and the nodes of a GraphML document. The document is read with a streaming parser
+   * and never completely materialized in memory: The edges are passed to a consumer as soon as
+   * they are read and are not stored. An edge is passed on only after its source and target node
+   * were read. If a document contains an edge before its nodes, this edge and all later edges are
+   * passed on at the end of the document, such that all edges are always passed on in document
+   * order.
+   *
+   * <p>Each data element belongs to the innermost graph, node, or edge element that contains it.
+   * Short strings like keys, node ids, and most data values occur very often in large witnesses,
+   * so they are deduplicated.
+   */
+  @VisibleForTesting
+  static class GraphMLDocumentData {
+
+    /** Longer strings (e.g., assumptions) are mostly unique and thus not deduplicated. */
+    private static final int MAX_DEDUPLICATED_LENGTH = 64;
+
+    /** Number of elements after which the heap usage is checked again. */
+    private static final int HEAP_USAGE_CHECK_INTERVAL = 4096;
+
+    private @Nullable GraphMLElement graph = null;
+
+    private final Map<String, GraphMLElement> idToNodeMap = new LinkedHashMap<>();
+
+    private final Map<String, String> strings = new HashMap<>();
+
+    private int edges = 0;
+
+    private long maxHeapUsage = 0;
+
+    /**
+     * Read a GraphML document.
+     *
+     * @param pInputStream the stream to read from.
+     * @param pEdgeConsumer the consumer for the edges, or null if only the data of the graph is
+     *     needed (in this case the nodes are also not stored).
+     */
+    void read(InputStream pInputStream, @Nullable GraphMLEdgeConsumer pEdgeConsumer)
+        throws WitnessParseException, IOException {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+      factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+      // the open graph, node, and edge elements, and the depth at which they were opened
+      Deque<GraphMLElement> openElements = new ArrayDeque<>();
+      Deque<Integer> openElementDepths = new ArrayDeque<>();
+      List<GraphMLElement> deferredEdges = new ArrayList<>();
+      @Nullable String dataKey = null;
+      int dataDepth = -1;
+      // the depth of the skipped node or edge element whose subtree is currently read, if any
+      int ignoredDepth = -1;
+      StringBuilder dataValue = new StringBuilder();
+      int depth = 0;
+      int elements = 0;
 
-    private final ImmutableMap<String, Element> idToNodeMap;
+      try {
+        XMLStreamReader reader = factory.createXMLStreamReader(pInputStream);
+        try {
+          while (reader.hasNext()) {
+            switch (reader.next()) {
+              case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                if (++elements % HEAP_USAGE_CHECK_INTERVAL == 0) {
+                  updateMaxHeapUsage(memory);
+                }
+                String name = reader.getLocalName();
+                if (ignoredDepth >= 0) {
+                  // inside a node or edge that is not needed, its data is dropped
+                } else if (dataKey != null) {
+                  // nested element inside a data element, only its text is relevant
+                } else if (name.equals(GraphMLTag.DATA.toString())) {
+                  dataKey = reader.getAttributeValue(null, "key");
+                  if (dataKey == null) {
+                    throw new WitnessParseException(
+                        "Every data element must have a key attribute!");
+                  }
+                  dataKey = deduplicate(dataKey);
+                  dataDepth = depth;
+                  dataValue.setLength(0);
+                } else if (name.equals(GraphMLTag.GRAPH.toString())) {
+                  checkParsable(graph == null, TOO_MANY_GRAPHS_ERROR_MESSAGE);
+                  graph = new GraphMLElement(GraphMLTag.GRAPH, getAttributes(reader, true));
+                  openElements.push(graph);
+                  openElementDepths.push(depth);
+                } else if (pEdgeConsumer == null) {
+                  if (name.equals(GraphMLTag.NODE.toString())
+                      || name.equals(GraphMLTag.EDGE.toString())) {
+                    // nodes and edges are not needed, skip their whole subtree
+                    ignoredDepth = depth;
+                  }
+                } else if (name.equals(GraphMLTag.NODE.toString())) {
+                  GraphMLElement node =
+                      new GraphMLElement(GraphMLTag.NODE, getAttributes(reader, true));
+                  String stateId = getAttributeValue(node, "id", "Every state needs an ID!");
+                  if (idToNodeMap.put(stateId, node) != null) {
+                    throw new WitnessParseException(
+                        String.format("The state id <%s> is not unique.", stateId));
+                  }
+                  openElements.push(node);
+                  openElementDepths.push(depth);
+                } else if (name.equals(GraphMLTag.EDGE.toString())) {
+                  // edge ids are unique, but their sources and targets are node ids
+                  openElements.push(
+                      new GraphMLElement(GraphMLTag.EDGE, getAttributes(reader, false)));
+                  openElementDepths.push(depth);
+                }
+                break;
+
+              case XMLStreamConstants.CHARACTERS:
+              case XMLStreamConstants.CDATA:
+              case XMLStreamConstants.SPACE:
+                if (dataKey != null) {
+                  dataValue.append(
+                      reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                break;
+
+              case XMLStreamConstants.END_ELEMENT:
+                if (ignoredDepth >= 0) {
+                  if (depth == ignoredDepth) {
+                    ignoredDepth = -1;
+                  }
+                } else if (depth == dataDepth) {
+                  if (!openElements.isEmpty()) {
+                    openElements.peek().addData(dataKey, deduplicate(dataValue.toString()));
+                  }
+                  dataKey = null;
+                  dataDepth = -1;
+                } else if (!openElementDepths.isEmpty() && depth == openElementDepths.peek()) {
+                  openElementDepths.pop();
+                  GraphMLElement element = openElements.pop();
+                  if (element.getTag() == GraphMLTag.EDGE) {
+                    edges++;
+                    if (deferredEdges.isEmpty()
+                        && idToNodeMap.containsKey(element.getAttribute("source"))
+                        && idToNodeMap.containsKey(element.getAttribute("target"))) {
+                      pEdgeConsumer.accept(element);
+                    } else {
+                      deferredEdges.add(element);
+                    }
+                  }
+                }
+                depth--;
+                break;
 
-    private final Iterable<Node> transitions;
+              default:
+                // comments, processing instructions, etc. are irrelevant
+                break;
+            }
+          }
+        } finally {
+          reader.close();
+        }
+      } catch (XMLStreamException e) {
+        if (e.getNestedException() instanceof IOException) {
+          throw (IOException) e.getNestedException();
+        }
+        throw new WitnessParseException(e);
+      }
+      updateMaxHeapUsage(memory);
 
-    public GraphMLDocumentData(Document pDocument) throws WitnessParseException {
+      checkParsable(graph != null, TOO_MANY_GRAPHS_ERROR_MESSAGE);
+      for (GraphMLElement edge : deferredEdges) {
+        pEdgeConsumer.accept(edge);
+      }
+    }
 
-      NodeList graphs = pDocument.getElementsByTagName(GraphMLTag.GRAPH.toString());
-      checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-      graph = Objects.requireNonNull(graphs.item(0));
+    private ImmutableMap<String, String> getAttributes(
+        XMLStreamReader pReader, boolean pDeduplicateId) {
+      ImmutableMap.Builder<String, String> attributes =
+          ImmutableMap.builderWithExpectedSize(pReader.getAttributeCount());
+      for (int i = 0; i < pReader.getAttributeCount(); i++) {
+        String name = pReader.getAttributeLocalName(i);
+        String value = pReader.getAttributeValue(i);
+        attributes.put(name, pDeduplicateId || !name.equals("id") ? deduplicate(value) : value);
+      }
+      return attributes.build();
+    }
 
-      ImmutableMap.Builder<String, Element> idToNodeMapBuilder = ImmutableMap.builder();
-      NodeList nodes = pDocument.getElementsByTagName(GraphMLTag.NODE.toString());
-      for (Node stateNode : asIterable(nodes)) {
-        String stateId = getAttributeValue(stateNode, "id", "Every state needs an ID!");
-        idToNodeMapBuilder.put(stateId, (Element) stateNode);
+    private String deduplicate(String pString) {
+      if (pString.length() > MAX_DEDUPLICATED_LENGTH) {
+        return pString;
       }
-      idToNodeMap = idToNodeMapBuilder.build();
+      String existing = strings.putIfAbsent(pString, pString);
+      return existing == null ? pString : existing;
+    }
 
-      transitions = asIterable(pDocument.getElementsByTagName(GraphMLTag.EDGE.toString()));
+    private void updateMaxHeapUsage(MemoryMXBean pMemory) {
+      try {
+        maxHeapUsage = Math.max(maxHeapUsage, pMemory.getHeapMemoryUsage().getUsed());
+      } catch (IllegalArgumentException e) {
+        // Java 11 sometimes produces this, cf. MemoryStatistics; it is just about statistics
+      }
     }
 
-    public Node getGraph() {
-      return graph;
+    public GraphMLElement getGraph() {
+      return checkNotNull(graph);
     }
 
-    public Iterable<Node> getTransitions() {
-      return transitions;
+    int getNumberOfNodes() {
+      return idToNodeMap.size();
     }
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+    int getNumberOfEdges() {
+      return edges;
+    }
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMLTag.DATA.toString());
+    int getNumberOfDistinctStrings() {
+      return strings.size();
+    }
+
+    long getMaxHeapUsage() {
+      return maxHeapUsage;
+    }
+
+    public EnumSet<NodeFlag> getNodeFlags(GraphMLElement pStateNode) {
+      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
 
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+      for (int i = 0; i < pStateNode.getNumberOfData(); i++) {
+        NodeFlag flag = NodeFlag.getNodeFlagByKey(pStateNode.getDataKey(i));
         if (flag != null) {
           result.add(flag);
         }
@@ -2030,47 +2229,29 @@ public class AutomatonGraphmlParser {
       return result;
     }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage)
+    private static String getAttributeValue(
+        GraphMLElement of, String attributeName, String exceptionMessage)
         throws WitnessParseException {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
+      String attribute = of.getAttribute(attributeName);
       if (attribute == null) {
         throw new WitnessParseException(exceptionMessage);
       }
-      return attribute.getTextContent();
+      return attribute;
     }
 
-    private @Nullable Element getNodeWithId(String nodeId) {
-      Element result = idToNodeMap.get(nodeId);
-      if (result == null
-          || !result.getTagName().equals(GraphMLTag.NODE.toString())) {
-        return null;
-      }
-      return result;
+    @Nullable GraphMLElement getNodeWithId(String nodeId) {
+      return idToNodeMap.get(nodeId);
     }
 
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
+    static Set<String> getDataOnNode(GraphMLElement node, final KeyDef dataKey) {
       Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Set<Node> dataNodes = findKeyedDataNode((Element) node, dataKey);
 
       Set<String> result = new LinkedHashSet<>();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
-      }
-      return result;
-    }
-
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = new LinkedHashSet<>();
-      Set<Node> alternative = null;
-      NodeList dataChilds = of.getElementsByTagName(GraphMLTag.DATA.toString());
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String nodeKey = attribute.getTextContent();
+      String alternative = null;
+      for (int i = 0; i < node.getNumberOfData(); i++) {
+        String nodeKey = node.getDataKey(i);
         if (nodeKey.equals(dataKey.id)) {
-          result.add(dataChild);
+          result.add(node.getDataValue(i));
           alternative = null;
         }
         // Backwards-compatibility: type/graph-type
@@ -2078,16 +2259,14 @@ public class AutomatonGraphmlParser {
             && result.isEmpty()
             && dataKey.equals(KeyDef.WITNESS_TYPE)
             && nodeKey.equals("type")) {
-          alternative = new LinkedHashSet<>();
-          alternative.add(dataChild);
+          alternative = node.getDataValue(i);
         }
       }
       if (result.isEmpty() && alternative != null) {
-        return alternative;
+        result.add(alternative);
       }
       return result;
     }
-
   }
 
   public static boolean isGraphmlAutomatonFromConfiguration(Path pPath)
@@ -2138,20 +2317,10 @@ public class AutomatonGraphmlParser {
 
   private static AutomatonGraphmlCommon.WitnessType getWitnessType(InputStream pInputStream)
       throws InvalidConfigurationException, IOException {
-    // Parse the XML document ----
-    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-    Document doc;
-    try {
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      doc = docBuilder.parse(pInputStream);
-    } catch (ParserConfigurationException | SAXException e) {
-      throw new WitnessParseException(e);
-    }
-
-    // (The one) root node of the graph ----
-    NodeList graphs = doc.getElementsByTagName(GraphMLTag.GRAPH.toString());
-    checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-    Node graphNode = graphs.item(0);
+    // Parse the XML document, only the data of the graph are needed ----
+    GraphMLDocumentData docDat = new GraphMLDocumentData();
+    docDat.read(pInputStream, null);
+    GraphMLElement graphNode = docDat.getGraph();
 
     checkRequiredField(graphNode, KeyDef.WITNESS_TYPE);
 
@@ -2263,34 +2432,4 @@ public class AutomatonGraphmlParser {
       throw pExceptionHandler.apply(e);
     }
   }
-
-
-  /** return a nice {@link Iterable} wrapping the interface {@link NodeList}. */
-  private static Iterable<Node> asIterable(final NodeList pNodeList) {
-    return new Iterable<>() {
-
-      private Integer length = null;
-
-      @Override
-      public Iterator<Node> iterator() {
-        return new Iterator<>() {
-
-          private int index = 0;
-
-          @Override
-          public boolean hasNext() {
-            if (length == null) {
-              length = pNodeList.getLength();
-            }
-            return index < length;
-          }
-
-          @Override
-          public Node next() {
-            return pNodeList.item(index++);
-          }
-        };
-      }
-    };
-  }
 }
@@ -0,0 +1,156 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser.GraphMLDocumentData;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/** Unit tests for the streaming GraphML reader of {@link AutomatonGraphmlParser}. */
+public class AutomatonGraphmlParserTest {
+
+  /**
+   * A small witness whose nodes and edges carry data with the same key as the graph-level witness
+   * type, and where the first edge occurs before its nodes.
+   */
+  private static final String WITNESS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+          + " <key id=\"witness-type\" for=\"graph\" attr.name=\"witness-type\""
+          + " attr.type=\"string\"/>\n"
+          + " <graph edgedefault=\"directed\">\n"
+          + "  <data key=\"witness-type\">violation_witness</data>\n"
+          + "  <data key=\"producer\">test</data>\n"
+          + "  <edge id=\"E0\" source=\"N0\" target=\"N1\">\n"
+          + "   <data key=\"startline\">3</data>\n"
+          + "   <data key=\"witness-type\">correctness_witness</data>\n"
+          + "  </edge>\n"
+          + "  <node id=\"N0\">\n"
+          + "   <data key=\"entry\">true</data>\n"
+          + "   <data key=\"witness-type\">correctness_witness</data>\n"
+          + "  </node>\n"
+          + "  <node id=\"N1\"/>\n"
+          + "  <node id=\"N2\"><data key=\"violation\">true</data></node>\n"
+          + "  <edge id=\"E1\" source=\"N1\" target=\"N2\">\n"
+          + "   <data key=\"startline\">5</data>\n"
+          + "   <data key=\"assumption\"><![CDATA[x < 5;]]></data>\n"
+          + "   <data key=\"enterFunction\">f</data>\n"
+          + "  </edge>\n"
+          + " </graph>\n"
+          + "</graphml>\n";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static InputStream witnessStream() {
+    return new ByteArrayInputStream(WITNESS.getBytes(UTF_8));
+  }
+
+  private static List<String> dataOf(GraphMLElement pElement) {
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < pElement.getNumberOfData(); i++) {
+      result.add(pElement.getDataKey(i) + "=" + pElement.getDataValue(i));
+    }
+    return result;
+  }
+
+  /** The data of the direct data children of a DOM element, as the old DOM-based parser read. */
+  private static List<String> dataOf(Element pElement) {
+    List<String> result = new ArrayList<>();
+    NodeList children = pElement.getChildNodes();
+    for (int i = 0; i < children.getLength(); i++) {
+      Node child = children.item(i);
+      if (child instanceof Element && child.getNodeName().equals(GraphMLTag.DATA.toString())) {
+        result.add(((Element) child).getAttribute("key") + "=" + child.getTextContent());
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void witnessTypeIgnoresNodeAndEdgeData() throws Exception {
+    Path witness = tempFolder.newFile("witness.graphml").toPath();
+    Files.writeString(witness, WITNESS);
+
+    assertThat(AutomatonGraphmlParser.getWitnessType(witness))
+        .isEqualTo(WitnessType.VIOLATION_WITNESS);
+  }
+
+  @Test
+  public void graphDataOnlyWithoutNodesAndEdges() throws Exception {
+    GraphMLDocumentData docDat = new GraphMLDocumentData();
+    try (InputStream input = witnessStream()) {
+      docDat.read(input, null);
+    }
+
+    assertThat(dataOf(docDat.getGraph()))
+        .containsExactly("witness-type=violation_witness", "producer=test")
+        .inOrder();
+    assertThat(GraphMLDocumentData.getDataOnNode(docDat.getGraph(), KeyDef.WITNESS_TYPE))
+        .containsExactly("violation_witness");
+    assertThat(docDat.getNumberOfNodes()).isEqualTo(0);
+    assertThat(docDat.getNumberOfEdges()).isEqualTo(0);
+  }
+
+  @Test
+  public void streamingParseMatchesDom() throws Exception {
+    GraphMLDocumentData docDat = new GraphMLDocumentData();
+    List<GraphMLElement> edges = new ArrayList<>();
+    try (InputStream input = witnessStream()) {
+      docDat.read(input, edges::add);
+    }
+
+    Document dom;
+    try (InputStream input = witnessStream()) {
+      dom = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+    }
+    Element domGraph =
+        (Element) dom.getElementsByTagName(GraphMLTag.GRAPH.toString()).item(0);
+    assertThat(dataOf(docDat.getGraph())).containsExactlyElementsIn(dataOf(domGraph)).inOrder();
+
+    NodeList domNodes = dom.getElementsByTagName(GraphMLTag.NODE.toString());
+    assertThat(docDat.getNumberOfNodes()).isEqualTo(domNodes.getLength());
+    for (int i = 0; i < domNodes.getLength(); i++) {
+      Element domNode = (Element) domNodes.item(i);
+      GraphMLElement node = docDat.getNodeWithId(domNode.getAttribute("id"));
+      assertThat(node).isNotNull();
+      assertThat(dataOf(node)).containsExactlyElementsIn(dataOf(domNode)).inOrder();
+    }
+
+    NodeList domEdges = dom.getElementsByTagName(GraphMLTag.EDGE.toString());
+    assertThat(edges).hasSize(domEdges.getLength());
+    assertThat(docDat.getNumberOfEdges()).isEqualTo(domEdges.getLength());
+    for (int i = 0; i < domEdges.getLength(); i++) {
+      Element domEdge = (Element) domEdges.item(i);
+      GraphMLElement edge = edges.get(i);
+      assertThat(edge.getTag()).isEqualTo(GraphMLTag.EDGE);
+      for (String attribute : new String[] {"id", "source", "target"}) {
+        assertThat(edge.getAttribute(attribute)).isEqualTo(domEdge.getAttribute(attribute));
+      }
+      assertThat(dataOf(edge)).containsExactlyElementsIn(dataOf(domEdge)).inOrder();
+    }
+  }
+}
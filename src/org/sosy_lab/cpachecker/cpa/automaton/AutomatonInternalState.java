@@ -9,9 +9,11 @@
 package org.sosy_lab.cpachecker.cpa.automaton;
 
 import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -66,6 +68,9 @@ public class AutomatonInternalState {
   /** Outgoing transitions of this state. */
   private final ImmutableList<AutomatonTransition> transitions;
 
+  /** Index for finding the transitions that can match an edge, null for small states. */
+  private final @Nullable AutomatonTransitionIndex transitionIndex;
+
   private final boolean mIsTarget;
 
   /**
@@ -83,6 +88,7 @@ public class AutomatonInternalState {
       boolean pIsCycleStart) {
     this.name = pName;
     this.transitions = ImmutableList.copyOf(pTransitions);
+    this.transitionIndex = AutomatonTransitionIndex.create(transitions);
     this.mIsTarget = pIsTarget;
     this.mAllTransitions = pAllTransitions;
     this.isCycleStart = pIsCycleStart;
@@ -145,6 +151,19 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  /**
+   * Returns the positions (in {@link #getTransitions()}) of the transitions whose triggers might
+   * match the given edge. The triggers of all other transitions do not match.
+   */
+  BitSet getCandidateTransitions(CFAEdge pEdge) {
+    if (transitionIndex == null) {
+      BitSet all = new BitSet(transitions.size());
+      all.set(0, transitions.size());
+      return all;
+    }
+    return transitionIndex.getCandidates(pEdge);
+  }
+
   @Override
   public String toString() {
     return this.name;
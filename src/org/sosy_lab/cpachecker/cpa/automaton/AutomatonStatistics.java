@@ -47,6 +47,9 @@ class AutomatonStatistics implements Statistics {
   @Override
   public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
     put(out, 0, "Number of states", automaton.getNumberOfStates());
+    if (automaton.getParseStatistics().isPresent()) {
+      automaton.getParseStatistics().orElseThrow().printStatistics(out);
+    }
     put(out, 0, totalPostTime);
 
     if (totalPostTime.getSumTime().compareTo(TimeSpan.ofMillis(500)) >= 0) {
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -165,9 +166,14 @@ public class AutomatonTransferRelation implements TransferRelation {
     ImmutableSet.Builder<AutomatonState> lSuccessors = ImmutableSet.builderWithExpectedSize(2);
     AutomatonExpressionArguments exprArgs = new AutomatonExpressionArguments(state, state.getVars(), otherElements, edge, logger);
     boolean edgeMatched = false;
-    int failedMatches = 0;
     boolean nonDetState = state.getInternalState().isNonDetState();
 
+    // the triggers of the transitions that are not candidates do not match this edge,
+    // so we can count them as failed matches without evaluating them
+    ImmutableList<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    BitSet candidates = state.getInternalState().getCandidateTransitions(edge);
+    int failedMatches = transitions.size() - candidates.cardinality();
+
     // these transitions cannot be evaluated until last, because they might have sideeffects on
     // other CPAs (dont want to execute them twice)
     // the transitionVariables have to be cached (produced during the match operation)
@@ -175,7 +181,8 @@ public class AutomatonTransferRelation implements TransferRelation {
     List<Pair<AutomatonTransition, Map<Integer, AAstNode>>> transitionsToBeTaken =
         new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      AutomatonTransition t = transitions.get(i);
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
@@ -0,0 +1,280 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.And;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCall;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCallStatement;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.LineMatcher;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.OffsetMatcher;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
+
+/**
+ * Index for the outgoing transitions of an {@link AutomatonInternalState} that determines for a
+ * CFA edge the transitions that can match it, such that the triggers of all other transitions do
+ * not need to be evaluated. This is important for witness automata, which often have states with
+ * hundreds of transitions that each match only a few source lines.
+ *
+ * <p>A transition is indexed by a conjunct of its trigger that is guaranteed to evaluate to false
+ * (and never to an unknown value) for edges that do not have a certain key: the source lines or
+ * offsets of a {@link MatchLocationDescriptor}, the function name of a {@link MatchFunctionCall},
+ * or the edge types of some other matchers. If any conjunct of a conjunction is false, the whole
+ * conjunction is false, so skipping such transitions does not change the result. Transitions
+ * without such a conjunct are always candidates.
+ */
+final class AutomatonTransitionIndex {
+
+  /** States with fewer transitions are not indexed, because the linear scan is fast enough. */
+  private static final int MIN_TRANSITIONS = 8;
+
+  private final BitSet unindexed;
+
+  private final @Nullable FunctionEntryNode mainEntry;
+  private final IntervalIndex originLines;
+  private final IntervalIndex lines;
+  private final IntervalIndex offsets;
+
+  private final ImmutableListMultimap<String, Integer> functionCalls;
+  private final ImmutableListMultimap<CFAEdgeType, Integer> edgeTypes;
+
+  private AutomatonTransitionIndex(Builder pBuilder) {
+    unindexed = pBuilder.unindexed;
+    mainEntry = pBuilder.mainEntry;
+    originLines = new IntervalIndex(pBuilder.originLines);
+    lines = new IntervalIndex(pBuilder.lines);
+    offsets = new IntervalIndex(pBuilder.offsets);
+    functionCalls = pBuilder.functionCalls.build();
+    edgeTypes = pBuilder.edgeTypes.build();
+  }
+
+  /**
+   * Create an index for the given transitions, or return null if this is not worth it because
+   * there are only a few transitions or only a few of them can be indexed.
+   */
+  static @Nullable AutomatonTransitionIndex create(List<AutomatonTransition> pTransitions) {
+    if (pTransitions.size() < MIN_TRANSITIONS) {
+      return null;
+    }
+    Builder builder = new Builder(pTransitions.size());
+    for (int i = 0; i < pTransitions.size(); i++) {
+      builder.add(i, pTransitions.get(i).getTrigger());
+    }
+    if (builder.unindexed.cardinality() > pTransitions.size() / 2) {
+      return null;
+    }
+    return new AutomatonTransitionIndex(builder);
+  }
+
+  /**
+   * Return the positions of all transitions whose triggers might match the given edge. The
+   * triggers of all other transitions evaluate to false for this edge.
+   */
+  BitSet getCandidates(CFAEdge pEdge) {
+    BitSet result = (BitSet) unindexed.clone();
+
+    if (!originLines.isEmpty() || !lines.isEmpty() || !offsets.isEmpty()) {
+      for (FileLocation location :
+          AutomatonGraphmlCommon.getFileLocationsFromCfaEdge(pEdge, mainEntry)) {
+        originLines.addOverlapping(
+            location.getStartingLineInOrigin(), location.getEndingLineInOrigin(), result);
+        lines.addOverlapping(
+            location.getStartingLineNumber(), location.getEndingLineNumber(), result);
+        offsets.addOverlapping(
+            location.getNodeOffset(),
+            location.getNodeOffset() + location.getNodeLength() - 1,
+            result);
+      }
+    }
+
+    if (!functionCalls.isEmpty()) {
+      for (int position :
+          functionCalls.get(pEdge.getSuccessor().getFunction().getOrigName())) {
+        result.set(position);
+      }
+    }
+    for (int position : edgeTypes.get(pEdge.getEdgeType())) {
+      result.set(position);
+    }
+    return result;
+  }
+
+  private static final class Builder {
+
+    private final BitSet unindexed;
+
+    private @Nullable FunctionEntryNode mainEntry = null;
+    private final List<Interval> originLines = new ArrayList<>();
+    private final List<Interval> lines = new ArrayList<>();
+    private final List<Interval> offsets = new ArrayList<>();
+
+    private final ImmutableListMultimap.Builder<String, Integer> functionCalls =
+        ImmutableListMultimap.builder();
+    private final ImmutableListMultimap.Builder<CFAEdgeType, Integer> edgeTypes =
+        ImmutableListMultimap.builder();
+
+    private Builder(int pSize) {
+      unindexed = new BitSet(pSize);
+    }
+
+    private void add(int pPosition, AutomatonBoolExpr pTrigger) {
+      AutomatonBoolExpr key = findKey(pTrigger);
+      if (key == null) {
+        unindexed.set(pPosition);
+
+      } else if (key instanceof MatchLocationDescriptor) {
+        MatchLocationDescriptor descriptor = (MatchLocationDescriptor) key;
+        mainEntry = descriptor.getMainEntry();
+        Predicate<FileLocation> matcher = descriptor.getDescriptor();
+        if (matcher instanceof LineMatcher) {
+          LineMatcher lineMatcher = (LineMatcher) matcher;
+          Interval interval =
+              new Interval(
+                  lineMatcher.getStartLineNumber(), lineMatcher.getEndLineNumber(), pPosition);
+          (lineMatcher.isOrigin() ? originLines : lines).add(interval);
+        } else {
+          OffsetMatcher offsetMatcher = (OffsetMatcher) matcher;
+          offsets.add(
+              new Interval(
+                  offsetMatcher.getStartOffset(), offsetMatcher.getEndOffset(), pPosition));
+        }
+
+      } else if (key instanceof MatchFunctionCall) {
+        functionCalls.put(((MatchFunctionCall) key).getFunctionName(), pPosition);
+
+      } else {
+        for (CFAEdgeType edgeType : getMatchedEdgeTypes(key)) {
+          edgeTypes.put(edgeType, pPosition);
+        }
+      }
+    }
+
+    /**
+     * Find the most selective conjunct of the trigger that can be used as key, or null if there
+     * is none.
+     */
+    private @Nullable AutomatonBoolExpr findKey(AutomatonBoolExpr pExpr) {
+      if (pExpr instanceof And) {
+        AutomatonBoolExpr keyA = findKey(((And) pExpr).a);
+        AutomatonBoolExpr keyB = findKey(((And) pExpr).b);
+        return getSelectivity(keyA) >= getSelectivity(keyB) ? keyA : keyB;
+      }
+      return getSelectivity(pExpr) > 0 ? pExpr : null;
+    }
+
+    private int getSelectivity(@Nullable AutomatonBoolExpr pExpr) {
+      if (pExpr instanceof MatchLocationDescriptor) {
+        MatchLocationDescriptor descriptor = (MatchLocationDescriptor) pExpr;
+        Predicate<FileLocation> matcher = descriptor.getDescriptor();
+        // all indexed descriptors need to use the same main entry for computing file locations
+        if ((matcher instanceof LineMatcher || matcher instanceof OffsetMatcher)
+            && (mainEntry == null || Objects.equals(mainEntry, descriptor.getMainEntry()))) {
+          return 3;
+        }
+      } else if (pExpr instanceof MatchFunctionCall) {
+        return 2;
+      } else if (pExpr != null && !getMatchedEdgeTypes(pExpr).isEmpty()) {
+        return 1;
+      }
+      return 0;
+    }
+
+    /** Return the edge types of all edges for which the expression can evaluate to true. */
+    private static List<CFAEdgeType> getMatchedEdgeTypes(AutomatonBoolExpr pExpr) {
+      if (pExpr instanceof MatchAssumeEdge) {
+        return List.of(CFAEdgeType.AssumeEdge);
+      } else if (pExpr instanceof MatchFunctionCallStatement) {
+        return List.of(CFAEdgeType.StatementEdge);
+      } else if (pExpr instanceof MatchFunctionExit) {
+        return List.of(
+            CFAEdgeType.FunctionReturnEdge,
+            CFAEdgeType.ReturnStatementEdge,
+            CFAEdgeType.BlankEdge);
+      }
+      return List.of();
+    }
+  }
+
+  private static final class Interval {
+    private final int start;
+    private final int end;
+    private final int position;
+
+    private Interval(int pStart, int pEnd, int pPosition) {
+      start = pStart;
+      end = pEnd;
+      position = pPosition;
+    }
+  }
+
+  /** Closed intervals sorted by their start, for finding all intervals that overlap another one. */
+  private static final class IntervalIndex {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] positions;
+    private final long maxLength;
+
+    private IntervalIndex(List<Interval> pIntervals) {
+      pIntervals.sort(Comparator.comparingInt(i -> i.start));
+      starts = new int[pIntervals.size()];
+      ends = new int[pIntervals.size()];
+      positions = new int[pIntervals.size()];
+      long length = 0;
+      for (int i = 0; i < pIntervals.size(); i++) {
+        Interval interval = pIntervals.get(i);
+        starts[i] = interval.start;
+        ends[i] = interval.end;
+        positions[i] = interval.position;
+        length = Math.max(length, (long) interval.end - interval.start);
+      }
+      maxLength = length;
+    }
+
+    private boolean isEmpty() {
+      return starts.length == 0;
+    }
+
+    /** Add the positions of all intervals that overlap [pStart, pEnd] to the given set. */
+    private void addOverlapping(int pStart, int pEnd, BitSet pResult) {
+      // intervals that start before this cannot reach pStart
+      int from = Ints.saturatedCast(pStart - maxLength);
+      int low = 0;
+      int high = starts.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (starts[mid] < from) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      for (int i = low; i < starts.length && starts[i] <= pEnd; i++) {
+        if (ends[i] >= pStart) {
+          pResult.set(positions[i]);
+        }
+      }
+    }
+  }
+}
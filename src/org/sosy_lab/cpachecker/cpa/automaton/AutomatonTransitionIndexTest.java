@@ -0,0 +1,111 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.LineMatcher;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.OffsetMatcher;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/** Unit tests for {@link AutomatonTransitionIndex}. */
+public class AutomatonTransitionIndexTest {
+
+  private static final Path FILE = Path.of("test.c");
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private static AutomatonBoolExpr matchLines(int pStart, int pEnd) {
+    return new AutomatonBoolExpr.MatchLocationDescriptor(
+        null, new LineMatcher(Optional.empty(), pStart, pEnd));
+  }
+
+  private static AutomatonBoolExpr matchOffsets(int pStart, int pEnd) {
+    return new AutomatonBoolExpr.MatchLocationDescriptor(
+        null, new OffsetMatcher(Optional.of("test.c"), pStart, pEnd));
+  }
+
+  private static CFAEdge edgeAt(int pLine, int pOffset, String pFunction) {
+    // the successor has no leaving edges, so the edge is not considered as epsilon edge
+    return new BlankEdge(
+        "",
+        new FileLocation(FILE, pOffset, 5, pLine, pLine),
+        CFANode.newDummyCFANode("main"),
+        CFANode.newDummyCFANode(pFunction),
+        "edge");
+  }
+
+  @Test
+  public void candidatesContainAllMatchingTransitions() throws CPATransferException {
+    List<AutomatonBoolExpr> triggers = new ArrayList<>();
+    for (int line = 1; line <= 20; line++) {
+      triggers.add(
+          new AutomatonBoolExpr.And(
+              matchLines(line, line),
+              new AutomatonBoolExpr.Negation(AutomatonBoolExpr.MatchProgramEntry.INSTANCE)));
+    }
+    triggers.add(matchLines(5, 9));
+    triggers.add(matchOffsets(100, 120));
+    triggers.add(new AutomatonBoolExpr.MatchFunctionCall("f"));
+    triggers.add(AutomatonBoolExpr.MatchAssumeEdge.INSTANCE);
+    triggers.add(AutomatonBoolExpr.TRUE);
+
+    List<AutomatonTransition> transitions = new ArrayList<>();
+    for (AutomatonBoolExpr trigger : triggers) {
+      transitions.add(
+          new AutomatonTransition.Builder(trigger, AutomatonInternalState.BOTTOM).build());
+    }
+    AutomatonTransitionIndex index = AutomatonTransitionIndex.create(transitions);
+    assertThat(index).isNotNull();
+
+    for (int line = 0; line <= 22; line++) {
+      for (String function : new String[] {"main", "f"}) {
+        CFAEdge edge = edgeAt(line, line * 10, function);
+        BitSet candidates = index.getCandidates(edge);
+        // only the transitions for this line, the line range, the offsets and the last one
+        assertThat(candidates.cardinality()).isAtMost(5);
+
+        AutomatonExpressionArguments args =
+            new AutomatonExpressionArguments(null, null, null, edge, logger);
+        for (int i = 0; i < transitions.size(); i++) {
+          if (!candidates.get(i)) {
+            assertThat(transitions.get(i).match(args).canNotEvaluate()).isFalse();
+            assertThat(transitions.get(i).match(args).getValue()).isFalse();
+          }
+        }
+        if (line >= 1 && line <= 20) {
+          assertThat(candidates.get(line - 1)).isTrue();
+          assertThat(transitions.get(line - 1).match(args).getValue()).isTrue();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void smallStatesAreNotIndexed() {
+    List<AutomatonTransition> transitions = new ArrayList<>();
+    for (int line = 1; line <= 3; line++) {
+      transitions.add(
+          new AutomatonTransition.Builder(matchLines(line, line), AutomatonInternalState.BOTTOM)
+              .build());
+    }
+    assertThat(AutomatonTransitionIndex.create(transitions)).isNull();
+  }
+}
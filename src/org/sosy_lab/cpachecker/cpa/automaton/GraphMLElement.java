@@ -0,0 +1,66 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+
+/**
+ * A graph, node, or edge element of a GraphML document together with its attributes and the
+ * key-value pairs of its data elements (in document order). This is all that the witness parser
+ * needs from the document, so it is much smaller than a DOM element.
+ */
+final class GraphMLElement {
+
+  private final GraphMLTag tag;
+  private final ImmutableMap<String, String> attributes;
+
+  // keys and values of data elements, stored alternately
+  private final List<String> data = new ArrayList<>(4);
+
+  GraphMLElement(GraphMLTag pTag, ImmutableMap<String, String> pAttributes) {
+    tag = checkNotNull(pTag);
+    attributes = checkNotNull(pAttributes);
+  }
+
+  GraphMLTag getTag() {
+    return tag;
+  }
+
+  @Nullable String getAttribute(String pName) {
+    return attributes.get(pName);
+  }
+
+  void addData(String pKey, String pValue) {
+    data.add(checkNotNull(pKey));
+    data.add(checkNotNull(pValue));
+  }
+
+  int getNumberOfData() {
+    return data.size() / 2;
+  }
+
+  String getDataKey(int pIndex) {
+    return data.get(2 * pIndex);
+  }
+
+  String getDataValue(int pIndex) {
+    return data.get(2 * pIndex + 1);
+  }
+
+  @Override
+  public String toString() {
+    return "<" + tag + " " + attributes + ">";
+  }
+}
@@ -0,0 +1,53 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/** Statistics about the parsing of a witness automaton by {@link AutomatonGraphmlParser}. */
+final class GraphMLParseStatistics {
+
+  private final TimeSpan totalTime;
+  private final TimeSpan readTime;
+  private final int nodes;
+  private final int edges;
+  private final int distinctStrings;
+  private final long maxHeapUsage;
+
+  GraphMLParseStatistics(
+      TimeSpan pTotalTime,
+      TimeSpan pReadTime,
+      int pNodes,
+      int pEdges,
+      int pDistinctStrings,
+      long pMaxHeapUsage) {
+    totalTime = checkNotNull(pTotalTime);
+    readTime = checkNotNull(pReadTime);
+    nodes = pNodes;
+    edges = pEdges;
+    distinctStrings = pDistinctStrings;
+    maxHeapUsage = pMaxHeapUsage;
+  }
+
+  void printStatistics(PrintStream pOut) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put("Time for parsing witness", totalTime.formatAs(TimeUnit.SECONDS))
+        .beginLevel()
+        .put("Time for reading GraphML document", readTime.formatAs(TimeUnit.SECONDS))
+        .put("Number of GraphML nodes", nodes)
+        .put("Number of GraphML edges", edges)
+        .put("Number of distinct data values", distinctStrings)
+        .put("Max. heap usage while reading", (maxHeapUsage >> 20) + " MiB");
+  }
+}
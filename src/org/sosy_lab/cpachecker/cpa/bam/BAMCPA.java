@@ -10,9 +10,12 @@ package org.sosy_lab.cpachecker.cpa.bam;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import java.nio.file.Path;
 import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -32,16 +35,19 @@ import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
-import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheAggressiveImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManagerImpl;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMSummaryStore;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
 @Options(prefix = "cpa.bam")
-public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofChecker {
+public class BAMCPA extends AbstractBAMCPA
+    implements StatisticsProvider, ProofChecker, AutoCloseable {
+
+  private static final String SUMMARY_STORE_OPTION = "summaryStore";
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(BAMCPA.class);
@@ -51,6 +57,7 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
   private final ProofChecker wrappedProofChecker;
   private final BAMDataManager data;
   private final BAMPCCManager bamPccManager;
+  private final @Nullable BAMSummaryStore summaryStore;
 
   @Option(name = "handleRecursiveProcedures", secure = true,
       description = "BAM allows to analyse recursive procedures. This strongly depends on the underlying CPA. "
@@ -68,6 +75,19 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
       description = "Should the nested CPA-algorithm be wrapped with CEGAR within BAM?")
   private boolean useCEGAR = false;
 
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  @Option(
+      secure = true,
+      name = SUMMARY_STORE_OPTION,
+      description =
+          "File in which the summaries of completely analyzed blocks are stored across runs of"
+              + " CPAchecker. Summaries from this file are reused for unchanged blocks if the"
+              + " machine model, the specification, and the options of the analysis are the same"
+              + " as in the run that created the file, otherwise the file is overwritten. This"
+              + " requires abstract states that are serializable, e.g., of predicate or value"
+              + " analysis.")
+  private @Nullable Path summaryStoreFile = null;
+
   private BAMCPA(
       ConfigurableProgramAnalysis pCpa,
       Configuration config,
@@ -86,12 +106,35 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
       this.wrappedProofChecker = null;
     }
 
-    final BAMCache cache;
+    final BAMCacheImpl cache;
     if (aggressiveCaching) {
       cache = new BAMCacheAggressiveImpl(config, getReducer(), logger);
     } else {
       cache = new BAMCacheImpl(config, getReducer(), logger);
     }
+    if (handleRecursiveProcedures && cache.isBounded()) {
+      // the fixpoint computation for recursive procedures iterates over all cached reached-sets
+      throw new InvalidConfigurationException(
+          "Limiting the size of the BAM cache is not supported for recursive procedures.");
+    }
+    if (summaryStoreFile != null) {
+      if (handleRecursiveProcedures) {
+        // summaries of recursive procedures depend on the fixpoint iteration
+        throw new InvalidConfigurationException(
+            "The BAM summary store is not supported for recursive procedures.");
+      }
+      summaryStore =
+          new BAMSummaryStore(
+              summaryStoreFile,
+              "cpa.bam." + SUMMARY_STORE_OPTION,
+              config,
+              pCfa.getMachineModel(),
+              pSpecification.getFiles(),
+              pLogger);
+      cache.setSummaryStore(summaryStore, () -> pReachedSetFactory.create(this));
+    } else {
+      summaryStore = null;
+    }
     data = new BAMDataManagerImpl(this, cache, pReachedSetFactory, pLogger);
 
     bamPccManager = new BAMPCCManager(
@@ -168,6 +211,13 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
     return wrappedProofChecker.isCoveredBy(pState, pOtherState);
   }
 
+  @Override
+  public void close() {
+    if (summaryStore != null) {
+      summaryStore.close();
+    }
+  }
+
   public BAMMultipleCEXSubgraphComputer createBAMMultipleSubgraphComputer(
       Function<ARGState, Integer> pIdExtractor) {
     return new BAMMultipleCEXSubgraphComputer(this, pIdExtractor);
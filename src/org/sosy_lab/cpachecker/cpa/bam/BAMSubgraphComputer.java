@@ -253,6 +253,11 @@ public class BAMSubgraphComputer {
     for (final ReachedSet reachedSet : reachedSets.keySet()) {
       final BackwardARGState newInnerRoot;
       try {
+        if (data.getCache().isImported(reachedSet)) {
+          // a summary from the persistent store contains no paths through the block
+          throw new MissingBlockException(
+              expandedRoot, reachedSets.get(reachedSet).iterator().next().getARGState());
+        }
         newInnerRoot =
             computeCounterexampleSubgraph(
                 new ARGReachedSet(reachedSet), newExpandedToNewInnerTargets.values());
@@ -284,6 +284,9 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     // except for one special case (on revisiting recursion).
     final Collection<AbstractState> statesForFurtherAnalysis;
 
+    // Keep the cache within its limits before (probably) adding a new entry.
+    data.evictCacheEntriesIfNecessary();
+
     // Try to get an element from cache.
     // A previously computed element consists of a reached set associated
     // with the recursive call, and
@@ -292,6 +295,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
 
     final ReachedSet reached;
     final Set<AbstractState> reducedResult;
+    boolean isFullHit = false;
 
     if (entry == null) { // MISS
       entry =
@@ -320,6 +324,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
         reducedResult = cachedReturnStates;
         statesForFurtherAnalysis = cachedReturnStates;
         reached = cachedReached;
+        isFullHit = true;
 
       } else { // PARTIAL HIT
         reached = cachedReached;
@@ -350,6 +355,10 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     // both are always equal, except analysis of recursive procedures (@fixpoint-algorithm)
     entry.setExitStates(reducedResult);
     entry.setRootOfBlock(rootOfBlock);
+    if (!isFullHit) {
+      data.getCache()
+          .registerCompletedEntry(reducedInitialState, reducedInitialPrecision, innerSubtree);
+    }
 
     return Pair.of(statesForFurtherAnalysis, reached);
   }
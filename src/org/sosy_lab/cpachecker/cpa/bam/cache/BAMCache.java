@@ -13,6 +13,7 @@ import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -60,11 +61,51 @@ public interface BAMCache extends Statistics {
    *  then there is a way to clear all caches and to restore ARG completely. */
   void clear();
 
+  /**
+   * Check whether the cache exceeds its configured limits (number of entries or heap usage), such
+   * that some entries should be removed with {@link #evict(Predicate)}.
+   */
+  boolean isEvictionNecessary();
+
+  /**
+   * Remove rarely and not recently used entries of completely analyzed blocks from the cache until
+   * it is within its configured limits again. Entries whose reached-set is still used (e.g., by the
+   * current ARG) are only removed if there are not enough other entries. An evicted block is
+   * analyzed again when it is needed the next time.
+   */
+  void evict(Predicate<ReachedSet> pIsUsed);
+
+  /** Return the number of full or partial cache hits. */
+  int getNumberOfHits();
+
+  /** Return the number of entries that were evicted from the cache. */
+  int getNumberOfEvictions();
+
+  /** Return the number of cache misses for entries that were evicted before. */
+  int getNumberOfRecomputations();
+
+  /**
+   * Inform the cache that the block for the given key was analyzed completely and the exit states
+   * are registered in its entry, such that the cache can store the result persistently.
+   */
+  void registerCompletedEntry(AbstractState stateKey, Precision precisionKey, Block context);
+
+  /**
+   * Check whether the given reached-set was imported from a persistent store of block summaries.
+   * Such a reached-set contains only the initial state and the exit states of the block, but no
+   * paths through the block.
+   */
+  boolean isImported(ReachedSet pReached);
+
   class BAMCacheEntry {
     private final ReachedSet rs;
     private Set<AbstractState> exitStates;
     private ARGState rootOfBlock;
 
+    // usage of the entry, needed for the eviction of entries
+    private int numberOfHits = 0;
+    private long lastAccess = 0;
+
     protected BAMCacheEntry(ReachedSet pRs) {
       rs = Preconditions.checkNotNull(pRs);
     }
@@ -105,6 +146,26 @@ public interface BAMCache extends Statistics {
       return rootOfBlock;
     }
 
+    void registerAccess(long pTime, boolean pIsHit) {
+      lastAccess = pTime;
+      if (pIsHit) {
+        numberOfHits++;
+      }
+    }
+
+    /** Halve the number of hits, such that old hits become less important than new ones. */
+    void ageHits() {
+      numberOfHits /= 2;
+    }
+
+    int getNumberOfHits() {
+      return numberOfHits;
+    }
+
+    long getLastAccess() {
+      return lastAccess;
+    }
+
     public void deleteInfo() {
       exitStates = null;
       rootOfBlock = null;
@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.cpa.bam.cache;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
@@ -62,6 +63,11 @@ public class BAMCacheAggressiveImpl extends BAMCacheImpl {
     return super.getIfNotExistant(stateKey, precisionKey, context, hash);
   }
 
+  @Override
+  protected void removeEvictedEntries(Set<BAMCacheEntry> pEvicted) {
+    impreciseReachedCache.values().removeIf(pEvicted::contains);
+  }
+
   /** Return the cache hit with the closest precision (used for aggressive caching). */
   private BAMCacheEntry lookForSimilarState(
       AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
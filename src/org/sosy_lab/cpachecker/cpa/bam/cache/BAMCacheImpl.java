@@ -12,12 +12,31 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.toPercent;
 
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
 import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -31,6 +50,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 
 @Options(prefix = "cpa.bam")
@@ -40,8 +60,29 @@ public class BAMCacheImpl implements BAMCache {
       + "for each cache miss to find the cause of the miss.")
   private boolean gatherCacheMissStatistics = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of reached-sets in the cache (0 for no limit). If there are more,"
+              + " rarely and not recently used blocks are evicted from the cache"
+              + " and analyzed again when they are needed the next time.")
+  @IntegerOption(min = 0)
+  private int maxCacheEntries = 0;
+
+  @Option(
+      secure = true,
+      description =
+          "Maximal heap usage in percent of the maximal heap size (0 for no limit). If the heap"
+              + " usage after the last garbage collection is higher, rarely and not recently used"
+              + " blocks are evicted from the cache and analyzed again when they are needed the"
+              + " next time.")
+  @IntegerOption(min = 0, max = 100)
+  private int maxCacheHeapUsage = 0;
+
   private final Timer hashingTimer = new Timer();
   private final Timer equalsTimer = new Timer();
+  private final Timer evictionTimer = new Timer();
+  private final Timer summaryStoreTimer = new Timer();
 
   private int cacheMisses = 0;
   private int partialCacheHits = 0;
@@ -51,6 +92,34 @@ public class BAMCacheImpl implements BAMCache {
   private int precisionCausedMisses = 0;
   private int noSimilarCausedMisses = 0;
 
+  private int evictions = 0;
+  private int recomputations = 0;
+
+  private int importedSummaries = 0;
+  private int invalidatedSummaries = 0;
+  private int storedSummaries = 0;
+
+  // logical time of the last cache access
+  private long accessCounter = 0;
+
+  // Number of garbage collections at the time of the last eviction. The heap usage after the
+  // last collection is only checked again after another collection, because before that it does
+  // not reflect the memory that was freed by the eviction.
+  private long collectionsAtLastEviction = -1;
+
+  // Hash codes of the keys of evicted entries. The keys themselves would keep their states and
+  // precisions alive. A hash collision only causes a wrong count of recomputations.
+  private final Set<Integer> evictedKeyHashes = new HashSet<>();
+
+  private @Nullable BAMSummaryStore summaryStore = null;
+  private @Nullable Supplier<ReachedSet> reachedSetSupplier = null;
+
+  // reached-sets of summaries from the store, they contain no paths through their block
+  private final Set<ReachedSet> importedReachedSets = Sets.newIdentityHashSet();
+
+  // summaries that were imported, but then needed to be analyzed again
+  private final Set<String> invalidatedSummaryKeys = new HashSet<>();
+
   // we use LinkedHashMaps to avoid non-determinism
   protected final Map<AbstractStateHash, BAMCacheEntry> preciseReachedCache = new LinkedHashMap<>();
 
@@ -67,6 +136,18 @@ public class BAMCacheImpl implements BAMCache {
     this.logger = logger;
   }
 
+  /**
+   * Use the given persistent store of block summaries: summaries are imported from the store for
+   * cache misses, and completely analyzed blocks are added to the store.
+   *
+   * @param pReachedSetSupplier creates empty reached-sets for imported summaries
+   */
+  public void setSummaryStore(
+      BAMSummaryStore pSummaryStore, Supplier<ReachedSet> pReachedSetSupplier) {
+    summaryStore = checkNotNull(pSummaryStore);
+    reachedSetSupplier = checkNotNull(pReachedSetSupplier);
+  }
+
   protected AbstractStateHash getHashCode(AbstractState stateKey, Precision precisionKey, Block context) {
     return new AbstractStateHash(stateKey, precisionKey, context);
   }
@@ -78,6 +159,10 @@ public class BAMCacheImpl implements BAMCache {
     BAMCacheEntry entry = new BAMCacheEntry(rs);
     // assert !preciseReachedCache.containsKey(hash);
     preciseReachedCache.put(hash, entry);
+    entry.registerAccess(++accessCounter, false);
+    if (!evictedKeyHashes.isEmpty() && evictedKeyHashes.remove(hash.hashCode())) {
+      recomputations++;
+    }
     return entry;
   }
 
@@ -98,6 +183,7 @@ public class BAMCacheImpl implements BAMCache {
         findCacheMissCause(stateKey, precisionKey, context);
       }
     } else {
+      entry.registerAccess(++accessCounter, true);
       if (entry.getExitStates() == null) {
         // we have cached a partly computed reached-set
         partialCacheHits++;
@@ -115,15 +201,127 @@ public class BAMCacheImpl implements BAMCache {
 
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     BAMCacheEntry result = preciseReachedCache.get(hash);
+    if (result != null
+        && result.getExitStates() == null
+        && importedReachedSets.remove(result.getReachedSet())) {
+      // The imported summary was invalidated, because a counterexample passes through the block.
+      // We need to analyze the block again to get the paths.
+      invalidateImportedEntry(hash, result);
+      result = null;
+    }
     if (result != null) {
       lastAnalyzedEntry = result;
       logger.log(Level.FINEST, "CACHE_ACCESS: precise entry");
       return result;
     }
 
+    if (summaryStore != null) {
+      result = importSummary(stateKey, precisionKey, context);
+      if (result != null) {
+        lastAnalyzedEntry = result;
+        logger.log(Level.FINEST, "CACHE_ACCESS: entry imported from summary store");
+        return result;
+      }
+    }
+
     return getIfNotExistant(stateKey, precisionKey, context, hash);
   }
 
+  /**
+   * Create a cache entry from the summary in the store for the given key, if available. The
+   * reached-set of the entry contains the initial state and the exit states as its children.
+   */
+  private @Nullable BAMCacheEntry importSummary(
+      final AbstractState stateKey, final Precision precisionKey, final Block context) {
+    summaryStoreTimer.start();
+    try {
+      String key = computeSummaryKey(stateKey, precisionKey, context);
+      if (key == null || invalidatedSummaryKeys.contains(key)) {
+        return null;
+      }
+      List<AbstractState> summary = summaryStore.get(key);
+      if (summary == null) {
+        return null;
+      }
+
+      ARGState root = (ARGState) stateKey;
+      ReachedSet reached = reachedSetSupplier.get();
+      reached.addNoWaitlist(root, precisionKey);
+      Set<AbstractState> exitStates = new LinkedHashSet<>(summary.size());
+      for (AbstractState state : summary) {
+        ARGState exitState = new ARGState(state, root);
+        reached.addNoWaitlist(exitState, precisionKey);
+        exitStates.add(exitState);
+      }
+
+      BAMCacheEntry entry = put(stateKey, precisionKey, context, reached);
+      entry.setExitStates(exitStates);
+      importedReachedSets.add(reached);
+      importedSummaries++;
+      return entry;
+    } finally {
+      summaryStoreTimer.stop();
+    }
+  }
+
+  private void invalidateImportedEntry(AbstractStateHash hash, BAMCacheEntry entry) {
+    summaryStoreTimer.start();
+    try {
+      preciseReachedCache.remove(hash);
+      removeEvictedEntries(ImmutableSet.of(entry));
+      String key = computeSummaryKey(hash.stateKey, hash.precisionKey, hash.context);
+      if (key != null) {
+        invalidatedSummaryKeys.add(key);
+      }
+      invalidatedSummaries++;
+    } finally {
+      summaryStoreTimer.stop();
+    }
+  }
+
+  private @Nullable String computeSummaryKey(
+      AbstractState stateKey, Precision precisionKey, Block context) {
+    // the ARG is not part of the summary
+    return summaryStore.computeKey(
+        ((ARGState) stateKey).getWrappedState(), precisionKey, context);
+  }
+
+  @Override
+  public void registerCompletedEntry(
+      AbstractState stateKey, Precision precisionKey, Block context) {
+    if (summaryStore == null) {
+      return;
+    }
+    BAMCacheEntry entry = preciseReachedCache.get(getHashCode(stateKey, precisionKey, context));
+    if (entry == null
+        || entry.getExitStates() == null
+        || entry.getReachedSet().hasWaitingState()
+        || importedReachedSets.contains(entry.getReachedSet())
+        || Iterables.any(entry.getExitStates(), AbstractStates::isTargetState)) {
+      // only summaries of safe blocks are stored, and only once
+      return;
+    }
+
+    summaryStoreTimer.start();
+    try {
+      String key = computeSummaryKey(stateKey, precisionKey, context);
+      if (key != null && !summaryStore.contains(key)) {
+        summaryStore.put(
+            key,
+            Collections2.transform(
+                entry.getExitStates(), state -> ((ARGState) state).getWrappedState()));
+        storedSummaries++;
+      }
+    } finally {
+      summaryStoreTimer.stop();
+    }
+  }
+
+  @Override
+  public boolean isImported(ReachedSet pReached) {
+    return importedReachedSets.contains(pReached);
+  }
+
   @SuppressWarnings("unused") /* parameters used in subclass */
   protected BAMCacheEntry getIfNotExistant(
       final AbstractState stateKey,
@@ -175,6 +373,124 @@ public class BAMCacheImpl implements BAMCache {
     return Collections2.transform(preciseReachedCache.values(), BAMCacheEntry::getReachedSet);
   }
 
+  /** Return whether the size of the cache is limited, i.e., entries can be evicted. */
+  public boolean isBounded() {
+    return maxCacheEntries > 0 || maxCacheHeapUsage > 0;
+  }
+
+  @Override
+  public boolean isEvictionNecessary() {
+    return getNumberOfEntriesToEvict() > 0;
+  }
+
+  private int getNumberOfEntriesToEvict() {
+    int size = preciseReachedCache.size();
+    int toEvict = 0;
+    if (maxCacheEntries > 0 && size > maxCacheEntries) {
+      // evict a few more entries, such that we do not need to evict again immediately
+      toEvict = size - maxCacheEntries + maxCacheEntries / 10;
+    }
+    if (maxCacheHeapUsage > 0
+        && getNumberOfCollections() != collectionsAtLastEviction
+        && getHeapUsageAfterLastCollection() * 100
+            > Runtime.getRuntime().maxMemory() * maxCacheHeapUsage) {
+      toEvict = Math.max(toEvict, size / 4);
+    }
+    return toEvict;
+  }
+
+  /** Return the number of garbage collections so far (of all collectors). */
+  private static long getNumberOfCollections() {
+    long collections = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      // -1 if undefined for this collector
+      collections += Math.max(0, collector.getCollectionCount());
+    }
+    return collections;
+  }
+
+  /**
+   * Return the used heap memory directly after the last garbage collection of each heap pool.
+   * Unlike the current heap usage, this does not count garbage that was not yet collected.
+   */
+  private static long getHeapUsageAfterLastCollection() {
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        MemoryUsage usage = pool.getCollectionUsage(); // null if not supported by this pool
+        if (usage != null) {
+          used += usage.getUsed();
+        }
+      }
+    }
+    return used;
+  }
+
+  @Override
+  public void evict(Predicate<ReachedSet> pIsUsed) {
+    evictionTimer.start();
+    try {
+      int toEvict = getNumberOfEntriesToEvict();
+      if (toEvict == 0) {
+        return;
+      }
+
+      // Only completely analyzed blocks are evicted, preferably unused ones,
+      // then those with the least hits, then those with the oldest access.
+      Comparator<BAMCacheEntry> evictionOrder =
+          Comparator.<BAMCacheEntry, Boolean>comparing(e -> pIsUsed.test(e.getReachedSet()))
+              .thenComparingInt(BAMCacheEntry::getNumberOfHits)
+              .thenComparingLong(BAMCacheEntry::getLastAccess);
+      List<Entry<AbstractStateHash, BAMCacheEntry>> candidates =
+          Ordering.from(evictionOrder)
+              .onResultOf(Entry<AbstractStateHash, BAMCacheEntry>::getValue)
+              .leastOf(
+                  Collections2.filter(
+                      preciseReachedCache.entrySet(), e -> e.getValue().getExitStates() != null),
+                  toEvict);
+
+      Set<BAMCacheEntry> evicted = Sets.newIdentityHashSet();
+      for (Entry<AbstractStateHash, BAMCacheEntry> candidate : candidates) {
+        AbstractStateHash hash = candidate.getKey();
+        evicted.add(candidate.getValue());
+        evictedKeyHashes.add(hash.hashCode());
+        preciseReachedCache.remove(hash);
+        importedReachedSets.remove(candidate.getValue().getReachedSet());
+      }
+      removeEvictedEntries(evicted);
+      for (BAMCacheEntry entry : preciseReachedCache.values()) {
+        entry.ageHits();
+      }
+
+      evictions += evicted.size();
+      if (maxCacheHeapUsage > 0) {
+        collectionsAtLastEviction = getNumberOfCollections();
+      }
+      logger.log(Level.FINE, "Evicted", evicted.size(), "entries from BAM cache");
+    } finally {
+      evictionTimer.stop();
+    }
+  }
+
+  /** Remove the given entries that were evicted from the cache from all further data. */
+  @SuppressWarnings("unused") /* parameter used in subclass */
+  protected void removeEvictedEntries(Set<BAMCacheEntry> pEvicted) {}
+
+  @Override
+  public int getNumberOfHits() {
+    return partialCacheHits + fullCacheHits;
+  }
+
+  @Override
+  public int getNumberOfEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public int getNumberOfRecomputations() {
+    return recomputations;
+  }
+
   class AbstractStateHash {
 
     private final Object wrappedHash;
@@ -254,6 +570,17 @@ public class BAMCacheImpl implements BAMCache {
     }
     out.println("Time for checking equality of abstract states:       " + equalsTimer + " (Calls: " + equalsTimer.getNumberOfIntervals() + ")");
     out.println("Time for computing the hashCode of abstract states:  " + hashingTimer + " (Calls: " + hashingTimer.getNumberOfIntervals() + ")");
+    if (summaryStore != null) {
+      int blocksToAnalyze = cacheMisses + importedSummaries;
+      out.println("Number of block summaries in persistent store:       " + summaryStore.size());
+      out.println("  Number of imported summaries:                      " + importedSummaries + " (" + toPercent(importedSummaries, blocksToAnalyze) + " of all blocks not in cache)");
+      out.println("  Number of invalidated imported summaries:          " + invalidatedSummaries);
+      out.println("  Number of newly stored summaries:                  " + storedSummaries);
+      out.println("Time for importing and storing summaries:            " + summaryStoreTimer + " (Calls: " + summaryStoreTimer.getNumberOfIntervals() + ")");
+    }
+    if (evictionTimer.getNumberOfIntervals() > 0) {
+      out.println("Time for evicting entries from the cache:            " + evictionTimer + " (Calls: " + evictionTimer.getNumberOfIntervals() + ")");
+    }
   }
 
   @Override
@@ -264,6 +591,8 @@ public class BAMCacheImpl implements BAMCache {
   @Override
   public void clear() {
     preciseReachedCache.clear();
+    evictedKeyHashes.clear();
+    importedReachedSets.clear();
     lastAnalyzedEntry = null;
   }
 }
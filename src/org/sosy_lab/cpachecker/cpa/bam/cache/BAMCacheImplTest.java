@@ -0,0 +1,131 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+
+/** Unit tests for the eviction of entries from {@link BAMCacheImpl}. */
+public class BAMCacheImplTest {
+
+  private static final int MAX_ENTRIES = 10;
+
+  private final Precision precision = SingletonPrecision.getInstance();
+  private final Block block =
+      new Block(ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of());
+
+  private BAMCacheImpl cache;
+  private final List<AbstractState> states = new ArrayList<>();
+  private final List<ReachedSet> reachedSets = new ArrayList<>();
+
+  @Before
+  public void setUp() throws InvalidConfigurationException {
+    // each state is its own cache key
+    Reducer reducer = mock(Reducer.class);
+    when(reducer.getHashCodeForState(any(), any())).thenAnswer(call -> call.getArgument(0));
+    Configuration config =
+        Configuration.builder()
+            .setOption("cpa.bam.maxCacheEntries", Integer.toString(MAX_ENTRIES))
+            .build();
+    cache = new BAMCacheImpl(config, reducer, LogManager.createTestLogManager());
+  }
+
+  /** Add a completely analyzed block to the cache. */
+  private void putCompleted() {
+    AbstractState state = new AbstractState() {};
+    ReachedSet reached = mock(ReachedSet.class);
+    cache.put(state, precision, block, reached).setExitStates(ImmutableSet.of());
+    states.add(state);
+    reachedSets.add(reached);
+  }
+
+  @Test
+  public void noEvictionBelowLimit() {
+    for (int i = 0; i < MAX_ENTRIES; i++) {
+      putCompleted();
+    }
+    assertThat(cache.isBounded()).isTrue();
+    assertThat(cache.isEvictionNecessary()).isFalse();
+  }
+
+  @Test
+  public void evictRarelyAndNotRecentlyUsedEntries() {
+    for (int i = 0; i < MAX_ENTRIES; i++) {
+      putCompleted();
+    }
+    // entries 0-4 are hit, entries 5-9 are not
+    for (int i = 0; i < MAX_ENTRIES / 2; i++) {
+      assertThat(cache.get(states.get(i), precision, block)).isNotNull();
+    }
+    putCompleted();
+    assertThat(cache.isEvictionNecessary()).isTrue();
+
+    cache.evict(reached -> false);
+
+    // 11 entries, limit 10 plus a margin of 10%, so the two oldest entries without hits go
+    assertThat(cache.getNumberOfEvictions()).isEqualTo(2);
+    assertThat(cache.isEvictionNecessary()).isFalse();
+    for (int i = 0; i <= MAX_ENTRIES; i++) {
+      assertThat(cache.containsPreciseKey(states.get(i), precision, block))
+          .isEqualTo(i != 5 && i != 6);
+    }
+
+    // an evicted block that is analyzed again counts as recomputation
+    cache.put(states.get(5), precision, block, reachedSets.get(5));
+    assertThat(cache.getNumberOfRecomputations()).isEqualTo(1);
+  }
+
+  @Test
+  public void usedEntriesAreEvictedLast() {
+    for (int i = 0; i <= MAX_ENTRIES; i++) {
+      putCompleted();
+    }
+    ReachedSet used1 = reachedSets.get(0);
+    ReachedSet used2 = reachedSets.get(1);
+
+    cache.evict(reached -> reached == used1 || reached == used2);
+
+    assertThat(cache.containsPreciseKey(states.get(0), precision, block)).isTrue();
+    assertThat(cache.containsPreciseKey(states.get(1), precision, block)).isTrue();
+    assertThat(cache.containsPreciseKey(states.get(2), precision, block)).isFalse();
+    assertThat(cache.containsPreciseKey(states.get(3), precision, block)).isFalse();
+  }
+
+  @Test
+  public void partiallyAnalyzedEntriesAreNotEvicted() {
+    for (int i = 0; i < MAX_ENTRIES; i++) {
+      AbstractState state = new AbstractState() {};
+      cache.put(state, precision, block, mock(ReachedSet.class)); // no exit states yet
+      states.add(state);
+    }
+    putCompleted();
+
+    cache.evict(reached -> false);
+
+    assertThat(cache.getNumberOfEvictions()).isEqualTo(1);
+    assertThat(cache.containsPreciseKey(states.get(MAX_ENTRIES), precision, block)).isFalse();
+  }
+}
@@ -10,6 +10,7 @@ package org.sosy_lab.cpachecker.cpa.bam.cache;
 
 import java.io.PrintStream;
 import java.util.Collection;
+import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -120,4 +121,54 @@ public class BAMCacheSynchronized implements BAMCache {
       cache.clear();
     }
   }
+
+  @Override
+  public boolean isEvictionNecessary() {
+    synchronized (this) {
+      return cache.isEvictionNecessary();
+    }
+  }
+
+  @Override
+  public void evict(Predicate<ReachedSet> pIsUsed) {
+    synchronized (this) {
+      cache.evict(pIsUsed);
+    }
+  }
+
+  @Override
+  public int getNumberOfHits() {
+    synchronized (this) {
+      return cache.getNumberOfHits();
+    }
+  }
+
+  @Override
+  public int getNumberOfEvictions() {
+    synchronized (this) {
+      return cache.getNumberOfEvictions();
+    }
+  }
+
+  @Override
+  public int getNumberOfRecomputations() {
+    synchronized (this) {
+      return cache.getNumberOfRecomputations();
+    }
+  }
+
+  @Override
+  public void registerCompletedEntry(
+      AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
+    synchronized (this) {
+      cache.registerCompletedEntry(pStateKey, pPrecisionKey, pContext);
+    }
+  }
+
+  @Override
+  public boolean isImported(ReachedSet pReached) {
+    synchronized (this) {
+      return cache.isImported(pReached);
+    }
+  }
 }
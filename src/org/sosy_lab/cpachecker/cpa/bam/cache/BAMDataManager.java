@@ -106,6 +106,14 @@ public interface BAMDataManager {
    *  then there is a way to clear all caches and to restore ARG completely. */
   void clear();
 
+  /**
+   * Evict entries from the cache if it exceeds its configured limits. Before that, all data about
+   * abstract states that were removed from the ARG is deleted, such that the reached-sets of
+   * evicted blocks are not kept in memory by stale references. Evicted blocks are analyzed again
+   * when they are needed the next time.
+   */
+  void evictCacheEntriesIfNecessary();
+
   /** return a matching precision for the given expanded state, or Null if state is not found. */
   @Nullable
   Precision getExpandedPrecisionForState(AbstractState pState);
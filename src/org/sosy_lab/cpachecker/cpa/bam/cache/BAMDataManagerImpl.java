@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import java.util.ArrayList;
@@ -42,7 +43,8 @@ import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
 /**
  * Data structures required for BAM.
  *
- * <p>TODO: clear cache to avoid memory-leaks.
+ * <p>The data of states that were removed from the ARG is only deleted when entries are evicted
+ * from the cache, see {@link #evictCacheEntriesIfNecessary()}.
  */
 public class BAMDataManagerImpl implements BAMDataManager {
 
@@ -315,6 +317,35 @@ public class BAMDataManagerImpl implements BAMDataManager {
     reducedToNonReduced.clear();
   }
 
+  @Override
+  public void evictCacheEntriesIfNecessary() {
+    if (!bamCache.isEvictionNecessary()) {
+      return;
+    }
+
+    // States removed from the ARG (e.g., by refinement) are never accessed again,
+    // but their data might be the last reference to the reached-set of a block.
+    int oldSize = expandedStateToBlockExit.size() + initialStateToReachedSet.size();
+    expandedStateToBlockExit.keySet().removeIf(BAMDataManagerImpl::isDestroyed);
+    initialStateToReachedSet.rowKeySet().removeIf(BAMDataManagerImpl::isDestroyed);
+    reducedToNonReduced
+        .entries()
+        .removeIf(entry -> isDestroyed(entry.getKey()) || isDestroyed(entry.getValue()));
+    logger.log(
+        Level.FINE,
+        "Removed data of",
+        oldSize - expandedStateToBlockExit.size() - initialStateToReachedSet.size(),
+        "destroyed states before evicting entries from BAM cache");
+
+    Set<ReachedSet> usedReachedSets = Sets.newIdentityHashSet();
+    usedReachedSets.addAll(initialStateToReachedSet.values());
+    bamCache.evict(usedReachedSets::contains);
+  }
+
+  private static boolean isDestroyed(AbstractState state) {
+    return ((ARGState) state).isDestroyed();
+  }
+
   @Override
   public boolean addUncachedBlockEntry(CFANode pNode) {
     return uncachedBlockEntries.add(pNode);
@@ -160,6 +160,13 @@ public class BAMDataManagerSynchronized implements BAMDataManager {
     }
   }
 
+  @Override
+  public void evictCacheEntriesIfNecessary() {
+    synchronized (this) {
+      manager.evictCacheEntriesIfNecessary();
+    }
+  }
+
   @Override
   public boolean addUncachedBlockEntry(CFANode pNode) {
     //Not sure how the option works with ParallelBAM
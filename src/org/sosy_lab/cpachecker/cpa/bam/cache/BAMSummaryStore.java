@@ -0,0 +1,550 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.AAstNode;
+import org.sosy_lab.cpachecker.cfa.ast.AExpression;
+import org.sosy_lab.cpachecker.cfa.ast.AIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.ASimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.AVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.Type;
+import org.sosy_lab.cpachecker.cfa.types.c.CArrayType;
+import org.sosy_lab.cpachecker.cfa.types.c.CCompositeType;
+import org.sosy_lab.cpachecker.cfa.types.c.CCompositeType.CCompositeTypeMemberDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.WrapperPrecision;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision.LocationInstance;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Precisions;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+
+/**
+ * A store for block summaries of BAM that is kept in a file and reused by later runs of
+ * CPAchecker, e.g., when re-verifying a program whose functions did not change.
+ *
+ * <p>A summary consists of the exit states of a completely analyzed block. Its key is a hash of
+ * the content of the block, of the serialized reduced initial state, and of the reduced precision.
+ * The content of the block consists of its nodes including their numbers, the code of all edges,
+ * the canonical types of all declarations and expressions, and the declarations of the global
+ * variables that are used in the block. Precisions are not serializable, so a textual
+ * representation that does not depend on the order in which the precision was refined is part of
+ * the key. Only analyses whose abstract states are serializable (e.g., predicate and value
+ * analysis) can use the store.
+ *
+ * <p>The file starts with a fingerprint of the machine model, of the content of the specification
+ * files, and of all options that influence the analysis. If the fingerprint does not match the
+ * current run, the file is discarded. When the file is opened, only the keys are read, the
+ * summaries are deserialized when they are requested. New summaries are appended to the file
+ * immediately.
+ */
+public final class BAMSummaryStore implements AutoCloseable {
+
+  private static final String FORMAT_VERSION = "CPAchecker BAM summaries 1";
+
+  /** Prefixes of the options that are relevant for the fingerprint of a store file. */
+  private static final String[] RELEVANT_OPTION_PREFIXES = {
+    "analysis.", "cpa", "CompositeCPA.", "solver.", "specification"
+  };
+
+  private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+  private static final Joiner LINE_JOINER = Joiner.on('\n');
+
+  private final Path file;
+  private final String optionName;
+  private final LogManager logger;
+
+  /** Position and length of the serialized summaries in the file, by key. */
+  private final Map<String, long[]> entries = new HashMap<>();
+
+  private final Map<Block, String> blockFingerprints = new HashMap<>();
+
+  private @Nullable DataOutputStream writer;
+  private long fileSize = 0;
+  private @Nullable FileChannel reader;
+  private boolean unserializableStateFound = false;
+
+  /**
+   * Create a store that is kept in the given file, and read the keys of the existing summaries
+   * from the file.
+   *
+   * @param pFile the file with the store, which is created if it does not exist
+   * @param pOptionName the name of the option that specifies the file, which is not relevant for
+   *     the fingerprint
+   * @param pSpecificationFiles the files of the specification, whose content is part of the
+   *     fingerprint
+   */
+  public BAMSummaryStore(
+      Path pFile,
+      String pOptionName,
+      Configuration pConfig,
+      MachineModel pMachineModel,
+      Collection<Path> pSpecificationFiles,
+      LogManager pLogger) {
+    file = pFile;
+    optionName = pOptionName;
+    logger = pLogger;
+
+    String fingerprint = computeFingerprint(pConfig, pMachineModel, pSpecificationFiles);
+    boolean valid = false;
+    if (Files.exists(file)) {
+      try {
+        valid = readEntries(fingerprint);
+      } catch (IOException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not read BAM summary store, ignoring it");
+      }
+      if (!valid) {
+        logger.log(
+            Level.INFO,
+            "BAM summary store",
+            file,
+            "was created for a different machine model, specification, or different options,"
+                + " discarding it.");
+        entries.clear();
+      }
+    }
+
+    try {
+      if (valid) {
+        // remove an incomplete last entry, such that new entries can be appended
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+          channel.truncate(fileSize);
+        }
+        writer =
+            new DataOutputStream(
+                new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)));
+      } else {
+        if (file.getParent() != null) {
+          Files.createDirectories(file.getParent());
+        }
+        writer = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        writer.writeUTF(FORMAT_VERSION);
+        writer.writeUTF(fingerprint);
+        writer.flush();
+        fileSize = writer.size();
+      }
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write BAM summary store, new summaries are lost");
+      writer = null;
+    }
+    logger.log(Level.FINE, "Found", entries.size(), "block summaries in BAM summary store", file);
+  }
+
+  private String computeFingerprint(
+      Configuration pConfig, MachineModel pMachineModel, Collection<Path> pSpecificationFiles) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pMachineModel.name(), UTF_8).putChar('\n');
+    for (Path specFile : new TreeSet<>(pSpecificationFiles)) {
+      hasher.putString(specFile.toString(), UTF_8).putChar('\n');
+      try {
+        hasher.putBytes(Files.readAllBytes(specFile)).putChar('\n');
+      } catch (IOException e) {
+        // unlikely because the specification was read before; the fingerprint then differs
+        // from the one of runs that could read the file, so no summaries are mixed up
+        logger.logDebugException(e, "Could not read specification file for BAM summary store");
+      }
+    }
+    for (String option : new TreeSet<>(LINE_SPLITTER.splitToList(pConfig.asPropertiesString()))) {
+      if (option.startsWith(optionName + " ")) {
+        continue;
+      }
+      for (String prefix : RELEVANT_OPTION_PREFIXES) {
+        if (option.startsWith(prefix)) {
+          hasher.putString(option, UTF_8).putChar('\n');
+          break;
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Read the keys and positions of all summaries from the file.
+   *
+   * @return whether the file has the given fingerprint
+   */
+  private boolean readEntries(String pFingerprint) throws IOException {
+    try (CountingInputStream counter =
+            new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        DataInputStream in = new DataInputStream(counter)) {
+      try {
+        if (!in.readUTF().equals(FORMAT_VERSION) || !in.readUTF().equals(pFingerprint)) {
+          return false;
+        }
+      } catch (EOFException e) {
+        return false;
+      }
+      fileSize = counter.getCount();
+
+      while (true) {
+        String key;
+        int length;
+        long position;
+        try {
+          key = in.readUTF();
+          length = in.readInt();
+          position = counter.getCount();
+          ByteStreams.skipFully(in, length);
+        } catch (EOFException e) {
+          // an incomplete last entry (e.g., from a run that was killed) is ignored
+          return true;
+        }
+        entries.put(key, new long[] {position, length});
+        fileSize = counter.getCount();
+      }
+    }
+  }
+
+  /**
+   * Compute the key for the summary of the given block with the given reduced initial state and
+   * reduced precision.
+   *
+   * @return the key, or null if the state is not serializable
+   */
+  public synchronized @Nullable String computeKey(
+      AbstractState pReducedState, Precision pReducedPrecision, Block pBlock) {
+    if (unserializableStateFound) {
+      return null;
+    }
+    byte[] state;
+    try {
+      state = serialize(ImmutableList.of(pReducedState));
+    } catch (NotSerializableException e) {
+      handleUnserializableState(e);
+      return null;
+    } catch (IOException e) {
+      logger.logDebugException(e, "Could not compute key for BAM summary store");
+      return null;
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(
+        blockFingerprints.computeIfAbsent(pBlock, BAMSummaryStore::computeFingerprint), UTF_8);
+    hasher.putChar('\n').putBytes(state).putChar('\n');
+    hasher.putString(serializePrecision(pReducedPrecision), UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hash the nodes of a block in the order of their numbers, with all leaving edges, the types in
+   * these edges, and the declarations of the global variables that are used. As node numbers are
+   * part of the serialized states, they need to match for the reuse of a summary.
+   */
+  @VisibleForTesting
+  static String computeFingerprint(Block pBlock) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    Set<String> visitedComposites = new HashSet<>();
+    Map<String, AVariableDeclaration> globals = new TreeMap<>();
+    for (CFANode node : pBlock.getNodes()) {
+      hasher.putInt(node.getNodeNumber()).putString(node.getFunctionName(), UTF_8);
+      hasher.putBoolean(pBlock.isCallNode(node)).putBoolean(pBlock.isReturnNode(node));
+      if (node instanceof FunctionEntryNode) {
+        putType(
+            hasher,
+            ((FunctionEntryNode) node).getFunctionDefinition().getType(),
+            visitedComposites);
+      }
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        hasher.putString(edge.getEdgeType().name(), UTF_8);
+        hasher.putString(edge.getCode(), UTF_8).putChar('\n');
+        hasher.putInt(edge.getSuccessor().getNodeNumber());
+        for (AAstNode astNode :
+            FluentIterable.from(CFAUtils.getAstNodesFromCfaEdge(edge))
+                .transformAndConcat(CFAUtils::traverseRecursively)) {
+          if (astNode instanceof AExpression) {
+            putType(hasher, ((AExpression) astNode).getExpressionType(), visitedComposites);
+          } else if (astNode instanceof ASimpleDeclaration) {
+            putType(hasher, ((ASimpleDeclaration) astNode).getType(), visitedComposites);
+          }
+          if (astNode instanceof AIdExpression) {
+            ASimpleDeclaration declaration = ((AIdExpression) astNode).getDeclaration();
+            if (declaration instanceof AVariableDeclaration
+                && ((AVariableDeclaration) declaration).isGlobal()) {
+              globals.put(declaration.getQualifiedName(), (AVariableDeclaration) declaration);
+            }
+          }
+        }
+      }
+      hasher.putChar('\n');
+    }
+    for (AVariableDeclaration global : globals.values()) {
+      hasher.putString(global.toASTString(), UTF_8).putChar('\n');
+      putType(hasher, global.getType(), visitedComposites);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hash the canonical form of a type, and recursively of the types it refers to, such that a
+   * changed typedef or struct definition changes the hash. Each composite type is hashed only
+   * once, this also prevents infinite recursion for recursive types.
+   */
+  private static void putType(Hasher pHasher, Type pType, Set<String> pVisitedComposites) {
+    if (!(pType instanceof CType)) {
+      pHasher.putString(pType.toASTString(""), UTF_8).putChar('\n');
+      return;
+    }
+    CType type = ((CType) pType).getCanonicalType();
+    if (type instanceof CCompositeType) {
+      CCompositeType compositeType = (CCompositeType) type;
+      if (!pVisitedComposites.add(compositeType.getQualifiedName())) {
+        pHasher.putString(compositeType.getQualifiedName(), UTF_8).putChar('\n');
+        return;
+      }
+      pHasher.putString(type.toASTString(""), UTF_8).putChar('\n');
+      for (CCompositeTypeMemberDeclaration member : compositeType.getMembers()) {
+        putType(pHasher, member.getType(), pVisitedComposites);
+      }
+      return;
+    }
+    pHasher.putString(type.toASTString(""), UTF_8).putChar('\n');
+    if (type instanceof CPointerType) {
+      putType(pHasher, ((CPointerType) type).getType(), pVisitedComposites);
+    } else if (type instanceof CArrayType) {
+      putType(pHasher, ((CArrayType) type).getType(), pVisitedComposites);
+    } else if (type instanceof CFunctionType) {
+      putType(pHasher, ((CFunctionType) type).getReturnType(), pVisitedComposites);
+      for (CType parameter : ((CFunctionType) type).getParameters()) {
+        putType(pHasher, parameter, pVisitedComposites);
+      }
+    }
+  }
+
+  /**
+   * Return a textual representation of a precision that, unlike {@link Precision#toString()},
+   * does not depend on the order in which the precision was refined or on identifiers that are
+   * specific to the current run, e.g., the names of the BDD variables of predicates. Wrapper
+   * precisions are represented only by their class, the wrapped precisions follow.
+   */
+  @VisibleForTesting
+  static String serializePrecision(Precision pPrecision) {
+    StringWriter out = new StringWriter();
+    for (Precision precision : Precisions.asIterable(pPrecision)) {
+      out.write(precision.getClass().getName());
+      out.write('\n');
+      if (precision instanceof WrapperPrecision) {
+        // wrapped precisions follow
+      } else if (precision instanceof VariableTrackingPrecision) {
+        try {
+          ((VariableTrackingPrecision) precision).serialize(out);
+        } catch (IOException e) {
+          throw new AssertionError("StringWriter does not throw IOException", e);
+        }
+      } else if (precision instanceof PredicatePrecision) {
+        PredicatePrecision predicatePrecision = (PredicatePrecision) precision;
+        Set<String> predicates = new TreeSet<>();
+        for (AbstractionPredicate predicate : predicatePrecision.getGlobalPredicates()) {
+          predicates.add("*: " + predicate.getSymbolicAtom());
+        }
+        for (Map.Entry<String, AbstractionPredicate> entry :
+            predicatePrecision.getFunctionPredicates().entries()) {
+          predicates.add(entry.getKey() + ": " + entry.getValue().getSymbolicAtom());
+        }
+        for (Map.Entry<CFANode, AbstractionPredicate> entry :
+            predicatePrecision.getLocalPredicates().entries()) {
+          predicates.add(entry.getKey() + ": " + entry.getValue().getSymbolicAtom());
+        }
+        for (Map.Entry<LocationInstance, AbstractionPredicate> entry :
+            predicatePrecision.getLocationInstancePredicates().entries()) {
+          LocationInstance instance = entry.getKey();
+          predicates.add(
+              instance.getLocation()
+                  + "@"
+                  + instance.getInstance()
+                  + ": "
+                  + entry.getValue().getSymbolicAtom());
+        }
+        out.write(LINE_JOINER.join(predicates));
+      } else {
+        out.write(precision.toString());
+      }
+      out.write("\n\n");
+    }
+    return out.toString();
+  }
+
+  /** Return whether the store contains a summary for the given key. */
+  public synchronized boolean contains(String pKey) {
+    return entries.containsKey(pKey);
+  }
+
+  /**
+   * Return the exit states of the summary for the given key (without the ARG), or null if there
+   * is none.
+   */
+  public synchronized @Nullable List<AbstractState> get(String pKey) {
+    long[] entry = entries.get(pKey);
+    if (entry == null) {
+      return null;
+    }
+    try {
+      if (reader == null) {
+        reader = FileChannel.open(file, StandardOpenOption.READ);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) entry[1]);
+      while (buffer.hasRemaining()) {
+        if (reader.read(buffer, entry[0] + buffer.position()) < 0) {
+          throw new EOFException();
+        }
+      }
+      return deserialize(buffer.array());
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // deserialization may also fail with unchecked exceptions, e.g., if a formula is invalid
+      logger.logDebugException(e, "Could not read entry of BAM summary store");
+      entries.remove(pKey);
+      return null;
+    }
+  }
+
+  /** Store the given exit states (without the ARG) as summary for the given key. */
+  public synchronized void put(String pKey, Collection<AbstractState> pExitStates) {
+    if (writer == null || entries.containsKey(pKey)) {
+      return;
+    }
+    byte[] summary;
+    try {
+      summary = serialize(pExitStates);
+    } catch (NotSerializableException e) {
+      handleUnserializableState(e);
+      return;
+    } catch (IOException e) {
+      logger.logDebugException(e, "Could not serialize summary for BAM summary store");
+      return;
+    }
+
+    try {
+      int before = writer.size();
+      writer.writeUTF(pKey);
+      writer.writeInt(summary.length);
+      long position = fileSize + writer.size() - before;
+      writer.write(summary);
+      writer.flush();
+      fileSize += writer.size() - before;
+      entries.put(pKey, new long[] {position, summary.length});
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write BAM summary store, new summaries are lost");
+      closeWriter();
+    }
+  }
+
+  private static byte[] serialize(Collection<AbstractState> pStates) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeInt(pStates.size());
+      for (AbstractState state : pStates) {
+        out.writeObject(state);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<AbstractState> deserialize(byte[] pBytes)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(pBytes))) {
+      int size = in.readInt();
+      ImmutableList.Builder<AbstractState> states = ImmutableList.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        states.add((AbstractState) in.readObject());
+      }
+      return states.build();
+    }
+  }
+
+  private void handleUnserializableState(NotSerializableException e) {
+    // all states of an analysis are of the same types, so we can give up directly
+    unserializableStateFound = true;
+    logger.logUserException(
+        Level.WARNING,
+        e,
+        "BAM summary store is not used because the abstract states of the analysis"
+            + " are not serializable");
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized void close() {
+    closeWriter();
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        logger.logDebugException(e, "Could not close BAM summary store");
+      }
+      reader = null;
+    }
+  }
+
+  private void closeWriter() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write BAM summary store");
+      }
+      writer = null;
+    }
+  }
+}
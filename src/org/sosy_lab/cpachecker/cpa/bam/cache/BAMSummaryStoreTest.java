@@ -0,0 +1,379 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpressionAssignmentStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CInitializerExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.c.CStatementEdge;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cfa.types.c.CTypedefType;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+/** Unit tests for {@link BAMSummaryStore}. */
+public class BAMSummaryStoreTest {
+
+  private static final String OPTION = "cpa.bam.summaryStore";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path file;
+  private Configuration config;
+  private Block block;
+
+  @Before
+  public void setUp() {
+    file = tempFolder.getRoot().toPath().resolve("summaries.bin");
+    config = Configuration.defaultConfiguration();
+    block = new Block(ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of(), ImmutableSet.of());
+  }
+
+  private BAMSummaryStore createStore(Configuration pConfig, MachineModel pMachine) {
+    return createStore(pConfig, pMachine, ImmutableList.of());
+  }
+
+  private BAMSummaryStore createStore(
+      Configuration pConfig, MachineModel pMachine, ImmutableList<Path> pSpecificationFiles) {
+    return new BAMSummaryStore(
+        file, OPTION, pConfig, pMachine, pSpecificationFiles, LogManager.createTestLogManager());
+  }
+
+  private String computeKey(BAMSummaryStore pStore, AbstractState pState) {
+    return computeKey(pStore, pState, block);
+  }
+
+  private String computeKey(BAMSummaryStore pStore, AbstractState pState, Block pBlock) {
+    return pStore.computeKey(pState, SingletonPrecision.getInstance(), pBlock);
+  }
+
+  @Test
+  public void testReuseAcrossRuns() {
+    String key;
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      key = computeKey(store, new TestState(0));
+      assertThat(key).isNotEqualTo(computeKey(store, new TestState(1)));
+      assertThat(store.get(key)).isNull();
+      store.put(key, ImmutableList.of(new TestState(1), new TestState(2)));
+      assertThat(store.get(key)).containsExactly(new TestState(1), new TestState(2)).inOrder();
+    }
+
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      assertThat(store.size()).isEqualTo(1);
+      assertThat(computeKey(store, new TestState(0))).isEqualTo(key);
+      assertThat(store.get(key)).containsExactly(new TestState(1), new TestState(2)).inOrder();
+    }
+  }
+
+  @Test
+  public void testIncompleteEntry() throws IOException {
+    String key1;
+    String key2;
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      key1 = computeKey(store, new TestState(1));
+      key2 = computeKey(store, new TestState(2));
+      store.put(key1, ImmutableList.of(new TestState(10)));
+      store.put(key2, ImmutableList.of(new TestState(20)));
+    }
+
+    // simulate a run that was killed while writing the last entry
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(Files.size(file) - 3);
+    }
+
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      assertThat(store.size()).isEqualTo(1);
+      assertThat(store.get(key2)).isNull();
+      store.put(key2, ImmutableList.of(new TestState(21)));
+    }
+
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      assertThat(store.get(key1)).containsExactly(new TestState(10));
+      assertThat(store.get(key2)).containsExactly(new TestState(21));
+    }
+  }
+
+  @Test
+  public void testInvalidation() throws InvalidConfigurationException {
+    String key;
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      key = computeKey(store, new TestState(0));
+      store.put(key, ImmutableList.of(new TestState(1)));
+    }
+
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX64)) {
+      assertThat(store.get(key)).isNull();
+    }
+
+    Configuration otherConfig =
+        Configuration.builder().setOption("cpa.value.merge", "JOIN").build();
+    try (BAMSummaryStore store = createStore(otherConfig, MachineModel.LINUX32)) {
+      assertThat(store.get(key)).isNull();
+      store.put(key, ImmutableList.of(new TestState(1)));
+    }
+
+    // the store file itself is not relevant
+    Configuration sameConfig =
+        Configuration.builder().copyFrom(otherConfig).setOption(OPTION, "other.bin").build();
+    try (BAMSummaryStore store = createStore(sameConfig, MachineModel.LINUX32)) {
+      assertThat(store.get(key)).containsExactly(new TestState(1));
+    }
+  }
+
+  @Test
+  public void testSpecificationInvalidation() throws IOException {
+    Path spec = tempFolder.newFile("spec.spc").toPath();
+    Files.writeString(spec, makeAutomaton("A"));
+    String key;
+    try (BAMSummaryStore store =
+        createStore(config, MachineModel.LINUX32, ImmutableList.of(spec))) {
+      key = computeKey(store, new TestState(0));
+      store.put(key, ImmutableList.of(new TestState(1)));
+    }
+    try (BAMSummaryStore store =
+        createStore(config, MachineModel.LINUX32, ImmutableList.of(spec))) {
+      assertThat(store.get(key)).containsExactly(new TestState(1));
+    }
+
+    // same file name, but different automaton
+    Files.writeString(spec, makeAutomaton("B"));
+    try (BAMSummaryStore store =
+        createStore(config, MachineModel.LINUX32, ImmutableList.of(spec))) {
+      assertThat(store.get(key)).isNull();
+    }
+  }
+
+  private static String makeAutomaton(String pName) {
+    return String.join(
+        "\n", "OBSERVER AUTOMATON " + pName, "INITIAL STATE Init;", "STATE Init:", "END AUTOMATON");
+  }
+
+  @Test
+  public void testBlockFingerprintContainsTypes() {
+    CFANode entry = CFANode.newDummyCFANode("f");
+    CFANode exit = CFANode.newDummyCFANode("f");
+    Block blockWithInt = makeBlock(entry, exit, CNumericTypes.INT, 0);
+    String fingerprintWithInt = BAMSummaryStore.computeFingerprint(blockWithInt);
+    Block blockWithChar = makeBlock(entry, exit, CNumericTypes.UNSIGNED_CHAR, 0);
+    String fingerprintWithChar = BAMSummaryStore.computeFingerprint(blockWithChar);
+
+    // the code of the block is the same, only the typedef is different
+    assertThat(blockWithChar.getNodes()).isEqualTo(blockWithInt.getNodes());
+    assertThat(fingerprintWithChar).isNotEqualTo(fingerprintWithInt);
+    assertThat(BAMSummaryStore.computeFingerprint(makeBlock(entry, exit, CNumericTypes.INT, 0)))
+        .isEqualTo(fingerprintWithInt);
+  }
+
+  @Test
+  public void testBlockFingerprintContainsGlobalDeclarations() {
+    CFANode entry = CFANode.newDummyCFANode("f");
+    CFANode exit = CFANode.newDummyCFANode("f");
+    String fingerprint =
+        BAMSummaryStore.computeFingerprint(makeBlock(entry, exit, CNumericTypes.INT, 0));
+
+    // the initial value of the global variable changes, but not the code of the block
+    assertThat(BAMSummaryStore.computeFingerprint(makeBlock(entry, exit, CNumericTypes.INT, 1)))
+        .isNotEqualTo(fingerprint);
+  }
+
+  /**
+   * Create a block with a single edge {@code x = g;} between the given nodes, where x is a local
+   * variable of type {@code T}, {@code typedef pTypedefTarget T;}, and g is a global variable
+   * with initial value {@code pGlobalValue}.
+   */
+  private static Block makeBlock(
+      CFANode pEntry, CFANode pExit, CType pTypedefTarget, long pGlobalValue) {
+    for (CFAEdge edge : CFAUtils.leavingEdges(pEntry).toList()) {
+      pEntry.removeLeavingEdge(edge);
+      pExit.removeEnteringEdge(edge);
+    }
+
+    CType type = new CTypedefType(false, false, "T", pTypedefTarget);
+    CVariableDeclaration local =
+        new CVariableDeclaration(
+            FileLocation.DUMMY, false, CStorageClass.AUTO, type, "x", "x", "f::x", null);
+    CVariableDeclaration global =
+        new CVariableDeclaration(
+            FileLocation.DUMMY,
+            true,
+            CStorageClass.AUTO,
+            CNumericTypes.INT,
+            "g",
+            "g",
+            "g",
+            new CInitializerExpression(
+                FileLocation.DUMMY,
+                CIntegerLiteralExpression.createDummyLiteral(pGlobalValue, CNumericTypes.INT)));
+    CStatement statement =
+        new CExpressionAssignmentStatement(
+            FileLocation.DUMMY,
+            new CIdExpression(FileLocation.DUMMY, local),
+            new CIdExpression(FileLocation.DUMMY, global));
+    CFAEdge edge =
+        new CStatementEdge("x = g;", statement, FileLocation.DUMMY, pEntry, pExit);
+    pEntry.addLeavingEdge(edge);
+    pExit.addEnteringEdge(edge);
+
+    return new Block(
+        ImmutableSet.of(),
+        ImmutableSet.of(pEntry),
+        ImmutableSet.of(pExit),
+        ImmutableSet.of(pEntry, pExit));
+  }
+
+  @Test
+  public void testChangedTypeInvalidatesStoredSummary() {
+    CFANode entry = CFANode.newDummyCFANode("f");
+    CFANode exit = CFANode.newDummyCFANode("f");
+    String key;
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      key = computeKey(store, new TestState(0), makeBlock(entry, exit, CNumericTypes.INT, 0));
+      store.put(key, ImmutableList.of(new TestState(1)));
+    }
+
+    // the next run has the same code, but a different typedef
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      Block changedBlock = makeBlock(entry, exit, CNumericTypes.UNSIGNED_CHAR, 0);
+      String changedKey = computeKey(store, new TestState(0), changedBlock);
+      assertThat(changedKey).isNotEqualTo(key);
+      assertThat(store.get(changedKey)).isNull();
+    }
+
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      String sameKey =
+          computeKey(store, new TestState(0), makeBlock(entry, exit, CNumericTypes.INT, 0));
+      assertThat(sameKey).isEqualTo(key);
+      assertThat(store.get(sameKey)).containsExactly(new TestState(1));
+    }
+  }
+
+  @Test
+  public void testChangedTypeInvalidatesSummaryOfAnalysis() throws Exception {
+    Path program = tempFolder.getRoot().toPath().resolve("program.c");
+    ImmutableMap<String, String> options =
+        ImmutableMap.<String, String>builder()
+            .put("cpa", "cpa.bam.BAMCPA")
+            .put("BAMCPA.cpa", "cpa.arg.ARGCPA")
+            .put("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+            .put(
+                "CompositeCPA.cpas",
+                "cpa.location.LocationCPA, cpa.callstack.CallstackCPA,"
+                    + " cpa.value.ValueAnalysisCPA")
+            .put("specification", "config/specification/default.spc")
+            .put(OPTION, file.toString())
+            .build();
+
+    Files.writeString(program, makeProgram("int"));
+    CPATestRunner.run(options, program.toString()).assertIsSafe();
+    TestResults secondRun = CPATestRunner.run(options, program.toString());
+    secondRun.assertIsSafe();
+    assertThat(getNumberOfImportedSummaries(secondRun)).isGreaterThan(0);
+
+    // the code of f is unchanged, but reusing its summary would make the program safe
+    Files.writeString(program, makeProgram("unsigned char"));
+    CPATestRunner.run(options, program.toString()).assertIsUnsafe();
+  }
+
+  private static String makeProgram(String pType) {
+    return String.join(
+        "\n",
+        "typedef " + pType + " T;",
+        "int f(void) {",
+        "  T x = 300;",
+        "  return x;",
+        "}",
+        "int main(void) {",
+        "  int r = f();",
+        "  if (r != 300) {",
+        "ERROR:",
+        "    return 1;",
+        "  }",
+        "  return 0;",
+        "}");
+  }
+
+  private static int getNumberOfImportedSummaries(TestResults pResults) {
+    ByteArrayOutputStream statistics = new ByteArrayOutputStream();
+    pResults.getCheckerResult().printStatistics(new PrintStream(statistics, true, UTF_8));
+    Matcher matcher =
+        Pattern.compile("Number of imported summaries: *(\\d+)")
+            .matcher(statistics.toString(UTF_8));
+    assertThat(matcher.find()).isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+
+  @Test
+  public void testUnserializableState() {
+    try (BAMSummaryStore store = createStore(config, MachineModel.LINUX32)) {
+      assertThat(computeKey(store, new AbstractState() {})).isNull();
+    }
+  }
+
+  private static final class TestState implements AbstractState, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int value;
+
+    TestState(int pValue) {
+      value = pValue;
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      return pObj instanceof TestState && ((TestState) pObj).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return "TestState " + value;
+    }
+  }
+}
@@ -44,6 +44,7 @@ public class ConstraintsStatistics implements Statistics {
   public StatCounter cacheLookups = new StatCounter("Cache lookups");
   public StatTimer directCacheLookupTime = new StatTimer(StatKind.SUM, "Direct cache lookup time");
   public StatCounter directCacheHits = new StatCounter("Direct cache hits");
+  public StatCounter cacheEvictions = new StatCounter("Cache evictions");
   public StatTimer subsetLookupTime = new StatTimer(StatKind.SUM, "Subset cache lookup time");
   public StatCounter subsetCacheHits = new StatCounter("Subset cache hits");
   public StatTimer supersetLookupTime = new StatTimer(StatKind.SUM, "Superset cache lookup time");
@@ -94,6 +95,7 @@ public class ConstraintsStatistics implements Statistics {
         .putIf(cacheLookups.getUpdateCount() > 0, cacheLookups)
         .putIf(cacheLookups.getUpdateCount() > 0, directCacheHits)
         .putIfUpdatedAtLeastOnce(directCacheLookupTime)
+        .putIfUpdatedAtLeastOnce(cacheEvictions)
         // Subset constraints solver cache
         .putIf(subsetLookupTime.getUpdateCount() > 0, subsetCacheHits)
         .putIf(subsetLookupTime.getUpdateCount() > 0, subsetLookupTime)
@@ -0,0 +1,363 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.util.SetSubsumptionIndex;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+
+/**
+ * Cache for the satisfiability of sets of constraints, used by {@link ConstraintsSolver}.
+ *
+ * <p>Caches can be stacked: a cache that looks up subsets or supersets of a query delegates to a
+ * cache that stores the actual results. The innermost cache may evict entries if it becomes too
+ * large, and it reports evicted entries to the outer caches through the return values of {@link
+ * #addSat(Set, ImmutableList)} and {@link #addUnsat(Set)}.
+ */
+interface ConstraintsCache {
+
+  /**
+   * Create a new cache.
+   *
+   * @param pCacheSubsets whether to answer queries with cached unsatisfiable subsets
+   * @param pCacheSupersets whether to answer queries with cached satisfiable supersets
+   * @param pMaxSize the maximal number of cached sets of constraints, or 0 for no bound
+   * @param pStats the statistics that are updated by the cache
+   */
+  static ConstraintsCache create(
+      boolean pCacheSubsets, boolean pCacheSupersets, int pMaxSize, ConstraintsStatistics pStats) {
+    ConstraintsCache cache = new MatchingConstraintsCache(pMaxSize, pStats);
+    if (pCacheSubsets) {
+      cache = new SubsetConstraintsCache(cache, pStats);
+    }
+    if (pCacheSupersets) {
+      cache = new SupersetConstraintsCache(cache, pStats);
+    }
+    return cache;
+  }
+
+  /**
+   * Return the cached result for the given set of constraints, or an unknown result if the
+   * satisfiability of the set can not be derived from the cache.
+   */
+  CacheResult getCachedResult(Set<BooleanFormula> pConstraints);
+
+  /**
+   * Return the result that is stored for exactly the given set of constraints, without updating
+   * the statistics.
+   */
+  CacheResult getEntry(Set<BooleanFormula> pConstraints);
+
+  /**
+   * Add a satisfiable set of constraints to the cache.
+   *
+   * @return the sets of constraints that were evicted from the cache by this addition
+   */
+  Collection<Set<BooleanFormula>> addSat(
+      Set<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment);
+
+  /**
+   * Add an unsatisfiable set of constraints to the cache.
+   *
+   * @return the sets of constraints that were evicted from the cache by this addition
+   */
+  Collection<Set<BooleanFormula>> addUnsat(Set<BooleanFormula> pConstraints);
+
+  /** Cache that only returns results for sets of constraints that were added to it. */
+  final class MatchingConstraintsCache implements ConstraintsCache {
+
+    private final int maxSize;
+    private final ConstraintsStatistics stats;
+
+    /** Cached results in access order, such that the first entry is the least-recently used. */
+    private final LinkedHashMap<Set<BooleanFormula>, CacheResult> cacheMap =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    MatchingConstraintsCache(int pMaxSize, ConstraintsStatistics pStats) {
+      checkArgument(pMaxSize >= 0);
+      maxSize = pMaxSize;
+      stats = pStats;
+    }
+
+    @Override
+    public CacheResult getCachedResult(Set<BooleanFormula> pConstraints) {
+      stats.cacheLookups.inc();
+      stats.directCacheLookupTime.start();
+      try {
+        CacheResult result = cacheMap.get(pConstraints);
+        if (result != null) {
+          stats.directCacheHits.inc();
+          return result;
+
+        } else {
+          return CacheResult.getUnknown();
+        }
+      } finally {
+        stats.directCacheLookupTime.stop();
+      }
+    }
+
+    @Override
+    public CacheResult getEntry(Set<BooleanFormula> pConstraints) {
+      CacheResult result = cacheMap.get(pConstraints);
+      return result != null ? result : CacheResult.getUnknown();
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addSat(
+        Set<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
+      return add(pConstraints, CacheResult.getSat(pModelAssignment));
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addUnsat(Set<BooleanFormula> pConstraints) {
+      return add(pConstraints, CacheResult.getUnsat());
+    }
+
+    private Collection<Set<BooleanFormula>> add(
+        Set<BooleanFormula> pConstraints, CacheResult pResult) {
+      cacheMap.put(ImmutableSet.copyOf(pConstraints), pResult);
+
+      if (maxSize == 0 || cacheMap.size() <= maxSize) {
+        return ImmutableList.of();
+      }
+      ImmutableList.Builder<Set<BooleanFormula>> evicted = ImmutableList.builder();
+      Iterator<Entry<Set<BooleanFormula>, CacheResult>> it = cacheMap.entrySet().iterator();
+      while (cacheMap.size() > maxSize) {
+        evicted.add(it.next().getKey());
+        it.remove();
+        stats.cacheEvictions.inc();
+      }
+      return evicted.build();
+    }
+  }
+
+  /**
+   * Cache that returns the cached result of a satisfiable superset of a query. Any subset of
+   * satisfiable constraints is satisfiable, and the model of the superset is a model of the query.
+   */
+  final class SupersetConstraintsCache implements ConstraintsCache {
+
+    private final ConstraintsCache delegate;
+    private final ConstraintsStatistics stats;
+
+    /** All cached satisfiable sets of constraints. */
+    private final SetSubsumptionIndex<BooleanFormula> satSets = new SetSubsumptionIndex<>();
+
+    SupersetConstraintsCache(ConstraintsCache pDelegate, ConstraintsStatistics pStats) {
+      delegate = pDelegate;
+      stats = pStats;
+    }
+
+    @Override
+    public CacheResult getCachedResult(Set<BooleanFormula> pConstraints) {
+      CacheResult res = delegate.getCachedResult(pConstraints);
+      if (!res.isSat() && !res.isUnsat()) {
+        try {
+          stats.supersetLookupTime.start();
+          res = getCachedResultOfSuperset(pConstraints);
+          if (res.isSat()) {
+            stats.supersetCacheHits.inc();
+          }
+        } finally {
+          stats.supersetLookupTime.stop();
+        }
+      }
+      return res;
+    }
+
+    private CacheResult getCachedResultOfSuperset(Set<BooleanFormula> pConstraints) {
+      checkState(!pConstraints.isEmpty());
+
+      Set<BooleanFormula> superset = satSets.findSupersetOf(pConstraints);
+      if (superset == null) {
+        return CacheResult.getUnknown();
+      }
+      return delegate.getEntry(superset);
+    }
+
+    @Override
+    public CacheResult getEntry(Set<BooleanFormula> pConstraints) {
+      return delegate.getEntry(pConstraints);
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addSat(
+        Set<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
+      satSets.add(pConstraints);
+      return removeEvicted(delegate.addSat(pConstraints, pModelAssignment));
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addUnsat(Set<BooleanFormula> pConstraints) {
+      return removeEvicted(delegate.addUnsat(pConstraints));
+    }
+
+    private Collection<Set<BooleanFormula>> removeEvicted(
+        Collection<Set<BooleanFormula>> pEvicted) {
+      for (Set<BooleanFormula> evicted : pEvicted) {
+        satSets.remove(evicted);
+      }
+      return pEvicted;
+    }
+  }
+
+  /**
+   * Cache that returns the cached result of an unsatisfiable subset of a query. Any superset of
+   * unsatisfiable constraints is unsatisfiable.
+   */
+  final class SubsetConstraintsCache implements ConstraintsCache {
+
+    private final ConstraintsCache delegate;
+    private final ConstraintsStatistics stats;
+
+    /** All cached unsatisfiable sets of constraints. */
+    private final SetSubsumptionIndex<BooleanFormula> unsatSets = new SetSubsumptionIndex<>();
+
+    SubsetConstraintsCache(ConstraintsCache pDelegate, ConstraintsStatistics pStats) {
+      delegate = pDelegate;
+      stats = pStats;
+    }
+
+    @Override
+    public CacheResult getCachedResult(Set<BooleanFormula> pConstraints) {
+      CacheResult res = delegate.getCachedResult(pConstraints);
+      if (!res.isSat() && !res.isUnsat()) {
+        try {
+          stats.subsetLookupTime.start();
+          res = getCachedResultOfSubset(pConstraints);
+          if (res.isUnsat()) {
+            stats.subsetCacheHits.inc();
+          }
+        } finally {
+          stats.subsetLookupTime.stop();
+        }
+      }
+      return res;
+    }
+
+    private CacheResult getCachedResultOfSubset(Set<BooleanFormula> pConstraints) {
+      checkState(!pConstraints.isEmpty());
+
+      Set<BooleanFormula> subset = unsatSets.findSubsetOf(pConstraints);
+      if (subset == null) {
+        return CacheResult.getUnknown();
+      }
+      return delegate.getEntry(subset);
+    }
+
+    @Override
+    public CacheResult getEntry(Set<BooleanFormula> pConstraints) {
+      return delegate.getEntry(pConstraints);
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addSat(
+        Set<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
+      return removeEvicted(delegate.addSat(pConstraints, pModelAssignment));
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addUnsat(Set<BooleanFormula> pConstraints) {
+      unsatSets.add(pConstraints);
+      return removeEvicted(delegate.addUnsat(pConstraints));
+    }
+
+    private Collection<Set<BooleanFormula>> removeEvicted(
+        Collection<Set<BooleanFormula>> pEvicted) {
+      for (Set<BooleanFormula> evicted : pEvicted) {
+        unsatSets.remove(evicted);
+      }
+      return pEvicted;
+    }
+  }
+
+  /** Cache that never stores anything. */
+  final class DummyCache implements ConstraintsCache {
+
+    @Override
+    public CacheResult getCachedResult(Set<BooleanFormula> pConstraints) {
+      return CacheResult.getUnknown();
+    }
+
+    @Override
+    public CacheResult getEntry(Set<BooleanFormula> pConstraints) {
+      return CacheResult.getUnknown();
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addSat(
+        Set<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
+      return ImmutableList.of();
+    }
+
+    @Override
+    public Collection<Set<BooleanFormula>> addUnsat(Set<BooleanFormula> pConstraints) {
+      return ImmutableList.of();
+    }
+  }
+
+  final class CacheResult {
+    enum Result {
+      SAT,
+      UNSAT,
+      UNKNOWN
+    }
+
+    private static final CacheResult UNSAT_SINGLETON =
+        new CacheResult(Result.UNSAT, Optional.empty());
+    private static final CacheResult UNKNOWN_SINGLETON =
+        new CacheResult(Result.UNKNOWN, Optional.empty());
+
+    private final Result result;
+    private final Optional<ImmutableList<ValueAssignment>> modelAssignment;
+
+    static CacheResult getSat(ImmutableList<ValueAssignment> pModelAssignment) {
+      return new CacheResult(Result.SAT, Optional.of(pModelAssignment));
+    }
+
+    static CacheResult getUnsat() {
+      return UNSAT_SINGLETON;
+    }
+
+    static CacheResult getUnknown() {
+      return UNKNOWN_SINGLETON;
+    }
+
+    private CacheResult(Result pResult, Optional<ImmutableList<ValueAssignment>> pModelAssignment) {
+      result = pResult;
+      modelAssignment = pModelAssignment;
+    }
+
+    boolean isSat() {
+      return result.equals(Result.SAT);
+    }
+
+    boolean isUnsat() {
+      return result.equals(Result.UNSAT);
+    }
+
+    ImmutableList<ValueAssignment> getModelAssignment() {
+      checkState(modelAssignment.isPresent(), "No model exists");
+      return modelAssignment.orElseThrow();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsCache.CacheResult;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/** Unit tests for {@link ConstraintsCache}. */
+public class ConstraintsCacheTest extends SolverViewBasedTest0 {
+
+  private ConstraintsStatistics stats;
+
+  private BooleanFormula a;
+  private BooleanFormula b;
+  private BooleanFormula c;
+
+  @Before
+  public void setUp() {
+    stats = new ConstraintsStatistics();
+    a = bmgrv.makeVariable("a");
+    b = bmgrv.makeVariable("b");
+    c = bmgrv.makeVariable("c");
+  }
+
+  @Test
+  public void testMatching() {
+    ConstraintsCache cache = ConstraintsCache.create(false, false, 0, stats);
+    cache.addUnsat(ImmutableSet.of(a, b));
+
+    assertThat(cache.getCachedResult(ImmutableSet.of(b, a)).isUnsat()).isTrue();
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(a, b, c)))).isTrue();
+    assertThat(stats.directCacheHits.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSubset() {
+    ConstraintsCache cache = ConstraintsCache.create(true, false, 0, stats);
+    cache.addUnsat(ImmutableSet.of(a, b));
+    cache.addSat(ImmutableSet.of(a, c), ImmutableList.of());
+
+    assertThat(cache.getCachedResult(ImmutableSet.of(a, b, c)).isUnsat()).isTrue();
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(b, c)))).isTrue();
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(a)))).isTrue();
+    assertThat(stats.subsetCacheHits.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSuperset() {
+    ConstraintsCache cache = ConstraintsCache.create(false, true, 0, stats);
+    cache.addSat(ImmutableSet.of(a, b), ImmutableList.of());
+    cache.addUnsat(ImmutableSet.of(b, c));
+
+    assertThat(cache.getCachedResult(ImmutableSet.of(a)).isSat()).isTrue();
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(c)))).isTrue();
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(a, b, c)))).isTrue();
+    assertThat(stats.supersetCacheHits.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testEviction() {
+    ConstraintsCache cache = ConstraintsCache.create(true, true, 2, stats);
+    cache.addUnsat(ImmutableSet.of(a));
+    cache.addSat(ImmutableSet.of(b, c), ImmutableList.of());
+
+    // access the first entry, such that the second one is evicted next
+    assertThat(cache.getCachedResult(ImmutableSet.of(a, b)).isUnsat()).isTrue();
+    assertThat(cache.addSat(ImmutableSet.of(c), ImmutableList.of()))
+        .containsExactly(ImmutableSet.of(b, c));
+    assertThat(stats.cacheEvictions.getValue()).isEqualTo(1);
+
+    assertThat(isUnknown(cache.getCachedResult(ImmutableSet.of(b)))).isTrue();
+    assertThat(cache.getCachedResult(ImmutableSet.of(a, c)).isUnsat()).isTrue();
+    assertThat(cache.getCachedResult(ImmutableSet.of(c)).isSat()).isTrue();
+  }
+
+  private static boolean isUnknown(CacheResult pResult) {
+    return !pResult.isSat() && !pResult.isUnsat();
+  }
+}
@@ -8,16 +8,10 @@
 
 package org.sosy_lab.cpachecker.cpa.constraints.domain;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Preconditions.checkState;
-
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,9 +19,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -35,6 +29,8 @@ import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
 import org.sosy_lab.cpachecker.cpa.constraints.FormulaCreator;
 import org.sosy_lab.cpachecker.cpa.constraints.FormulaCreatorUsingCConverter;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsCache.CacheResult;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsCache.DummyCache;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicIdentifier;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.util.SymbolicIdentifierLocator;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.util.SymbolicValues;
@@ -71,6 +67,15 @@ public class ConstraintsSolver {
   )
   private boolean doCaching = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of sets of constraints in the cache of satisfiability results"
+              + " (0 for no bound). If the bound is reached, the least-recently used entry is"
+              + " evicted.",
+      name = "cacheSize")
+  @IntegerOption(min = 0)
+  private int cacheSize = 0;
 
   @Option(
       secure = true,
@@ -113,13 +118,7 @@ public class ConstraintsSolver {
     stats = pStats;
 
     if (doCaching) {
-      cache = new MatchingConstraintsCache();
-      if (cacheSubsets) {
-        cache = new SubsetConstraintsCache(cache);
-      }
-      if (cacheSupersets) {
-        cache = new SupersetConstraintsCache(cache);
-      }
+      cache = ConstraintsCache.create(cacheSubsets, cacheSupersets, cacheSize, stats);
     } else {
       cache = new DummyCache();
     }
@@ -152,7 +151,7 @@ public class ConstraintsSolver {
       Boolean unsat = null; // assign null to fail fast if assignment is missed
       Set<Constraint> relevantConstraints = getRelevantConstraints(pConstraints);
 
-      Collection<BooleanFormula> constraintsAsFormulas =
+      ImmutableSet<BooleanFormula> constraintsAsFormulas =
           getFullFormula(relevantConstraints, pFunctionName);
       CacheResult res = cache.getCachedResult(constraintsAsFormulas);
 
@@ -334,11 +333,12 @@ public class ConstraintsSolver {
    * @throws UnrecognizedCodeException see {@link FormulaCreator#createFormula(Constraint)}
    * @throws InterruptedException see {@link FormulaCreator#createFormula(Constraint)}
    */
-  private Collection<BooleanFormula> getFullFormula(
+  private ImmutableSet<BooleanFormula> getFullFormula(
       Collection<Constraint> pConstraints, String pFunctionName)
       throws UnrecognizedCodeException, InterruptedException {
 
-    List<BooleanFormula> formulas = new ArrayList<>(pConstraints.size());
+    ImmutableSet.Builder<BooleanFormula> formulas =
+        ImmutableSet.builderWithExpectedSize(pConstraints.size());
     for (Constraint c : pConstraints) {
       if (!constraintFormulas.containsKey(c)) {
         constraintFormulas.put(c, createConstraintFormulas(c, pFunctionName));
@@ -346,7 +346,7 @@ public class ConstraintsSolver {
       formulas.add(constraintFormulas.get(c));
     }
 
-    return formulas;
+    return formulas.build();
   }
 
   private BooleanFormula createConstraintFormulas(
@@ -357,269 +357,4 @@ public class ConstraintsSolver {
 
     return getFormulaCreator(pFunctionName).createFormula(pConstraint);
   }
-
-  private interface ConstraintsCache {
-    CacheResult getCachedResult(Collection<BooleanFormula> pConstraints);
-
-    void addSat(
-        Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment);
-
-    void addUnsat(Collection<BooleanFormula> pConstraints);
-  }
-
-  private class MatchingConstraintsCache implements ConstraintsCache {
-
-    // TODO This should use an immutable data structure as key, and not Collection but List/Set
-    private Map<Collection<BooleanFormula>, CacheResult> cacheMap = new HashMap<>();
-
-    @Override
-    @SuppressWarnings("CollectionUndefinedEquality") // TODO there is a bug here
-    public CacheResult getCachedResult(Collection<BooleanFormula> pConstraints) {
-      stats.cacheLookups.inc();
-      stats.directCacheLookupTime.start();
-      try {
-        if (cacheMap.containsKey(pConstraints)) {
-          stats.directCacheHits.inc();
-          return cacheMap.get(pConstraints);
-
-        } else {
-          return CacheResult.getUnknown();
-        }
-      } finally {
-        stats.directCacheLookupTime.stop();
-      }
-    }
-
-    @Override
-    public void addSat(
-        Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment) {
-      add(pConstraints, CacheResult.getSat(pModelAssignment));
-    }
-
-    @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      add(pConstraints, CacheResult.getUnsat());
-    }
-
-    private void add(Collection<BooleanFormula> pConstraints, CacheResult pResult) {
-      cacheMap.put(pConstraints, pResult);
-    }
-  }
-
-  private class SupersetConstraintsCache implements ConstraintsCache {
-
-    private ConstraintsCache delegate;
-
-    /** Multimap that maps each constraint to all sets of constraints that it occurs in */
-    private Multimap<BooleanFormula, Set<BooleanFormula>> constraintContainedIn =
-        HashMultimap.create();
-
-    public SupersetConstraintsCache(final ConstraintsCache pDelegate) {
-      delegate = pDelegate;
-    }
-
-    @Override
-    public CacheResult getCachedResult(Collection<BooleanFormula> pConstraints) {
-      CacheResult res = delegate.getCachedResult(pConstraints);
-      if (!res.isSat() && !res.isUnsat()) {
-        try {
-          stats.supersetLookupTime.start();
-          res = getCachedResultOfSuperset(pConstraints);
-          if (res.isSat() || res.isUnsat()) {
-            stats.supersetCacheHits.inc();
-          }
-        } finally {
-          stats.supersetLookupTime.stop();
-        }
-      }
-      return res;
-    }
-
-    @Override
-    public void addSat(
-        Collection<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
-      add(pConstraints);
-      delegate.addSat(pConstraints, pModelAssignment);
-    }
-
-    @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      add(pConstraints);
-      delegate.addUnsat(pConstraints);
-    }
-
-    private void add(Collection<BooleanFormula> pConstraints) {
-      for (BooleanFormula c : pConstraints) {
-        constraintContainedIn.put(c, ImmutableSet.copyOf(pConstraints));
-      }
-    }
-
-    CacheResult getCachedResultOfSuperset(Collection<BooleanFormula> pConstraints) {
-      checkState(!pConstraints.isEmpty());
-
-      Set<Set<BooleanFormula>> containAllConstraints = null;
-      for (BooleanFormula c : pConstraints) {
-        Set<Set<BooleanFormula>> containC = ImmutableSet.copyOf(constraintContainedIn.get(c));
-        if (containAllConstraints == null) {
-          containAllConstraints = containC;
-        } else {
-          containAllConstraints = Sets.intersection(containAllConstraints, containC);
-        }
-
-        if (containAllConstraints.isEmpty()) {
-          return CacheResult.getUnknown();
-        }
-      }
-
-      checkNotNull(containAllConstraints);
-      int sizeOfQuery = pConstraints.size();
-      for (Set<BooleanFormula> col : containAllConstraints) {
-        CacheResult cachedResult = delegate.getCachedResult(col);
-        if (sizeOfQuery <= col.size() && cachedResult.isSat()) {
-          // currently considered collection is a superset of the queried collection
-          return cachedResult;
-        }
-      }
-      return CacheResult.getUnknown();
-    }
-  }
-
-  private class SubsetConstraintsCache implements ConstraintsCache {
-
-    private ConstraintsCache delegate;
-
-    /**
-     * Multimap that maps each constraint to all sets of constraints that it occurred in
-     */
-    private Multimap<BooleanFormula, Set<BooleanFormula>> constraintContainedIn =
-        HashMultimap.create();
-
-    public SubsetConstraintsCache(final ConstraintsCache pDelegate) {
-      delegate = pDelegate;
-    }
-
-    @Override
-    public CacheResult getCachedResult(Collection<BooleanFormula> pConstraints) {
-      CacheResult res = delegate.getCachedResult(pConstraints);
-        if (!res.isSat() && !res.isUnsat()) {
-        try {
-          stats.subsetLookupTime.start();
-          res = getCachedResultOfSubset(pConstraints);
-          if (res.isSat() || res.isUnsat()) {
-            stats.subsetCacheHits.inc();
-          }
-        } finally {
-          stats.subsetLookupTime.stop();
-          }
-        }
-      return res;
-    }
-
-    @Override
-    public void addSat(
-        Collection<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
-      add(pConstraints);
-      delegate.addSat(pConstraints, pModelAssignment);
-    }
-
-    @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      add(pConstraints);
-      delegate.addUnsat(pConstraints);
-    }
-
-    private void add(Collection<BooleanFormula> pConstraints) {
-      for (BooleanFormula c : pConstraints) {
-        constraintContainedIn.put(c, ImmutableSet.copyOf(pConstraints));
-      }
-    }
-
-    CacheResult getCachedResultOfSubset(Collection<BooleanFormula> pConstraints) {
-      checkState(!pConstraints.isEmpty());
-
-      Set<Set<BooleanFormula>> containAllConstraints = new HashSet<>();
-      for (BooleanFormula c : pConstraints) {
-        Set<Set<BooleanFormula>> containC = ImmutableSet.copyOf(constraintContainedIn.get(c));
-        containAllConstraints.addAll(containC);
-      }
-
-      int sizeOfQuery = pConstraints.size();
-      for (Set<BooleanFormula> col : containAllConstraints) {
-        CacheResult cachedResult = delegate.getCachedResult(col);
-        if (sizeOfQuery >= col.size() && cachedResult.isUnsat()) {
-          // currently considered collection is a subset of the queried collection
-          return cachedResult;
-        }
-      }
-      return CacheResult.getUnknown();
-    }
-  }
-
-  private static class DummyCache implements ConstraintsCache {
-
-    @Override
-    public CacheResult getCachedResult(Collection<BooleanFormula> pConstraints) {
-      return CacheResult.getUnknown();
-    }
-
-    @Override
-    public void addSat(
-        Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment) {
-      // do nothing
-    }
-
-    @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      // do nothing
-    }
-  }
-
-  private static class CacheResult {
-    enum Result {
-      SAT,
-      UNSAT,
-      UNKNOWN
-    }
-
-    private static final CacheResult UNSAT_SINGLETON =
-        new CacheResult(Result.UNSAT, Optional.empty());
-    private static final CacheResult UNKNOWN_SINGLETON =
-        new CacheResult(Result.UNKNOWN, Optional.empty());
-
-    private Result result;
-    private Optional<ImmutableList<ValueAssignment>> modelAssignment;
-
-    public static CacheResult getSat(ImmutableList<ValueAssignment> pModelAssignment) {
-      return new CacheResult(Result.SAT, Optional.of(pModelAssignment));
-    }
-
-    public static CacheResult getUnsat() {
-      return UNSAT_SINGLETON;
-    }
-
-    public static CacheResult getUnknown() {
-      return UNKNOWN_SINGLETON;
-    }
-
-    private CacheResult(Result pResult, Optional<ImmutableList<ValueAssignment>> pModelAssignment) {
-      result = pResult;
-      modelAssignment = pModelAssignment;
-    }
-
-    public boolean isSat() {
-      return result.equals(Result.SAT);
-    }
-
-    public boolean isUnsat() {
-      return result.equals(Result.UNSAT);
-    }
-
-    public ImmutableList<ValueAssignment> getModelAssignment() {
-      checkState(modelAssignment.isPresent(), "No model exists");
-      return modelAssignment.orElseThrow();
-    }
-  }
 }
@@ -270,6 +270,7 @@ public class DCARefiner implements Refiner, StatisticsProvider, AutoCloseable {
             abstractionOptions,
             new WeakeningOptions(pConfig),
             abstractionStorage,
+            null,
             pLogger,
             pNotifier,
             new PredicateAbstractionStatistics(),
@@ -752,6 +753,7 @@ public class DCARefiner implements Refiner, StatisticsProvider, AutoCloseable {
 
   @Override
   public void close() {
+    predicateAbstractionManager.close();
     lassoAnalysis.close();
   }
 }
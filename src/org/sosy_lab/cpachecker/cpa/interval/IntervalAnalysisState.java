@@ -23,6 +23,7 @@ import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
@@ -39,7 +40,8 @@ public class IntervalAnalysisState
         AbstractQueryableState,
         Graphable,
         FormulaReportingState,
-        PseudoPartitionable {
+        PseudoPartitionable,
+        AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -2030700797958100666L;
 
@@ -55,6 +57,9 @@ public class IntervalAnalysisState
    */
   private final PersistentMap<String, Integer> referenceCounts;
 
+  /** the signature of the variables in {@link #intervals}, or 0 if not yet computed */
+  private transient long coverageSignature = 0;
+
   /**
    *  This method acts as the default constructor, which initializes the intervals and reference counts to empty maps and the previous element to null.
    */
@@ -232,6 +237,22 @@ public class IntervalAnalysisState
     return true;
   }
 
+  /**
+   * The signature contains a bit for each variable with an interval, because this state can only
+   * be less or equal than states that have intervals for a subset of its variables.
+   */
+  @Override
+  public long getCoverageSignature() {
+    if (coverageSignature == 0) {
+      long signature = 1; // bit 0 marks the signature as computed
+      for (String variableName : intervals.keySet()) {
+        signature |= AbstractStateWithCoverageSignature.signatureBit(variableName);
+      }
+      coverageSignature = signature;
+    }
+    return coverageSignature;
+  }
+
   /** Returns the set of tracked variables by this state. */
   public Map<String, Interval> getIntervalMap() {
     return intervals;
@@ -10,7 +10,14 @@ package org.sosy_lab.cpachecker.cpa.interval;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.DelegateAbstractDomain;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class IntervalAnalysisStateTest {
@@ -55,6 +62,36 @@ public class IntervalAnalysisStateTest {
     checkLess(csa1b23, csa1b3);
   }
 
+  @Test
+  public void coverageSignature() throws CPAException, InterruptedException {
+    IntervalAnalysisState s = new IntervalAnalysisState();
+    IntervalAnalysisState sa1 = s.addInterval("a", new Interval(1L, 1L), 10);
+    IntervalAnalysisState sa12 = s.addInterval("a", new Interval(1L, 2L), 10);
+    IntervalAnalysisState sb2 = s.addInterval("b", new Interval(2L, 2L), 10);
+    IntervalAnalysisState sa1b2 = sa1.addInterval("b", new Interval(2L, 2L), 10);
+    IntervalAnalysisState sa12b2 = sa12.addInterval("b", new Interval(2L, 2L), 10);
+    ImmutableList<IntervalAnalysisState> states =
+        ImmutableList.of(s, sa1, sa12, sb2, sa1b2, sa12b2);
+
+    for (IntervalAnalysisState e1 : states) {
+      for (IntervalAnalysisState e2 : states) {
+        if (e1.isLessOrEqual(e2)) {
+          assertThat(
+                  AbstractStateWithCoverageSignature.mayBeLessOrEqual(
+                      e1.getCoverageSignature(), e2.getCoverageSignature()))
+              .isTrue();
+        }
+      }
+    }
+
+    // the stop operator still finds the covering state among the ones that are skipped
+    StopSepOperator stop = new StopSepOperator(DelegateAbstractDomain.getInstance());
+    ImmutableList<AbstractState> reached = ImmutableList.of(sa1b2, sb2, sa1, sa12b2);
+    assertThat(stop.stop(sa1b2, reached, SingletonPrecision.getInstance())).isTrue();
+    assertThat(stop.stop(sa12, reached, SingletonPrecision.getInstance())).isFalse();
+    assertThat(stop.stop(s, reached, SingletonPrecision.getInstance())).isFalse();
+  }
+
   private void checkLess(Comparable c1, Comparable c2) {
     assertThat(c1.compareTo(c2) < 0).isTrue();
     assertThat(c2.compareTo(c1) > 0).isTrue();
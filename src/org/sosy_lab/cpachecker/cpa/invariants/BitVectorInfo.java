@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.invariants;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.math.BigInteger;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
@@ -30,12 +31,32 @@ public class BitVectorInfo implements TypeInfo {
 
   private final BigInteger maxValue;
 
-  private BitVectorInfo(int pSize, boolean pSigned) {
+  /**
+   * Whether all values of the bit vector fit into a long, i.e., up to 63 bits unsigned or 64 bits
+   * signed. If so, bit-vector intervals use long arithmetic where possible (unless disabled for
+   * testing).
+   */
+  private final boolean fitsInLong;
+
+  private final long minLongValue;
+
+  private final long maxLongValue;
+
+  private final BitVectorInterval range;
+
+  private final boolean allowLongArithmetic;
+
+  private BitVectorInfo(int pSize, boolean pSigned, boolean pAllowLongArithmetic) {
     Preconditions.checkArgument(pSize >= 0, "bit vector size must not be negative");
     size = pSize;
     signed = pSigned;
     minValue = !signed ? BigInteger.ZERO : BigInteger.valueOf(2).pow(size - 1).negate();
     maxValue = !signed ? BigInteger.valueOf(2).pow(size).subtract(BigInteger.ONE) : BigInteger.valueOf(2).pow(size - 1).subtract(BigInteger.ONE);
+    allowLongArithmetic = pAllowLongArithmetic;
+    fitsInLong = pAllowLongArithmetic && (size < Long.SIZE || (signed && size == Long.SIZE));
+    minLongValue = fitsInLong ? minValue.longValueExact() : 0;
+    maxLongValue = fitsInLong ? maxValue.longValueExact() : 0;
+    range = BitVectorInterval.of(this, minValue, maxValue);
   }
 
   public int getSize() {
@@ -57,8 +78,29 @@ public class BitVectorInfo implements TypeInfo {
     return maxValue;
   }
 
+  /** Return whether all values of the bit vector fit into a long. */
+  public boolean fitsInLong() {
+    return fitsInLong;
+  }
+
+  /**
+   * Return the minimum value as long (may only be called if {@link #fitsInLong()} returns true).
+   */
+  public long getMinLongValue() {
+    Preconditions.checkState(fitsInLong);
+    return minLongValue;
+  }
+
+  /**
+   * Return the maximum value as long (may only be called if {@link #fitsInLong()} returns true).
+   */
+  public long getMaxLongValue() {
+    Preconditions.checkState(fitsInLong);
+    return maxLongValue;
+  }
+
   public BitVectorInterval getRange() {
-    return BitVectorInterval.of(this, minValue, maxValue);
+    return range;
   }
 
   @Override
@@ -89,7 +131,17 @@ public class BitVectorInfo implements TypeInfo {
   }
 
   public static BitVectorInfo from(int pSize, boolean pSigned) {
-    return new BitVectorInfo(pSize, pSigned);
+    return new BitVectorInfo(pSize, pSigned, true);
+  }
+
+  /**
+   * Create a bit vector whose intervals always use BigInteger arithmetic, such that tests can
+   * compare the results of long arithmetic against it. The result is equal to {@link #from(int,
+   * boolean)} with the same arguments.
+   */
+  @VisibleForTesting
+  static BitVectorInfo withoutLongArithmetic(int pSize, boolean pSigned) {
+    return new BitVectorInfo(pSize, pSigned, false);
   }
 
   public static TypeInfo from(MachineModel pMachineModel, Type pType) {
@@ -214,7 +266,7 @@ public class BitVectorInfo implements TypeInfo {
   }
 
   public BitVectorInfo extend(int pExtension) {
-    return new BitVectorInfo(size + pExtension, signed);
+    return new BitVectorInfo(size + pExtension, signed, allowLongArithmetic);
   }
 
 }
@@ -16,7 +16,7 @@ import com.google.common.base.Preconditions;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * This class represents simple convex ranges of BigIntegers.
@@ -24,19 +24,35 @@ import java.util.Objects;
  * concrete value or infinity. In case of a concrete value, the bound is assumed
  * to be included in the range.
  *
+ * If all values of the bit vector fit into a long (cf. {@link BitVectorInfo#fitsInLong()}),
+ * the bounds are stored as longs and the big integers are only created on demand.
+ *
  * All instances of this class are immutable.
  */
 public class BitVectorInterval implements BitVectorType {
 
+  /**
+   * The lower bound of the interval, if the bit vector fits into a long.
+   */
+  private final long lowerLong;
+
+  /**
+   * The upper bound of the interval, if the bit vector fits into a long.
+   */
+  private final long upperLong;
+
   /**
    * The lower bound of the interval.
+   * If the bit vector fits into a long, this is created lazily from {@link #lowerLong}.
+   * The race condition of the lazy initialization is benign because BigInteger is immutable.
    */
-  private final BigInteger lowerBound;
+  private @Nullable BigInteger lowerBound;
 
   /**
    * The upper bound of the interval.
+   * If the bit vector fits into a long, this is created lazily from {@link #upperLong}.
    */
-  private final BigInteger upperBound;
+  private @Nullable BigInteger upperBound;
 
   /**
    * Size and signedness.
@@ -63,6 +79,36 @@ public class BitVectorInterval implements BitVectorType {
     info = pInfo;
     lowerBound = pLowerBound;
     upperBound = pUpperBound;
+    if (pInfo.fitsInLong()) {
+      lowerLong = pLowerBound.longValue();
+      upperLong = pUpperBound.longValue();
+    } else {
+      lowerLong = 0;
+      upperLong = 0;
+    }
+  }
+
+  /**
+   * Creates a new interval from the given lower bound to the given upper bound
+   * for a bit vector that fits into a long.
+   *
+   * The lower bound must be a value less than or equal to the upper bound.
+   *
+   * @param pLowerBound the lower bound of the interval.
+   * @param pUpperBound the upper bound of the interval.
+   */
+  private BitVectorInterval(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    checkNotNull(pInfo);
+    checkArgument(pInfo.fitsInLong(), "bit vector does not fit into a long");
+    checkArgument(pLowerBound <= pUpperBound, "lower endpoint greater than upper end point");
+    checkArgument(pLowerBound >= pInfo.getMinLongValue(), "lower bound must fit the bit vector");
+    checkArgument(pUpperBound <= pInfo.getMaxLongValue(), "upper bound must fit the bit vector");
+
+    info = pInfo;
+    lowerLong = pLowerBound;
+    upperLong = pUpperBound;
+    lowerBound = null;
+    upperBound = null;
   }
 
   /**
@@ -79,14 +125,40 @@ public class BitVectorInterval implements BitVectorType {
    * Return lower bound (may only be called if {@link #hasLowerBound()} returns true.
    */
   public BigInteger getLowerBound() {
-    return lowerBound;
+    BigInteger result = lowerBound;
+    if (result == null) {
+      result = BigInteger.valueOf(lowerLong);
+      lowerBound = result;
+    }
+    return result;
   }
 
   /**
    * Return upper bound (may only be called if {@link #hasUpperBound()} returns true.
    */
   public BigInteger getUpperBound() {
-    return upperBound;
+    BigInteger result = upperBound;
+    if (result == null) {
+      result = BigInteger.valueOf(upperLong);
+      upperBound = result;
+    }
+    return result;
+  }
+
+  /**
+   * Return lower bound as long (may only be called if the bit vector fits into a long).
+   */
+  public long getLowerBoundAsLong() {
+    checkState(info.fitsInLong());
+    return lowerLong;
+  }
+
+  /**
+   * Return upper bound as long (may only be called if the bit vector fits into a long).
+   */
+  public long getUpperBoundAsLong() {
+    checkState(info.fitsInLong());
+    return upperLong;
   }
 
   /**
@@ -120,26 +192,36 @@ public class BitVectorInterval implements BitVectorType {
     if (pOther.isSingleton() || contains(pOther)) {
       return pOther;
     }
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(
+          info, Math.max(lowerLong, pOther.lowerLong), Math.min(upperLong, pOther.upperLong));
+    }
     // The lower bound of this interval is a candidate for the new lower bound
     // The lower bound of the other interval is a candidate as well
     // The new lower bound is the maximum of both lower bounds.
-    BigInteger newLowerBound = this.lowerBound.max(pOther.getLowerBound());
+    BigInteger newLowerBound = getLowerBound().max(pOther.getLowerBound());
 
     // The upper bound of this interval is a candidate for the new lower bound
     // The upper bound of the other interval is a candidate as well
     // The new upper bound is the minimum of both upper bounds.
-    BigInteger newUpperBound = this.upperBound.min(pOther.getUpperBound());
+    BigInteger newUpperBound = getUpperBound().min(pOther.getUpperBound());
 
     return new BitVectorInterval(info, newLowerBound, newUpperBound);
   }
 
   public BitVectorInterval getNegativePart() {
     Preconditions.checkArgument(containsNegative(), "This interval has no negative part.");
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(info, lowerLong, Math.min(-1, upperLong));
+    }
     return BitVectorInterval.of(info, lowerBound, BigInteger.valueOf(-1).min(upperBound));
   }
 
   public BitVectorInterval getPositivePart() {
     Preconditions.checkArgument(containsPositive(), "This interval has no positive part.");
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(info, Math.max(1, lowerLong), upperLong);
+    }
     return BitVectorInterval.of(info, BigInteger.ONE.max(lowerBound), upperBound);
   }
 
@@ -165,6 +247,9 @@ public class BitVectorInterval implements BitVectorType {
    * positive value, <code>false</code> otherwise.
    */
   public boolean containsPositive() {
+    if (info.fitsInLong()) {
+      return upperLong > 0;
+    }
     return upperBound.signum() == 1;
   }
 
@@ -174,6 +259,9 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean containsZero() {
+    if (info.fitsInLong()) {
+      return upperLong >= 0 && lowerLong <= 0;
+    }
     return upperBound.signum() >= 0
         && lowerBound.signum() <= 0;
   }
@@ -184,6 +272,13 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean contains(BigInteger pValue) {
+    if (info.fitsInLong()) {
+      if (pValue.bitLength() >= Long.SIZE) {
+        return false;
+      }
+      long value = pValue.longValue();
+      return upperLong >= value && lowerLong <= value;
+    }
     return upperBound.compareTo(pValue) >= 0
         && lowerBound.compareTo(pValue) <= 0;
   }
@@ -194,6 +289,9 @@ public class BitVectorInterval implements BitVectorType {
    * negative value, <code>false</code> otherwise.
    */
   public boolean containsNegative() {
+    if (info.fitsInLong()) {
+      return lowerLong < 0;
+    }
     return lowerBound.signum() == -1;
   }
 
@@ -204,7 +302,7 @@ public class BitVectorInterval implements BitVectorType {
    * @return The upper bound minus the lower bound plus one.
    */
   public BigInteger size() {
-    return upperBound.subtract(lowerBound).add(BigInteger.ONE);
+    return getUpperBound().subtract(getLowerBound()).add(BigInteger.ONE);
   }
 
   /**
@@ -216,6 +314,9 @@ public class BitVectorInterval implements BitVectorType {
    * single value, <code>false</code> otherwise.
    */
   public boolean isSingleton() {
+    if (info.fitsInLong()) {
+      return lowerLong == upperLong;
+    }
     return lowerBound.equals(upperBound);
   }
 
@@ -230,8 +331,14 @@ public class BitVectorInterval implements BitVectorType {
    * @return the mathematical negation of this interval.
    */
   public BitVectorInterval negate(boolean pAllowSignedWrapAround, OverflowEventHandler pOverflowEventHandler) {
-    BigInteger newLowerBound = upperBound.negate();
-    BigInteger newUpperBound = lowerBound.negate();
+    if (info.fitsInLong()
+        && lowerLong != Long.MIN_VALUE
+        && -upperLong >= info.getMinLongValue()
+        && -lowerLong <= info.getMaxLongValue()) {
+      return new BitVectorInterval(info, -upperLong, -lowerLong);
+    }
+    BigInteger newLowerBound = getUpperBound().negate();
+    BigInteger newUpperBound = getLowerBound().negate();
 
     boolean lbExceedsBelow = newLowerBound.compareTo(info.getMinValue()) < 0;
     boolean lbExceedsAbove = !lbExceedsBelow && newLowerBound.compareTo(info.getMaxValue()) > 0;
@@ -292,6 +399,30 @@ public class BitVectorInterval implements BitVectorType {
     return BitVectorInterval.singleton(pInfo, value);
   }
 
+  /**
+   * Casts the interval from the given lower bound to the given upper bound to the given bit
+   * vector. The bounds are the exact results of an operation, i.e., they must not have overflowed
+   * the range of long.
+   */
+  public static BitVectorInterval cast(
+      BitVectorInfo pInfo,
+      long pLowerBound,
+      long pUpperBound,
+      boolean pAllowSignedWrapAround,
+      OverflowEventHandler pOverflowEventHandler) {
+    if (pInfo.fitsInLong()
+        && pLowerBound >= pInfo.getMinLongValue()
+        && pUpperBound <= pInfo.getMaxLongValue()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return cast(
+        pInfo,
+        BigInteger.valueOf(pLowerBound),
+        BigInteger.valueOf(pUpperBound),
+        pAllowSignedWrapAround,
+        pOverflowEventHandler);
+  }
+
   public static BitVectorInterval cast(BitVectorInfo pInfo,
       BigInteger pLowerBound,
       BigInteger pUpperBound,
@@ -371,6 +502,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMaxValue() {
+    if (info.fitsInLong()) {
+      if (upperLong == info.getMaxLongValue()) {
+        return this;
+      }
+      return new BitVectorInterval(info, lowerLong, info.getMaxLongValue());
+    }
     if (upperBound.equals(info.getMaxValue())) {
       return this;
     }
@@ -385,6 +522,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMinValue() {
+    if (info.fitsInLong()) {
+      if (lowerLong == info.getMinLongValue()) {
+        return this;
+      }
+      return new BitVectorInterval(info, info.getMinLongValue(), upperLong);
+    }
     if (lowerBound.equals(info.getMinValue())) {
       return this;
     }
@@ -400,20 +543,84 @@ public class BitVectorInterval implements BitVectorType {
     }
 
     BitVectorInterval other = (BitVectorInterval) pObj;
-    return Objects.equals(this.lowerBound, other.lowerBound)
-        && Objects.equals(this.upperBound, other.upperBound);
+    if (info.fitsInLong() && other.info.fitsInLong()) {
+      return lowerLong == other.lowerLong && upperLong == other.upperLong;
+    }
+    return getLowerBound().equals(other.getLowerBound())
+        && getUpperBound().equals(other.getUpperBound());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(lowerBound, upperBound);
+    // equal intervals may use different representations, so both need the same hash code
+    if (info.fitsInLong()) {
+      return 31 * Long.hashCode(lowerLong) + Long.hashCode(upperLong);
+    }
+    return 31 * hashCode(lowerBound) + hashCode(upperBound);
+  }
+
+  private static int hashCode(BigInteger pBound) {
+    return pBound.bitLength() < Long.SIZE ? Long.hashCode(pBound.longValue()) : pBound.hashCode();
   }
 
   @Override
   public String toString() {
+    if (info.fitsInLong()) {
+      return "[" + lowerLong + ", " + upperLong + "]";
+    }
     return "[" + lowerBound + ", " + upperBound + "]";
   }
 
+  /**
+   * Compares the lower bounds of the given intervals.
+   */
+  static int compareLowerBounds(BitVectorInterval pA, BitVectorInterval pB) {
+    if (pA.info.fitsInLong() && pB.info.fitsInLong()) {
+      return Long.compare(pA.lowerLong, pB.lowerLong);
+    }
+    return pA.getLowerBound().compareTo(pB.getLowerBound());
+  }
+
+  /**
+   * Compares the upper bounds of the given intervals.
+   */
+  static int compareUpperBounds(BitVectorInterval pA, BitVectorInterval pB) {
+    if (pA.info.fitsInLong() && pB.info.fitsInLong()) {
+      return Long.compare(pA.upperLong, pB.upperLong);
+    }
+    return pA.getUpperBound().compareTo(pB.getUpperBound());
+  }
+
+  /**
+   * Compares the lower bound of the first given interval to the upper bound of the second one.
+   */
+  static int compareLowerToUpperBound(BitVectorInterval pA, BitVectorInterval pB) {
+    if (pA.info.fitsInLong() && pB.info.fitsInLong()) {
+      return Long.compare(pA.lowerLong, pB.upperLong);
+    }
+    return pA.getLowerBound().compareTo(pB.getUpperBound());
+  }
+
+  /**
+   * Compares the lower bound of this interval to the given value.
+   */
+  int compareLowerBoundTo(BigInteger pValue) {
+    if (info.fitsInLong() && pValue.bitLength() < Long.SIZE) {
+      return Long.compare(lowerLong, pValue.longValue());
+    }
+    return getLowerBound().compareTo(pValue);
+  }
+
+  /**
+   * Compares the upper bound of this interval to the given value.
+   */
+  int compareUpperBoundTo(BigInteger pValue) {
+    if (info.fitsInLong() && pValue.bitLength() < Long.SIZE) {
+      return Long.compare(upperLong, pValue.longValue());
+    }
+    return getUpperBound().compareTo(pValue);
+  }
+
   /**
    * Checks if this interval contains the given interval.
    * @param pOther the interval that this interval is checked for containing.
@@ -428,8 +635,7 @@ public class BitVectorInterval implements BitVectorType {
       return false;
     }
 
-    return this.lowerBound.compareTo(pOther.lowerBound) <= 0
-        && this.upperBound.compareTo(pOther.upperBound) >= 0;
+    return compareLowerBounds(this, pOther) <= 0 && compareUpperBounds(this, pOther) >= 0;
   }
 
   /**
@@ -445,8 +651,12 @@ public class BitVectorInterval implements BitVectorType {
   public boolean touches(BitVectorInterval pOther) {
     if (pOther == null) { return false; }
     if (intersectsWith(pOther)) { return true; }
-    return pOther.upperBound.add(BigInteger.ONE).equals(this.lowerBound)
-        || this.upperBound.add(BigInteger.ONE).equals(pOther.lowerBound);
+    if (info.fitsInLong() && pOther.info.fitsInLong()) {
+      return (pOther.upperLong != Long.MAX_VALUE && pOther.upperLong + 1 == lowerLong)
+          || (upperLong != Long.MAX_VALUE && upperLong + 1 == pOther.lowerLong);
+    }
+    return pOther.getUpperBound().add(BigInteger.ONE).equals(getLowerBound())
+        || getUpperBound().add(BigInteger.ONE).equals(pOther.getLowerBound());
   }
 
   /**
@@ -460,8 +670,8 @@ public class BitVectorInterval implements BitVectorType {
 
     // this is [a, b]; other is [c, d]
     // result is true if a <= d and b >= c
-    boolean aLessThanOrEqB = this.lowerBound.compareTo(other.upperBound) <= 0;
-    boolean bGreaterThanOrEqC = this.upperBound.compareTo(other.lowerBound) >= 0;
+    boolean aLessThanOrEqB = compareLowerToUpperBound(this, other) <= 0;
+    boolean bGreaterThanOrEqC = compareLowerToUpperBound(other, this) <= 0;
     return aLessThanOrEqB && bGreaterThanOrEqC;
   }
 
@@ -529,6 +739,16 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pI, pI);
   }
 
+  /**
+   * Create a singleton interval of the given value, which must fit the given bit vector.
+   */
+  public static BitVectorInterval singleton(BitVectorInfo pInfo, long pI) {
+    if (!pInfo.fitsInLong()) {
+      return singleton(pInfo, BigInteger.valueOf(pI));
+    }
+    return new BitVectorInterval(pInfo, pI, pI);
+  }
+
   public static BitVectorInterval greaterOrEqual(BitVectorInfo pInfo, BigInteger pI) {
     return singleton(pInfo, pI).extendToMaxValue();
   }
@@ -541,31 +761,33 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
   }
 
+  /**
+   * Create an interval with the given bounds, which must fit the given bit vector.
+   */
+  public static BitVectorInterval of(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    if (!pInfo.fitsInLong()) {
+      return of(pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound));
+    }
+    return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+  }
+
   /**
    * Create the smallest interval that contains two given intervals;
    */
   public static BitVectorInterval span(BitVectorInterval a, BitVectorInterval b) {
     a.checkBitVectorCompatibilityWith(b);
-    BigInteger lower;
-    if (a.lowerBound == null || b.lowerBound == null) {
-      lower = null;
-    } else {
-      lower = a.lowerBound.min(b.lowerBound);
-    }
-
-    BigInteger upper;
-    if (a.upperBound == null || b.upperBound == null) {
-      upper = null;
-    } else {
-      upper = a.upperBound.max(b.upperBound);
-    }
-
-    if (Objects.equals(lower, a.lowerBound) && Objects.equals(upper, a.upperBound)) {
+    if (a.contains(b)) {
       return a;
-    } else if (Objects.equals(lower, b.lowerBound) && Objects.equals(upper, b.upperBound)) {
+    } else if (b.contains(a)) {
       return b;
+    } else if (a.info.fitsInLong()) {
+      return new BitVectorInterval(
+          a.info, Math.min(a.lowerLong, b.lowerLong), Math.max(a.upperLong, b.upperLong));
     } else {
-      return new BitVectorInterval(a.info, lower, upper);
+      return new BitVectorInterval(
+          a.info,
+          a.getLowerBound().min(b.getLowerBound()),
+          a.getUpperBound().max(b.getUpperBound()));
     }
   }
 }
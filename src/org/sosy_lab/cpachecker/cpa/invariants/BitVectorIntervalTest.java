@@ -0,0 +1,321 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Differential test for the long arithmetic of {@link BitVectorInterval} and the interval
+ * operators: every operation is applied to the same operands once with long arithmetic and once
+ * with BigInteger arithmetic only, and both must produce the same intervals and the same overflow
+ * events.
+ */
+@RunWith(Parameterized.class)
+public class BitVectorIntervalTest {
+
+  @Parameters(name = "{0} bits, signed: {1}")
+  public static Object[][] getBitVectors() {
+    return new Object[][] {
+      {8, true}, {8, false}, {32, true}, {32, false}, {63, true}, {63, false}, {64, true}, {64, false}
+    };
+  }
+
+  @Parameter(0)
+  public int size;
+
+  @Parameter(1)
+  public boolean signed;
+
+  private static final int RANDOM_PAIRS = 500;
+
+  /** The largest value whose square fits into a long. */
+  private static final BigInteger SQRT_LONG_MAX = BigInteger.valueOf(3037000499L);
+
+  private BitVectorInfo longInfo;
+
+  private BitVectorInfo bigIntegerInfo;
+
+  /**
+   * Values around zero, around the limits of the bit vector, around the limits of long, and
+   * around the values whose products or sums leave the range of long.
+   */
+  private List<BigInteger> boundaryValues;
+
+  @Before
+  public void setUp() {
+    longInfo = BitVectorInfo.from(size, signed);
+    bigIntegerInfo = BitVectorInfo.withoutLongArithmetic(size, signed);
+    assertThat(bigIntegerInfo).isEqualTo(longInfo);
+    assertThat(longInfo.fitsInLong()).isEqualTo(size < Long.SIZE || signed);
+    assertThat(bigIntegerInfo.fitsInLong()).isFalse();
+
+    BigInteger min = longInfo.getMinValue();
+    BigInteger max = longInfo.getMaxValue();
+    BigInteger longMin = BigInteger.valueOf(Long.MIN_VALUE);
+    BigInteger longMax = BigInteger.valueOf(Long.MAX_VALUE);
+    TreeSet<BigInteger> values = new TreeSet<>();
+    for (BigInteger value :
+        ImmutableList.of(
+            min,
+            min.add(BigInteger.ONE),
+            min.shiftRight(1),
+            max,
+            max.subtract(BigInteger.ONE),
+            max.shiftRight(1),
+            longMin,
+            longMin.add(BigInteger.ONE),
+            longMax,
+            longMax.subtract(BigInteger.ONE),
+            longMax.add(BigInteger.ONE),
+            BigInteger.ONE.shiftLeft(62),
+            BigInteger.ONE.shiftLeft(32),
+            BigInteger.ONE.shiftLeft(31),
+            SQRT_LONG_MAX,
+            SQRT_LONG_MAX.add(BigInteger.ONE),
+            BigInteger.valueOf(3),
+            BigInteger.TWO,
+            BigInteger.ONE,
+            BigInteger.ZERO)) {
+      values.add(value);
+      values.add(value.negate());
+    }
+    values.removeIf(value -> value.compareTo(min) < 0 || value.compareTo(max) > 0);
+    boundaryValues = ImmutableList.copyOf(values);
+  }
+
+  @Test
+  public void testBoundaryIntervals() {
+    List<BigInteger[]> intervals = new ArrayList<>();
+    for (int i = 0; i < boundaryValues.size(); i++) {
+      BigInteger value = boundaryValues.get(i);
+      intervals.add(new BigInteger[] {value, value});
+      if (i + 1 < boundaryValues.size()) {
+        intervals.add(new BigInteger[] {value, boundaryValues.get(i + 1)});
+      }
+    }
+    intervals.add(new BigInteger[] {longInfo.getMinValue(), longInfo.getMaxValue()});
+
+    int n = boundaryValues.size();
+    for (int i = 0; i < intervals.size(); i++) {
+      for (int j = 0; j < intervals.size(); j++) {
+        assertSameResults(
+            intervals.get(i),
+            intervals.get(j),
+            boundaryValues.get((i + j) % n),
+            BigInteger.valueOf((i + j) % (size + 2)));
+      }
+    }
+  }
+
+  @Test
+  public void testRandomIntervals() {
+    Random random = new Random(0);
+    for (int i = 0; i < RANDOM_PAIRS; i++) {
+      assertSameResults(
+          randomInterval(random),
+          randomInterval(random),
+          randomValue(random),
+          BigInteger.valueOf(random.nextInt(size + 2)));
+    }
+  }
+
+  @Test
+  public void testEqualsAcrossRepresentations() {
+    for (int i = 0; i < boundaryValues.size(); i++) {
+      BigInteger lower = boundaryValues.get(i);
+      for (BigInteger upper : boundaryValues.subList(i, boundaryValues.size())) {
+        BitVectorInterval withLongs = BitVectorInterval.of(longInfo, lower, upper);
+        BitVectorInterval withBigIntegers = BitVectorInterval.of(bigIntegerInfo, lower, upper);
+        assertThat(withLongs).isEqualTo(withBigIntegers);
+        assertThat(withBigIntegers).isEqualTo(withLongs);
+        assertThat(withLongs.hashCode()).isEqualTo(withBigIntegers.hashCode());
+        assertThat(withLongs.toString()).isEqualTo(withBigIntegers.toString());
+      }
+    }
+  }
+
+  private BigInteger[] randomInterval(Random pRandom) {
+    BigInteger a = randomValue(pRandom);
+    BigInteger b = randomValue(pRandom);
+    return a.compareTo(b) <= 0 ? new BigInteger[] {a, b} : new BigInteger[] {b, a};
+  }
+
+  /** Return a value near a boundary value, a small value, or any value of the bit vector. */
+  private BigInteger randomValue(Random pRandom) {
+    BigInteger value;
+    switch (pRandom.nextInt(3)) {
+      case 0:
+        value =
+            boundaryValues
+                .get(pRandom.nextInt(boundaryValues.size()))
+                .add(BigInteger.valueOf(pRandom.nextInt(5) - 2));
+        break;
+      case 1:
+        value = BigInteger.valueOf(pRandom.nextInt(201) - 100);
+        break;
+      default:
+        value = longInfo.getMinValue().add(new BigInteger(size, pRandom));
+        break;
+    }
+    return value.max(longInfo.getMinValue()).min(longInfo.getMaxValue());
+  }
+
+  private void assertSameResults(
+      BigInteger[] pFirst, BigInteger[] pSecond, BigInteger pValue, BigInteger pShiftDistance) {
+    for (boolean allowSignedWrapAround : new boolean[] {true, false}) {
+      Map<String, Function<Operands, Object>> operations =
+          getOperations(allowSignedWrapAround, pValue, pShiftDistance);
+      for (Map.Entry<String, Function<Operands, Object>> operation : operations.entrySet()) {
+        Operands withLongs = new Operands(longInfo, pFirst, pSecond, true);
+        Operands withBigIntegers = new Operands(bigIntegerInfo, pFirst, pSecond, false);
+        Object expected = withBigIntegers.apply(operation.getValue());
+        Object actual = withLongs.apply(operation.getValue());
+        String message =
+            String.format(
+                "%s of %s and %s (value %s, shift distance %s, wrap-around %s)",
+                operation.getKey(),
+                withBigIntegers.x,
+                withBigIntegers.y,
+                pValue,
+                pShiftDistance,
+                allowSignedWrapAround);
+        assertWithMessage(message).that(actual).isEqualTo(expected);
+        assertWithMessage(message + ": overflows")
+            .that(withLongs.overflows)
+            .isEqualTo(withBigIntegers.overflows);
+      }
+    }
+  }
+
+  private static Map<String, Function<Operands, Object>> getOperations(
+      boolean pWrap, BigInteger pValue, BigInteger pShiftDistance) {
+    ImmutableMap.Builder<String, Function<Operands, Object>> operations = ImmutableMap.builder();
+    // operations on simple intervals
+    operations.put("intersectsWith", o -> o.x.intersectsWith(o.y));
+    operations.put("contains", o -> o.x.contains(o.y));
+    operations.put("touches", o -> o.x.touches(o.y));
+    operations.put("containsValue", o -> o.x.contains(pValue));
+    operations.put("intersectWith", o -> o.x.intersectWith(o.y));
+    operations.put("span", o -> BitVectorInterval.span(o.x, o.y));
+    operations.put("containsZero", o -> o.x.containsZero());
+    operations.put("containsPositive", o -> o.x.containsPositive());
+    operations.put("containsNegative", o -> o.x.containsNegative());
+    operations.put("isSingleton", o -> o.x.isSingleton());
+    operations.put("size", o -> o.x.size());
+    operations.put("negativePart", o -> o.x.getNegativePart());
+    operations.put("positivePart", o -> o.x.getPositivePart());
+    operations.put("extendToMinValue", o -> o.x.extendToMinValue());
+    operations.put("extendToMaxValue", o -> o.x.extendToMaxValue());
+    operations.put("negate", o -> o.x.negate(pWrap, o.handler));
+
+    // operators on compound intervals, which use the IIIOperatorFactory and ISIOperatorFactory
+    operations.put("add", o -> o.cx().add(o.cy(), pWrap, o.handler));
+    operations.put("addValue", o -> o.cx().add(pValue, pWrap, o.handler));
+    operations.put("multiply", o -> o.cx().multiply(o.cy(), pWrap, o.handler));
+    operations.put("multiplyValue", o -> o.cx().multiply(pValue, pWrap, o.handler));
+    operations.put("shiftLeft", o -> o.cx().shiftLeft(o.cy(), pWrap, o.handler));
+    operations.put("shiftLeftValue", o -> o.cx().shiftLeft(pShiftDistance, pWrap, o.handler));
+    operations.put("shiftRight", o -> o.cx().shiftRight(o.cy(), pWrap, o.handler));
+    operations.put("shiftRightValue", o -> o.cx().shiftRight(pShiftDistance, pWrap, o.handler));
+    operations.put("compoundNegate", o -> o.cx().negate(pWrap, o.handler));
+    operations.put("unionWith", o -> o.cx().unionWith(o.cy()));
+    operations.put("compoundIntersectWith", o -> o.cx().intersectWith(o.cy()));
+    operations.put("compoundContains", o -> o.cx().contains(o.cy()));
+    operations.put("compoundContainsValue", o -> o.cx().contains(pValue));
+    for (int targetSize : new int[] {8, 32, 63, 64, 128}) {
+      for (boolean targetSigned : new boolean[] {true, false}) {
+        operations.put(
+            "castTo" + targetSize + (targetSigned ? "" : "U"),
+            o -> o.cx().cast(o.getTypeInfo(targetSize, targetSigned), pWrap, o.handler));
+      }
+    }
+    return operations.build();
+  }
+
+  /** The operands of an operation, either with long arithmetic or with BigInteger arithmetic. */
+  private static class Operands {
+
+    private final BitVectorInterval x;
+
+    private final BitVectorInterval y;
+
+    private final boolean longArithmetic;
+
+    private int overflows = 0;
+
+    private final OverflowEventHandler handler = () -> overflows++;
+
+    private Operands(
+        BitVectorInfo pInfo, BigInteger[] pFirst, BigInteger[] pSecond, boolean pLongArithmetic) {
+      x = BitVectorInterval.of(pInfo, pFirst[0], pFirst[1]);
+      y = BitVectorInterval.of(pInfo, pSecond[0], pSecond[1]);
+      longArithmetic = pLongArithmetic;
+    }
+
+    private CompoundBitVectorInterval cx() {
+      return CompoundBitVectorInterval.of(x);
+    }
+
+    private CompoundBitVectorInterval cy() {
+      return CompoundBitVectorInterval.of(y);
+    }
+
+    private BitVectorInfo getTypeInfo(int pSize, boolean pSigned) {
+      return longArithmetic
+          ? BitVectorInfo.from(pSize, pSigned)
+          : BitVectorInfo.withoutLongArithmetic(pSize, pSigned);
+    }
+
+    /**
+     * Apply the given operation and return its result in a form that does not depend on the
+     * representation of the bounds.
+     */
+    private Object apply(Function<Operands, Object> pOperation) {
+      Object result;
+      try {
+        result = pOperation.apply(this);
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        return e.getClass();
+      }
+      if (result instanceof BitVectorInterval) {
+        return getBounds((BitVectorInterval) result);
+      }
+      if (result instanceof CompoundBitVectorInterval) {
+        List<List<BigInteger>> bounds = new ArrayList<>();
+        for (BitVectorInterval interval :
+            ((CompoundBitVectorInterval) result).getBitVectorIntervals()) {
+          bounds.add(getBounds(interval));
+        }
+        return bounds;
+      }
+      return result;
+    }
+
+    private static List<BigInteger> getBounds(BitVectorInterval pInterval) {
+      return ImmutableList.of(pInterval.getLowerBound(), pInterval.getUpperBound());
+    }
+  }
+}
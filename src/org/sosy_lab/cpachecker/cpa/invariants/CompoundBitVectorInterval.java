@@ -184,9 +184,9 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     int start = 0;
     BitVectorInterval lastInterval = null;
     if (pOther.hasLowerBound() && hasUpperBound()) {
-      BigInteger pOtherLB = pOther.getLowerBound();
       BitVectorInterval currentLocal = this.intervals[start];
-      while (currentLocal != null && pOtherLB.compareTo(currentLocal.getUpperBound()) > 0) {
+      while (currentLocal != null
+          && BitVectorInterval.compareLowerToUpperBound(pOther, currentLocal) > 0) {
         resultIntervals.add(currentLocal);
         ++start;
         lastInterval = currentLocal;
@@ -219,7 +219,8 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
           currentInserted = true;
         } else {
           if (!pOther.hasLowerBound()
-              || (interval.hasLowerBound() && less(pOther.getLowerBound(), interval.getLowerBound()))) {
+              || (interval.hasLowerBound()
+                  && BitVectorInterval.compareLowerBounds(pOther, interval) < 0)) {
             resultIntervals.add(pOther);
             inserted = true;
           }
@@ -364,8 +365,6 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     }
     boolean hasLowerBound = pInterval.hasLowerBound();
     boolean hasUpperBound = pInterval.hasUpperBound();
-    BigInteger lb = hasLowerBound ? pInterval.getLowerBound() : null;
-    BigInteger ub = hasUpperBound ? pInterval.getUpperBound() : null;
     int leftInclusive = 0;
     int rightExclusive = this.intervals.length;
     while (leftInclusive < rightExclusive) {
@@ -373,10 +372,12 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
       BitVectorInterval intervalAtIndex = this.intervals[index];
       boolean lbIndexLeqLb =
           !intervalAtIndex.hasLowerBound()
-              || (hasLowerBound && intervalAtIndex.getLowerBound().compareTo(lb) <= 0);
+              || (hasLowerBound
+                  && BitVectorInterval.compareLowerBounds(intervalAtIndex, pInterval) <= 0);
       boolean ubIndexGeqUb =
           !intervalAtIndex.hasUpperBound()
-              || (hasUpperBound && intervalAtIndex.getUpperBound().compareTo(ub) >= 0);
+              || (hasUpperBound
+                  && BitVectorInterval.compareUpperBounds(intervalAtIndex, pInterval) >= 0);
       if (lbIndexLeqLb) { // Interval at index starts before interval
         if (ubIndexGeqUb) { // Interval at index ends after interval
           return true;
@@ -401,8 +402,8 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     int index = rightExclusive / 2;
     while (leftInclusive < rightExclusive) {
       BitVectorInterval intervalAtIndex = this.intervals[index];
-      boolean lbIndexLeqValue = !intervalAtIndex.hasLowerBound() || intervalAtIndex.getLowerBound().compareTo(value) <= 0;
-      boolean ubIndexGeqValue = !intervalAtIndex.hasUpperBound() || intervalAtIndex.getUpperBound().compareTo(value) >= 0;
+      boolean lbIndexLeqValue = !intervalAtIndex.hasLowerBound() || intervalAtIndex.compareLowerBoundTo(value) <= 0;
+      boolean ubIndexGeqValue = !intervalAtIndex.hasUpperBound() || intervalAtIndex.compareUpperBoundTo(value) >= 0;
       if (lbIndexLeqValue) { // Interval at index starts before the value
         if (ubIndexGeqValue) { // Interval at index ends after the value
           return index;
@@ -583,10 +584,17 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     // If the value fits in, the cast is easy
     if (pBitVectorInfo.getRange().contains(info.getRange())) {
       BitVectorInterval[] castedIntervals = new BitVectorInterval[intervals.length];
-      Lists.transform(getBitVectorIntervals(), pInterval -> BitVectorInterval.of(
-          pBitVectorInfo,
-          pInterval.getLowerBound(),
-          pInterval.getUpperBound())).toArray(castedIntervals);
+      for (int i = 0; i < intervals.length; i++) {
+        BitVectorInterval interval = intervals[i];
+        castedIntervals[i] =
+            info.fitsInLong()
+                ? BitVectorInterval.of(
+                    pBitVectorInfo,
+                    interval.getLowerBoundAsLong(),
+                    interval.getUpperBoundAsLong())
+                : BitVectorInterval.of(
+                    pBitVectorInfo, interval.getLowerBound(), interval.getUpperBound());
+      }
       return new CompoundBitVectorInterval(
           pBitVectorInfo,
           castedIntervals);
@@ -1753,60 +1761,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
   private static BitVectorInterval union(BitVectorInterval pA, BitVectorInterval pB) {
     Preconditions.checkArgument(pA.getTypeInfo().equals(pB.getTypeInfo()));
     Preconditions.checkArgument(pA.touches(pB), "Cannot unite intervals that do not touch.");
-    return BitVectorInterval.of(pA.getTypeInfo(), lowestBound(pA, pB), highestBound(pA, pB));
-  }
-
-  /**
-   * Returns the lowest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the lowest lower bound from.
-   * @param pB one if the intervals to get the lowest lower bound from.
-   *
-   * @return the lowest bound of the two given intervals.
-   */
-  private static BigInteger lowestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aLowerBound = pA.getLowerBound();
-    BigInteger bLowerBound = pB.getLowerBound();
-    return lessOrEqual(aLowerBound, bLowerBound) ? aLowerBound : bLowerBound;
-  }
-
-  /**
-   * Returns the highest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the highest upper bound from.
-   * @param pB one if the intervals to get the highest upper bound from.
-   *
-   * @return the highest bound of the two given intervals.
-   */
-  private static BigInteger highestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aUpperBound = pA.getUpperBound();
-    BigInteger bUpperBound = pB.getUpperBound();
-    return lessOrEqual(bUpperBound, aUpperBound) ? aUpperBound : bUpperBound;
-  }
-
-  /**
-   * Checks if the first given big integer is less than the second given big integer,
-   * none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean less(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) < 0;
-  }
-
-  /**
-   * Checks if the first given big integer is less than or equal to the second given big integer, none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than or equal to <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean lessOrEqual(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) <= 0;
+    return BitVectorInterval.span(pA, pB);
   }
 
   /**
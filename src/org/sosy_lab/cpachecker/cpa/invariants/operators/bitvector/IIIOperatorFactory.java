@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector;
 
 import com.google.common.base.Preconditions;
+import com.google.common.math.LongMath;
 import java.math.BigInteger;
 import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -63,6 +64,22 @@ enum IIIOperatorFactory {
          * bounds for the new upper bound. If any of the summands is not
          * finite, the resulting bound isn't finite either.
          */
+        if (pOperand1.getTypeInfo().fitsInLong()) {
+          long lowerBound =
+              LongMath.saturatedAdd(
+                  pOperand1.getLowerBoundAsLong(), pOperand2.getLowerBoundAsLong());
+          long upperBound =
+              LongMath.saturatedAdd(
+                  pOperand1.getUpperBoundAsLong(), pOperand2.getUpperBoundAsLong());
+          if (ISIOperatorFactory.isExact(lowerBound) && ISIOperatorFactory.isExact(upperBound)) {
+            return BitVectorInterval.cast(
+                pOperand1.getTypeInfo(),
+                lowerBound,
+                upperBound,
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          }
+        }
         BigInteger lowerBound = pOperand1.getLowerBound();
         BigInteger upperBound = pOperand1.getUpperBound();
         BigInteger pLowerBound = pOperand2.getLowerBound();
@@ -321,6 +338,14 @@ enum IIIOperatorFactory {
          * At most one bound of each interval can be infinite and neither
          * of the intervals is a singleton at this point.
          */
+        if (pFirstOperand.getTypeInfo().fitsInLong()) {
+          BitVectorInterval result =
+              multiplyLongs(
+                  pFirstOperand, pSecondOperand, pAllowSignedWrapAround, pOverflowEventHandler);
+          if (result != null) {
+            return result;
+          }
+        }
         BigInteger pLowerBound = pSecondOperand.getLowerBound();
         BigInteger pUpperBound = pSecondOperand.getUpperBound();
 
@@ -510,6 +535,37 @@ enum IIIOperatorFactory {
     };
   }
 
+  /**
+   * Multiplies the given intervals with long arithmetic, or returns null if a product of the
+   * bounds does not fit into a long.
+   */
+  private static @Nullable BitVectorInterval multiplyLongs(
+      BitVectorInterval pFirstOperand,
+      BitVectorInterval pSecondOperand,
+      boolean pAllowSignedWrapAround,
+      OverflowEventHandler pOverflowEventHandler) {
+    long lb1 = pFirstOperand.getLowerBoundAsLong();
+    long ub1 = pFirstOperand.getUpperBoundAsLong();
+    long lb2 = pSecondOperand.getLowerBoundAsLong();
+    long ub2 = pSecondOperand.getUpperBoundAsLong();
+    long lbLb = LongMath.saturatedMultiply(lb1, lb2);
+    long lbUb = LongMath.saturatedMultiply(lb1, ub2);
+    long ubLb = LongMath.saturatedMultiply(ub1, lb2);
+    long ubUb = LongMath.saturatedMultiply(ub1, ub2);
+    if (!ISIOperatorFactory.isExact(lbLb)
+        || !ISIOperatorFactory.isExact(lbUb)
+        || !ISIOperatorFactory.isExact(ubLb)
+        || !ISIOperatorFactory.isExact(ubUb)) {
+      return null;
+    }
+    return BitVectorInterval.cast(
+        pFirstOperand.getTypeInfo(),
+        Math.min(Math.min(lbLb, lbUb), Math.min(ubLb, ubUb)),
+        Math.max(Math.max(lbLb, lbUb), Math.max(ubLb, ubUb)),
+        pAllowSignedWrapAround,
+        pOverflowEventHandler);
+  }
+
   private static void checkBitVectorCompatibility(BitVectorInterval pFirstOperand, BitVectorInterval pSecondOperand) {
     Preconditions.checkArgument(
         pFirstOperand.getTypeInfo().equals(pSecondOperand.getTypeInfo()),
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.invariants.operators.bitvector;
 
+import com.google.common.math.LongMath;
 import java.math.BigInteger;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
@@ -43,6 +44,19 @@ enum ISIOperatorFactory {
         if (pFirstOperand.isTop() || pSecondOperand.equals(BigInteger.ZERO)) {
           return pFirstOperand;
         }
+        if (fitsInLong(pFirstOperand, pSecondOperand)) {
+          long value = pSecondOperand.longValue();
+          long lowerBound = LongMath.saturatedAdd(pFirstOperand.getLowerBoundAsLong(), value);
+          long upperBound = LongMath.saturatedAdd(pFirstOperand.getUpperBoundAsLong(), value);
+          if (isExact(lowerBound) && isExact(upperBound)) {
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                lowerBound,
+                upperBound,
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().add(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().add(pSecondOperand);
         return BitVectorInterval.cast(
@@ -112,6 +126,19 @@ enum ISIOperatorFactory {
          * Infinite bounds stay infinite, finite bounds are multiplied with
          * the factor.
          */
+        if (fitsInLong(pFirstOperand, pSecondOperand)) {
+          long factor = pSecondOperand.longValue();
+          long lowerBound = LongMath.saturatedMultiply(pFirstOperand.getLowerBoundAsLong(), factor);
+          long upperBound = LongMath.saturatedMultiply(pFirstOperand.getUpperBoundAsLong(), factor);
+          if (isExact(lowerBound) && isExact(upperBound)) {
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                lowerBound,
+                upperBound,
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().multiply(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().multiply(pSecondOperand);
         return BitVectorInterval.cast(
@@ -445,6 +472,22 @@ enum ISIOperatorFactory {
          */
         if (pSecondOperand.compareTo(BigInteger.valueOf(pFirstOperand.getTypeInfo().getSize()))
             <= 0) {
+          if (pFirstOperand.getTypeInfo().fitsInLong()
+              && pSecondOperand.intValue() < Long.SIZE - 1) {
+            long factor = 1L << pSecondOperand.intValue();
+            long lowerBound =
+                LongMath.saturatedMultiply(pFirstOperand.getLowerBoundAsLong(), factor);
+            long upperBound =
+                LongMath.saturatedMultiply(pFirstOperand.getUpperBoundAsLong(), factor);
+            if (isExact(lowerBound) && isExact(upperBound)) {
+              return BitVectorInterval.cast(
+                  pFirstOperand.getTypeInfo(),
+                  lowerBound,
+                  upperBound,
+                  pAllowSignedWrapAround,
+                  pOverflowEventHandler);
+            }
+          }
           BigInteger lowerBound =
               pFirstOperand.getLowerBound().shiftLeft(pSecondOperand.intValue());
           BigInteger upperBound =
@@ -513,6 +556,15 @@ enum ISIOperatorFactory {
          */
         if (pSecondOperand.compareTo(BigInteger.valueOf(pFirstOperand.getTypeInfo().getSize()))
             <= 0) {
+          if (pFirstOperand.getTypeInfo().fitsInLong() && pSecondOperand.intValue() < Long.SIZE) {
+            // arithmetic shift of longs rounds towards negative infinity like BigInteger
+            return BitVectorInterval.cast(
+                pFirstOperand.getTypeInfo(),
+                pFirstOperand.getLowerBoundAsLong() >> pSecondOperand.intValue(),
+                pFirstOperand.getUpperBoundAsLong() >> pSecondOperand.intValue(),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          }
           BigInteger lowerBound =
               pFirstOperand.getLowerBound().shiftRight(pSecondOperand.intValue());
           BigInteger upperBound =
@@ -537,4 +589,19 @@ enum ISIOperatorFactory {
     };
   }
 
+  /**
+   * Checks whether long arithmetic can be used for the given operands, i.e., whether the bounds of
+   * the interval and the value fit into a long.
+   */
+  static boolean fitsInLong(BitVectorInterval pInterval, BigInteger pValue) {
+    return pInterval.getTypeInfo().fitsInLong() && pValue.bitLength() < Long.SIZE;
+  }
+
+  /**
+   * Checks whether the given result of saturated long arithmetic is exact. Results that hit the
+   * minimum or maximum value of long may have overflowed and need to be computed with BigInteger.
+   */
+  static boolean isExact(long pSaturatedResult) {
+    return pSaturatedResult != Long.MIN_VALUE && pSaturatedResult != Long.MAX_VALUE;
+  }
 }
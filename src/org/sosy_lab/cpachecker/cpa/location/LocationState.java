@@ -33,6 +33,7 @@ import org.sosy_lab.cpachecker.exceptions.InvalidQueryException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.NodeTranslatingObjectInputStream;
 
 public class LocationState implements AbstractStateWithLocation, AbstractQueryableState, Partitionable, Serializable {
 
@@ -210,13 +211,21 @@ public class LocationState implements AbstractStateWithLocation, AbstractQueryab
     private static final long serialVersionUID = 6889568471468710163L;
     private final int nodeNumber;
 
+    // resolved while reading, because the node depends on the stream
+    private transient CFANode node;
+
     public SerialProxy(int nodeNumber) {
       this.nodeNumber = nodeNumber;
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      node = NodeTranslatingObjectInputStream.getNodeByNodeNumber(in, nodeNumber);
+    }
+
     private Object readResolve() {
       CFAInfo cfaInfo = GlobalInfo.getInstance().getCFAInfo().orElseThrow();
-      return cfaInfo.getLocationStateFactory().getState(cfaInfo.getNodeByNodeNumber(nodeNumber));
+      return cfaInfo.getLocationStateFactory().getState(node);
     }
   }
 }
@@ -29,6 +29,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.octagon.JavaOctagonManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonFloatManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonIntManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonManager;
@@ -45,6 +46,16 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
           + " library will be changed between floats and ints.")
   private String octagonLibrary = "INT";
 
+  @Option(secure=true, name="octagonImplementation", toUppercase=true, values={"NATIVE", "JAVA"},
+      description="which implementation of the octagon domain should be used: the native"
+          + " octagon library (via JNI) or the implementation in Java, which needs no native code")
+  private String octagonImplementation = "NATIVE";
+
+  @Option(secure=true, name="sparseClosure",
+      description="whether the Java implementation of the octagon domain should compute the"
+          + " closure only over the finite bounds, which is faster if few variables are related")
+  private boolean sparseClosure = true;
+
   @Option(secure=true, name="initialPrecisionType", toUppercase=true, values={"STATIC_FULL", "REFINEABLE_EMPTY"},
       description="this option determines which initial precision should be used")
   private String precisionType = "STATIC_FULL";
@@ -70,7 +81,9 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
     logger = log;
     OctagonDomain octagonDomain = new OctagonDomain(logger);
 
-    if (octagonLibrary.equals("FLOAT")) {
+    if (octagonImplementation.equals("JAVA")) {
+      octagonManager = new JavaOctagonManager(!octagonLibrary.equals("FLOAT"), sparseClosure);
+    } else if (octagonLibrary.equals("FLOAT")) {
       octagonManager = new OctagonFloatManager();
     } else {
       octagonManager = new OctagonIntManager();
@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.cpa.predicate;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -16,6 +17,8 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
+import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory.OptionalAnnotation;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
@@ -41,9 +44,18 @@ public class BAMPredicateCPA extends PredicateCPA implements ConfigurableProgram
       CFA pCfa,
       ShutdownNotifier pShutdownNotifier,
       Specification pSpecification,
-      AggregatedReachedSets pAggregatedReachedSets)
+      AggregatedReachedSets pAggregatedReachedSets,
+      @OptionalAnnotation @Nullable Participant pExchangeParticipant)
       throws InvalidConfigurationException, CPAException, InterruptedException {
-    super(config, logger, pBlk, pCfa, pShutdownNotifier, pSpecification, pAggregatedReachedSets);
+    super(
+        config,
+        logger,
+        pBlk,
+        pCfa,
+        pShutdownNotifier,
+        pSpecification,
+        pAggregatedReachedSets,
+        pExchangeParticipant);
     config.inject(this, BAMPredicateCPA.class);
     blk = pBlk; // keep reference to later inject the BlockPartitioning
   }
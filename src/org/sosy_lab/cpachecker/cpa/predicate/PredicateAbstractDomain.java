@@ -58,6 +58,9 @@ public class PredicateAbstractDomain implements AbstractDomain {
      */
 
     if (e1.isAbstractionState() && e2.isAbstractionState()) {
+      if (e1.getAbstractionFormula() == e2.getAbstractionFormula()) {
+        return true; // identical abstractions, e.g., from the abstraction cache
+      }
         bddCoverageCheckTimer.start();
 
       // if e1's predicate abstraction entails e2's pred. abst.
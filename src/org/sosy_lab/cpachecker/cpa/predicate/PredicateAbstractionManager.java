@@ -14,10 +14,12 @@ import static com.google.common.base.Predicates.equalTo;
 import com.google.common.base.Functions;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.io.IOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
@@ -48,6 +50,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
 import org.sosy_lab.cpachecker.cpa.callstack.CallstackStateEqualsWrapper;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.util.Pair;
@@ -73,7 +76,7 @@ import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
-public class PredicateAbstractionManager {
+public class PredicateAbstractionManager implements AutoCloseable {
 
   private final PredicateAbstractionStatistics stats;
   private final PredicateAbstractionManagerOptions options;
@@ -81,6 +84,7 @@ public class PredicateAbstractionManager {
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
   private final PredicateAbstractionsStorage abstractionStorage;
+  private final @Nullable PersistentAbstractionCache persistentCache;
   private final AbstractionManager amgr;
   private final RegionCreator rmgr;
   private final PathFormulaManager pfmgr;
@@ -114,16 +118,33 @@ public class PredicateAbstractionManager {
   // 1: predicate is true
   private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
+  // Prover that is kept open between abstraction computations (if enabled),
+  // and the conjuncts that are currently asserted on it, one per stack level.
+  // The first conjunct is usually the abstraction at the start of the block,
+  // so sibling states of the same block share at least this level.
+  // The manager may be used from several threads (e.g., by ParallelBAM),
+  // so all accesses to the warm prover are guarded by warmProverLock.
+  private final boolean reuseSolverStack;
+  private final Object warmProverLock = new Object();
+
+  @GuardedBy("warmProverLock")
+  private @Nullable ProverEnvironment warmProver = null;
+
+  @GuardedBy("warmProverLock")
+  private final List<BooleanFormula> warmProverStack = new ArrayList<>();
+
   // Statistics
   private final TimerWrapper trivialPredicatesTimer;
   private final TimerWrapper quantifierEliminationTimer;
   private final TimerWrapper abstractionReuseTimer;
+  private final TimerWrapper persistentCacheTimer;
   private final TimerWrapper abstractionReuseImplicationTimer;
   private final TimerWrapper abstractionSolveTimer;
   private final TimerWrapper cartesianAbstractionTimer;
   private final TimerWrapper booleanAbstractionTimer;
   private final TimerWrapper abstractionModelEnumTimer;
   private final TimerWrapper abstractionBddConstructionTimer;
+  private final TimerWrapper solverStackUpdateTimer;
 
   public PredicateAbstractionManager(
       AbstractionManager pAmgr,
@@ -132,6 +153,7 @@ public class PredicateAbstractionManager {
       PredicateAbstractionManagerOptions pOptions,
       WeakeningOptions weakeningOptions,
       PredicateAbstractionsStorage pAbstractionStorage,
+      @Nullable PersistentAbstractionCache pPersistentCache,
       LogManager pLogger,
       ShutdownNotifier pShutdownNotifier,
       PredicateAbstractionStatistics pAbstractionStats,
@@ -176,17 +198,30 @@ public class PredicateAbstractionManager {
       cartesianAbstractionCache = null;
     }
 
+    if (options.isReuseSolverStack() && !pSolver.supportsSeveralOpenProvers()) {
+      logger.log(
+          Level.WARNING,
+          "Solver does not support several open provers,"
+              + " disabling reuse of solver stack for abstraction computations.");
+      reuseSolverStack = false;
+    } else {
+      reuseSolverStack = options.isReuseSolverStack();
+    }
+
     abstractionStorage = pAbstractionStorage;
+    persistentCache = pPersistentCache;
 
     trivialPredicatesTimer = stats.trivialPredicatesTime.getNewTimer();
     quantifierEliminationTimer = stats.quantifierEliminationTime.getNewTimer();
     abstractionReuseTimer = stats.abstractionReuseTime.getNewTimer();
+    persistentCacheTimer = stats.persistentCacheTime.getNewTimer();
     abstractionReuseImplicationTimer = stats.abstractionReuseImplicationTime.getNewTimer();
     abstractionSolveTimer = stats.abstractionSolveTime.getNewTimer();
     cartesianAbstractionTimer = stats.cartesianAbstractionTime.getNewTimer();
     booleanAbstractionTimer = stats.booleanAbstractionTime.getNewTimer();
     abstractionModelEnumTimer = stats.abstractionModelEnumTime.getNewTimer();
     abstractionBddConstructionTimer = stats.abstractionBddConstructionTime.getNewTimer();
+    solverStackUpdateTimer = stats.solverStackUpdateTime.getNewTimer();
   }
 
   /**
@@ -235,6 +270,17 @@ public class PredicateAbstractionManager {
       abstractionCache.clear();
       unsatisfiabilityCache.clear();
     }
+    synchronized (warmProverLock) {
+      closeWarmProver();
+    }
+  }
+
+  /** Close the prover that is kept open between abstraction computations, if any. */
+  @Override
+  public void close() {
+    synchronized (warmProverLock) {
+      closeWarmProver();
+    }
   }
   /**
    * Compute an abstraction of the conjunction of an AbstractionFormula and
@@ -308,12 +354,20 @@ public class PredicateAbstractionManager {
 
     final BooleanFormula f = primaryFormula;
 
+    // The persistent cache can be used only if the abstraction depends on nothing but the key,
+    // but invariants that are conjoined to the abstraction may differ between runs.
+    final boolean usePersistentCache =
+        persistentCache != null && invariantSupplier == TrivialInvariantSupplier.INSTANCE;
+
     // caching
     Pair<BooleanFormula, ImmutableSet<BooleanFormula>> absKey = null;
-    if (options.isUseCache()) {
-      ImmutableSet<BooleanFormula> instantiatedPreds =
+    ImmutableSet<BooleanFormula> instantiatedPreds = null;
+    if (options.isUseCache() || usePersistentCache) {
+      instantiatedPreds =
           Collections3.transformedImmutableSetCopy(
               remainingPredicates, pred -> instantiator.apply(pred.getSymbolicAtom()));
+    }
+    if (options.isUseCache()) {
       absKey = Pair.of(f, instantiatedPreds);
       AbstractionFormula result = abstractionCache.get(absKey);
 
@@ -348,6 +402,35 @@ public class PredicateAbstractionManager {
       }
     }
 
+    String persistentKey = null;
+    if (usePersistentCache) {
+      AbstractionFormula result;
+      persistentCacheTimer.start();
+      try {
+        persistentKey =
+            persistentCache.computeKey(
+                options.getAbstractionType().name(), f, instantiatedPreds);
+        BooleanFormula cached = persistentCache.get(persistentKey);
+        result =
+            cached == null
+                ? null
+                : makeAbstractionFormula(amgr.convertFormulaToRegion(cached), ssa, pathFormula);
+      } finally {
+        persistentCacheTimer.stop();
+      }
+
+      if (result != null) {
+        logger.log(Level.FINEST, "Abstraction", currentAbstractionId, "was cached persistently");
+        logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+        stats.numCallsAbstractionCached.incrementAndGet();
+        stats.numCallsAbstractionCachedPersistently.incrementAndGet();
+        if (options.isUseCache()) {
+          abstractionCache.put(absKey, result);
+        }
+        return result;
+      }
+    }
+
 
     // Compute result for those predicates
     // where we can trivially identify their truthness in the result
@@ -400,6 +483,14 @@ public class PredicateAbstractionManager {
         unsatisfiabilityCache.add(f);
       }
     }
+    if (usePersistentCache) {
+      persistentCacheTimer.start();
+      try {
+        persistentCache.put(persistentKey, result.asFormula());
+      } finally {
+        persistentCacheTimer.stop();
+      }
+    }
 
     long abstractionTime =
         TimeSpan.sum(
@@ -728,58 +819,134 @@ public class PredicateAbstractionManager {
       final Collection<AbstractionPredicate> remainingPredicates,
       final Function<BooleanFormula, BooleanFormula> instantiator)
       throws SolverException, InterruptedException {
-    Region abs = rmgr.makeTrue();
+    if (reuseSolverStack) {
+      synchronized (warmProverLock) {
+        boolean success = false;
+        try {
+          Region abs =
+              computeAbstraction(f, pushOnWarmProver(f), remainingPredicates, instantiator);
+          success = true;
+          return abs;
+        } finally {
+          if (!success) {
+            // stack might be in an inconsistent state
+            closeWarmProver();
+          }
+        }
+      }
+    }
 
     try (ProverEnvironment thmProver =
         solver.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
       thmProver.push(f);
+      return computeAbstraction(f, thmProver, remainingPredicates, instantiator);
+    }
+  }
+
+  /**
+   * Make the stack of the warm prover represent the given formula, reusing as many levels as
+   * possible. Each conjunct of the formula is pushed on its own level, such that a later formula
+   * with a common prefix of conjuncts (as it happens for sibling states in the ARG) needs to pop
+   * and push only the differing conjuncts.
+   */
+  @GuardedBy("warmProverLock")
+  private ProverEnvironment pushOnWarmProver(final BooleanFormula f) throws InterruptedException {
+    List<BooleanFormula> conjuncts = ImmutableList.copyOf(bfmgr.toConjunctionArgs(f, true));
+
+    int common = 0;
+    int maxCommon = Math.min(conjuncts.size(), warmProverStack.size());
+    while (common < maxCommon && warmProverStack.get(common).equals(conjuncts.get(common))) {
+      common++;
+    }
+    stats.numReusedStackConjuncts.addAndGet(common);
+    stats.numPushedStackConjuncts.addAndGet(conjuncts.size() - common);
+
+    solverStackUpdateTimer.start();
+    try {
+      if (warmProver == null) {
+        warmProver = solver.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT);
+      }
+      while (warmProverStack.size() > common) {
+        warmProver.pop();
+        warmProverStack.remove(warmProverStack.size() - 1);
+      }
+      for (BooleanFormula conjunct : conjuncts.subList(common, conjuncts.size())) {
+        warmProver.push(conjunct);
+        warmProverStack.add(conjunct);
+      }
+    } finally {
+      solverStackUpdateTimer.stop();
+    }
+    return warmProver;
+  }
+
+  @GuardedBy("warmProverLock")
+  private void closeWarmProver() {
+    if (warmProver != null) {
+      warmProver.close();
+      warmProver = null;
+      warmProverStack.clear();
+    }
+  }
+
+  /**
+   * Compute an abstraction of a formula that was already pushed onto the solver stack. If the
+   * solver stack is reused, it is left as it was when this method was called.
+   */
+  private Region computeAbstraction(
+      final BooleanFormula f,
+      final ProverEnvironment thmProver,
+      final Collection<AbstractionPredicate> remainingPredicates,
+      final Function<BooleanFormula, BooleanFormula> instantiator)
+      throws SolverException, InterruptedException {
+    Region abs = rmgr.makeTrue();
 
-      if (remainingPredicates.isEmpty()) {
-        stats.numSatCheckAbstractions.incrementAndGet();
+    if (remainingPredicates.isEmpty()) {
+      stats.numSatCheckAbstractions.incrementAndGet();
 
-        abstractionSolveTimer.start();
-        boolean feasibility;
+      abstractionSolveTimer.start();
+      boolean feasibility;
+      try {
+        feasibility = !thmProver.isUnsat();
+      } finally {
+        abstractionSolveTimer.stop();
+      }
+
+      if (!feasibility) {
+        abs = rmgr.makeFalse();
+      }
+
+    } else {
+      if (options.getAbstractionType() != AbstractionType.BOOLEAN) {
+        // First do cartesian abstraction if desired
+        cartesianAbstractionTimer.start();
         try {
-          feasibility = !thmProver.isUnsat();
+          abs =
+              rmgr.makeAnd(
+                  abs,
+                  computeCartesianAbstraction(f, thmProver, remainingPredicates, instantiator));
         } finally {
-          abstractionSolveTimer.stop();
-        }
-
-        if (!feasibility) {
-          abs = rmgr.makeFalse();
+          cartesianAbstractionTimer.stop();
         }
+      }
 
-      } else {
-        if (options.getAbstractionType() != AbstractionType.BOOLEAN) {
-          // First do cartesian abstraction if desired
-          cartesianAbstractionTimer.start();
-          try {
-            abs =
-                rmgr.makeAnd(
-                    abs,
-                    computeCartesianAbstraction(f, thmProver, remainingPredicates, instantiator));
-          } finally {
-            cartesianAbstractionTimer.stop();
-          }
+      if (options.getAbstractionType() != AbstractionType.CARTESIAN
+          && !remainingPredicates.isEmpty()) {
+        // Last do boolean abstraction if desired and necessary
+        stats.numBooleanAbsPredicates.addAndGet(remainingPredicates.size());
+        booleanAbstractionTimer.start();
+        try {
+          abs =
+              rmgr.makeAnd(
+                  abs, computeBooleanAbstraction(thmProver, remainingPredicates, instantiator));
+        } finally {
+          booleanAbstractionTimer.stop();
         }
 
-        if (options.getAbstractionType() != AbstractionType.CARTESIAN
-            && !remainingPredicates.isEmpty()) {
-          // Last do boolean abstraction if desired and necessary
-          stats.numBooleanAbsPredicates.addAndGet(remainingPredicates.size());
-          booleanAbstractionTimer.start();
-          try {
-            abs =
-                rmgr.makeAnd(
-                    abs, computeBooleanAbstraction(thmProver, remainingPredicates, instantiator));
-          } finally {
-            booleanAbstractionTimer.stop();
-          }
-
-          // Warning:
-          // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
-          // remainingPredicates is now empty.
-        }
+        // Warning:
+        // buildBooleanAbstraction() does not clean up thmProver unless the stack is reused,
+        // so do not use it here.
+        // remainingPredicates is now empty.
       }
     }
     return abs;
@@ -1000,8 +1167,11 @@ public class PredicateAbstractionManager {
     AllSatCallbackImpl callback = new AllSatCallbackImpl();
     Region result = thmProver.allSat(callback, predVars);
 
-    // pop() is actually costly sometimes, and we delete the environment anyway
-    // thmProver.pop();
+    if (reuseSolverStack) {
+      thmProver.pop(); // the stack is needed for the next abstraction
+    }
+    // otherwise we skip pop(), it is actually costly sometimes,
+    // and we delete the environment anyway
 
     // update statistics
     int numModels = callback.getCount();
@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.cpa.predicate;
 
 import java.nio.file.Path;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -19,6 +20,8 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractionManager.Abstrac
 @Options(prefix = "cpa.predicate")
 public class PredicateAbstractionManagerOptions {
 
+  static final String PERSISTENT_CACHE_OPTION = "abs.persistentCache";
+
   @Deprecated
   @Option(
       secure = true,
@@ -53,6 +56,18 @@ public class PredicateAbstractionManagerOptions {
   @Option(secure = true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  @Option(
+      secure = true,
+      name = PERSISTENT_CACHE_OPTION,
+      description =
+          "File in which computed abstractions are cached across runs of CPAchecker."
+              + " Abstractions from this file are reused if the machine model and the options"
+              + " of the predicate analysis and the solver are the same as in the run that"
+              + " created the file, otherwise the file is overwritten. The cache is not used"
+              + " if abstractions are strengthened with invariants or if output is disabled.")
+  private @Nullable Path persistentCacheFile = null;
+
   @Option(
       secure = true,
       name = "refinement.splitItpAtoms",
@@ -77,6 +92,18 @@ public class PredicateAbstractionManagerOptions {
               + " when debugging (formulas get smaller).")
   private boolean simplifyAbstractionFormula = false;
 
+  @Option(
+      secure = true,
+      name = "abstraction.reuseSolverStack",
+      description =
+          "Keep the prover of the last abstraction computation open and reuse its assertion stack"
+              + " for the next abstraction computation. The conjuncts of the abstracted formula"
+              + " are pushed separately, such that a common prefix (e.g., the abstraction at the"
+              + " block start and the shared part of the path formula of sibling states) is"
+              + " asserted only once. Not available for SMTInterpol, which does not support"
+              + " several open provers at the same time.")
+  private boolean reuseSolverStack = false;
+
   public PredicateAbstractionManagerOptions(Configuration config)
       throws InvalidConfigurationException {
     config.inject(this);
@@ -110,6 +137,10 @@ public class PredicateAbstractionManagerOptions {
     return useCache;
   }
 
+  @Nullable Path getPersistentCacheFile() {
+    return persistentCacheFile;
+  }
+
   boolean isSplitItpAtoms() {
     return splitItpAtoms;
   }
@@ -121,4 +152,8 @@ public class PredicateAbstractionManagerOptions {
   boolean isSimplifyAbstractionFormula() {
     return simplifyAbstractionFormula;
   }
+
+  boolean isReuseSolverStack() {
+    return reuseSolverStack;
+  }
 }
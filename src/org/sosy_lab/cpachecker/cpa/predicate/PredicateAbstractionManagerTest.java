@@ -0,0 +1,141 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+import org.sosy_lab.cpachecker.util.predicates.regions.SymbolicRegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+/** Unit tests for {@link PredicateAbstractionManager}. */
+public class PredicateAbstractionManagerTest extends SolverViewBasedTest0 {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final LogManager logger = LogManager.createTestLogManager();
+  private final CFANode location = CFANode.newDummyCFANode("main");
+
+  private Path cacheFile;
+  private AbstractionManager amgr;
+  private PathFormulaManager pfmgr;
+
+  private BooleanFormula blockFormula;
+  private PathFormula pathFormula;
+  private BooleanFormula predicate;
+  private BooleanFormula invariant;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheFile = tempFolder.getRoot().toPath().resolve("abstractions.smt2");
+    amgr = new AbstractionManager(new SymbolicRegionManager(solver), config, logger, solver);
+    pfmgr =
+        new PathFormulaManagerImpl(
+            mgrv,
+            config,
+            logger,
+            ShutdownNotifier.createDummy(),
+            MachineModel.LINUX32,
+            Optional.empty(),
+            AnalysisDirection.FORWARD);
+
+    // x@1 = 1 with predicate x < 5, and an unrelated invariant y > 7
+    IntegerFormula x1 = mgrv.makeVariable(FormulaType.IntegerType, "x", 1);
+    blockFormula = imgrv.equal(x1, imgrv.makeNumber(1));
+    SSAMap ssa = SSAMap.emptySSAMap().builder().setIndex("x", CNumericTypes.INT, 1).build();
+    pathFormula =
+        pfmgr
+            .makeEmptyPathFormulaWithContext(ssa, PointerTargetSet.emptyPointerTargetSet())
+            .withFormula(blockFormula);
+    predicate = imgrv.lessThan(imgrv.makeVariable("x"), imgrv.makeNumber(5));
+    invariant = imgrv.greaterThan(imgrv.makeVariable("y"), imgrv.makeNumber(7));
+  }
+
+  private AbstractionFormula computeAbstraction(
+      InvariantSupplier pInvariants, PredicateAbstractionStatistics pStats) throws Exception {
+    PredicateAbstractionManagerOptions options = new PredicateAbstractionManagerOptions(config);
+    try (PersistentAbstractionCache cache =
+        new PersistentAbstractionCache(
+            cacheFile,
+            "cpa.predicate." + PredicateAbstractionManagerOptions.PERSISTENT_CACHE_OPTION,
+            config,
+            MachineModel.LINUX32,
+            logger,
+            mgrv)) {
+      PredicateAbstractionManager pamgr =
+          new PredicateAbstractionManager(
+              amgr,
+              pfmgr,
+              solver,
+              options,
+              new WeakeningOptions(config),
+              new PredicateAbstractionsStorage(null, logger, mgrv, null),
+              cache,
+              logger,
+              ShutdownNotifier.createDummy(),
+              pStats,
+              pInvariants);
+      ImmutableList<AbstractionPredicate> predicates =
+          ImmutableList.of(amgr.makePredicate(predicate));
+      return pamgr.buildAbstraction(
+          location, Optional.empty(), blockFormula, pathFormula, predicates);
+    }
+  }
+
+  @Test
+  public void testPersistentCacheIgnoresAbstractionsWithInvariants() throws Exception {
+    InvariantSupplier invariants = (node, callstack, fmgr, pf, context) -> invariant;
+
+    PredicateAbstractionStatistics stats = new PredicateAbstractionStatistics();
+    AbstractionFormula withInvariant = computeAbstraction(invariants, stats);
+    assertThat(solver.implies(withInvariant.asFormula(), invariant)).isTrue();
+
+    // a later run without the invariant must not get the strengthened abstraction
+    stats = new PredicateAbstractionStatistics();
+    AbstractionFormula withoutInvariant =
+        computeAbstraction(TrivialInvariantSupplier.INSTANCE, stats);
+    assertThat(stats.numCallsAbstractionCachedPersistently.get()).isEqualTo(0);
+    assertThat(solver.implies(withoutInvariant.asFormula(), invariant)).isFalse();
+    assertThat(solver.implies(withoutInvariant.asFormula(), predicate)).isTrue();
+
+    // abstractions without invariants are reused
+    stats = new PredicateAbstractionStatistics();
+    AbstractionFormula reused = computeAbstraction(TrivialInvariantSupplier.INSTANCE, stats);
+    assertThat(stats.numCallsAbstractionCachedPersistently.get()).isEqualTo(1);
+    assertThat(reused.asFormula()).isEqualTo(withoutInvariant.asFormula());
+  }
+}
@@ -26,6 +26,9 @@ public class PredicateAbstractionStatistics {
   // result was cached, no computation
   final AtomicInteger numCallsAbstractionCached = new AtomicInteger(0);
 
+  // result was read from the persistent cache of a previous run (included in the above)
+  final AtomicInteger numCallsAbstractionCachedPersistently = new AtomicInteger(0);
+
   // loop was cached, no new computation
   final AtomicInteger numInductivePathFormulaCacheUsed = new AtomicInteger(0);
 
@@ -38,10 +41,16 @@ public class PredicateAbstractionStatistics {
   final AtomicInteger numCartesianAbsPredicatesCached = new AtomicInteger(0);
   final AtomicInteger numBooleanAbsPredicates = new AtomicInteger(0);
 
+  // conjuncts of abstracted formulas that were already on the reused solver stack
+  final AtomicInteger numReusedStackConjuncts = new AtomicInteger(0);
+  final AtomicInteger numPushedStackConjuncts = new AtomicInteger(0);
+
   final ThreadSafeTimerContainer abstractionReuseTime =
       new ThreadSafeTimerContainer("Abstraction reuse");
   final ThreadSafeTimerContainer abstractionReuseImplicationTime =
       new ThreadSafeTimerContainer("Time for checking reusability of abstractions");
+  final ThreadSafeTimerContainer persistentCacheTime =
+      new ThreadSafeTimerContainer("Time for persistent abstraction cache");
   final ThreadSafeTimerContainer trivialPredicatesTime =
       new ThreadSafeTimerContainer("Time for relevant predicate analysis");
   final ThreadSafeTimerContainer inductivePredicatesTime =
@@ -58,6 +67,10 @@ public class PredicateAbstractionStatistics {
   final ThreadSafeTimerContainer abstractionBddConstructionTime =
       new ThreadSafeTimerContainer("Time for BDD construction");
 
+  // popping and pushing the conjuncts on the reused solver stack
+  final ThreadSafeTimerContainer solverStackUpdateTime =
+      new ThreadSafeTimerContainer("Time for updating reused solver stack");
+
   // only the time for solving, not for model enumeration
   final ThreadSafeTimerContainer abstractionSolveTime =
       new ThreadSafeTimerContainer("Time for abstraction solving");
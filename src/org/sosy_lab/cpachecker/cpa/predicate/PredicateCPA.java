@@ -9,10 +9,13 @@
 package org.sosy_lab.cpachecker.cpa.predicate;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.configuration.Configuration;
@@ -26,7 +29,9 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.AnalysisDirection;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier.TrivialInvariantSupplier;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
+import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory.OptionalAnnotation;
 import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
@@ -41,9 +46,11 @@ import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.blocking.BlockedCFAReducer;
 import org.sosy_lab.cpachecker.util.blocking.interfaces.BlockComputer;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
@@ -131,8 +138,13 @@ public class PredicateCPA
   private final PredicateAbstractionManagerOptions abstractionOptions;
   private final WeakeningOptions weakeningOptions;
   private final PredicateAbstractionsStorage abstractionStorage;
+  private final @Nullable PersistentAbstractionCache persistentAbstractionCache;
   private final PredicateAbstractionStatistics abstractionStats =
       new PredicateAbstractionStatistics();
+  private final PredicateAbstractionManager predicateManager;
+
+  /** Objects that use the solver of this CPA (e.g., of refiners), closed before the solver. */
+  private final Deque<AutoCloseable> dependentResources = new ArrayDeque<>();
 
   // path formulas for PCC
   private final Map<PredicateAbstractState, PathFormula> computedPathFormulaePcc = new HashMap<>();
@@ -144,7 +156,8 @@ public class PredicateCPA
       CFA pCfa,
       ShutdownNotifier pShutdownNotifier,
       Specification specification,
-      AggregatedReachedSets pAggregatedReachedSets)
+      AggregatedReachedSets pAggregatedReachedSets,
+      @OptionalAnnotation @Nullable Participant pExchangeParticipant)
       throws InvalidConfigurationException, CPAException, InterruptedException {
     config.inject(this, PredicateCPA.class);
 
@@ -195,7 +208,36 @@ public class PredicateCPA
             logger,
             solver.getFormulaManager(),
             null);
+    if (abstractionOptions.getPersistentCacheFile() != null) {
+      persistentAbstractionCache =
+          new PersistentAbstractionCache(
+              abstractionOptions.getPersistentCacheFile(),
+              "cpa.predicate." + PredicateAbstractionManagerOptions.PERSISTENT_CACHE_OPTION,
+              config,
+              cfa.getMachineModel(),
+              logger,
+              formulaManager);
+    } else {
+      persistentAbstractionCache = null;
+    }
     weakeningOptions = new WeakeningOptions(config);
+    predicateManager =
+        new PredicateAbstractionManager(
+            abstractionManager,
+            pathFormulaManager,
+            solver,
+            abstractionOptions,
+            weakeningOptions,
+            abstractionStorage,
+            persistentAbstractionCache,
+            logger,
+            shutdownNotifier,
+            abstractionStats,
+            invariantsManager.appendToAbstractionFormula()
+                ? invariantsManager
+                : TrivialInvariantSupplier.INSTANCE);
+    // the manager may keep a prover open, which needs to be closed before the solver
+    closeWithCpa(predicateManager);
 
     statistics = new PredicateStatistics();
     options = new PredicateCpaOptions(config);
@@ -213,7 +255,14 @@ public class PredicateCPA
     logger.log(Level.FINEST, "Initial precision is", initialPrecision);
 
     predicateProvider =
-        new PredicateProvider(config, pCfa, logger, formulaManager, getPredicateManager());
+        new PredicateProvider(
+            config,
+            pCfa,
+            logger,
+            formulaManager,
+            getPredicateManager(),
+            pathFormulaManager,
+            pExchangeParticipant);
 
     stats =
         new PredicateCPAStatistics(
@@ -275,19 +324,7 @@ public class PredicateCPA
   }
 
   public PredicateAbstractionManager getPredicateManager() {
-    return new PredicateAbstractionManager(
-        abstractionManager,
-        pathFormulaManager,
-        solver,
-        abstractionOptions,
-        weakeningOptions,
-        abstractionStorage,
-        logger,
-        shutdownNotifier,
-        abstractionStats,
-        invariantsManager.appendToAbstractionFormula()
-            ? invariantsManager
-            : TrivialInvariantSupplier.INSTANCE);
+    return predicateManager;
   }
 
   public PathFormulaManager getPathFormulaManager() {
@@ -343,8 +380,19 @@ public class PredicateCPA
     invariantsManager.collectStatistics(pStatsCollection);
   }
 
+  /** Close the given object when this CPA is closed, before the solver is closed. */
+  void closeWithCpa(AutoCloseable pResource) {
+    dependentResources.push(pResource);
+  }
+
   @Override
   public void close() {
+    while (!dependentResources.isEmpty()) {
+      CPAs.closeIfPossible(dependentResources.pop(), logger);
+    }
+    if (persistentAbstractionCache != null) {
+      persistentAbstractionCache.close();
+    }
     solver.close();
   }
 
@@ -127,9 +127,20 @@ public class PredicateCPARefinerFactory {
     PrefixSelector prefixSelector =
         new PrefixSelector(variableClassification, loopStructure, logger);
 
+    // parallel interpolation is only sound for strategies that use each interpolant separately
+    boolean needsInductiveSequence =
+        !(pRefinementStrategy instanceof PredicateAbstractionRefinementStrategy);
     InterpolationManager interpolationManager =
         new InterpolationManager(
-            pfmgr, solver, loopStructure, variableClassification, config, shutdownNotifier, logger);
+            pfmgr,
+            solver,
+            loopStructure,
+            variableClassification,
+            config,
+            shutdownNotifier,
+            logger,
+            needsInductiveSequence);
+    predicateCpa.closeWithCpa(interpolationManager);
 
     PathChecker pathChecker =
         new PathChecker(config, logger, shutdownNotifier, machineModel, pfmgr, solver);
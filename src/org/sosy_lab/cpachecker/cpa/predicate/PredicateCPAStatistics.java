@@ -253,8 +253,17 @@ class PredicateCPAStatistics implements Statistics {
       out.println("  Times precision was empty:       " + valueWithPercentage(as.numSymbolicAbstractions, as.numCallsAbstraction));
       out.println("  Times precision was {false}:     " + valueWithPercentage(as.numSatCheckAbstractions, as.numCallsAbstraction));
       out.println("  Times result was cached:         " + valueWithPercentage(as.numCallsAbstractionCached, as.numCallsAbstraction));
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println("    From persistent cache:         " + valueWithPercentage(as.numCallsAbstractionCachedPersistently, as.numCallsAbstraction));
+      }
       out.println("  Times cartesian abs was used:    " + valueWithPercentage(as.cartesianAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times boolean abs was used:      " + valueWithPercentage(as.booleanAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
+      if (as.solverStackUpdateTime.getNumberOfIntervals() > 0) {
+        int stackConjuncts = as.numReusedStackConjuncts.get() + as.numPushedStackConjuncts.get();
+        out.println(
+            "  Conjuncts reused on solver stack: "
+                + valueWithPercentage(as.numReusedStackConjuncts, stackConjuncts));
+      }
       out.println("  Times result was 'false':        " + valueWithPercentage(statistics.numAbstractionsFalse.getUpdateCount(), numAbstractions));
       if (as.inductivePredicatesTime.getNumberOfIntervals() > 0) {
         out.println(
@@ -339,6 +348,19 @@ class PredicateCPAStatistics implements Statistics {
       if (as.booleanAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("    Boolean abstraction:             " + as.booleanAbstractionTime);
       }
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println("    Persistent cache:                " + as.persistentCacheTime);
+      }
+      if (as.solverStackUpdateTime.getNumberOfIntervals() > 0) {
+        out.println("    Solver stack update:             " + as.solverStackUpdateTime);
+        // estimated from the average time for pushing a conjunct
+        TimeSpan saved =
+            TimeSpan.ofNanos(
+                as.solverStackUpdateTime.getSumTime().asNanos()
+                    * as.numReusedStackConjuncts.get()
+                    / Math.max(1, as.numPushedStackConjuncts.get()));
+        out.println("    Estimated time saved by reuse:   " + saved.formatAs(SECONDS));
+      }
       if (as.abstractionReuseTime.getNumberOfIntervals() > 0) {
         out.println("    Abstraction reuse:              " + as.abstractionReuseTime);
         out.println("    Abstraction reuse implication:  " + as.abstractionReuseImplicationTime);
@@ -104,14 +104,17 @@ public class PredicateForcedCovering implements ForcedCovering, StatisticsProvid
     @SuppressWarnings("resource")
     PredicateCPA predicateCpa =
         CPAs.retrieveCPAOrFail(pCpa, PredicateCPA.class, PredicateForcedCovering.class);
-    imgr = new InterpolationManager(
-                                                   predicateCpa.getPathFormulaManager(),
-                                                   predicateCpa.getSolver(),
-                                                   predicateCpa.getCfa().getLoopStructure(),
-                                                   predicateCpa.getCfa().getVarClassification(),
-                                                   config,
-                                                   predicateCpa.getShutdownNotifier(),
-                                                   pLogger);
+    // forced covering needs an inductive sequence of interpolants
+    imgr =
+        new InterpolationManager(
+            predicateCpa.getPathFormulaManager(),
+            predicateCpa.getSolver(),
+            predicateCpa.getCfa().getLoopStructure(),
+            predicateCpa.getCfa().getVarClassification(),
+            config,
+            predicateCpa.getShutdownNotifier(),
+            pLogger,
+            true);
     fmgr = predicateCpa.getSolver().getFormulaManager();
     predAbsMgr = predicateCpa.getPredicateManager();
     impact = new ImpactUtility(config, fmgr, predAbsMgr);
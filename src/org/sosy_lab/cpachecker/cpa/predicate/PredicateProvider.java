@@ -11,13 +11,17 @@ package org.sosy_lab.cpachecker.cpa.predicate;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -27,7 +31,12 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.c.CAssumeEdge;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Subscription;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.argReplay.ARGReplayState;
@@ -36,12 +45,15 @@ import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsSt
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.precisionConverter.Converter;
 import org.sosy_lab.cpachecker.util.predicates.precisionConverter.Converter.PrecisionConverter;
 import org.sosy_lab.cpachecker.util.predicates.precisionConverter.FormulaParser;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 
 /**
@@ -63,16 +75,38 @@ public class PredicateProvider {
   private final FormulaManagerView fmgr;
   private final PredicateAbstractionManager predFmgr;
 
+  private final PathFormulaManager pfmgr;
+
   private Multimap<Integer, BooleanFormula> abstractions = null; // lazy initialization
 
-  PredicateProvider(Configuration config, CFA pCfa, LogManager pLogger,
-      FormulaManagerView pFmgr, PredicateAbstractionManager pPredMgr)
-          throws InvalidConfigurationException {
+  /** precision increments of concurrently running value analyses, or null if not exchanged */
+  private final @Nullable Subscription<ImmutableSetMultimap<CFANode, MemoryLocation>>
+      valuePrecisionIncrements;
+
+  private SetMultimap<MemoryLocation, CAssumeEdge> assumeEdgesByVariable = null; // lazy init
+  private final Set<MemoryLocation> exchangedVariables = new HashSet<>();
+  private final SetMultimap<String, AbstractionPredicate> exchangedPredicates =
+      HashMultimap.create();
+
+  PredicateProvider(
+      Configuration config,
+      CFA pCfa,
+      LogManager pLogger,
+      FormulaManagerView pFmgr,
+      PredicateAbstractionManager pPredMgr,
+      PathFormulaManager pPfmgr,
+      @Nullable Participant pExchangeParticipant)
+      throws InvalidConfigurationException {
     config.inject(this);
     cfa = pCfa;
     logger = pLogger;
     fmgr = pFmgr;
     predFmgr = pPredMgr;
+    pfmgr = pPfmgr;
+    valuePrecisionIncrements =
+        pExchangeParticipant == null
+            ? null
+            : pExchangeParticipant.subscribe(ExchangeBus.VALUE_PRECISION_INCREMENTS);
   }
 
   /**
@@ -80,7 +114,8 @@ public class PredicateProvider {
    * received from other source (i.e. file) related to the state.
    * The relation might just be the same location.
    */
-  public Set<AbstractionPredicate> getPredicates(AbstractState pFullState) throws CPATransferException {
+  public Set<AbstractionPredicate> getPredicates(AbstractState pFullState)
+      throws CPATransferException, InterruptedException {
     Set<AbstractionPredicate> result = new HashSet<>();
 
     if (strengthenWithReusedAbstractions) {
@@ -88,6 +123,11 @@ public class PredicateProvider {
       result.addAll(getPredicatesFromAbstractionFromFile(location));
     }
 
+    if (valuePrecisionIncrements != null) {
+      CFANode location = AbstractStates.extractLocation(pFullState);
+      result.addAll(getPredicatesFromValuePrecisionIncrements(location));
+    }
+
     for (ARGReplayState state : AbstractStates.asIterable(pFullState).filter(ARGReplayState.class)) {
       result.addAll(getPredicatesFromState(state));
     }
@@ -125,6 +165,51 @@ public class PredicateProvider {
     return result;
   }
 
+  /**
+   * Receive the precision increments of concurrently running value analyses and derive predicates
+   * from the assumptions of the program over the variables that value analysis found relevant.
+   * Like the function-scoped predicates of {@link PredicateStaticRefiner}, the predicates of an
+   * assumption are used at all locations in the function of the assumption.
+   */
+  private Set<AbstractionPredicate> getPredicatesFromValuePrecisionIncrements(CFANode pLocation)
+      throws CPATransferException, InterruptedException {
+    for (ImmutableSetMultimap<CFANode, MemoryLocation> increment :
+        valuePrecisionIncrements.poll()) {
+      for (MemoryLocation variable : increment.values()) {
+        if (variable.isReference()) {
+          variable = variable.getReferenceStart();
+        }
+        if (exchangedVariables.add(variable)) {
+          for (CAssumeEdge assume : getAssumeEdgesByVariable().get(variable)) {
+            BooleanFormula assumption =
+                pfmgr.makeAnd(pfmgr.makeEmptyPathFormula(), assume).getFormula();
+            exchangedPredicates.putAll(
+                assume.getPredecessor().getFunctionName(),
+                predFmgr.getPredicatesForAtomsOf(assumption));
+          }
+          logger.log(Level.FINEST, "Received relevant variable", variable, "from value analysis");
+        }
+      }
+    }
+    return exchangedPredicates.get(pLocation.getFunctionName());
+  }
+
+  private SetMultimap<MemoryLocation, CAssumeEdge> getAssumeEdgesByVariable() {
+    if (assumeEdgesByVariable == null) { // lazy initialization
+      assumeEdgesByVariable = HashMultimap.create();
+      for (CFANode node : cfa.getAllNodes()) {
+        for (CAssumeEdge assume : CFAUtils.leavingEdges(node).filter(CAssumeEdge.class)) {
+          for (CIdExpression id : CFAUtils.getIdExpressionsOfExpression(assume.getExpression())) {
+            if (id.getDeclaration() != null) {
+              assumeEdgesByVariable.put(MemoryLocation.forDeclaration(id.getDeclaration()), assume);
+            }
+          }
+        }
+      }
+    }
+    return assumeEdgesByVariable;
+  }
+
   private Set<AbstractionPredicate> getPredicatesFromState(ARGReplayState state) {
     Set<AbstractionPredicate> result = new HashSet<>();
     for (ARGState innerState : state.getStates()) {
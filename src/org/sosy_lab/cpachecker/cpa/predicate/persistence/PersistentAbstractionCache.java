@@ -0,0 +1,293 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.LINE_JOINER;
+import static org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.LINE_SPLITTER;
+import static org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.splitFormula;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * A cache for predicate abstractions that is stored in a file and reused by later runs of
+ * CPAchecker, e.g., when re-verifying slightly changed revisions of the same program.
+ *
+ * <p>The key of an abstraction is a hash of the abstraction method, of the SMT-LIB2 representation
+ * of the formula that is abstracted, and of the set of predicates. The representation is
+ * independent of the order of declarations and predicates. The cached value is the
+ * (uninstantiated) abstraction formula in SMT-LIB2 format. Callers must only store abstractions
+ * that are determined by the key, e.g., no abstractions that were strengthened with invariants
+ * that another run might not have.
+ *
+ * <p>The file starts with a fingerprint of the machine model and of all options that influence
+ * the formula encoding. If the fingerprint does not match the current run, the file is
+ * discarded. New entries are appended to the file immediately, such that they are available for
+ * later runs even if the current run is terminated. The file format is similar to the one of
+ * {@link PredicateAbstractionsWriter}: each entry consists of a header line with the key,
+ * followed by the declarations and one assertion.
+ */
+public class PersistentAbstractionCache implements AutoCloseable {
+
+  private static final String FINGERPRINT_PREFIX = "// fingerprint: ";
+  private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]+:$");
+
+  /** Prefixes of the options that are relevant for the fingerprint of a cache file. */
+  private static final String[] RELEVANT_OPTION_PREFIXES = {
+    "cpa.predicate.", "cpa.slicing.", "solver."
+  };
+
+  private final Path file;
+  private final String optionName;
+  private final LogManager logger;
+  private final FormulaManagerView fmgr;
+
+  /** Cached abstractions by key, in SMT-LIB2 format. */
+  private final Map<String, String> entries = new HashMap<>();
+
+  private @Nullable Writer writer;
+
+  /**
+   * Create a cache that is stored in the given file, and read the existing entries from the file.
+   *
+   * @param pFile the file with the cache, which is created if it does not exist
+   * @param pOptionName the name of the option that specifies the file, which is not relevant for
+   *     the fingerprint
+   */
+  public PersistentAbstractionCache(
+      Path pFile,
+      String pOptionName,
+      Configuration pConfig,
+      MachineModel pMachineModel,
+      LogManager pLogger,
+      FormulaManagerView pFmgr) {
+    file = pFile;
+    optionName = pOptionName;
+    logger = pLogger;
+    fmgr = pFmgr;
+
+    String fingerprint = computeFingerprint(pConfig, pMachineModel);
+    boolean valid = false;
+    if (Files.exists(file)) {
+      try {
+        valid = readEntries(fingerprint);
+      } catch (IOException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not read persistent abstraction cache, ignoring it");
+      }
+      if (!valid) {
+        logger.log(
+            Level.INFO,
+            "Persistent abstraction cache",
+            file,
+            "was created for a different machine model or different options, discarding it.");
+        entries.clear();
+      }
+    }
+
+    try {
+      if (valid) {
+        writer = Files.newBufferedWriter(file, UTF_8, StandardOpenOption.APPEND);
+      } else {
+        if (file.getParent() != null) {
+          Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, UTF_8);
+        writer.append("// Predicate abstraction cache of CPAchecker\n");
+        writer.append(FINGERPRINT_PREFIX).append(fingerprint).append("\n\n");
+        writer.flush();
+      }
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write persistent abstraction cache, new entries are lost");
+      writer = null;
+    }
+    logger.log(
+        Level.FINE, "Read", entries.size(), "entries from persistent abstraction cache", file);
+  }
+
+  private String computeFingerprint(Configuration pConfig, MachineModel pMachineModel) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pMachineModel.name(), UTF_8).putChar('\n');
+    for (String option : new TreeSet<>(LINE_SPLITTER.splitToList(pConfig.asPropertiesString()))) {
+      if (option.startsWith(optionName + " ")) {
+        continue;
+      }
+      for (String prefix : RELEVANT_OPTION_PREFIXES) {
+        if (option.startsWith(prefix)) {
+          hasher.putString(option, UTF_8).putChar('\n');
+          break;
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Read all entries from the file.
+   *
+   * @return whether the file has the given fingerprint
+   */
+  private boolean readEntries(String pFingerprint) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      String currentLine;
+      String currentKey = null;
+      StringBuilder currentValue = new StringBuilder();
+      boolean fingerprintFound = false;
+
+      while ((currentLine = reader.readLine()) != null) {
+        currentLine = currentLine.trim();
+
+        if (currentLine.startsWith(FINGERPRINT_PREFIX)) {
+          if (!currentLine.substring(FINGERPRINT_PREFIX.length()).equals(pFingerprint)) {
+            return false;
+          }
+          fingerprintFound = true;
+
+        } else if (currentLine.isEmpty() || currentLine.startsWith("//")) {
+          continue;
+
+        } else if (currentKey == null) {
+          if (!fingerprintFound || !KEY_PATTERN.matcher(currentLine).matches()) {
+            return false;
+          }
+          currentKey = currentLine.substring(0, currentLine.length() - 1);
+
+        } else {
+          currentValue.append(currentLine).append('\n');
+          if (currentLine.startsWith("(assert ")) {
+            entries.put(currentKey, currentValue.toString());
+            currentKey = null;
+            currentValue.setLength(0);
+          }
+        }
+      }
+      // an incomplete last entry (e.g., from a run that was killed) is ignored
+      return fingerprintFound;
+    }
+  }
+
+  /**
+   * Compute the key for the abstraction of the given formula with the given predicates.
+   *
+   * @param pAbstractionMethod a description of how the abstraction is computed, e.g., the
+   *     abstraction type, such that abstractions computed differently get different keys
+   * @param pFormula the formula to be abstracted
+   * @param pPredicates the atoms of the predicates, instantiated like the formula
+   */
+  public String computeKey(
+      String pAbstractionMethod,
+      BooleanFormula pFormula,
+      Collection<BooleanFormula> pPredicates) {
+    Set<String> declarations = new TreeSet<>();
+    Pair<String, List<String>> formula = splitFormula(fmgr, pFormula);
+    declarations.addAll(formula.getSecond());
+
+    Set<String> predicates = new TreeSet<>();
+    for (BooleanFormula predicate : pPredicates) {
+      Pair<String, List<String>> p = splitFormula(fmgr, predicate);
+      declarations.addAll(p.getSecond());
+      predicates.add(p.getFirst());
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(pAbstractionMethod, UTF_8).putChar('\n').putChar('\n');
+    for (String declaration : declarations) {
+      hasher.putString(declaration, UTF_8).putChar('\n');
+    }
+    hasher.putChar('\n').putString(formula.getFirst(), UTF_8).putChar('\n').putChar('\n');
+    for (String predicate : predicates) {
+      hasher.putString(predicate, UTF_8).putChar('\n');
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Return the cached abstraction for the given key as uninstantiated formula, or null if there
+   * is none.
+   */
+  public synchronized @Nullable BooleanFormula get(String pKey) {
+    String value = entries.get(pKey);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return fmgr.parse(value);
+    } catch (IllegalArgumentException e) {
+      logger.logDebugException(e, "Could not parse entry of persistent abstraction cache");
+      entries.remove(pKey);
+      return null;
+    }
+  }
+
+  /** Store the given uninstantiated abstraction formula for the given key. */
+  public synchronized void put(String pKey, BooleanFormula pAbstraction) {
+    Pair<String, List<String>> p = splitFormula(fmgr, pAbstraction);
+    StringBuilder value = new StringBuilder();
+    LINE_JOINER.appendTo(value, p.getSecond());
+    if (!p.getSecond().isEmpty()) {
+      value.append('\n');
+    }
+    value.append(p.getFirst()).append('\n');
+
+    if (entries.put(pKey, value.toString()) != null || writer == null) {
+      return;
+    }
+    try {
+      writer.append(pKey).append(":\n").append(value).append('\n');
+      writer.flush();
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write persistent abstraction cache, new entries are lost");
+      closeWriter();
+    }
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized void close() {
+    closeWriter();
+  }
+
+  private void closeWriter() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write persistent abstraction cache");
+      }
+      writer = null;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+/** Unit tests for {@link PersistentAbstractionCache}. */
+public class PersistentAbstractionCacheTest extends SolverViewBasedTest0 {
+
+  private static final String OPTION = "cpa.predicate.abs.persistentCache";
+  private static final String METHOD = "BOOLEAN";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path file;
+  private BooleanFormula blockFormula;
+  private ImmutableList<BooleanFormula> predicates;
+  private BooleanFormula abstraction;
+
+  @Before
+  public void setUp() throws IOException {
+    file = tempFolder.getRoot().toPath().resolve("abstractions.smt2");
+
+    IntegerFormula x = imgrv.makeVariable("x");
+    IntegerFormula y = imgrv.makeVariable("y");
+    blockFormula = bmgrv.and(imgrv.equal(x, imgrv.makeNumber(1)), imgrv.equal(y, x));
+    predicates =
+        ImmutableList.of(
+            imgrv.lessThan(x, imgrv.makeNumber(5)), imgrv.greaterThan(y, imgrv.makeNumber(0)));
+    abstraction = bmgrv.and(predicates);
+  }
+
+  private PersistentAbstractionCache createCache(Configuration pConfig, MachineModel pMachine) {
+    return new PersistentAbstractionCache(
+        file, OPTION, pConfig, pMachine, LogManager.createTestLogManager(), mgrv);
+  }
+
+  @Test
+  public void testKeyIsIndependentOfOrder() {
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      assertThat(cache.computeKey(METHOD, blockFormula, predicates))
+          .isEqualTo(cache.computeKey(METHOD, blockFormula, predicates.reverse()));
+      assertThat(cache.computeKey(METHOD, blockFormula, predicates))
+          .isNotEqualTo(cache.computeKey(METHOD, blockFormula, predicates.subList(0, 1)));
+    }
+  }
+
+  @Test
+  public void testKeyDependsOnAbstractionMethod() {
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      assertThat(cache.computeKey(METHOD, blockFormula, predicates))
+          .isNotEqualTo(cache.computeKey("ELIMINATION", blockFormula, predicates));
+      assertThat(cache.computeKey(METHOD, blockFormula, predicates))
+          .isNotEqualTo(cache.computeKey("CARTESIAN_BY_WEAKENING", blockFormula, predicates));
+    }
+  }
+
+  @Test
+  public void testReuseAcrossRuns() {
+    String key;
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      key = cache.computeKey(METHOD, blockFormula, predicates);
+      assertThat(cache.get(key)).isNull();
+      cache.put(key, abstraction);
+    }
+
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.get(key)).isEqualTo(abstraction);
+    }
+  }
+
+  @Test
+  public void testInvalidation() throws InvalidConfigurationException {
+    String key;
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      key = cache.computeKey(METHOD, blockFormula, predicates);
+      cache.put(key, abstraction);
+    }
+
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX64)) {
+      assertThat(cache.get(key)).isNull();
+    }
+
+    Configuration otherConfig =
+        Configuration.builder()
+            .copyFrom(config)
+            .setOption("cpa.predicate.handlePointerAliasing", "false")
+            .build();
+    try (PersistentAbstractionCache cache = createCache(otherConfig, MachineModel.LINUX64)) {
+      assertThat(cache.get(key)).isNull();
+    }
+
+    // the cache file itself is not relevant
+    Configuration sameConfig =
+        Configuration.builder().copyFrom(config).setOption(OPTION, "other.smt2").build();
+    try (PersistentAbstractionCache cache = createCache(config, MachineModel.LINUX32)) {
+      cache.put(key, abstraction);
+    }
+    try (PersistentAbstractionCache cache = createCache(sameConfig, MachineModel.LINUX32)) {
+      assertThat(cache.get(key)).isEqualTo(abstraction);
+    }
+  }
+}
@@ -25,8 +25,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
-import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
-import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.NodeTranslatingObjectInputStream;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
 public class ReachingDefState implements AbstractState, Serializable,
@@ -417,10 +416,9 @@ public class ReachingDefState implements AbstractState, Serializable,
     @SuppressWarnings("UnusedVariable") // parameter is required by API
     private void readObject(java.io.ObjectInputStream in) throws IOException {
       int nodeNumber = in.readInt();
-      CFAInfo cfaInfo = GlobalInfo.getInstance().getCFAInfo().orElseThrow();
-      entry = cfaInfo.getNodeByNodeNumber(nodeNumber);
+      entry = NodeTranslatingObjectInputStream.getNodeByNodeNumber(in, nodeNumber);
       nodeNumber = in.readInt();
-      exit = cfaInfo.getNodeByNodeNumber(nodeNumber);
+      exit = NodeTranslatingObjectInputStream.getNodeByNodeNumber(in, nodeNumber);
     }
 
   }
@@ -1491,6 +1491,11 @@ public class SMGState implements UnmodifiableSMGState, AbstractQueryableState, G
     }
 
     if (options.isHeapAbstractionEnabled()) {
+      if (!SMGJoin.mayBeEqualOrRightEntail(heap, reachedState.getHeap())) {
+        SMGIsLessOrEqual.decidedByFingerprint.inc();
+        return false;
+      }
+
       SMGJoin join = new SMGJoin(heap, reachedState.getHeap(), this, reachedState);
 
       if (!join.isDefined()) {
@@ -28,6 +28,7 @@ public class SMGStatistics implements Statistics {
     put(pOut, 1, SMGIsLessOrEqual.globalsTimer);
     put(pOut, 1, SMGIsLessOrEqual.stackTimer);
     put(pOut, 1, SMGIsLessOrEqual.heapTimer);
+    put(pOut, 0, SMGIsLessOrEqual.decidedByFingerprint);
     put(pOut, 0, abstractions);
     put(pOut, 0, totalAbstraction);
   }
@@ -28,6 +28,7 @@ import org.sosy_lab.common.collect.PersistentMap;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.cpa.smg.CLangStackFrame;
 import org.sosy_lab.cpachecker.cpa.smg.SMGStateInformation;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.edge.SMGEdgeHasValue;
@@ -66,6 +67,15 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
    */
   private PersistentMap<String, SMGRegion> global_objects;
 
+  /*
+   * Fingerprints of the structure of the SMG, see the getters for details. They are updated
+   * together with the containers above and allow to compare two SMGs in constant time.
+   */
+  private int stackFingerprint = 1;
+  private int heapFingerprint;
+  /** 0 if it needs to be recomputed */
+  private long globalsFingerprint = 0;
+
   /** logger is always NULL, except for JUnit-tests */
   private static LogManager logger = null;
 
@@ -99,6 +109,7 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
     global_objects = PathCopyingPersistentTreeMap.of();
     heap_objects = PersistentSet.of();
     heap_objects = heap_objects.addAndCopy(SMGNullObject.INSTANCE);
+    heapFingerprint = heapFingerprintOf(SMGNullObject.INSTANCE);
   }
 
   /**
@@ -114,6 +125,9 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
     stack_objects = pHeap.stack_objects;
     heap_objects = pHeap.heap_objects;
     global_objects = pHeap.global_objects;
+    stackFingerprint = pHeap.stackFingerprint;
+    heapFingerprint = pHeap.heapFingerprint;
+    globalsFingerprint = pHeap.globalsFingerprint;
   }
 
   @Override
@@ -135,6 +149,9 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
     if (CLangSMG.performChecks() && heap_objects.contains(pObject)) {
       throw new IllegalArgumentException("Heap object already in the SMG: [" + pObject + "]");
     }
+    if (!heap_objects.contains(pObject)) {
+      heapFingerprint += heapFingerprintOf(pObject);
+    }
     heap_objects = heap_objects.addAndCopy(pObject);
     addObject(pObject);
   }
@@ -161,6 +178,7 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
     }
 
     global_objects = global_objects.putAndCopy(pObject.getLabel(), pObject);
+    addToGlobalsFingerprint(pObject.getLabel());
     super.addObject(pObject);
   }
 
@@ -202,6 +220,7 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
       super.addObject(newFrame.getReturnObject());
     }
     stack_objects = stack_objects.pushAndCopy(newFrame);
+    stackFingerprint = 31 * stackFingerprint + pFunctionDeclaration.getOrigName().hashCode();
   }
 
   /**
@@ -217,6 +236,11 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
   public void dropStackFrame() {
     CLangStackFrame frame = stack_objects.peek();
     stack_objects = stack_objects.popAndCopy();
+    stackFingerprint = 1;
+    for (CLangStackFrame remainingFrame : stack_objects) {
+      stackFingerprint =
+          31 * stackFingerprint + remainingFrame.getFunctionDeclaration().getOrigName().hashCode();
+    }
     for (SMGObject object : frame.getAllObjects()) {
       markObjectDeletedAndRemoveEdges(object);
     }
@@ -438,6 +462,58 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
     return global_objects;
   }
 
+  /**
+   * Constant.
+   *
+   * @return a hash of the sequence of function names on the stack, i.e., SMGs with stacks of the
+   *     same size, but different fingerprints, have different functions on their stacks.
+   */
+  @Override
+  public int getStackFingerprint() {
+    return stackFingerprint;
+  }
+
+  /**
+   * Constant.
+   *
+   * @return a hash of the set of heap objects (which are identified by their ids), i.e., SMGs with
+   *     different fingerprints have different heap objects.
+   */
+  @Override
+  public int getHeapFingerprint() {
+    return heapFingerprint;
+  }
+
+  /**
+   * Constant.
+   *
+   * @return a set of bits with (at least) one bit for each name of a global variable, i.e., if the
+   *     globals of one SMG are a subset of the globals of another SMG, the bits of the first
+   *     fingerprint are also a subset of the bits of the second fingerprint.
+   */
+  @Override
+  public long getGlobalsFingerprint() {
+    if (globalsFingerprint == 0) {
+      long fingerprint = 1; // bit 0 marks the fingerprint as computed
+      for (String globalVar : global_objects.keySet()) {
+        fingerprint |= AbstractStateWithCoverageSignature.signatureBit(globalVar);
+      }
+      globalsFingerprint = fingerprint;
+    }
+    return globalsFingerprint;
+  }
+
+  private void addToGlobalsFingerprint(String pGlobalVar) {
+    if (globalsFingerprint != 0) {
+      globalsFingerprint |= AbstractStateWithCoverageSignature.signatureBit(pGlobalVar);
+    }
+  }
+
+  private static int heapFingerprintOf(SMGObject pObject) {
+    // the heap is a sorted set based on the ids of the objects
+    return pObject.getId() * 0x9E3779B9;
+  }
+
   /**
    * Constant.
    *
@@ -459,6 +535,9 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
   }
 
   public final void markHeapObjectDeletedAndRemoveEdges(SMGObject pObject) {
+    if (heap_objects.contains(pObject)) {
+      heapFingerprint -= heapFingerprintOf(pObject);
+    }
     heap_objects = heap_objects.removeAndCopy(pObject);
     markObjectDeletedAndRemoveEdges(pObject);
   }
@@ -604,6 +683,7 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
   @Override
   public void clearObjects() {
     global_objects = PathCopyingPersistentTreeMap.of();
+    globalsFingerprint = 0;
     heap_objects = PersistentSet.of();
     super.clearObjects();
 
@@ -622,12 +702,14 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
 
     /*May not remove null object.*/
     heap_objects = heap_objects.addAndCopy(SMGNullObject.INSTANCE);
+    heapFingerprint = heapFingerprintOf(SMGNullObject.INSTANCE);
   }
 
   public void removeGlobalVariableAndEdges(String pVariable) {
     SMGObject obj = global_objects.get(pVariable);
     if (obj != null) {
       global_objects = global_objects.removeAndCopy(pVariable);
+      globalsFingerprint = 0;
       markObjectDeletedAndRemoveEdges(obj);
     }
   }
@@ -750,6 +832,7 @@ public class CLangSMG extends SMG implements UnmodifiableCLangSMG {
       }
     } else {
       global_objects = global_objects.putAndCopy(pRegion.getLabel(), pRegion);
+      addToGlobalsFingerprint(pRegion.getLabel());
     }
 
     addObject(pRegion, pInfo.isValid(), pInfo.isExternal());
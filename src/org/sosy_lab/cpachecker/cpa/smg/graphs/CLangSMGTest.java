@@ -300,6 +300,36 @@ public class CLangSMGTest {
     assertThat(smg.getGlobalObjects()).hasSize(3);
   }
 
+  @Test
+  public void CLangSMGFingerprintTest() {
+    CLangSMG smg1 = getNewCLangSMG64();
+    CLangSMG smg2 = getNewCLangSMG64();
+    SMGRegion heap1 = new SMGRegion(64, "heap1");
+    SMGRegion heap2 = new SMGRegion(64, "heap2");
+
+    smg1.addHeapObject(heap1);
+    smg2.addHeapObject(heap2);
+    assertThat(smg1.getHeapFingerprint()).isNotEqualTo(smg2.getHeapFingerprint());
+    smg1.addHeapObject(heap2);
+    smg1.markHeapObjectDeletedAndRemoveEdges(heap1);
+    smg1.markHeapObjectDeletedAndRemoveEdges(heap1); // not on the heap anymore
+    assertThat(smg1.getHeapFingerprint()).isEqualTo(smg2.getHeapFingerprint());
+
+    smg1.addGlobalObject(new SMGRegion(64, "global1"));
+    long globals = smg1.getGlobalsFingerprint();
+    smg1.addGlobalObject(new SMGRegion(64, "global2"));
+    assertThat(smg1.getGlobalsFingerprint() & globals).isEqualTo(globals);
+    smg1.removeGlobalVariableAndEdges("global2");
+    assertThat(smg1.getGlobalsFingerprint()).isEqualTo(globals);
+
+    CLangSMG copy = smg1.copyOf();
+    smg1.addStackFrame(sf.getFunctionDeclaration());
+    assertThat(smg1.getStackFingerprint()).isNotEqualTo(copy.getStackFingerprint());
+    smg1.dropStackFrame();
+    assertThat(smg1.getStackFingerprint()).isEqualTo(copy.getStackFingerprint());
+    assertThat(copy.getHeapFingerprint()).isEqualTo(smg1.getHeapFingerprint());
+  }
+
   @Test
   public void consistencyViolationDisjunctnessTest() {
     CLangSMG smg = getNewCLangSMG64();
@@ -44,6 +44,21 @@ public interface UnmodifiableCLangSMG extends UnmodifiableSMG {
 
   PersistentMap<String, SMGRegion> getGlobalObjects();
 
+  /**
+   * The following fingerprints are maintained together with the stack, heap, and global objects,
+   * and allow to detect in constant time that two SMGs differ in these objects.
+   */
+  int getStackFingerprint();
+
+  /** Returns a fingerprint of the heap objects, see {@link #getStackFingerprint()}. */
+  int getHeapFingerprint();
+
+  /**
+   * Returns a fingerprint of the names of global objects, see {@link #getStackFingerprint()}. The
+   * fingerprint of a subset of these names is a subset of the bits of this fingerprint.
+   */
+  long getGlobalsFingerprint();
+
   /**
    * return the FunctionReturn-object for the most recent function call, i.e., from the top-level
    * stackframe.
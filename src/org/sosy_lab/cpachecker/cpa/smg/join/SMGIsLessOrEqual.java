@@ -25,6 +25,7 @@ import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGObject;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.object.SMGRegion;
 import org.sosy_lab.cpachecker.cpa.smg.graphs.value.SMGValue;
 import org.sosy_lab.cpachecker.cpa.smg.util.PersistentSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
@@ -44,6 +45,8 @@ public class SMGIsLessOrEqual {
       new ThreadSafeTimerContainer("Time for joining stacks");
   public static final ThreadSafeTimerContainer heapTimer =
       new ThreadSafeTimerContainer("Time for joining heaps");
+  public static final StatCounter decidedByFingerprint =
+      new StatCounter("Number of SMG comparisons decided by fingerprints");
 
   private SMGIsLessOrEqual() {} // Utility class.
 
@@ -63,6 +66,13 @@ public class SMGIsLessOrEqual {
         return true;
       }
 
+      // if both SMGs share all their components (e.g., because one is an unmodified copy of the
+      // other), they are equal
+      if (haveSameComponents(pSMG1, pSMG2)) {
+        decidedByFingerprint.inc();
+        return true;
+      }
+
       // if smg1 has not allocated the same number of SMGObjects in the heap, it is not equal to smg2
       if (pSMG1.getHeapObjects().size() != pSMG2.getHeapObjects().size()) {
         return false;
@@ -72,6 +82,15 @@ public class SMGIsLessOrEqual {
         return false;
       }
 
+      // the checks below require the same heap objects, the same functions on the stack,
+      // and the globals of smg1 to be a subset of the globals of smg2
+      if (pSMG1.getHeapFingerprint() != pSMG2.getHeapFingerprint()
+          || pSMG1.getStackFingerprint() != pSMG2.getStackFingerprint()
+          || (pSMG1.getGlobalsFingerprint() & ~pSMG2.getGlobalsFingerprint()) != 0) {
+        decidedByFingerprint.inc();
+        return false;
+      }
+
       TimerWrapper gt = globalsTimer.getNewTimer();
       gt.start();
       try {
@@ -109,6 +128,22 @@ public class SMGIsLessOrEqual {
     }
   }
 
+  /**
+   * returns whether the two SMGs have identical (not only equal) sets of objects, values, and
+   * edges. This check is cheap and never needs to traverse the SMGs.
+   */
+  private static boolean haveSameComponents(
+      UnmodifiableCLangSMG pSMG1, UnmodifiableCLangSMG pSMG2) {
+    return pSMG1.getHVEdges() == pSMG2.getHVEdges()
+        && pSMG1.getPTEdges() == pSMG2.getPTEdges()
+        && pSMG1.getObjects() == pSMG2.getObjects()
+        && pSMG1.getValidObjects() == pSMG2.getValidObjects()
+        && pSMG1.getValues() == pSMG2.getValues()
+        && pSMG1.getHeapObjects() == pSMG2.getHeapObjects()
+        && pSMG1.getGlobalObjects() == pSMG2.getGlobalObjects()
+        && pSMG1.getStackFrames() == pSMG2.getStackFrames();
+  }
+
   /** returns whether globals variables are "maybe LEQ" or "definitely not LEQ". */
   private static boolean maybeGlobalsLessOrEqual(
       UnmodifiableCLangSMG pSMG1, UnmodifiableCLangSMG pSMG2) {
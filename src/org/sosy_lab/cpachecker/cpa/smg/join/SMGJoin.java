@@ -153,6 +153,24 @@ public final class SMGJoin {
     }
   }
 
+  /**
+   * Returns whether the join of the two SMGs can have the status {@link SMGJoinStatus#EQUAL} or
+   * {@link SMGJoinStatus#RIGHT_ENTAIL}. This check only uses the fingerprints of the SMGs and never
+   * joins them, i.e., if it returns true, the join might still have another status.
+   *
+   * <p>The join has another status if the globals of the first SMG are not a subset of the globals
+   * of the second SMG, or if stacks of the same size have different functions on them (cf. {@link
+   * #joinGlobalVariables} and {@link #joinStackVariables}).
+   */
+  public static boolean mayBeEqualOrRightEntail(
+      UnmodifiableCLangSMG opSMG1, UnmodifiableCLangSMG opSMG2) {
+    if ((opSMG1.getGlobalsFingerprint() & ~opSMG2.getGlobalsFingerprint()) != 0) {
+      return false;
+    }
+    return opSMG1.getStackFrames().size() != opSMG2.getStackFrames().size()
+        || opSMG1.getStackFingerprint() == opSMG2.getStackFingerprint();
+  }
+
   /**
    * searches for common global variables and copies them over into a new SMG.
    *
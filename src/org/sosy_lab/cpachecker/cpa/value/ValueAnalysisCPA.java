@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -32,8 +33,10 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.counterexample.ConcreteStatePath;
 import org.sosy_lab.cpachecker.core.defaults.AbstractCPA;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
+import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory.OptionalAnnotation;
 import org.sosy_lab.cpachecker.core.defaults.DelegateAbstractDomain;
 import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
@@ -100,6 +103,13 @@ public class ValueAnalysisCPA extends AbstractCPA
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPredicatePrecisionFile = null;
 
+  @Option(
+      secure = true,
+      description =
+          "share the values of equal states at the same location (hash-consing),"
+              + " which makes checking coverage between equal states cheap")
+  private boolean hashConsing = false;
+
   @Option(
       secure = true,
       name = "unknownValueHandling",
@@ -127,17 +137,26 @@ public class ValueAnalysisCPA extends AbstractCPA
   private final ValueTransferOptions transferOptions;
   private final PrecAdjustmentOptions precisionAdjustmentOptions;
   private final PrecAdjustmentStatistics precisionAdjustmentStatistics;
+  private final @Nullable ValueAnalysisStateInterner interner;
   private final PredicateToValuePrecisionConverter predToValPrec;
 
   private SymbolicStatistics symbolicStats;
 
-  private ValueAnalysisCPA(Configuration config, LogManager logger,
-      ShutdownNotifier pShutdownNotifier, CFA cfa) throws InvalidConfigurationException {
+  private final @Nullable Participant exchangeParticipant;
+
+  private ValueAnalysisCPA(
+      Configuration config,
+      LogManager logger,
+      ShutdownNotifier pShutdownNotifier,
+      CFA cfa,
+      @OptionalAnnotation @Nullable Participant pExchangeParticipant)
+      throws InvalidConfigurationException {
     super(DelegateAbstractDomain.<ValueAnalysisState>getInstance(), null);
     this.config           = config;
     this.logger           = logger;
     this.shutdownNotifier = pShutdownNotifier;
     this.cfa              = cfa;
+    exchangeParticipant = pExchangeParticipant;
 
     config.inject(this, ValueAnalysisCPA.class);
 
@@ -155,6 +174,10 @@ public class ValueAnalysisCPA extends AbstractCPA
     transferOptions = new ValueTransferOptions(config);
     precisionAdjustmentOptions = new PrecAdjustmentOptions(config, cfa);
     precisionAdjustmentStatistics = new PrecAdjustmentStatistics();
+    interner =
+        hashConsing
+            ? new ValueAnalysisStateInterner(precisionAdjustmentStatistics.sharedStates)
+            : null;
   }
 
   private MemoryLocationValueHandler createUnknownValueHandler()
@@ -292,7 +315,7 @@ public class ValueAnalysisCPA extends AbstractCPA
           Preconditions.checkNotNull(symbolicStats));
     } else {
       return new ValueAnalysisPrecisionAdjustment(
-          statistics, cfa, precisionAdjustmentOptions, precisionAdjustmentStatistics);
+          statistics, cfa, precisionAdjustmentOptions, precisionAdjustmentStatistics, interner);
     }
   }
 
@@ -312,6 +335,14 @@ public class ValueAnalysisCPA extends AbstractCPA
     return cfa;
   }
 
+  /**
+   * Return the participant of the exchange with concurrently running analyses, or null if no
+   * information is exchanged.
+   */
+  public @Nullable Participant getExchangeParticipant() {
+    return exchangeParticipant;
+  }
+
   @Override
   public Reducer getReducer() {
     return new ValueAnalysisReducer();
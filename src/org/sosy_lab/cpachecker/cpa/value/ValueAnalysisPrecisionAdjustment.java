@@ -16,6 +16,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.PrintStream;
 import java.util.Map.Entry;
 import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -142,6 +143,7 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
   public static class PrecAdjustmentStatistics implements Statistics {
 
     final StatCounter abstractions = new StatCounter("Number of abstraction computations");
+    final StatCounter sharedStates = new StatCounter("Number of hash-consed states");
     private final ThreadSafeTimerContainer totalLivenessTimer =
         new ThreadSafeTimerContainer("Total time for liveness abstraction");
     private final ThreadSafeTimerContainer totalAbstractionTimer =
@@ -156,6 +158,7 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
       writer.put(totalLivenessTimer);
       writer.put(totalAbstractionTimer);
       writer.put(totalEnforcePathTimer);
+      writer.putIfUpdatedAtLeastOnce(sharedStates);
     }
 
     @Override
@@ -167,6 +170,7 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
   private final ValueAnalysisCPAStatistics stats;
   private final PrecAdjustmentOptions options;
   private final Optional<LiveVariables> liveVariables;
+  private final @Nullable ValueAnalysisStateInterner interner;
 
   // for statistics
   private final StatCounter abstractions;
@@ -182,10 +186,20 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
       final CFA pCfa,
       final PrecAdjustmentOptions pOptions,
       final PrecAdjustmentStatistics pStatistics) {
+    this(pStats, pCfa, pOptions, pStatistics, null);
+  }
+
+  ValueAnalysisPrecisionAdjustment(
+      final ValueAnalysisCPAStatistics pStats,
+      final CFA pCfa,
+      final PrecAdjustmentOptions pOptions,
+      final PrecAdjustmentStatistics pStatistics,
+      final @Nullable ValueAnalysisStateInterner pInterner) {
 
     options = pOptions;
     stats = pStats;
     liveVariables = pCfa.getLiveVariables();
+    interner = pInterner;
 
     abstractions = pStatistics.abstractions;
     totalLiveness = pStatistics.totalLivenessTimer.getNewTimer();
@@ -233,6 +247,10 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment {
 
     resultState = resultState.equals(pState) ? pState : resultState;
 
+    if (interner != null) {
+      interner.intern(resultState, location == null ? null : location.getLocationNode());
+    }
+
     return Optional.of(PrecisionAdjustmentResult.create(resultState, pPrecision, Action.CONTINUE));
   }
 
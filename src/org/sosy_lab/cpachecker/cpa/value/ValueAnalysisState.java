@@ -53,6 +53,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cfa.types.c.CTypes;
 import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithCoverageSignature;
 import org.sosy_lab.cpachecker.core.interfaces.ExpressionTreeReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
@@ -85,7 +86,8 @@ import org.sosy_lab.java_smt.api.FormulaType.FloatingPointType;
 public final class ValueAnalysisState
     implements AbstractQueryableState, FormulaReportingState, ExpressionTreeReportingState,
         ForgetfulState<ValueAnalysisInformation>, Serializable, Graphable,
-        LatticeAbstractState<ValueAnalysisState>, PseudoPartitionable {
+        LatticeAbstractState<ValueAnalysisState>, PseudoPartitionable,
+        AbstractStateWithCoverageSignature {
 
   private static final long serialVersionUID = -3152134511524554358L;
 
@@ -108,6 +110,12 @@ public final class ValueAnalysisState
    */
   private int hashCode = 0;
 
+  /**
+   * Signature of the variables in {@link #constantsMap} for {@link #getCoverageSignature()}, or 0
+   * if it needs to be recomputed. Bit 0 is set in every computed signature.
+   */
+  private transient long coverageSignature = 0;
+
   private final @Nullable MachineModel machineModel;
 
   public ValueAnalysisState(MachineModel pMachineModel) {
@@ -134,6 +142,7 @@ public final class ValueAnalysisState
     machineModel = state.machineModel;
     constantsMap = checkNotNull(state.constantsMap);
     hashCode = state.hashCode;
+    coverageSignature = state.coverageSignature;
     assert hashCode == constantsMap.hashCode();
   }
 
@@ -172,6 +181,9 @@ public final class ValueAnalysisState
     }
     constantsMap = constantsMap.putAndCopy(pMemLoc, valueAndType);
     hashCode += (pMemLoc.hashCode() ^ valueAndType.hashCode());
+    if (coverageSignature != 0) {
+      coverageSignature |= AbstractStateWithCoverageSignature.signatureBit(pMemLoc);
+    }
   }
 
   /**
@@ -241,6 +253,7 @@ public final class ValueAnalysisState
     ValueAndType value = constantsMap.get(pMemoryLocation);
     constantsMap = constantsMap.removeAndCopy(pMemoryLocation);
     hashCode -= (pMemoryLocation.hashCode() ^ value.hashCode());
+    coverageSignature = 0;
 
     PersistentMap<MemoryLocation, ValueAndType> valueAssignment = PathCopyingPersistentTreeMap.of();
     valueAssignment = valueAssignment.putAndCopy(pMemoryLocation, value);
@@ -393,6 +406,11 @@ public final class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states with the same map are equal, e.g., if they were hash-consed
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -412,6 +430,9 @@ public final class ValueAnalysisState
       MemoryLocation key = otherEntry.getKey();
       Value otherValue = otherEntry.getValue().getValue();
       ValueAndType thisValueAndType = constantsMap.get(key);
+      if (thisValueAndType == otherEntry.getValue()) {
+        continue; // shared by both maps
+      }
       if (thisValueAndType == null || !otherValue.equals(thisValueAndType.getValue())) {
         return false;
       }
@@ -436,7 +457,34 @@ public final class ValueAnalysisState
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
     // hashCode is used as optimization: about 20% speedup when using many SingletonSets
-    return otherElement.hashCode == hashCode && otherElement.constantsMap.equals(constantsMap);
+    return otherElement.hashCode == hashCode
+        && (otherElement.constantsMap == constantsMap
+            || otherElement.constantsMap.equals(constantsMap));
+  }
+
+  /**
+   * Replace the map of this state by the map of an equal state, such that both states share it
+   * (cf. {@link ValueAnalysisStateInterner}).
+   */
+  void shareValuesWith(ValueAnalysisState pEqualState) {
+    assert equals(pEqualState);
+    constantsMap = pEqualState.constantsMap;
+  }
+
+  /**
+   * The signature contains a bit for each tracked variable, because this state can only be less or
+   * equal than states that track a subset of its variables.
+   */
+  @Override
+  public long getCoverageSignature() {
+    if (coverageSignature == 0) {
+      long signature = 1;
+      for (MemoryLocation memoryLocation : constantsMap.keySet()) {
+        signature |= AbstractStateWithCoverageSignature.signatureBit(memoryLocation);
+      }
+      coverageSignature = signature;
+    }
+    return coverageSignature;
   }
 
   @Override
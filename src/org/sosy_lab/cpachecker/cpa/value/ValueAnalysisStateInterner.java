@@ -0,0 +1,59 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+/**
+ * Hash-consing of {@link ValueAnalysisState}s: equal states at the same program location are made
+ * to share the same map of values, such that comparing them (e.g., in the stop operator) is a
+ * reference comparison instead of a comparison of all values.
+ *
+ * <p>There is one table per location, which contains the first state with each content that was
+ * seen at this location. The lookup uses the cached hash code of the states, so it costs a full
+ * comparison only if an equal state exists (or for hash collisions). The tables reference the
+ * states weakly, so states that are removed from the reached set (e.g., by refinements) do not
+ * leak. The states themselves stay mutable, only their immutable maps are shared.
+ */
+final class ValueAnalysisStateInterner {
+
+  private final ConcurrentMap<CFANode, Interner<ValueAnalysisState>> interners =
+      new ConcurrentHashMap<>();
+
+  /** for states without location */
+  private final Interner<ValueAnalysisState> defaultInterner = Interners.newWeakInterner();
+
+  private final StatCounter sharedStates;
+
+  ValueAnalysisStateInterner(StatCounter pSharedStates) {
+    sharedStates = pSharedStates;
+  }
+
+  /**
+   * Let the given state share its values with an equal state that was seen at the same location
+   * before, or remember it for later states if there is none.
+   */
+  void intern(ValueAnalysisState pState, @Nullable CFANode pLocation) {
+    Interner<ValueAnalysisState> interner =
+        pLocation == null
+            ? defaultInterner
+            : interners.computeIfAbsent(pLocation, node -> Interners.newWeakInterner());
+    ValueAnalysisState canonical = interner.intern(pState);
+    if (canonical != pState) {
+      pState.shareValuesWith(canonical);
+      sharedStates.inc();
+    }
+  }
+}
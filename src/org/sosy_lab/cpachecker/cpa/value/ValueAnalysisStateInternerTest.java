@@ -0,0 +1,64 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+public class ValueAnalysisStateInternerTest {
+
+  private static final MemoryLocation X = MemoryLocation.forIdentifier("x");
+  private static final MemoryLocation Y = MemoryLocation.forIdentifier("y");
+
+  private final StatCounter sharedStates = new StatCounter("shared");
+  private final ValueAnalysisStateInterner interner = new ValueAnalysisStateInterner(sharedStates);
+
+  private static ValueAnalysisState state(long x, long y) {
+    ValueAnalysisState state = new ValueAnalysisState(MachineModel.LINUX32);
+    state.assignConstant(X, new NumericValue(x), CNumericTypes.INT);
+    state.assignConstant(Y, new NumericValue(y), CNumericTypes.INT);
+    return state;
+  }
+
+  @Test
+  public void testEqualStatesAtSameLocation() {
+    CFANode location = CFANode.newDummyCFANode("f");
+    ValueAnalysisState first = state(1, 2);
+    ValueAnalysisState second = state(1, 2);
+    ValueAnalysisState other = state(1, 3);
+    interner.intern(first, location);
+    interner.intern(second, location);
+    interner.intern(other, location);
+
+    assertThat(sharedStates.getValue()).isEqualTo(1);
+    assertThat(second).isEqualTo(first);
+    assertThat(second.isLessOrEqual(first)).isTrue();
+    assertThat(other.isLessOrEqual(first)).isFalse();
+
+    // the states stay independent of each other
+    second.assignConstant(X, new NumericValue(5), CNumericTypes.INT);
+    assertThat(first.getValueFor(X)).isEqualTo(new NumericValue(1L));
+    assertThat(second.isLessOrEqual(first)).isFalse();
+    assertThat(first.isLessOrEqual(second)).isFalse();
+  }
+
+  @Test
+  public void testDifferentLocations() {
+    interner.intern(state(1, 2), CFANode.newDummyCFANode("f"));
+    interner.intern(state(1, 2), CFANode.newDummyCFANode("f"));
+    assertThat(sharedStates.getValue()).isEqualTo(0);
+  }
+}
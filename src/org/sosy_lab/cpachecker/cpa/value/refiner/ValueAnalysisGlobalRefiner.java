@@ -9,6 +9,7 @@
 package org.sosy_lab.cpachecker.cpa.value.refiner;
 
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -16,6 +17,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
 import org.sosy_lab.cpachecker.cpa.arg.ARGBasedRefiner;
@@ -73,7 +75,8 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
         config,
         logger,
         valueAnalysisCpa.getShutdownNotifier(),
-        cfa);
+        cfa,
+        valueAnalysisCpa.getExchangeParticipant());
   }
 
   ValueAnalysisGlobalRefiner(
@@ -83,7 +86,8 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
       final PrefixSelector pPrefixSelector,
       final Configuration pConfig,
       final LogManager pLogger,
-      final ShutdownNotifier pShutdownNotifier, final CFA pCfa
+      final ShutdownNotifier pShutdownNotifier, final CFA pCfa,
+      final @Nullable Participant pExchangeParticipant
   ) throws InvalidConfigurationException {
 
     super(pFeasibilityChecker,
@@ -96,7 +100,8 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
         pConfig,
         pLogger,
         pShutdownNotifier,
-        pCfa);
+        pCfa,
+        pExchangeParticipant);
 
     pConfig.inject(this, ValueAnalysisGlobalRefiner.class);
   }
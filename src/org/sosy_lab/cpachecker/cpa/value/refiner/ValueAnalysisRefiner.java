@@ -15,6 +15,7 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
@@ -33,6 +34,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -41,9 +43,12 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.counterexample.CFAPathWithAssumptions;
 import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus;
+import org.sosy_lab.cpachecker.core.exchange.ExchangeBus.Participant;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Refiner;
@@ -125,6 +130,8 @@ public class ValueAnalysisRefiner
 
   private final ShutdownNotifier shutdownNotifier;
 
+  private final @Nullable Participant exchangeParticipant;
+
   // Statistics
   private final StatCounter rootRelocations = new StatCounter("Number of root relocations");
   private final StatCounter repeatedRefinements = new StatCounter("Number of similar, repeated refinements");
@@ -162,7 +169,8 @@ public class ValueAnalysisRefiner
         config,
         logger,
         valueAnalysisCpa.getShutdownNotifier(),
-        cfa);
+        cfa,
+        valueAnalysisCpa.getExchangeParticipant());
   }
 
   ValueAnalysisRefiner(
@@ -171,7 +179,8 @@ public class ValueAnalysisRefiner
       final PathExtractor pPathExtractor,
       final GenericPrefixProvider<ValueAnalysisState> pPrefixProvider,
       final Configuration pConfig, final LogManager pLogger,
-      final ShutdownNotifier pShutdownNotifier, final CFA pCfa)
+      final ShutdownNotifier pShutdownNotifier, final CFA pCfa,
+      final @Nullable Participant pExchangeParticipant)
       throws InvalidConfigurationException {
 
     super(pFeasibilityChecker,
@@ -189,6 +198,7 @@ public class ValueAnalysisRefiner
     checker = pFeasibilityChecker;
     concreteErrorPathAllocator = new ValueAnalysisConcreteErrorPathAllocator(pConfig, logger, pCfa.getMachineModel());
     shutdownNotifier = pShutdownNotifier;
+    exchangeParticipant = pExchangeParticipant;
   }
 
   @Override
@@ -243,6 +253,10 @@ public class ValueAnalysisRefiner
       refinementInformation.put(root, precisions);
     }
 
+    if (exchangeParticipant != null) {
+      publishPrecisionIncrement(pInterpolationTree, refinementInformation.keySet());
+    }
+
     for (Entry<ARGState, List<Precision>> info : refinementInformation.entrySet()) {
       shutdownNotifier.shutdownIfNecessary();
       List<Predicate<? super Precision>> precisionTypes = new ArrayList<>(2);
@@ -256,6 +270,24 @@ public class ValueAnalysisRefiner
     }
   }
 
+  /**
+   * Publish the precision increment of this refinement, such that concurrently running analyses
+   * (e.g., predicate analysis) can also track the relevant variables.
+   */
+  private void publishPrecisionIncrement(
+      final InterpolationTree<ValueAnalysisState, ValueAnalysisInterpolant> pInterpolationTree,
+      final Collection<ARGState> pRefinementRoots) {
+    ImmutableSetMultimap.Builder<CFANode, MemoryLocation> increment =
+        ImmutableSetMultimap.builder();
+    for (ARGState root : pRefinementRoots) {
+      increment.putAll(pInterpolationTree.extractPrecisionIncrement(root));
+    }
+    ImmutableSetMultimap<CFANode, MemoryLocation> message = increment.build();
+    if (!message.isEmpty()) {
+      exchangeParticipant.publish(ExchangeBus.VALUE_PRECISION_INCREMENTS, message);
+    }
+  }
+
   private boolean isPredicatePrecisionAvailable(final UnmodifiableReachedSet pReached) {
     return Precisions.extractPrecisionByType(
             pReached.getPrecision(pReached.getFirstState()), PredicatePrecision.class)
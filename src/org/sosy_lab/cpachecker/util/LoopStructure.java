@@ -475,6 +475,26 @@ public final class LoopStructure implements Serializable {
     return new LoopStructure(loops.build());
   }
 
+  /**
+   * Build loop-structure information for a CFA like {@link #getLoopStructure(MutableCFA)}, but
+   * search for loops in several functions concurrently. The result is the same.
+   */
+  public static LoopStructure getLoopStructure(MutableCFA cfa, ParallelMapper mapper)
+      throws ParserException, InterruptedException {
+    List<String> functionNames = ImmutableList.copyOf(cfa.getAllFunctionNames());
+    List<Collection<Loop>> loopsPerFunction =
+        mapper.map(
+            functionNames,
+            functionName -> findLoops(cfa.getFunctionNodes(functionName), cfa.getLanguage()),
+            ParserException.class);
+
+    ImmutableListMultimap.Builder<String, Loop> loops = ImmutableListMultimap.builder();
+    for (int i = 0; i < functionNames.size(); i++) {
+      loops.putAll(functionNames.get(i), loopsPerFunction.get(i));
+    }
+    return new LoopStructure(loops.build());
+  }
+
   /**
    * Find all loops inside a given set of CFA nodes. The nodes in the given set may not be connected
    * with any nodes outside of this set. This method tries to differentiate nested loops.
@@ -0,0 +1,113 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+
+/**
+ * Applies an operation to all elements of a collection, concurrently on a fixed number of threads.
+ * The results are returned in the order of the elements and not in the order in which the
+ * operations finish, such that the caller can combine them deterministically. This is used, e.g.,
+ * for processing the functions of a CFA independently of each other.
+ *
+ * <p>The operation must not modify state that is shared between elements. With a single thread,
+ * all operations are executed by the calling thread one after another.
+ */
+public final class ParallelMapper implements AutoCloseable {
+
+  /** An operation that may throw a checked exception. */
+  @FunctionalInterface
+  public interface Operation<I, O, E extends Exception> {
+    O apply(I pInput) throws E, InterruptedException;
+  }
+
+  private final @Nullable ExecutorService pool;
+
+  /**
+   * Create a mapper.
+   *
+   * @param pThreads the number of threads, at least 1
+   * @param pName the name of the threads
+   */
+  public ParallelMapper(int pThreads, String pName) {
+    checkArgument(pThreads >= 1, "Number of threads must be positive");
+    if (pThreads == 1) {
+      pool = null;
+    } else {
+      pool =
+          Executors.newFixedThreadPool(
+              pThreads,
+              new ThreadFactoryBuilder().setNameFormat(pName + "-%d").setDaemon(true).build());
+    }
+  }
+
+  public boolean isParallel() {
+    return pool != null;
+  }
+
+  /**
+   * Apply the operation to all inputs and return the results in the order of the inputs. If an
+   * operation fails, the remaining operations are cancelled and the exception is rethrown.
+   *
+   * @param pExceptionType the type of the checked exception that the operation may throw
+   */
+  public <I, O, E extends Exception> ImmutableList<O> map(
+      Collection<? extends I> pInputs,
+      Operation<? super I, ? extends O, E> pOperation,
+      Class<E> pExceptionType)
+      throws E, InterruptedException {
+    ImmutableList.Builder<O> results = ImmutableList.builderWithExpectedSize(pInputs.size());
+    if (pool == null || pInputs.size() <= 1) {
+      for (I input : pInputs) {
+        results.add(pOperation.apply(input));
+      }
+      return results.build();
+    }
+
+    List<Future<? extends O>> futures = new ArrayList<>(pInputs.size());
+    for (I input : pInputs) {
+      futures.add(pool.submit(() -> pOperation.apply(input)));
+    }
+    try {
+      for (Future<? extends O> future : futures) {
+        results.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, pExceptionType, InterruptedException.class);
+      throw new UnexpectedCheckedException("parallel operation", t);
+    } finally {
+      // does nothing if all operations finished successfully
+      for (Future<? extends O> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return results.build();
+  }
+
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+/** Unit tests for {@link ParallelMapper}. */
+public class ParallelMapperTest {
+
+  private static final List<Integer> INPUTS =
+      ImmutableList.copyOf(ContiguousSet.create(Range.closed(0, 200), DiscreteDomain.integers()));
+
+  @Test
+  public void resultsInOrderOfInputs() throws InterruptedException {
+    for (int threads : ImmutableList.of(1, 4)) {
+      try (ParallelMapper mapper = new ParallelMapper(threads, "test")) {
+        List<Integer> results =
+            mapper.map(
+                INPUTS,
+                i -> {
+                  // later inputs finish earlier
+                  Thread.sleep((200 - i) % 3);
+                  return i * i;
+                },
+                RuntimeException.class);
+
+        assertThat(results).hasSize(INPUTS.size());
+        for (int i = 0; i < INPUTS.size(); i++) {
+          assertThat(results.get(i)).isEqualTo(i * i);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void exceptionIsRethrown() {
+    try (ParallelMapper mapper = new ParallelMapper(4, "test")) {
+      IOException e =
+          assertThrows(
+              IOException.class,
+              () ->
+                  mapper.map(
+                      INPUTS,
+                      i -> {
+                        if (i == 100) {
+                          throw new IOException("input " + i);
+                        }
+                        return i;
+                      },
+                      IOException.class));
+      assertThat(e).hasMessageThat().isEqualTo("input 100");
+    }
+  }
+}
@@ -0,0 +1,218 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A collection of sets that allows to efficiently find a stored set that is a subset or a superset
+ * of a given query set, without iterating over all stored sets.
+ *
+ * <p>The index is an inverted index: for each element, it stores a {@link BitSet} with the ids of
+ * all stored sets that contain this element. A superset query either checks the few stored sets
+ * that contain the rarest element of the query, or intersects the bitsets of all elements of the
+ * query. Additionally, each stored set has one of its elements as key, and a subset query only
+ * checks the stored sets whose key is contained in the query.
+ *
+ * <p>This class is not thread-safe. The stored sets must not be modified.
+ *
+ * @param <E> the type of the elements of the stored sets
+ */
+public final class SetSubsumptionIndex<E> {
+
+  /** The ids of the stored sets that contain an element. */
+  private static final class Occurrences {
+    private final BitSet ids = new BitSet();
+    private int count = 0;
+
+    /**
+     * The ids of the stored sets that have this element as key, a subset of {@link #ids}. The key
+     * of a set is the element that occurs in the fewest other sets when the set is added.
+     */
+    private final BitSet keyIds = new BitSet();
+  }
+
+  /** Ids of the stored sets. */
+  private final Map<Set<E>, Integer> ids = new HashMap<>();
+
+  /** Stored sets by id, or null for ids that are currently unused. */
+  private final List<@Nullable ImmutableSet<E>> sets = new ArrayList<>();
+
+  /** Ids in {@link #sets} that are currently unused. */
+  private final BitSet freeIds = new BitSet();
+
+  /** For each element the ids of the stored sets that contain it. */
+  private final Map<E, Occurrences> occurrences = new HashMap<>();
+
+  /**
+   * Add a set to this index.
+   *
+   * @return whether the set was not already contained in the index
+   */
+  @CanIgnoreReturnValue
+  public boolean add(Set<? extends E> pSet) {
+    ImmutableSet<E> set = ImmutableSet.copyOf(pSet);
+    if (ids.containsKey(set)) {
+      return false;
+    }
+    int id = freeIds.nextSetBit(0);
+    if (id < 0) {
+      id = sets.size();
+      sets.add(set);
+    } else {
+      freeIds.clear(id);
+      sets.set(id, set);
+    }
+    ids.put(set, id);
+
+    Occurrences rarest = null;
+    for (E element : set) {
+      Occurrences occ = occurrences.computeIfAbsent(element, k -> new Occurrences());
+      occ.ids.set(id);
+      occ.count++;
+      if (rarest == null || occ.count < rarest.count) {
+        rarest = occ;
+      }
+    }
+    if (rarest != null) {
+      rarest.keyIds.set(id);
+    }
+    return true;
+  }
+
+  /**
+   * Remove a set from this index.
+   *
+   * @return whether the set was contained in the index
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(Set<? extends E> pSet) {
+    Integer id = ids.remove(checkNotNull(pSet));
+    if (id == null) {
+      return false;
+    }
+    for (E element : pSet) {
+      Occurrences occ = occurrences.get(element);
+      occ.ids.clear(id);
+      occ.keyIds.clear(id);
+      occ.count--;
+      if (occ.count == 0) {
+        occurrences.remove(element);
+      }
+    }
+    sets.set(id, null);
+    freeIds.set(id);
+    return true;
+  }
+
+  public boolean contains(Set<? extends E> pSet) {
+    return ids.containsKey(checkNotNull(pSet));
+  }
+
+  public int size() {
+    return ids.size();
+  }
+
+  public boolean isEmpty() {
+    return ids.isEmpty();
+  }
+
+  public void clear() {
+    ids.clear();
+    sets.clear();
+    freeIds.clear();
+    occurrences.clear();
+  }
+
+  /**
+   * Return one of the stored sets that is a subset of (or equal to) the given set, or null if there
+   * is no such set.
+   */
+  public @Nullable Set<E> findSubsetOf(Set<? extends E> pQuery) {
+    Integer emptySetId = ids.get(ImmutableSet.of());
+    if (emptySetId != null) {
+      return sets.get(emptySetId);
+    }
+
+    for (E element : pQuery) {
+      Occurrences occ = occurrences.get(element);
+      if (occ == null) {
+        continue;
+      }
+      for (int id = occ.keyIds.nextSetBit(0); id >= 0; id = occ.keyIds.nextSetBit(id + 1)) {
+        ImmutableSet<E> candidate = sets.get(id);
+        if (candidate.size() <= pQuery.size() && pQuery.containsAll(candidate)) {
+          return candidate;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return one of the stored sets that is a superset of (or equal to) the given set, or null if
+   * there is no such set.
+   */
+  public @Nullable Set<E> findSupersetOf(Set<? extends E> pQuery) {
+    if (pQuery.isEmpty()) {
+      int id = freeIds.nextClearBit(0);
+      return id < sets.size() ? sets.get(id) : null;
+    }
+
+    List<Occurrences> occurrencesOfQuery = new ArrayList<>(pQuery.size());
+    for (E element : pQuery) {
+      Occurrences occ = occurrences.get(element);
+      if (occ == null) {
+        return null;
+      }
+      occurrencesOfQuery.add(occ);
+    }
+    occurrencesOfQuery.sort(Comparator.comparingInt(occ -> occ.count));
+    BitSet rarest = occurrencesOfQuery.get(0).ids;
+
+    if (occurrencesOfQuery.get(0).count <= sets.size() / Long.SIZE) {
+      // There are fewer candidates than words in the bitsets, so check each candidate.
+      for (int id = rarest.nextSetBit(0); id >= 0; id = rarest.nextSetBit(id + 1)) {
+        if (containsAll(occurrencesOfQuery, id)) {
+          return sets.get(id);
+        }
+      }
+      return null;
+    }
+
+    // start with the smallest bitset, this keeps the intersection small from the beginning
+    BitSet result = (BitSet) rarest.clone();
+    for (int i = 1; i < occurrencesOfQuery.size() && !result.isEmpty(); i++) {
+      result.and(occurrencesOfQuery.get(i).ids);
+    }
+    int id = result.nextSetBit(0);
+    return id >= 0 ? sets.get(id) : null;
+  }
+
+  /** Check whether the stored set with the given id contains all of the given elements. */
+  private static boolean containsAll(List<Occurrences> pOccurrences, int pId) {
+    for (Occurrences occ : pOccurrences) {
+      if (!occ.ids.get(pId)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,125 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests for {@link SetSubsumptionIndex}. */
+public class SetSubsumptionIndexTest {
+
+  private SetSubsumptionIndex<Integer> index;
+
+  @Before
+  public void setUp() {
+    index = new SetSubsumptionIndex<>();
+    index.add(ImmutableSet.of(1, 2));
+    index.add(ImmutableSet.of(2, 3, 4));
+  }
+
+  @Test
+  public void addAndRemove() {
+    assertThat(index.add(ImmutableSet.of(1, 2))).isFalse();
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.contains(ImmutableSet.of(2, 3, 4))).isTrue();
+
+    assertThat(index.remove(ImmutableSet.of(2, 3, 4))).isTrue();
+    assertThat(index.remove(ImmutableSet.of(2, 3, 4))).isFalse();
+    assertThat(index.contains(ImmutableSet.of(2, 3, 4))).isFalse();
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void findSubset() {
+    assertThat(index.findSubsetOf(ImmutableSet.of(1, 2, 5))).isEqualTo(ImmutableSet.of(1, 2));
+    assertThat(index.findSubsetOf(ImmutableSet.of(2, 3, 4))).isEqualTo(ImmutableSet.of(2, 3, 4));
+    assertThat(index.findSubsetOf(ImmutableSet.of(1, 3, 4))).isNull();
+    assertThat(index.findSubsetOf(ImmutableSet.of())).isNull();
+  }
+
+  @Test
+  public void findSuperset() {
+    assertThat(index.findSupersetOf(ImmutableSet.of(3, 4))).isEqualTo(ImmutableSet.of(2, 3, 4));
+    assertThat(index.findSupersetOf(ImmutableSet.of(1))).isEqualTo(ImmutableSet.of(1, 2));
+    assertThat(index.findSupersetOf(ImmutableSet.of(1, 3))).isNull();
+    assertThat(index.findSupersetOf(ImmutableSet.of(5))).isNull();
+    assertThat(index.findSupersetOf(ImmutableSet.of())).isNotNull();
+  }
+
+  @Test
+  public void emptySet() {
+    index.add(ImmutableSet.of());
+    assertThat(index.findSubsetOf(ImmutableSet.of(7))).isEqualTo(ImmutableSet.of());
+    assertThat(index.findSupersetOf(ImmutableSet.of())).isNotNull();
+  }
+
+  @Test
+  public void reuseRemovedIds() {
+    index.remove(ImmutableSet.of(1, 2));
+    assertThat(index.findSubsetOf(ImmutableSet.of(1, 2))).isNull();
+
+    index.add(ImmutableSet.of(5));
+    assertThat(index.findSubsetOf(ImmutableSet.of(1, 2))).isNull();
+    assertThat(index.findSubsetOf(ImmutableSet.of(5, 6))).isEqualTo(ImmutableSet.of(5));
+    assertThat(index.findSupersetOf(ImmutableSet.of(2))).isEqualTo(ImmutableSet.of(2, 3, 4));
+  }
+
+  @Test
+  public void randomQueries() {
+    Random random = new Random(0);
+    List<Set<Integer>> stored = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      Set<Integer> set = randomSet(random);
+      if (random.nextInt(4) == 0 && !stored.isEmpty()) {
+        Set<Integer> removed = stored.remove(random.nextInt(stored.size()));
+        assertThat(index.remove(removed)).isTrue();
+      } else if (index.add(set)) {
+        stored.add(set);
+      }
+
+      Set<Integer> query = randomSet(random);
+      Set<Integer> subset = index.findSubsetOf(query);
+      if (subset == null) {
+        assertThat(stored.stream().noneMatch(query::containsAll)).isTrue();
+      } else {
+        assertThat(query).containsAtLeastElementsIn(subset);
+      }
+      Set<Integer> superset = index.findSupersetOf(query);
+      if (superset == null) {
+        assertThat(stored.stream().noneMatch(s -> s.containsAll(query))).isTrue();
+      } else {
+        assertThat(superset).containsAtLeastElementsIn(query);
+      }
+    }
+  }
+
+  private static Set<Integer> randomSet(Random pRandom) {
+    ImmutableSet.Builder<Integer> set = ImmutableSet.builder();
+    int size = pRandom.nextInt(5);
+    for (int i = 0; i < size; i++) {
+      set.add(pRandom.nextInt(12));
+    }
+    return set.build();
+  }
+
+  @Test
+  public void clear() {
+    index.clear();
+    assertThat(index.isEmpty()).isTrue();
+    assertThat(index.findSubsetOf(ImmutableSet.of(1, 2))).isNull();
+    assertThat(index.findSupersetOf(ImmutableSet.of())).isNull();
+  }
+}
@@ -0,0 +1,58 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.globalinfo;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.function.IntFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+
+/**
+ * Stream for reading objects that were serialized for a different version of the program. Abstract
+ * states store references to CFA nodes as node numbers, and objects read from this stream resolve
+ * them with a given translation instead of the node numbers of the current CFA. The translation
+ * belongs to the stream, so objects that are deserialized concurrently from other streams are not
+ * affected.
+ */
+public class NodeTranslatingObjectInputStream extends ObjectInputStream {
+
+  private @Nullable IntFunction<CFANode> nodeNumberTranslation = null;
+
+  public NodeTranslatingObjectInputStream(InputStream pIn) throws IOException {
+    super(pIn);
+  }
+
+  /**
+   * Resolve node numbers of all objects that are read from now on with the given function. Before
+   * this is called, the node numbers of the current CFA are used.
+   */
+  public void setNodeNumberTranslation(IntFunction<CFANode> pTranslation) {
+    nodeNumberTranslation = checkNotNull(pTranslation);
+  }
+
+  /**
+   * Return the node with the given number for an object that is currently read from the given
+   * stream. This is meant to be called from the deserialization methods of classes that store
+   * node numbers.
+   */
+  public static CFANode getNodeByNodeNumber(ObjectInputStream pIn, int pNodeNumber) {
+    if (pIn instanceof NodeTranslatingObjectInputStream) {
+      IntFunction<CFANode> translation =
+          ((NodeTranslatingObjectInputStream) pIn).nodeNumberTranslation;
+      if (translation != null) {
+        return translation.apply(pNodeNumber);
+      }
+    }
+    return GlobalInfo.getInstance().getCFAInfo().orElseThrow().getNodeByNodeNumber(pNodeNumber);
+  }
+}
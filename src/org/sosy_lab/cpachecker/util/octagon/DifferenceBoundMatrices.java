@@ -0,0 +1,323 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.util.Arrays;
+
+/**
+ * Algorithms on the difference-bound matrices that represent the octagons of {@link
+ * JavaOctagonManager}.
+ *
+ * <p>An octagon over the variables x_0, ..., x_(n-1) is represented by a matrix m over the 2n
+ * signed variables V_2k = x_k and V_(2k+1) = -x_k, where m[i][j] is an upper bound of V_j - V_i
+ * (or {@link #INFINITY}). As m[i][j] and m[j^1][i^1] describe the same constraint, only the
+ * entries with j <= (i|1) are stored, row by row, in a flat array of size 2n(n+1). Thus adding or
+ * removing the last variables only appends or truncates entries.
+ *
+ * <p>All methods work in place on the given array. The closure methods compute the strong closure
+ * (the canonical form of the octagon) and return false if the octagon is empty. For integers, the
+ * division by 2 in the strengthening step rounds up, like the integer version of the native
+ * library. All sums of bounds are rounded toward positive infinity (cf. {@link #addUp}), such that
+ * the bounds stay sound even if they are not exactly representable as doubles.
+ */
+final class DifferenceBoundMatrices {
+
+  static final double INFINITY = Double.POSITIVE_INFINITY;
+
+  /** Integers with a smaller magnitude are exactly representable as doubles. */
+  private static final double EXACT_INTEGER_LIMIT = 0x1p53;
+
+  private DifferenceBoundMatrices() {}
+
+  /** The number of entries of a matrix over n variables. */
+  static int size(int n) {
+    return 2 * n * (n + 1);
+  }
+
+  /** The position of the entry m[i][j] in the flat array, requires j <= (i|1). */
+  static int position(int i, int j) {
+    return j + ((i + 1) * (i + 1)) / 2;
+  }
+
+  /** The position of the entry m[i][j] or of its coherent counterpart m[j^1][i^1]. */
+  static int index(int i, int j) {
+    return j <= (i | 1) ? position(i, j) : position(j ^ 1, i ^ 1);
+  }
+
+  /** Create the matrix of the universe (no constraints) over n variables. */
+  static double[] universe(int n) {
+    double[] m = new double[size(n)];
+    Arrays.fill(m, INFINITY);
+    for (int i = 0; i < 2 * n; i++) {
+      m[position(i, i)] = 0;
+    }
+    return m;
+  }
+
+  /** Set m[i][j] to the given bound if this makes it smaller. */
+  static void tighten(double[] m, int i, int j, double bound) {
+    int p = index(i, j);
+    if (bound < m[p]) {
+      m[p] = bound;
+    }
+  }
+
+  /** Remove all constraints on variable v. Keeps the matrix strongly closed. */
+  static void forget(double[] m, int n, int v) {
+    for (int i = 2 * v; i < 2 * v + 2; i++) {
+      for (int j = 0; j < 2 * n; j++) {
+        m[index(i, j)] = (i == j) ? 0 : INFINITY;
+      }
+    }
+  }
+
+  /**
+   * Return a + b rounded toward positive infinity, such that the sum of two upper bounds is an
+   * upper bound. The sum of two integers is exact if its magnitude is smaller than 2^53, which is
+   * the common case. Otherwise the rounding error is computed exactly with Knuth's TwoSum.
+   */
+  static double addUp(double a, double b, boolean pIntegers) {
+    double sum = a + b;
+    if (pIntegers && Math.abs(sum) < EXACT_INTEGER_LIMIT) {
+      return sum;
+    }
+    // for infinite values the error is NaN and the sum is returned
+    double bVirtual = sum - a;
+    double error = (a - (sum - bVirtual)) + (b - bVirtual);
+    return error > 0 ? Math.nextUp(sum) : sum;
+  }
+
+  /** Return a + b rounded toward negative infinity, such that it is a lower bound. */
+  static double addDown(double a, double b, boolean pIntegers) {
+    return -addUp(-a, -b, pIntegers);
+  }
+
+  /**
+   * Return a * b rounded toward positive infinity, where 0 * infinity is 0. The rounding error is
+   * computed exactly with a fused multiply-add.
+   */
+  static double mulUp(double a, double b, boolean pIntegers) {
+    // 0 * infinity is 0 here, because a variable with coefficient 0 does not matter
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    double product = a * b;
+    if (Double.isInfinite(product) || (pIntegers && Math.abs(product) < EXACT_INTEGER_LIMIT)) {
+      return product;
+    }
+    return Math.fma(a, b, -product) > 0 ? Math.nextUp(product) : product;
+  }
+
+  /** Return a * b rounded toward negative infinity, where 0 * infinity is 0. */
+  static double mulDown(double a, double b, boolean pIntegers) {
+    return -mulUp(-a, b, pIntegers);
+  }
+
+  /** Return a / b for b > 0 rounded toward positive infinity. */
+  static double divUp(double a, double b) {
+    double quotient = a / b;
+    // the remainder a - quotient * b is exact with a fused multiply-add
+    return Math.fma(-quotient, b, a) > 0 ? Math.nextUp(quotient) : quotient;
+  }
+
+  static double halve(double pValue, boolean pIntegers) {
+    // adding 0 turns the -0.0 from rounding up small negative values into 0.0
+    return pIntegers ? Math.ceil(pValue / 2) + 0.0 : pValue / 2;
+  }
+
+  /** The upper bound of variable v (or {@link #INFINITY}). */
+  static double upperBound(double[] m, int v, boolean pIntegers) {
+    return halve(m[position(2 * v + 1, 2 * v)], pIntegers);
+  }
+
+  /** The negated lower bound of variable v (or {@link #INFINITY}). */
+  static double negatedLowerBound(double[] m, int v, boolean pIntegers) {
+    return halve(m[position(2 * v, 2 * v + 1)], pIntegers);
+  }
+
+  /** Compute the strong closure with the Floyd-Warshall algorithm, in time O(n^3). */
+  static boolean close(double[] m, int n, boolean pIntegers) {
+    int size = 2 * n;
+    double[] rowK = new double[size];
+    double[] rowK2 = new double[size];
+    for (int k = 0; k < size; k++) {
+      relaxVia(m, n, k, rowK, rowK2, pIntegers);
+    }
+    return strengthen(m, n, pIntegers);
+  }
+
+  /**
+   * One step of the Floyd-Warshall algorithm on the half matrix: relax all entries via k and k^1,
+   * such that both an entry and its coherent counterpart are relaxed via k.
+   */
+  private static void relaxVia(
+      double[] m, int n, int k, double[] rowK, double[] rowK2, boolean pIntegers) {
+    int size = 2 * n;
+    int k2 = k ^ 1;
+    // the rows of k and k^1 are not tightened by relaxing via k (unless the matrix is empty),
+    // so we can work on a copy of them
+    for (int j = 0; j < size; j++) {
+      rowK[j] = m[index(k, j)];
+      rowK2[j] = m[index(k2, j)];
+    }
+    for (int i = 0; i < size; i++) {
+      double ik = m[index(i, k)];
+      double ik2 = m[index(i, k2)];
+      if (ik == INFINITY && ik2 == INFINITY) {
+        continue;
+      }
+      int row = position(i, 0);
+      int last = i | 1;
+      for (int j = 0; j <= last; j++) {
+        double bound = Math.min(addUp(ik, rowK[j], pIntegers), addUp(ik2, rowK2[j], pIntegers));
+        if (bound < m[row + j]) {
+          m[row + j] = bound;
+        }
+      }
+    }
+  }
+
+  /**
+   * Compute the strong closure like {@link #close}, but iterate only over the finite entries of
+   * the rows and columns of the pivot. This is much faster if many variables are not related to
+   * each other, because their entries are infinite.
+   */
+  static boolean closeSparse(double[] m, int n, boolean pIntegers) {
+    int size = 2 * n;
+    double[] rowK = new double[size];
+    double[] rowK2 = new double[size];
+    int[] finiteK = new int[size];
+    int[] finiteK2 = new int[size];
+    for (int k = 0; k < size; k++) {
+      int k2 = k ^ 1;
+      int countK = 0;
+      int countK2 = 0;
+      for (int j = 0; j < size; j++) {
+        double kj = m[index(k, j)];
+        rowK[j] = kj;
+        if (kj != INFINITY) {
+          finiteK[countK++] = j;
+        }
+        double k2j = m[index(k2, j)];
+        rowK2[j] = k2j;
+        if (k2j != INFINITY) {
+          finiteK2[countK2++] = j;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        int row = position(i, 0);
+        int last = i | 1;
+        double ik = m[index(i, k)];
+        if (ik != INFINITY) {
+          for (int l = 0; l < countK && finiteK[l] <= last; l++) {
+            int j = finiteK[l];
+            double bound = addUp(ik, rowK[j], pIntegers);
+            if (bound < m[row + j]) {
+              m[row + j] = bound;
+            }
+          }
+        }
+        double ik2 = m[index(i, k2)];
+        if (ik2 != INFINITY) {
+          for (int l = 0; l < countK2 && finiteK2[l] <= last; l++) {
+            int j = finiteK2[l];
+            double bound = addUp(ik2, rowK2[j], pIntegers);
+            if (bound < m[row + j]) {
+              m[row + j] = bound;
+            }
+          }
+        }
+      }
+    }
+    return strengthen(m, n, pIntegers);
+  }
+
+  /**
+   * Compute the strong closure of a matrix in which only the constraints of variable v have
+   * changed since it was strongly closed (e.g., after forgetting v and adding new constraints on
+   * v), in time O(n^2).
+   */
+  static boolean closeIncremental(double[] m, int n, int v, boolean pIntegers) {
+    int size = 2 * n;
+    int first = 2 * v;
+    int second = 2 * v + 1;
+
+    // shortest paths between v and the other variables that do not pass through v,
+    // the other variables are already closed among themselves
+    for (int k = 0; k < size; k++) {
+      if (k == first || k == second) {
+        continue;
+      }
+      for (int i = first; i <= second; i++) {
+        double ik = m[index(i, k)];
+        if (ik == INFINITY) {
+          continue;
+        }
+        for (int j = 0; j < size; j++) {
+          if (j != first && j != second) {
+            tighten(m, i, j, addUp(ik, m[index(k, j)], pIntegers));
+          }
+        }
+      }
+    }
+    for (int k = 0; k < size; k++) {
+      if (k != first && k != second) {
+        tighten(m, first, second, addUp(m[index(first, k)], m[index(k, second)], pIntegers));
+        tighten(m, second, first, addUp(m[index(second, k)], m[index(k, first)], pIntegers));
+      }
+    }
+
+    // paths through v
+    double[] rowK = new double[size];
+    double[] rowK2 = new double[size];
+    relaxVia(m, n, first, rowK, rowK2, pIntegers);
+    relaxVia(m, n, second, rowK, rowK2, pIntegers);
+
+    return strengthen(m, n, pIntegers);
+  }
+
+  /**
+   * The strengthening step of the strong closure: m[i][j] <= (m[i][i^1] + m[j^1][j]) / 2. Also
+   * checks the diagonal for emptiness.
+   */
+  private static boolean strengthen(double[] m, int n, boolean pIntegers) {
+    int size = 2 * n;
+    double[] unary = new double[size];
+    int[] finite = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      unary[i] = m[position(i, i ^ 1)];
+      if (unary[i] != INFINITY) {
+        finite[count++] = i;
+      }
+    }
+    for (int a = 0; a < count; a++) {
+      int i = finite[a];
+      int row = position(i, 0);
+      int last = i | 1;
+      for (int b = 0; b < count; b++) {
+        int j = finite[b] ^ 1;
+        if (j <= last) {
+          double bound = halve(addUp(unary[i], unary[j ^ 1], pIntegers), pIntegers);
+          if (bound < m[row + j]) {
+            m[row + j] = bound;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      int p = position(i, i);
+      if (m[p] < 0) {
+        return false;
+      }
+      m[p] = 0;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,148 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.INFINITY;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.Test;
+
+/** Randomized tests for {@link DifferenceBoundMatrices}. */
+public class DifferenceBoundMatricesTest {
+
+  private static final int ROUNDS = 2000;
+
+  private final Random random = new Random(0);
+
+  private double randomBound(boolean integers) {
+    if (random.nextInt(4) == 0) {
+      return INFINITY;
+    }
+    int value = random.nextInt(41) - 10;
+    return integers ? value : value / 2.0;
+  }
+
+  private double[] randomMatrix(int n, boolean integers) {
+    double[] m = DifferenceBoundMatrices.universe(n);
+    int constraints = random.nextInt(3 * n + 1);
+    for (int c = 0; c < constraints; c++) {
+      int i = random.nextInt(2 * n);
+      int j = random.nextInt(2 * n);
+      if (i != j) {
+        DifferenceBoundMatrices.tighten(m, i, j, randomBound(integers));
+      }
+    }
+    return m;
+  }
+
+  @Test
+  public void testSparseClosureAgreesWithClosure() {
+    for (int round = 0; round < ROUNDS; round++) {
+      boolean integers = random.nextBoolean();
+      int n = 1 + random.nextInt(6);
+      double[] m = randomMatrix(n, integers);
+
+      double[] expected = m.clone();
+      double[] actual = m.clone();
+      boolean nonEmpty = DifferenceBoundMatrices.close(expected, n, integers);
+      assertThat(DifferenceBoundMatrices.closeSparse(actual, n, integers)).isEqualTo(nonEmpty);
+      if (nonEmpty) {
+        assertThat(actual).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalClosureAgreesWithClosure() {
+    int checked = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      boolean integers = random.nextBoolean();
+      int n = 1 + random.nextInt(6);
+      double[] m = randomMatrix(n, integers);
+      if (!DifferenceBoundMatrices.close(m, n, integers)) {
+        continue;
+      }
+
+      // replace the constraints of v
+      int v = random.nextInt(n);
+      DifferenceBoundMatrices.forget(m, n, v);
+      int constraints = 1 + random.nextInt(4);
+      for (int c = 0; c < constraints; c++) {
+        int i = 2 * v + random.nextInt(2);
+        int j = random.nextInt(2 * n);
+        if (i != j) {
+          if (random.nextBoolean()) {
+            DifferenceBoundMatrices.tighten(m, i, j, randomBound(integers));
+          } else {
+            DifferenceBoundMatrices.tighten(m, j, i, randomBound(integers));
+          }
+        }
+      }
+
+      double[] expected = m.clone();
+      double[] actual = m.clone();
+      boolean nonEmpty = DifferenceBoundMatrices.close(expected, n, integers);
+      assertThat(DifferenceBoundMatrices.closeIncremental(actual, n, v, integers))
+          .isEqualTo(nonEmpty);
+      if (nonEmpty) {
+        assertThat(actual).isEqualTo(expected);
+        checked++;
+      }
+    }
+    assertThat(checked).isGreaterThan(ROUNDS / 4);
+  }
+
+  private double randomDouble() {
+    // large values with many significant bits, such that most operations are inexact
+    return (random.nextLong() >> random.nextInt(20)) * (random.nextBoolean() ? 1 : 0.001);
+  }
+
+  /** Assert that the given result is the smallest double that is at least the exact value. */
+  private static void assertRoundedUp(double result, BigDecimal exact) {
+    assertThat(new BigDecimal(result)).isAtLeast(exact);
+    assertThat(new BigDecimal(Math.nextDown(result))).isLessThan(exact);
+  }
+
+  @Test
+  public void testArithmeticRoundsUp() {
+    for (int round = 0; round < ROUNDS; round++) {
+      boolean integers = random.nextBoolean();
+      double a = integers ? Math.rint(randomDouble()) : randomDouble();
+      double b = integers ? Math.rint(randomDouble()) : randomDouble();
+      BigDecimal exactA = new BigDecimal(a);
+      BigDecimal exactB = new BigDecimal(b);
+
+      assertRoundedUp(DifferenceBoundMatrices.addUp(a, b, integers), exactA.add(exactB));
+      assertRoundedUp(
+          -DifferenceBoundMatrices.addDown(a, b, integers), exactA.add(exactB).negate());
+      if (a != 0 && b != 0) {
+        assertRoundedUp(DifferenceBoundMatrices.mulUp(a, b, integers), exactA.multiply(exactB));
+        assertRoundedUp(
+            -DifferenceBoundMatrices.mulDown(a, b, integers), exactA.multiply(exactB).negate());
+      }
+      if (b != 0) {
+        // precise enough to distinguish the quotient from its neighbors
+        BigDecimal quotient = exactA.divide(exactB.abs(), 400, RoundingMode.CEILING);
+        assertRoundedUp(DifferenceBoundMatrices.divUp(a, Math.abs(b)), quotient);
+      }
+    }
+  }
+
+  @Test
+  public void testArithmeticWithInfinity() {
+    assertThat(DifferenceBoundMatrices.addUp(INFINITY, 3, true)).isEqualTo(INFINITY);
+    assertThat(DifferenceBoundMatrices.addUp(INFINITY, 0.1, false)).isEqualTo(INFINITY);
+    assertThat(DifferenceBoundMatrices.mulUp(0, INFINITY, false)).isEqualTo(0);
+    assertThat(DifferenceBoundMatrices.mulUp(-2, INFINITY, false)).isEqualTo(-INFINITY);
+    assertThat(DifferenceBoundMatrices.mulDown(0.5, INFINITY, false)).isEqualTo(INFINITY);
+  }
+}
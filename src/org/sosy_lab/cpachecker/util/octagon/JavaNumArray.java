@@ -0,0 +1,63 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An array of numbers of {@link JavaOctagonManager}, infinity is {@link Double#POSITIVE_INFINITY}.
+ * Numbers that are not exactly representable as doubles are stored as the two neighboring doubles.
+ */
+final class JavaNumArray extends NumArray {
+
+  /** The values, rounded up if they are not exactly representable. */
+  private final double[] values;
+
+  /** The values rounded down, only allocated if some value is not exactly representable. */
+  private double @Nullable [] lowerValues = null;
+
+  JavaNumArray(int n) {
+    values = new double[n];
+  }
+
+  double[] getValues() {
+    return values;
+  }
+
+  /** The values rounded down, which differ from {@link #getValues()} only for inexact values. */
+  double[] getLowerValues() {
+    return lowerValues == null ? values : lowerValues;
+  }
+
+  /** Whether all values are exactly representable. */
+  boolean isExact() {
+    return lowerValues == null || Arrays.equals(lowerValues, values);
+  }
+
+  void set(int pos, double value) {
+    set(pos, value, value);
+  }
+
+  /** Set a value that lies between the given doubles. */
+  void set(int pos, double lower, double upper) {
+    if (lowerValues == null && lower != upper) {
+      lowerValues = values.clone();
+    }
+    values[pos] = upper;
+    if (lowerValues != null) {
+      lowerValues[pos] = lower;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(values);
+  }
+}
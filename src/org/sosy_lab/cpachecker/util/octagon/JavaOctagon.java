@@ -0,0 +1,72 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An octagon of {@link JavaOctagonManager}, represented by a difference-bound matrix as described
+ * in {@link DifferenceBoundMatrices}. The matrix is never modified after construction, so it can
+ * be shared between octagons.
+ */
+final class JavaOctagon extends Octagon {
+
+  private final int dimension;
+
+  /** The matrix, or null if the octagon is known to be empty. */
+  private final double @Nullable [] matrix;
+
+  /** Whether the matrix is strongly closed (always true for empty octagons). */
+  private final boolean closed;
+
+  /** The strong closure of this octagon, computed lazily (benign race). */
+  private volatile @Nullable JavaOctagon closure;
+
+  JavaOctagon(
+      JavaOctagonManager pManager, int pDimension, double @Nullable [] pMatrix, boolean pClosed) {
+    super(pManager);
+    dimension = pDimension;
+    matrix = pMatrix;
+    closed = pClosed || pMatrix == null;
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+
+  double @Nullable [] getMatrix() {
+    return matrix;
+  }
+
+  boolean isKnownEmpty() {
+    return matrix == null;
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  @Nullable JavaOctagon getCachedClosure() {
+    return closed ? this : closure;
+  }
+
+  void setCachedClosure(JavaOctagon pClosure) {
+    closure = pClosure;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((JavaOctagonManager) getManager()).hashCode(this);
+  }
+
+  @Override
+  public String toString() {
+    return "octagon with dimension " + dimension + (closed ? " (closed)" : "");
+  }
+}
@@ -0,0 +1,1032 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.INFINITY;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.addDown;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.addUp;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.divUp;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.index;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.mulDown;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.mulUp;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.negatedLowerBound;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.position;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.size;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.tighten;
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrices.upperBound;
+
+import com.google.common.collect.BiMap;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.sosy_lab.common.annotations.SuppressForbidden;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Implementation of {@link OctagonManager} in Java, which does not need the native octagon library
+ * and whose octagons are garbage collected like all other objects.
+ *
+ * <p>Octagons are immutable. Each operation that changes the constraints copies the matrix of its
+ * input once and then works in place on this copy, which is owned only by the result. Results are
+ * kept strongly closed wherever this is possible in quadratic time (e.g., after assignments and
+ * constraints on a single variable), otherwise the closure is computed lazily when it is needed
+ * and then cached. Results of widening are never closed, such that the widening terminates.
+ *
+ * <p>Numbers are stored as doubles. For integers, all bounds are rounded up like in the integer
+ * version of the native library. Computations with bounds are exact for integers smaller than 2^53
+ * and otherwise rounded toward the sound side (upper bounds up, lower bounds down). Constants that
+ * are not exactly representable become intervals between the neighboring doubles.
+ */
+public final class JavaOctagonManager extends OctagonManager {
+
+  private final boolean integers;
+  private final boolean sparseClosure;
+
+  /**
+   * Create a new manager.
+   *
+   * @param pIntegers whether the variables are integers (otherwise rationals)
+   * @param pSparseClosure whether the closure should iterate only over the finite entries of the
+   *     matrix, which is faster if many variables are not related to each other
+   */
+  public JavaOctagonManager(boolean pIntegers, boolean pSparseClosure) {
+    integers = pIntegers;
+    sparseClosure = pSparseClosure;
+  }
+
+  private static JavaOctagon cast(Octagon oct) {
+    return (JavaOctagon) oct;
+  }
+
+  private static JavaNumArray array(NumArray array) {
+    return (JavaNumArray) array;
+  }
+
+  private static double[] values(NumArray array) {
+    return array(array).getValues();
+  }
+
+  private JavaOctagon emptyOctagon(int n) {
+    return new JavaOctagon(this, n, null, true);
+  }
+
+  /** Return the strong closure of an octagon, which is cached in the octagon. */
+  private JavaOctagon closure(Octagon pOct) {
+    JavaOctagon oct = cast(pOct);
+    JavaOctagon result = oct.getCachedClosure();
+    if (result == null) {
+      int n = oct.getDimension();
+      double[] m = oct.getMatrix().clone();
+      boolean nonEmpty =
+          sparseClosure
+              ? DifferenceBoundMatrices.closeSparse(m, n, integers)
+              : DifferenceBoundMatrices.close(m, n, integers);
+      result = nonEmpty ? new JavaOctagon(this, n, m, true) : emptyOctagon(n);
+      oct.setCachedClosure(result);
+    }
+    return result;
+  }
+
+  /** Close a matrix in which only the constraints of variable v have changed. */
+  private JavaOctagon closeIncremental(double[] m, int n, int v) {
+    return DifferenceBoundMatrices.closeIncremental(m, n, v, integers)
+        ? new JavaOctagon(this, n, m, true)
+        : emptyOctagon(n);
+  }
+
+  private double roundUp(double value) {
+    // adding 0 turns -0.0 into 0.0
+    return (integers ? Math.ceil(value) : value) + 0.0;
+  }
+
+  /**
+   * Add the constraint a*x + b*y <= c, where a and b are 1 or -1, or a*x <= c if b is 0.
+   */
+  private void addOctagonalConstraint(double[] m, double a, int x, double b, int y, double c) {
+    int vx = (a > 0) ? 2 * x : 2 * x + 1;
+    if (b == 0) {
+      tighten(m, vx ^ 1, vx, roundUp(2 * c));
+    } else {
+      int vy = (b > 0) ? 2 * y : 2 * y + 1;
+      tighten(m, vy ^ 1, vx, roundUp(c));
+    }
+  }
+
+  /** Add the constraint x = c to a matrix in which x is unconstrained. */
+  private void setConstant(double[] m, int x, double c) {
+    addOctagonalConstraint(m, 1, x, 0, x, c);
+    addOctagonalConstraint(m, -1, x, 0, x, -c);
+  }
+
+  /** Shift variable v by c (i.e., v := v + c), keeps the matrix strongly closed. */
+  private void shift(double[] m, int n, int v, double c) {
+    if (c == 0) {
+      return;
+    }
+    for (int i = 2 * v; i < 2 * v + 2; i++) {
+      for (int j = 0; j < 2 * n; j++) {
+        int p = index(i, j);
+        m[p] = addUp(m[p], delta(j, v, c) - delta(i, v, c), integers);
+      }
+    }
+  }
+
+  private static double delta(int node, int v, double c) {
+    if (node == 2 * v) {
+      return c;
+    } else if (node == 2 * v + 1) {
+      return -c;
+    }
+    return 0;
+  }
+
+  /** Negate variable v (i.e., v := -v), keeps the matrix strongly closed. */
+  private static void negate(double[] m, int n, int v) {
+    int first = 2 * v;
+    int second = 2 * v + 1;
+    for (int j = 0; j < 2 * n; j++) {
+      if (j != first && j != second) {
+        swap(m, index(first, j), index(second, j));
+      }
+    }
+    swap(m, position(first, second), position(second, first));
+  }
+
+  private static void swap(double[] m, int p1, int p2) {
+    double tmp = m[p1];
+    m[p1] = m[p2];
+    m[p2] = tmp;
+  }
+
+  /** The supremum of [lo1, hi1] * [lo2, hi2]. */
+  private double supMul(double lo1, double hi1, double lo2, double hi2) {
+    return Math.max(
+        Math.max(mulUp(lo1, lo2, integers), mulUp(lo1, hi2, integers)),
+        Math.max(mulUp(hi1, lo2, integers), mulUp(hi1, hi2, integers)));
+  }
+
+  /** The infimum of [lo1, hi1] * [lo2, hi2]. */
+  private double infMul(double lo1, double hi1, double lo2, double hi2) {
+    return Math.min(
+        Math.min(mulDown(lo1, lo2, integers), mulDown(lo1, hi2, integers)),
+        Math.min(mulDown(hi1, lo2, integers), mulDown(hi1, hi2, integers)));
+  }
+
+  /** Interval coefficients from the array format [hi_0, -lo_0, hi_1, -lo_1, ...]. */
+  private static double[][] intervals(NumArray array, int n) {
+    double[] t = values(array);
+    double[] lo = new double[n + 1];
+    double[] hi = new double[n + 1];
+    for (int i = 0; i <= n; i++) {
+      hi[i] = t[2 * i] + 0.0;
+      lo[i] = -t[2 * i + 1] + 0.0;
+    }
+    return new double[][] {lo, hi};
+  }
+
+  private static boolean isPoint(double[] lo, double[] hi) {
+    for (int i = 0; i < lo.length; i++) {
+      if (lo[i] != hi[i] || lo[i] == INFINITY || lo[i] == -INFINITY) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The bounds of all variables as {lower bounds, upper bounds}. */
+  private double[][] bounds(double[] m, int n) {
+    double[] lower = new double[n];
+    double[] upper = new double[n];
+    for (int v = 0; v < n; v++) {
+      lower[v] = -negatedLowerBound(m, v, integers);
+      upper[v] = upperBound(m, v, integers);
+    }
+    return new double[][] {lower, upper};
+  }
+
+  /**
+   * The supremum of sum([lo_i, hi_i] * x_i) + [lo_n, hi_n] over the bounds of the variables,
+   * where the coefficients of the variables `without` are ignored and the coefficient of variable
+   * `adjusted` is shifted by `shift`.
+   */
+  private double sup(
+      double[] lo, double[] hi, double[][] bounds, int without, int adjusted, double shift) {
+    int n = lo.length - 1;
+    double result = hi[n];
+    for (int i = 0; i < n && result != INFINITY; i++) {
+      if (i != without) {
+        double s = (i == adjusted) ? shift : 0;
+        double coefficientLo = addDown(lo[i], s, integers);
+        double coefficientHi = addUp(hi[i], s, integers);
+        double product = supMul(coefficientLo, coefficientHi, bounds[0][i], bounds[1][i]);
+        result = addUp(result, product, integers);
+      }
+    }
+    return result;
+  }
+
+  private double inf(
+      double[] lo, double[] hi, double[][] bounds, int without, int adjusted, double shift) {
+    int n = lo.length - 1;
+    double result = lo[n];
+    for (int i = 0; i < n && result != -INFINITY; i++) {
+      if (i != without) {
+        double s = (i == adjusted) ? shift : 0;
+        double coefficientLo = addDown(lo[i], s, integers);
+        double coefficientHi = addUp(hi[i], s, integers);
+        double product = infMul(coefficientLo, coefficientHi, bounds[0][i], bounds[1][i]);
+        result = addDown(result, product, integers);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new JavaNumArray(n);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    JavaNumArray source = array(n2);
+    array(n1).set(0, source.getLowerValues()[0], source.getValues()[0]);
+  }
+
+  /* lower contains the negated lower bound, like the interval arrays */
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    int n = c.getDimension();
+    double[] m = c.getMatrix().clone();
+    DifferenceBoundMatrices.forget(m, n, pos);
+    addOctagonalConstraint(m, 1, pos, 0, pos, values(upper)[0]);
+    addOctagonalConstraint(m, -1, pos, 0, pos, values(lower)[0]);
+    return closeIncremental(m, n, pos);
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    double value = i;
+    if (-(1L << 53) <= i && i <= (1L << 53)) {
+      array(n).set(pos, value);
+      return;
+    }
+    // i may lie between two doubles
+    int cmp = new BigDecimal(value).compareTo(BigDecimal.valueOf(i));
+    double lower = (cmp > 0) ? Math.nextDown(value) : value;
+    double upper = (cmp < 0) ? Math.nextUp(value) : value;
+    array(n).set(pos, lower, upper);
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    array(n).set(pos, roundUp(d));
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    array(n).set(pos, INFINITY);
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return (long) values(n)[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return values(n)[pos];
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return values(n)[pos] == INFINITY;
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // nothing to do, the array is garbage collected
+  }
+
+  @Override
+  public Octagon empty(int n) {
+    return emptyOctagon(n);
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return new JavaOctagon(this, n, DifferenceBoundMatrices.universe(n), true);
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    return oct; // octagons are immutable
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return oct;
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return cast(oct).getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    JavaOctagon o = cast(oct);
+    if (o.isKnownEmpty()) {
+      return 0;
+    }
+    double[] m = o.getMatrix();
+    int count = 0;
+    for (int i = 0; i < 2 * o.getDimension(); i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && m[position(i, j)] != INFINITY) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return closure(oct).isKnownEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return isEmpty(oct) ? 1 : 2;
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      return false;
+    }
+    double[] m = c.getMatrix();
+    for (int i = 0; i < 2 * c.getDimension(); i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (i != j && m[position(i, j)] != INFINITY) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    checkArgument(dimension(oct1) == dimension(oct2), "octagons with different dimensions");
+    JavaOctagon c1 = closure(oct1);
+    if (c1.isKnownEmpty()) {
+      return true;
+    }
+    JavaOctagon o2 = cast(oct2);
+    if (o2.isKnownEmpty()) {
+      return false;
+    }
+    // comparing with the constraints of oct2 is enough, its closure is not necessary
+    double[] m1 = c1.getMatrix();
+    double[] m2 = o2.getMatrix();
+    for (int p = 0; p < m1.length; p++) {
+      if (m1[p] > m2[p]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return isIncludedIn(oct1, oct2) ? 1 : 2;
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    if (dimension(oct1) != dimension(oct2)) {
+      return false;
+    }
+    JavaOctagon c1 = closure(oct1);
+    JavaOctagon c2 = closure(oct2);
+    if (c1.isKnownEmpty() || c2.isKnownEmpty()) {
+      return c1.isKnownEmpty() && c2.isKnownEmpty();
+    }
+    double[] m1 = c1.getMatrix();
+    double[] m2 = c2.getMatrix();
+    for (int p = 0; p < m1.length; p++) {
+      if (m1[p] != m2[p]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return isEqual(oct1, oct2) ? 1 : 2;
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    JavaOctagon o = cast(oct1);
+    if (o.isKnownEmpty()) {
+      return false;
+    }
+    double[] m = o.getMatrix();
+    double[] point = values(array);
+    for (int i = 0; i < 2 * o.getDimension(); i++) {
+      for (int j = 0; j <= (i | 1); j++) {
+        if (signed(point, j) - signed(point, i) > m[position(i, j)]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** The value of the signed variable V_i for the given values of the variables. */
+  private static double signed(double[] point, int i) {
+    return (i % 2 == 0) ? point[i / 2] : -point[i / 2];
+  }
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    checkArgument(dimension(oct1) == dimension(oct2), "octagons with different dimensions");
+    JavaOctagon o1 = cast(oct1);
+    JavaOctagon o2 = cast(oct2);
+    if (o1.isKnownEmpty()) {
+      return o1;
+    } else if (o2.isKnownEmpty()) {
+      return o2;
+    }
+    double[] m1 = o1.getMatrix();
+    double[] m2 = o2.getMatrix();
+    double[] m = new double[m1.length];
+    for (int p = 0; p < m.length; p++) {
+      m[p] = Math.min(m1[p], m2[p]);
+    }
+    return new JavaOctagon(this, o1.getDimension(), m, false);
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    checkArgument(dimension(oct1) == dimension(oct2), "octagons with different dimensions");
+    JavaOctagon c1 = closure(oct1);
+    JavaOctagon c2 = closure(oct2);
+    if (c1.isKnownEmpty()) {
+      return c2;
+    } else if (c2.isKnownEmpty()) {
+      return c1;
+    }
+    double[] m1 = c1.getMatrix();
+    double[] m2 = c2.getMatrix();
+    double[] m = new double[m1.length];
+    for (int p = 0; p < m.length; p++) {
+      m[p] = Math.max(m1[p], m2[p]);
+    }
+    // the union of strongly closed matrices is strongly closed
+    return new JavaOctagon(this, c1.getDimension(), m, true);
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    checkArgument(dimension(oct1) == dimension(oct2), "octagons with different dimensions");
+    if (isEmpty(oct1)) {
+      return oct2;
+    }
+    JavaOctagon c2 = closure(oct2);
+    if (c2.isKnownEmpty()) {
+      return oct1;
+    }
+    // the constraints of oct1 must not be closed, otherwise the widening may not terminate
+    double[] m1 = cast(oct1).getMatrix();
+    double[] m2 = c2.getMatrix();
+    double[] m = new double[m1.length];
+    for (int p = 0; p < m.length; p++) {
+      if (m1[p] >= m2[p]) {
+        m[p] = m1[p];
+      } else {
+        m[p] = (m2[p] <= 0) ? 0 : INFINITY;
+      }
+    }
+    return new JavaOctagon(this, c2.getDimension(), m, false);
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    checkArgument(dimension(oct1) == dimension(oct2), "octagons with different dimensions");
+    JavaOctagon c1 = closure(oct1);
+    JavaOctagon c2 = closure(oct2);
+    if (c1.isKnownEmpty()) {
+      return c1;
+    } else if (c2.isKnownEmpty()) {
+      return c2;
+    }
+    double[] m1 = c1.getMatrix();
+    double[] m2 = c2.getMatrix();
+    double[] m = new double[m1.length];
+    for (int p = 0; p < m.length; p++) {
+      m[p] = (m1[p] == INFINITY) ? m2[p] : m1[p];
+    }
+    return new JavaOctagon(this, c1.getDimension(), m, false);
+  }
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    double[] m = c.getMatrix().clone();
+    DifferenceBoundMatrices.forget(m, c.getDimension(), k);
+    return new JavaOctagon(this, c.getDimension(), m, true);
+  }
+
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    JavaNumArray t = array(array);
+    JavaOctagon c = closure(oct);
+    double[] hi = Arrays.copyOf(t.getValues(), dimension(oct) + 1);
+    if (t.isExact() || c.isKnownEmpty()) {
+      return assign(c, k, hi);
+    }
+    // the expression has inexact constants
+    return assignInterval(c, k, Arrays.copyOf(t.getLowerValues(), dimension(oct) + 1), hi);
+  }
+
+  /** x_k := t[0]*x_0 + ... + t[n-1]*x_(n-1) + t[n] on a closed octagon */
+  private JavaOctagon assign(JavaOctagon c, int k, double[] t) {
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    int n = c.getDimension();
+    int count = 0;
+    int var = -1;
+    for (int i = 0; i < n; i++) {
+      if (t[i] != 0) {
+        count++;
+        var = i;
+      }
+    }
+    double constant = t[n];
+
+    double[] m;
+    if (count == 0) {
+      m = c.getMatrix().clone();
+      DifferenceBoundMatrices.forget(m, n, k);
+      setConstant(m, k, constant);
+
+    } else if (count == 1 && (t[var] == 1 || t[var] == -1)) {
+      m = c.getMatrix().clone();
+      if (var == k) {
+        // x := +-x + c is exact and keeps the matrix closed
+        if (t[var] == -1) {
+          negate(m, n, k);
+        }
+        shift(m, n, k, constant);
+        return new JavaOctagon(this, n, m, true);
+      }
+      DifferenceBoundMatrices.forget(m, n, k);
+      addOctagonalConstraint(m, 1, k, -t[var], var, constant);
+      addOctagonalConstraint(m, -1, k, t[var], var, -constant);
+
+    } else {
+      return assignInterval(c, k, t, t);
+    }
+    return closeIncremental(m, n, k);
+  }
+
+  /**
+   * x_k := sum([lo_i, hi_i] * x_i) + [lo_n, hi_n] on a closed and non-empty octagon. The new
+   * bounds of x_k and of x_k +- x_j are computed by interval arithmetic over the old bounds.
+   */
+  private JavaOctagon assignInterval(JavaOctagon c, int k, double[] lo, double[] hi) {
+    int n = c.getDimension();
+    double[] old = c.getMatrix();
+    double[][] bounds = bounds(old, n);
+
+    double[] m = old.clone();
+    DifferenceBoundMatrices.forget(m, n, k);
+    addOctagonalConstraint(m, 1, k, 0, k, sup(lo, hi, bounds, -1, -1, 0));
+    addOctagonalConstraint(m, -1, k, 0, k, -inf(lo, hi, bounds, -1, -1, 0));
+    for (int j = 0; j < n; j++) {
+      if (j == k || (lo[j] == 0 && hi[j] == 0)) {
+        continue;
+      }
+      // x_k - x_j is the expression with the coefficient of x_j decreased by 1
+      addOctagonalConstraint(m, 1, k, -1, j, sup(lo, hi, bounds, -1, j, -1));
+      addOctagonalConstraint(m, -1, k, 1, j, -inf(lo, hi, bounds, -1, j, -1));
+      addOctagonalConstraint(m, 1, k, 1, j, sup(lo, hi, bounds, -1, j, 1));
+      addOctagonalConstraint(m, -1, k, -1, j, -inf(lo, hi, bounds, -1, j, 1));
+    }
+    return closeIncremental(m, n, k);
+  }
+
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    int n = c.getDimension();
+    double[] t = values(array);
+    double[] m = c.getMatrix().clone();
+    for (int l = 0; l < noOfConstraints; l++) {
+      int type = (int) t[4 * l];
+      int x = (int) t[4 * l + 1];
+      int y = (int) t[4 * l + 2];
+      double bound = t[4 * l + 3];
+      switch (type) {
+        case 0: // x <= c
+          addOctagonalConstraint(m, 1, x, 0, x, bound);
+          break;
+        case 1: // -x <= c
+          addOctagonalConstraint(m, -1, x, 0, x, bound);
+          break;
+        case 2: // x + y <= c
+          addOctagonalConstraint(m, 1, x, 1, y, bound);
+          break;
+        case 3: // x - y <= c
+          addOctagonalConstraint(m, 1, x, -1, y, bound);
+          break;
+        case 4: // -x + y <= c
+          addOctagonalConstraint(m, -1, x, 1, y, bound);
+          break;
+        case 5: // -x - y <= c
+          addOctagonalConstraint(m, -1, x, -1, y, bound);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown type of binary constraint: " + type);
+      }
+      if (!DifferenceBoundMatrices.closeIncremental(m, n, x, integers)) {
+        return emptyOctagon(n);
+      }
+    }
+    return new JavaOctagon(this, n, m, true);
+  }
+
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    JavaNumArray t = array(array);
+    double[] lo = Arrays.copyOf(t.getLowerValues(), dimension(oct) + 1);
+    double[] hi = Arrays.copyOf(t.getValues(), dimension(oct) + 1);
+    return substitute(closure(oct), x, lo, hi);
+  }
+
+  /**
+   * The preimage of the assignment x := sum([lo_i, hi_i] * x_i) + [lo_n, hi_n] on a closed
+   * octagon.
+   */
+  private JavaOctagon substitute(JavaOctagon c, int x, double[] lo, double[] hi) {
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    int n = c.getDimension();
+    if (isPoint(lo, hi)) {
+      int count = 0;
+      int var = -1;
+      for (int i = 0; i < n; i++) {
+        if (lo[i] != 0) {
+          count++;
+          var = i;
+        }
+      }
+      if (count == 1 && var == x && (lo[x] == 1 || lo[x] == -1)) {
+        double[] m = c.getMatrix().clone();
+        if (lo[x] == -1) {
+          // x := -x + c is its own inverse
+          negate(m, n, x);
+          shift(m, n, x, lo[n]);
+        } else {
+          shift(m, n, x, -lo[n]);
+        }
+        return new JavaOctagon(this, n, m, true);
+      }
+      if (count == 0 || (count == 1 && (lo[var] == 1 || lo[var] == -1))) {
+        // intersect with x = e and remove the old x
+        double[] m = c.getMatrix().clone();
+        if (count == 0) {
+          setConstant(m, x, lo[n]);
+        } else {
+          addOctagonalConstraint(m, 1, x, -lo[var], var, lo[n]);
+          addOctagonalConstraint(m, -1, x, lo[var], var, -lo[n]);
+        }
+        if (!DifferenceBoundMatrices.closeIncremental(m, n, x, integers)) {
+          return emptyOctagon(n);
+        }
+        DifferenceBoundMatrices.forget(m, n, x);
+        return new JavaOctagon(this, n, m, true);
+      }
+    }
+
+    // in general, the expression has to satisfy the old bounds of x: e - lower >= 0, upper - e >= 0
+    double[] m = c.getMatrix().clone();
+    double upper = upperBound(m, x, integers);
+    double negatedLower = negatedLowerBound(m, x, integers);
+    DifferenceBoundMatrices.forget(m, n, x);
+    double[] lo1 = lo.clone();
+    double[] hi1 = hi.clone();
+    lo1[n] = addDown(lo1[n], negatedLower, integers);
+    hi1[n] = addUp(hi1[n], negatedLower, integers);
+    double[] lo2 = new double[n + 1];
+    double[] hi2 = new double[n + 1];
+    for (int i = 0; i <= n; i++) {
+      lo2[i] = -hi[i] + 0.0;
+      hi2[i] = -lo[i] + 0.0;
+    }
+    lo2[n] = addDown(lo2[n], upper, integers);
+    hi2[n] = addUp(hi2[n], upper, integers);
+    if (!addLinearConstraint(m, n, lo1, hi1) || !addLinearConstraint(m, n, lo2, hi2)) {
+      return emptyOctagon(n);
+    }
+    return new JavaOctagon(this, n, m, false);
+  }
+
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    JavaNumArray t = array(array);
+    double[] lo = Arrays.copyOf(t.getLowerValues(), dimension(oct) + 1);
+    double[] hi = Arrays.copyOf(t.getValues(), dimension(oct) + 1);
+    return addConstraint(closure(oct), lo, hi);
+  }
+
+  /** sum([lo_i, hi_i] * x_i) + [lo_n, hi_n] >= 0 on a closed octagon */
+  private JavaOctagon addConstraint(JavaOctagon c, double[] lo, double[] hi) {
+    if (c.isKnownEmpty()) {
+      return c;
+    }
+    int n = c.getDimension();
+    double[] m = c.getMatrix().clone();
+    if (!addLinearConstraint(m, n, lo, hi)) {
+      return emptyOctagon(n);
+    }
+    int var = -1;
+    for (int i = 0; i < n; i++) {
+      if (lo[i] != 0 || hi[i] != 0) {
+        if (var >= 0) {
+          // more than one variable
+          return new JavaOctagon(this, n, m, false);
+        }
+        var = i;
+      }
+    }
+    return var < 0 ? new JavaOctagon(this, n, m, true) : closeIncremental(m, n, var);
+  }
+
+  /**
+   * Add the octagonal constraints that follow from sum([lo_i, hi_i] * x_i) + [lo_n, hi_n] >= 0 to
+   * a strongly closed matrix, using the bounds of the variables for the terms that cannot be
+   * represented. The constraint is exact if it has at most two variables with coefficients 1 or -1.
+   * Returns false if the constraint is unsatisfiable because it has no variables.
+   */
+  private boolean addLinearConstraint(double[] m, int n, double[] lo, double[] hi) {
+    double[][] bounds = bounds(m, n);
+    int[] vars = new int[n];
+    int count = 0;
+    for (int i = 0; i < n; i++) {
+      if (lo[i] != 0 || hi[i] != 0) {
+        vars[count++] = i;
+      }
+    }
+    if (count == 0) {
+      return hi[n] >= 0;
+    }
+
+    for (int a = 0; a < count; a++) {
+      int j = vars[a];
+      if (lo[j] != hi[j]) {
+        continue;
+      }
+      // a_j * x_j >= -sup(rest)
+      double rest = sup(lo, hi, bounds, j, -1, 0);
+      if (rest != INFINITY) {
+        double coefficient = lo[j];
+        addOctagonalConstraint(
+            m, -Math.signum(coefficient), j, 0, j, divUp(rest, Math.abs(coefficient)));
+      }
+      for (int b = a + 1; b < count; b++) {
+        int l = vars[b];
+        if (lo[l] != hi[l] || Math.abs(lo[j]) != 1 || Math.abs(lo[l]) != 1) {
+          continue;
+        }
+        // a_j * x_j + a_l * x_l >= -sup(rest)
+        double[] loRest = lo.clone();
+        double[] hiRest = hi.clone();
+        loRest[l] = 0;
+        hiRest[l] = 0;
+        double pairRest = sup(loRest, hiRest, bounds, j, -1, 0);
+        if (pairRest != INFINITY) {
+          addOctagonalConstraint(m, -lo[j], j, -lo[l], l, pairRest);
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    JavaOctagon c = closure(oct);
+    double[][] coefficients = intervals(array, c.getDimension());
+    double[] lo = coefficients[0];
+    double[] hi = coefficients[1];
+    if (isPoint(lo, hi)) {
+      return assign(c, k, lo);
+    }
+    return c.isKnownEmpty() ? c : assignInterval(c, k, lo, hi);
+  }
+
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    JavaOctagon c = closure(oct);
+    double[][] coefficients = intervals(array, c.getDimension());
+    return substitute(c, x, coefficients[0], coefficients[1]);
+  }
+
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    JavaOctagon c = closure(oct);
+    double[][] coefficients = intervals(array, c.getDimension());
+    return addConstraint(c, coefficients[0], coefficients[1]);
+  }
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    JavaOctagon o = cast(oct);
+    JavaOctagon closed = o.getCachedClosure();
+    if (closed != null) {
+      o = closed;
+    }
+    int n = o.getDimension() + k;
+    if (o.isKnownEmpty()) {
+      return emptyOctagon(n);
+    }
+    return new JavaOctagon(this, n, embed(o.getMatrix(), o.getDimension(), n), o.isClosed());
+  }
+
+  /** Extend a matrix over n variables to a matrix over newN variables without new constraints. */
+  private static double[] embed(double[] m, int n, int newN) {
+    double[] result = Arrays.copyOf(m, size(newN));
+    Arrays.fill(result, m.length, result.length, INFINITY);
+    for (int i = 2 * n; i < 2 * newN; i++) {
+      result[position(i, i)] = 0;
+    }
+    return result;
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    JavaOctagon c = closure(oct);
+    int oldN = c.getDimension();
+    int n = oldN + k;
+    if (c.isKnownEmpty()) {
+      return emptyOctagon(n);
+    }
+    double[] m = embed(c.getMatrix(), oldN, n);
+    for (int v = oldN; v < n; v++) {
+      setConstant(m, v, 0);
+      DifferenceBoundMatrices.closeIncremental(m, n, v, integers);
+    }
+    return new JavaOctagon(this, n, m, true);
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    JavaOctagon c = closure(oct);
+    int n = c.getDimension() - k;
+    checkArgument(n >= 0, "cannot remove %s dimensions from %s", k, c.getDimension());
+    if (c.isKnownEmpty()) {
+      return emptyOctagon(n);
+    }
+    // the projection of a strongly closed matrix is strongly closed
+    return new JavaOctagon(this, n, Arrays.copyOf(c.getMatrix(), size(n)), true);
+  }
+
+  @Override
+  @SuppressForbidden("printing is the purpose of this method")
+  public void printNum(NumArray arr, int size) {
+    double[] values = values(arr);
+    StringBuilder str = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      str.append(format(values[i])).append(' ');
+    }
+    System.out.println(str);
+  }
+
+  @Override
+  @SuppressForbidden("printing is the purpose of this method")
+  public void printOct(Octagon oct) {
+    JavaOctagon o = cast(oct);
+    StringBuilder str = new StringBuilder();
+    if (o.isKnownEmpty()) {
+      str.append("[ empty ]");
+    } else {
+      double[] m = o.getMatrix();
+      str.append("[").append(o.isClosed() ? " (closed)" : "").append('\n');
+      for (int i = 0; i < 2 * o.getDimension(); i++) {
+        for (int j = 0; j <= (i | 1); j++) {
+          double bound = m[position(i, j)];
+          if (i != j && bound != INFINITY) {
+            str.append("  ")
+                .append(signedName(j))
+                .append(" + ")
+                .append(signedName(i ^ 1))
+                .append(" <= ")
+                .append(format(bound))
+                .append('\n');
+          }
+        }
+      }
+      str.append("]");
+    }
+    System.out.println(str);
+  }
+
+  private static String signedName(int i) {
+    return (i % 2 == 0 ? "" : "-") + "v" + i / 2;
+  }
+
+  private String format(double value) {
+    if (value == INFINITY) {
+      return "+oo";
+    }
+    return integers ? Long.toString((long) value) : Double.toString(value);
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    StringBuilder str = new StringBuilder();
+    int dimension = dimension(oct);
+    str.append("Octagon (dimension: " + dimension + ")\n");
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      double negatedLower = negatedLowerBound(c.getMatrix(), i, integers);
+      double upper = upperBound(c.getMatrix(), i, integers);
+      if (negatedLower == INFINITY) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(format(-negatedLower + 0.0)).append(", ");
+      }
+      if (upper == INFINITY) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(format(upper)).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    assert id < dimension(oct);
+    JavaOctagon c = closure(oct);
+    if (c.isKnownEmpty()) {
+      return OctagonInterval.EMPTY;
+    }
+    double lower = -negatedLowerBound(c.getMatrix(), id, integers) + 0.0;
+    double upper = upperBound(c.getMatrix(), id, integers);
+    if (!integers || (lower != -INFINITY && upper != INFINITY)) {
+      // like OctagonIntManager, which also returns doubles for finite bounds
+      return new OctagonInterval(lower, upper);
+    } else if (lower == -INFINITY && upper != INFINITY) {
+      return new OctagonInterval(new OctagonDoubleValue(lower), OctagonIntValue.of((long) upper));
+    } else if (lower != -INFINITY && upper == INFINITY) {
+      return new OctagonInterval(OctagonIntValue.of((long) lower), new OctagonDoubleValue(upper));
+    }
+    return new OctagonInterval(lower, upper);
+  }
+
+  /** The hash code of an octagon, which is consistent with {@link #isEqual}. */
+  int hashCode(JavaOctagon oct) {
+    JavaOctagon c = closure(oct);
+    int result = c.getDimension();
+    if (c.isKnownEmpty()) {
+      return result;
+    }
+    for (double value : c.getMatrix()) {
+      result = 31 * result + Double.hashCode(value + 0.0);
+    }
+    return result;
+  }
+}
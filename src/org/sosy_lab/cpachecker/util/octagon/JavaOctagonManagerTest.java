@@ -0,0 +1,200 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import java.util.Collection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+
+/** Tests for {@link JavaOctagonManager}, the expected results are those of the native library. */
+@RunWith(Parameterized.class)
+public class JavaOctagonManagerTest {
+
+  private static final int PX = 0;
+  private static final int PXMY = 3;
+  private static final int PXPY = 2;
+
+  @Parameters(name = "sparse closure: {0}")
+  public static Collection<Object[]> sparseClosure() {
+    return ImmutableList.of(new Object[] {false}, new Object[] {true});
+  }
+
+  @Parameter public boolean sparse;
+
+  private OctagonManager intManager() {
+    return new JavaOctagonManager(true, sparse);
+  }
+
+  private NumArray array(OctagonManager manager, long... values) {
+    NumArray array = manager.init_num_t(values.length);
+    for (int i = 0; i < values.length; i++) {
+      manager.num_set_int(array, i, values[i]);
+    }
+    return array;
+  }
+
+  private Octagon addBinConstraint(
+      OctagonManager manager, Octagon oct, int type, int x, int y, long c) {
+    return manager.addBinConstraint(oct, 1, array(manager, type, x, y, c));
+  }
+
+  private void assertBounds(OctagonManager manager, Octagon oct, int var, double low, double high) {
+    OctagonInterval bounds = manager.getVariableBounds(oct, var);
+    assertThat(bounds.getLow().getValue().doubleValue()).isEqualTo(low);
+    assertThat(bounds.getHigh().getValue().doubleValue()).isEqualTo(high);
+  }
+
+  /** The exact value of a bound, which may be a long or a double. */
+  private static BigDecimal exact(Number value) {
+    return (value instanceof Long)
+        ? BigDecimal.valueOf(value.longValue())
+        : new BigDecimal(value.doubleValue());
+  }
+
+  private void assertContains(OctagonManager manager, Octagon oct, int var, long value) {
+    OctagonInterval bounds = manager.getVariableBounds(oct, var);
+    Number low = bounds.getLow().getValue();
+    Number high = bounds.getHigh().getValue();
+    if (low.doubleValue() != Double.NEGATIVE_INFINITY) {
+      assertThat(exact(low)).isAtMost(BigDecimal.valueOf(value));
+    }
+    if (high.doubleValue() != Double.POSITIVE_INFINITY) {
+      assertThat(exact(high)).isAtLeast(BigDecimal.valueOf(value));
+    }
+  }
+
+  @Test
+  public void testNum_Float() {
+    OctagonManager manager = intManager();
+    NumArray num = manager.init_num_t(1);
+    manager.num_set_float(num, 0, 3.3);
+    assertThat(manager.num_get_int(num, 0)).isEqualTo(4); // rounded up like in the native library
+    manager.num_set_inf(num, 0);
+    assertThat(manager.num_infty(num, 0)).isTrue();
+  }
+
+  @Test
+  public void testClosure() {
+    for (boolean integers : new boolean[] {true, false}) {
+      OctagonManager manager = new JavaOctagonManager(integers, sparse);
+      Octagon oct = manager.universe(2);
+      oct = addBinConstraint(manager, oct, PXPY, 0, 1, 3); // x + y <= 3
+      oct = addBinConstraint(manager, oct, PXMY, 0, 1, 0); // x - y <= 0
+      // x <= 1.5, which the integer version of the native library rounds up to 2
+      assertBounds(manager, oct, 0, Double.NEGATIVE_INFINITY, integers ? 2 : 1.5);
+      assertBounds(manager, oct, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+      // the same constraints in a different order and via intersection must be equal
+      Octagon other = addBinConstraint(manager, manager.universe(2), PXMY, 0, 1, 0);
+      other =
+          manager.intersection(
+              other, addBinConstraint(manager, manager.universe(2), PXPY, 0, 1, 3));
+      assertThat(manager.isEqual(oct, other)).isTrue();
+      assertThat(oct.hashCode()).isEqualTo(other.hashCode());
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    OctagonManager manager = intManager();
+    Octagon oct = addBinConstraint(manager, manager.universe(3), PX, 0, 0, 5); // x <= 5
+    oct = addBinConstraint(manager, oct, PXMY, 1, 0, -1); // y - x <= -1
+    assertThat(manager.isEmpty(oct)).isFalse();
+    assertBounds(manager, oct, 1, Double.NEGATIVE_INFINITY, 4);
+
+    oct = manager.addConstraint(oct, array(manager, 0, 1, 0, -10)); // y - 10 >= 0
+    assertThat(manager.isEmpty(oct)).isTrue();
+    assertThat(manager.isIncludedIn(oct, manager.empty(3))).isTrue();
+    assertThat(manager.isEqual(oct, manager.empty(3))).isTrue();
+  }
+
+  @Test
+  public void testAssignment() {
+    OctagonManager manager = intManager();
+    Octagon oct = addBinConstraint(manager, manager.universe(2), PX, 1, 1, 5); // y <= 5
+    oct = addBinConstraint(manager, oct, 1, 1, 1, 0); // -y <= 0
+
+    Octagon assigned = manager.assingVar(oct, 0, array(manager, 0, 2, 2)); // x := 2y + 2
+    assertBounds(manager, assigned, 0, 2, 12);
+
+    assigned = manager.assingVar(oct, 0, array(manager, 0, 1, 2)); // x := y + 2
+    assigned = manager.assingVar(assigned, 1, array(manager, 0, -1, 1)); // y := -y + 1
+    assertBounds(manager, assigned, 1, -4, 1);
+    // x + y = 3
+    assertThat(manager.isIn(assigned, array(manager, 2, 1))).isTrue();
+    Octagon expected = addBinConstraint(manager, manager.universe(2), PXPY, 0, 1, 3);
+    expected = manager.addConstraint(expected, array(manager, 1, 1, -3));
+    assertThat(manager.isIncludedIn(assigned, expected)).isTrue();
+  }
+
+  @Test
+  public void testWidening() {
+    OctagonManager manager = intManager();
+    Octagon zero = manager.assingVar(manager.universe(1), 0, array(manager, 0, 0)); // x := 0
+    Octagon one = manager.assingVar(zero, 0, array(manager, 1, 1)); // x := x + 1
+    Octagon join = manager.union(zero, one);
+    assertBounds(manager, join, 0, 0, 1);
+
+    Octagon widened = manager.widening(zero, join);
+    assertBounds(manager, widened, 0, 0, Double.POSITIVE_INFINITY);
+    assertThat(manager.isIncludedIn(join, widened)).isTrue();
+    assertThat(manager.isIncludedIn(widened, join)).isFalse();
+  }
+
+  @Test
+  public void testDimensions() {
+    OctagonManager manager = intManager();
+    Octagon oct = addBinConstraint(manager, manager.universe(1), PX, 0, 0, 7);
+    Octagon extended = manager.addDimensionAndProject(oct, 2);
+    assertThat(manager.dimension(extended)).isEqualTo(3);
+    assertBounds(manager, extended, 0, Double.NEGATIVE_INFINITY, 7);
+    assertBounds(manager, extended, 2, 0, 0);
+
+    Octagon embedded = manager.addDimensionAndEmbed(oct, 2);
+    assertThat(manager.isUniverse(manager.removeDimension(embedded, 3))).isTrue();
+    assertThat(manager.isEqual(manager.removeDimension(extended, 2), oct)).isTrue();
+  }
+
+  @Test
+  public void testLargeIntegers() {
+    // 2^53 + 1 is not representable as a double and must not be rounded to the smaller 2^53
+    long large = (1L << 53) + 1;
+    OctagonManager manager = intManager();
+
+    Octagon oct = addBinConstraint(manager, manager.universe(2), PX, 0, 0, large); // x <= large
+    oct = addBinConstraint(manager, oct, 1, 0, 0, -large); // -x <= -large
+    assertContains(manager, oct, 0, large);
+    assertThat(manager.isEmpty(oct)).isFalse();
+
+    // x <= 2^53 and y - x <= 1, the sum in the closure must not be rounded down
+    oct = addBinConstraint(manager, manager.universe(2), PX, 0, 0, 1L << 53);
+    oct = addBinConstraint(manager, oct, PXMY, 1, 0, 1);
+    assertContains(manager, oct, 1, large);
+
+    // x := large and x := y + large with y = 0
+    Octagon assigned = manager.assingVar(manager.universe(2), 0, array(manager, 0, 0, large));
+    assertContains(manager, assigned, 0, large);
+    assigned = manager.assingVar(manager.universe(2), 1, array(manager, 0, 0, 0)); // y := 0
+    assigned = manager.assingVar(assigned, 0, array(manager, 0, 1, large));
+    assertContains(manager, assigned, 0, large);
+
+    // the constraint x - large >= 0 must not exclude x = large
+    Octagon constrained = manager.addConstraint(assigned, array(manager, 1, 0, -large));
+    assertThat(manager.isEmpty(constrained)).isFalse();
+    assertContains(manager, constrained, 0, large);
+  }
+}
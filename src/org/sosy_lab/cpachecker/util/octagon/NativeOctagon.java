@@ -0,0 +1,35 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+/** An octagon of the native octagon library, identified by its pointer. */
+final class NativeOctagon extends Octagon {
+
+  private final long octId;
+
+  NativeOctagon(long l, NativeOctagonManager manager) {
+    super(manager);
+    octId = l;
+    registerPhantomReference(this);
+  }
+
+  long getOctId() {
+    return octId;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int)octId;
+  }
+
+  @Override
+  public String toString() {
+    return "octagon with id: " + octId;
+  }
+}
@@ -8,35 +8,8 @@
 
 package org.sosy_lab.cpachecker.util.octagon;
 
-public class NumArray {
+/** An array of numbers that can be passed to an {@link OctagonManager}. */
+public abstract class NumArray {
 
-  private final long array;
-
-  NumArray(long l) {
-    array = l;
-  }
-
-  long getArray() {
-    return array;
-  }
-
-  @Override
-  public String toString() {
-    // TODO
-    return super.toString();
-  }
-
-  @Override
-  public boolean equals(Object pObj) {
-    if (!(pObj instanceof NumArray)) {
-      return false;
-    }
-    NumArray otherArr = (NumArray) pObj;
-    return this.array == otherArr.array;
-  }
-
-  @Override
-  public int hashCode() {
-    return (int)array;
-  }
-}
\ No newline at end of file
+  NumArray() {}
+}
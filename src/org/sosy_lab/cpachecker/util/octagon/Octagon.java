@@ -14,20 +14,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 
-public class Octagon {
+public abstract class Octagon {
 
-  private final long octId;
   private final OctagonManager manager;
   private static List<OctagonPhantomReference> phantomReferences = new ArrayList<>();
   private static ReferenceQueue<Octagon> referenceQueue = new ReferenceQueue<>();
 
-  Octagon(long l, OctagonManager manager) {
-    octId = l;
+  Octagon(OctagonManager manager) {
     this.manager = manager;
-    registerPhantomReference(this);
   }
 
-  private static void registerPhantomReference(Octagon oct) {
+  static void registerPhantomReference(NativeOctagon oct) {
     phantomReferences.add(new OctagonPhantomReference(oct, referenceQueue));
   }
 
@@ -38,31 +35,20 @@ public class Octagon {
     }
   }
 
-  long getOctId() {
-    return octId;
-  }
-
   public OctagonManager getManager() {
     return manager;
   }
 
   @Override
-  public int hashCode() {
-    return (int)octId;
-  }
+  public abstract int hashCode();
 
   @Override
   public boolean equals(Object pObj) {
-    if (!(pObj instanceof Octagon)) {
+    if (pObj == null || getClass() != pObj.getClass()) {
       return false;
     }
     Octagon otherOct = (Octagon) pObj;
 
     return manager.dimension(this) == otherOct.manager.dimension(otherOct) && manager.isEqual(this, otherOct);
   }
-
-  @Override
-  public String toString() {
-    return "octagon with id: " + octId;
-  }
-}
\ No newline at end of file
+}
@@ -11,18 +11,18 @@ package org.sosy_lab.cpachecker.util.octagon;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 
-public class OctagonPhantomReference extends PhantomReference<Octagon> {
+class OctagonPhantomReference extends PhantomReference<Octagon> {
 
   private Long octRef;
-  private OctagonManager manager;
+  private NativeOctagonManager manager;
 
-  public OctagonPhantomReference(Octagon reference, ReferenceQueue<? super Octagon> queue) {
+  OctagonPhantomReference(NativeOctagon reference, ReferenceQueue<? super Octagon> queue) {
     super(reference, queue);
     octRef = reference.getOctId();
-    manager = reference.getManager();
+    manager = (NativeOctagonManager) reference.getManager();
   }
 
-  public void cleanup() {
+  void cleanup() {
     manager.free(octRef);
   }
 }
\ No newline at end of file
@@ -38,9 +38,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -78,7 +80,7 @@ import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
 @Options(prefix="cpa.predicate.refinement")
-public final class InterpolationManager {
+public final class InterpolationManager implements AutoCloseable {
 
   private final Timer cexAnalysisTimer = new Timer();
   private final Timer satCheckTimer = new Timer();
@@ -98,11 +100,22 @@ public final class InterpolationManager {
       w1.put("Reused formulas on solver stack", reusedFormulasOnSolverStack + " (Avg: " + div(reusedFormulasOnSolverStack, satCheckTimer.getNumberOfIntervals()) + ")");
     }
     w1.put("Interpolant computation", getInterpolantTimer);
+    if (workers != null) {
+      workers.printStatistics(w1.beginLevel());
+    }
     if (interpolantVerificationTimer.getNumberOfIntervals() > 0) {
       w1.put("Interpolant verification", interpolantVerificationTimer);
     }
   }
 
+  /** Close the separate solvers for parallel interpolation, if there are any. */
+  @Override
+  public void close() {
+    if (workers != null) {
+      workers.close();
+    }
+  }
+
 
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
@@ -198,12 +211,30 @@ public final class InterpolationManager {
               + " options instead of giving up immediately.")
   private boolean tryAgainOnInterpolationError = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of separate SMT solver contexts for computing the interpolants of an infeasible"
+              + " counterexample in parallel. Each context checks the whole counterexample again"
+              + " and computes a part of the interpolants. Only supported by the interpolation"
+              + " strategy SEQ_CPACHECKER. Because the interpolants come from different proofs,"
+              + " they do not necessarily form an inductive sequence (cf. verifyInterpolants)."
+              + " Therefore analyses that need an inductive sequence (e.g., Impact) reject this"
+              + " option, and other users of interpolation ignore it.")
+  @IntegerOption(min = 1)
+  private int interpolationThreads = 1;
+
   private final ITPStrategy itpStrategy;
 
   private final ExecutorService executor;
+  private final @Nullable InterpolationWorkers workers;
   private final LoopStructure loopStructure;
   private final VariableClassification variableClassification;
 
+  /**
+   * Create an interpolation manager that computes all interpolants sequentially with the given
+   * solver, i.e., that ignores the option interpolationThreads.
+   */
   public InterpolationManager(
       PathFormulaManager pPmgr,
       Solver pSolver,
@@ -212,6 +243,58 @@ public final class InterpolationManager {
       Configuration config,
       ShutdownNotifier pShutdownNotifier,
       LogManager pLogger) throws InvalidConfigurationException {
+    this(
+        pPmgr,
+        pSolver,
+        pLoopStructure,
+        pVarClassification,
+        config,
+        pShutdownNotifier,
+        pLogger,
+        Optional.empty());
+  }
+
+  /**
+   * Create an interpolation manager that computes interpolants in parallel if configured with the
+   * option interpolationThreads. The manager needs to be closed afterwards to close the separate
+   * solvers.
+   *
+   * @param pNeedsInductiveSequence whether the caller relies on the interpolants forming an
+   *     inductive sequence, which is not guaranteed by parallel interpolation
+   * @throws InvalidConfigurationException if parallel interpolation is configured but the caller
+   *     needs an inductive sequence
+   */
+  public InterpolationManager(
+      PathFormulaManager pPmgr,
+      Solver pSolver,
+      Optional<LoopStructure> pLoopStructure,
+      Optional<VariableClassification> pVarClassification,
+      Configuration config,
+      ShutdownNotifier pShutdownNotifier,
+      LogManager pLogger,
+      boolean pNeedsInductiveSequence)
+      throws InvalidConfigurationException {
+    this(
+        pPmgr,
+        pSolver,
+        pLoopStructure,
+        pVarClassification,
+        config,
+        pShutdownNotifier,
+        pLogger,
+        Optional.of(pNeedsInductiveSequence));
+  }
+
+  private InterpolationManager(
+      PathFormulaManager pPmgr,
+      Solver pSolver,
+      Optional<LoopStructure> pLoopStructure,
+      Optional<VariableClassification> pVarClassification,
+      Configuration config,
+      ShutdownNotifier pShutdownNotifier,
+      LogManager pLogger,
+      Optional<Boolean> pNeedsInductiveSequence)
+      throws InvalidConfigurationException {
     config.inject(this, InterpolationManager.class);
 
     logger = pLogger;
@@ -231,6 +314,20 @@ public final class InterpolationManager {
           Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true).build());
     }
 
+    if (interpolationThreads > 1 && pNeedsInductiveSequence.orElse(false)) {
+      throw new InvalidConfigurationException(
+          "Parallel interpolation (cpa.predicate.refinement.interpolationThreads > 1) does not"
+              + " guarantee an inductive sequence of interpolants, which this analysis needs.");
+    }
+    if (interpolationThreads > 1
+        && pNeedsInductiveSequence.isPresent()
+        && strategy == InterpolationStrategy.SEQ_CPACHECKER) {
+      workers =
+          new InterpolationWorkers(interpolationThreads, fmgr, config, pLogger, pShutdownNotifier);
+    } else {
+      workers = null;
+    }
+
     if (reuseInterpolationEnvironment) {
       interpolator = new Interpolator<>();
     } else {
@@ -768,6 +865,26 @@ public final class InterpolationManager {
           solver.newProverEnvironmentWithInterpolation(ProverOptions.GENERATE_MODELS);
     }
 
+    /** Return whether there are separate solvers for computing interpolants in parallel. */
+    public boolean supportsParallelInterpolation() {
+      return workers != null;
+    }
+
+    /**
+     * Compute the interpolants for several partitions of the trace with separate solvers in
+     * parallel. For each given pair of indices, the partition A consists of the formulas from the
+     * first to the second index (inclusive) and the partition B of all other formulas. This may
+     * only be called if {@link #supportsParallelInterpolation()} returns true.
+     *
+     * @param pTrace the formulas of the unsatisfiable trace, in their original order
+     * @return the interpolants in the order of the given partitions
+     */
+    public List<BooleanFormula> getInterpolantsInParallel(
+        List<BooleanFormula> pTrace, List<Pair<Integer, Integer>> pPartitionsOfA)
+        throws SolverException, InterruptedException {
+      return checkNotNull(workers).getInterpolants(pTrace, pPartitionsOfA);
+    }
+
     /**
      * Counterexample analysis and predicate discovery.
      *
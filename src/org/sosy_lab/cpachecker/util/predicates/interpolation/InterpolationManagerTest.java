@@ -0,0 +1,116 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.interpolation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.cpa.predicate.BlockFormulaStrategy.BlockFormulas;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/** Unit tests for {@link InterpolationManager}. */
+public class InterpolationManagerTest extends SolverViewBasedTest0 {
+
+  private static final int TRACE_LENGTH = 8;
+
+  private final LogManager logger = LogManager.createTestLogManager();
+
+  private PathFormulaManager pfmgr;
+  private Configuration parallelConfig;
+
+  @Before
+  public void setUp() throws Exception {
+    pfmgr =
+        new PathFormulaManagerImpl(
+            mgrv,
+            config,
+            logger,
+            ShutdownNotifier.createDummy(),
+            MachineModel.LINUX32,
+            Optional.empty(),
+            AnalysisDirection.FORWARD);
+    parallelConfig =
+        Configuration.builder()
+            .copyFrom(config)
+            .setOption("cpa.predicate.refinement.interpolationThreads", "2")
+            .build();
+  }
+
+  /** The infeasible trace p0, p0 -> p1, ..., p(n-1) -> pn, !pn. */
+  private BlockFormulas makeTrace() {
+    ImmutableList.Builder<BooleanFormula> trace = ImmutableList.builder();
+    trace.add(bmgrv.makeVariable("p0"));
+    for (int i = 1; i < TRACE_LENGTH; i++) {
+      trace.add(bmgrv.implication(bmgrv.makeVariable("p" + (i - 1)), bmgrv.makeVariable("p" + i)));
+    }
+    trace.add(bmgrv.not(bmgrv.makeVariable("p" + (TRACE_LENGTH - 1))));
+    return new BlockFormulas(trace.build());
+  }
+
+  private InterpolationManager createManager(Configuration pConfig, boolean pInductiveSequence)
+      throws InvalidConfigurationException {
+    return new InterpolationManager(
+        pfmgr,
+        solver,
+        Optional.empty(),
+        Optional.empty(),
+        pConfig,
+        ShutdownNotifier.createDummy(),
+        logger,
+        pInductiveSequence);
+  }
+
+  @Test
+  public void testParallelInterpolantsAgreeWithSequential() throws Exception {
+    InterpolationManager sequentialManager =
+        new InterpolationManager(
+            pfmgr,
+            solver,
+            Optional.empty(),
+            Optional.empty(),
+            config,
+            ShutdownNotifier.createDummy(),
+            logger);
+    CounterexampleTraceInfo sequential = sequentialManager.buildCounterexampleTrace(makeTrace());
+
+    CounterexampleTraceInfo parallel;
+    try (InterpolationManager parallelManager = createManager(parallelConfig, false)) {
+      parallel = parallelManager.buildCounterexampleTrace(makeTrace());
+    }
+
+    assertThat(sequential.isSpurious()).isTrue();
+    assertThat(parallel.isSpurious()).isTrue();
+    List<BooleanFormula> expected = sequential.getInterpolants();
+    List<BooleanFormula> actual = parallel.getInterpolants();
+    assertThat(actual).hasSize(expected.size());
+    for (int i = 0; i < expected.size(); i++) {
+      // the interpolants of this trace are unique up to equivalence
+      assertThatFormula(actual.get(i)).isEquivalentTo(expected.get(i));
+    }
+  }
+
+  @Test
+  public void testParallelInterpolationRejectedForInductiveSequences() {
+    assertThrows(InvalidConfigurationException.class, () -> createManager(parallelConfig, true));
+  }
+}
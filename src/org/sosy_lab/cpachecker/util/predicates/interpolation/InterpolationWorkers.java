@@ -0,0 +1,200 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.interpolation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A pool of separate SMT solver contexts for computing several interpolants of the same
+ * infeasible trace in parallel. Each worker has its own {@link Solver} that is used by only one
+ * thread at a time, and gets the whole trace asserted on its own solver stack. The queries are
+ * split into contiguous chunks, one per worker.
+ *
+ * <p>Formulas are copied between the solvers as strings (like in {@link
+ * SeparateInterpolatingProverEnvironment}). This is done in the calling thread for the formulas of
+ * the main solver, such that the main solver is never accessed concurrently.
+ *
+ * <p>The solvers of the workers need to be closed with {@link #close()}.
+ */
+final class InterpolationWorkers implements AutoCloseable {
+
+  private final FormulaManagerView mainFmgr;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ImmutableList<Worker> workers;
+  private final ExecutorService executor;
+
+  InterpolationWorkers(
+      int pThreads,
+      FormulaManagerView pMainFmgr,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    checkArgument(pThreads > 1);
+    mainFmgr = pMainFmgr;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+
+    ImmutableList.Builder<Worker> builder = ImmutableList.builderWithExpectedSize(pThreads);
+    try {
+      for (int i = 0; i < pThreads; i++) {
+        builder.add(new Worker(Solver.create(pConfig, pLogger, pShutdownNotifier)));
+      }
+    } catch (InvalidConfigurationException | RuntimeException e) {
+      for (Worker worker : builder.build()) {
+        worker.solver.close();
+      }
+      throw e;
+    }
+    workers = builder.build();
+
+    // important to use daemon threads here, because we never have the chance to stop the executor
+    executor =
+        Executors.newFixedThreadPool(
+            pThreads,
+            new ThreadFactoryBuilder().setNameFormat("Interpolation-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Compute the interpolants for several partitions of the trace. For each given pair of indices,
+   * the partition A consists of the formulas from the first to the second index (inclusive) and
+   * the partition B of all other formulas. The trace needs to be unsatisfiable.
+   *
+   * @return the interpolants in the order of the given partitions
+   */
+  List<BooleanFormula> getInterpolants(
+      List<BooleanFormula> pTrace, List<Pair<Integer, Integer>> pPartitionsOfA)
+      throws SolverException, InterruptedException {
+    List<String> trace = new ArrayList<>(pTrace.size());
+    for (BooleanFormula f : pTrace) {
+      trace.add(mainFmgr.dumpFormula(f).toString());
+    }
+
+    int chunkSize = (pPartitionsOfA.size() + workers.size() - 1) / workers.size();
+    List<Future<List<String>>> futures = new ArrayList<>(workers.size());
+    for (int i = 0; i < workers.size() && i * chunkSize < pPartitionsOfA.size(); i++) {
+      Worker worker = workers.get(i);
+      List<Pair<Integer, Integer>> chunk =
+          pPartitionsOfA.subList(
+              i * chunkSize, Math.min((i + 1) * chunkSize, pPartitionsOfA.size()));
+      futures.add(executor.submit(() -> worker.getInterpolants(trace, chunk)));
+    }
+
+    ImmutableList.Builder<BooleanFormula> interpolants =
+        ImmutableList.builderWithExpectedSize(pPartitionsOfA.size());
+    try {
+      for (Future<List<String>> future : futures) {
+        for (String itp : future.get()) {
+          interpolants.add(mainFmgr.parse(itp));
+        }
+      }
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, SolverException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("parallel interpolation", t);
+    } finally {
+      // does nothing if all workers finished successfully
+      for (Future<List<String>> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return interpolants.build();
+  }
+
+  /** Stop the threads and close the solvers of all workers. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    for (Worker worker : workers) {
+      worker.solver.close();
+    }
+  }
+
+  void printStatistics(StatisticsWriter pWriter) {
+    for (int i = 0; i < workers.size(); i++) {
+      pWriter.put("Solver time of interpolation thread " + i, workers.get(i).timer);
+    }
+  }
+
+  private final class Worker {
+
+    private final Solver solver;
+    private final FormulaManagerView fmgr;
+
+    // only updated by the thread that currently executes a query of this worker
+    private final Timer timer = new Timer();
+
+    private Worker(Solver pSolver) {
+      solver = pSolver;
+      fmgr = pSolver.getFormulaManager();
+    }
+
+    private List<String> getInterpolants(
+        List<String> pTrace, List<Pair<Integer, Integer>> pPartitionsOfA)
+        throws SolverException, InterruptedException {
+      timer.start();
+      try (InterpolatingProverEnvironment<?> itpProver =
+          solver.newProverEnvironmentWithInterpolation()) {
+        return getInterpolants0(itpProver, pTrace, pPartitionsOfA);
+      } finally {
+        timer.stop();
+      }
+    }
+
+    private <T> List<String> getInterpolants0(
+        InterpolatingProverEnvironment<T> pItpProver,
+        List<String> pTrace,
+        List<Pair<Integer, Integer>> pPartitionsOfA)
+        throws SolverException, InterruptedException {
+      List<T> itpGroupIds = new ArrayList<>(pTrace.size());
+      for (String f : pTrace) {
+        itpGroupIds.add(pItpProver.push(fmgr.parse(f)));
+      }
+      if (!pItpProver.isUnsat()) {
+        throw new SolverException("Trace is satisfiable in separate solver for interpolation");
+      }
+
+      List<String> interpolants = new ArrayList<>(pPartitionsOfA.size());
+      for (Pair<Integer, Integer> partition : pPartitionsOfA) {
+        shutdownNotifier.shutdownIfNecessary();
+        BooleanFormula itp =
+            pItpProver.getInterpolant(
+                itpGroupIds.subList(partition.getFirst(), partition.getSecond() + 1));
+        logger.log(Level.ALL, "Received interpolant for", partition, "from separate solver", itp);
+        interpolants.add(fmgr.dumpFormula(itp).toString());
+      }
+      return interpolants;
+    }
+  }
+}
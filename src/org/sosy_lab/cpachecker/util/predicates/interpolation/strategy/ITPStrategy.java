@@ -8,6 +8,7 @@
 
 package org.sosy_lab.cpachecker.util.predicates.interpolation.strategy;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
@@ -18,6 +19,7 @@ import java.util.logging.Level;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.InterpolationManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
@@ -174,4 +176,32 @@ public abstract class ITPStrategy {
     logger.log(Level.ALL, "Received interpolant", itp);
     return itp;
   }
+
+  /**
+   * Precondition: The solver-stack contains all formulas and is UNSAT. Get the interpolants between
+   * each given sublist of formulas (from the first to the second index, inclusive) and the other
+   * formulas on the solver-stack. If supported by the interpolator, the queries are answered by
+   * separate solvers in parallel.
+   */
+  protected final <T> List<BooleanFormula> getInterpolantsFromSublists(
+      final InterpolationManager.Interpolator<T> interpolator,
+      final List<Triple<BooleanFormula, AbstractState, T>> formulasWithStateAndGroupId,
+      final List<Pair<Integer, Integer>> sublists)
+      throws InterruptedException, SolverException {
+    if (interpolator.supportsParallelInterpolation() && sublists.size() > 1) {
+      shutdownNotifier.shutdownIfNecessary();
+      return interpolator.getInterpolantsInParallel(
+          Lists.transform(formulasWithStateAndGroupId, Triple::getFirst), sublists);
+    }
+
+    final List<T> itpGroupIds = projectToThird(formulasWithStateAndGroupId);
+    final ImmutableList.Builder<BooleanFormula> interpolants =
+        ImmutableList.builderWithExpectedSize(sublists.size());
+    for (Pair<Integer, Integer> sublist : sublists) {
+      interpolants.add(
+          getInterpolantFromSublist(
+              interpolator.itpProver, itpGroupIds, sublist.getFirst(), sublist.getSecond()));
+    }
+    return interpolants.build();
+  }
 }
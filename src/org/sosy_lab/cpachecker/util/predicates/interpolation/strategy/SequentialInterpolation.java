@@ -8,8 +8,11 @@
 
 package org.sosy_lab.cpachecker.util.predicates.interpolation.strategy;
 
+import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -19,6 +22,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Triple;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.InterpolationManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
@@ -80,42 +84,41 @@ public class SequentialInterpolation extends ITPStrategy {
       final InterpolationManager.Interpolator<T> interpolator,
       final List<Triple<BooleanFormula, AbstractState, T>> formulasWithStateAndGroupId)
       throws InterruptedException, SolverException {
-    final List<T> formulas = projectToThird(formulasWithStateAndGroupId);
-
     switch (sequentialStrategy) {
       case FWD_FALLBACK:
         try {
-          return getFwdInterpolants(interpolator, formulas);
+          return getFwdInterpolants(interpolator, formulasWithStateAndGroupId);
         } catch (SolverException e) {
           logger.logDebugException(e, FALLBACK_BWD_MSG);
         }
         // $FALL-THROUGH$
       case BWD:
-        return getBwdInterpolants(interpolator, formulas);
+        return getBwdInterpolants(interpolator, formulasWithStateAndGroupId);
 
       case BWD_FALLBACK:
         try {
-          return getBwdInterpolants(interpolator, formulas);
+          return getBwdInterpolants(interpolator, formulasWithStateAndGroupId);
         } catch (SolverException e) {
           logger.logDebugException(e, FALLBACK_FWD_MSG);
         }
         // $FALL-THROUGH$
       case FWD:
-        return getFwdInterpolants(interpolator, formulas);
+        return getFwdInterpolants(interpolator, formulasWithStateAndGroupId);
 
       case CONJUNCTION:
       case WEIGHTED:
       case RANDOM:
         List<BooleanFormula> forward = null;
         try {
-          forward = getFwdInterpolants(interpolator, formulas);
+          forward = getFwdInterpolants(interpolator, formulasWithStateAndGroupId);
         } catch (SolverException e) {
           logger.logDebugException(e, FALLBACK_BWD_MSG);
-          return getBwdInterpolants(interpolator, formulas);
+          return getBwdInterpolants(interpolator, formulasWithStateAndGroupId);
         }
 
         try {
-          List<BooleanFormula> backward = getBwdInterpolants(interpolator, formulas);
+          List<BooleanFormula> backward =
+              getBwdInterpolants(interpolator, formulasWithStateAndGroupId);
           return combine(forward, backward);
         } catch (SolverException e) {
           if (forward == null) {
@@ -135,17 +138,16 @@ public class SequentialInterpolation extends ITPStrategy {
    * Compute interpolants ITP(A,B) for i={0..n-1} for the partitions A=[0 .. i] and B=[i+1 .. n] .
    */
   private <T> List<BooleanFormula> getFwdInterpolants(
-      final InterpolationManager.Interpolator<T> interpolator, final List<T> formulas)
+      final InterpolationManager.Interpolator<T> interpolator,
+      final List<Triple<BooleanFormula, AbstractState, T>> formulas)
       throws InterruptedException, SolverException {
-    final ImmutableList.Builder<BooleanFormula> interpolants =
-        ImmutableList.builderWithExpectedSize(formulas.size() - 1);
+    final List<Pair<Integer, Integer>> sublists = new ArrayList<>(formulas.size() - 1);
     for (int end_of_A = 0; end_of_A < formulas.size() - 1; end_of_A++) {
       // last iteration is left out because B would be empty
       final int start_of_A = 0;
-      interpolants.add(
-          getInterpolantFromSublist(interpolator.itpProver, formulas, start_of_A, end_of_A));
+      sublists.add(Pair.of(start_of_A, end_of_A));
     }
-    return interpolants.build();
+    return getInterpolantsFromSublists(interpolator, formulas, sublists);
   }
 
   /**
@@ -153,18 +155,17 @@ public class SequentialInterpolation extends ITPStrategy {
    * then negate each interpolant.
    */
   private <T> List<BooleanFormula> getBwdInterpolants(
-      final InterpolationManager.Interpolator<T> interpolator, final List<T> formulas)
+      final InterpolationManager.Interpolator<T> interpolator,
+      final List<Triple<BooleanFormula, AbstractState, T>> formulas)
       throws InterruptedException, SolverException {
-    final ImmutableList.Builder<BooleanFormula> interpolants =
-        ImmutableList.builderWithExpectedSize(formulas.size() - 1);
+    final List<Pair<Integer, Integer>> sublists = new ArrayList<>(formulas.size() - 1);
     for (int start_of_A = 1; start_of_A < formulas.size(); start_of_A++) {
       // first iteration is left out because B would be empty
       final int end_of_A = formulas.size() - 1;
-      interpolants.add(
-          bfmgr.not(
-              getInterpolantFromSublist(interpolator.itpProver, formulas, start_of_A, end_of_A)));
+      sublists.add(Pair.of(start_of_A, end_of_A));
     }
-    return interpolants.build();
+    return transformedImmutableListCopy(
+        getInterpolantsFromSublists(interpolator, formulas, sublists), bfmgr::not);
   }
 
   /**
@@ -14,19 +14,16 @@ import static org.sosy_lab.java_smt.api.SolverContext.ProverOptions.GENERATE_UNS
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.PrintStream;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -85,6 +82,36 @@ public final class Solver implements AutoCloseable {
   description="Extract and cache unsat cores for satisfiability checking")
   private boolean cacheUnsatCores = true;
 
+  @Option(
+      secure = true,
+      name = "unsatCache.maxSize",
+      description =
+          "Maximal number of formulas in the cache for satisfiability checks of single formulas "
+              + "(0 for no bound). If the bound is reached, the least-recently used entry "
+              + "is evicted.")
+  @IntegerOption(min = 0)
+  private int unsatCacheMaxSize = 0;
+
+  @Option(
+      secure = true,
+      name = "unsatCache.maxGroupedSize",
+      description =
+          "Maximal number of sets of constraints in the cache for satisfiability checks of "
+              + "sets of constraints (0 for no bound). If the bound is reached, the "
+              + "least-recently used entry is evicted.")
+  @IntegerOption(min = 0)
+  private int unsatCacheMaxGroupedSize = 0;
+
+  @Option(
+      secure = true,
+      name = "unsatCache.maxGroupedWeight",
+      description =
+          "Maximal number of constraints in all sets together in the cache for satisfiability "
+              + "checks of sets of constraints (0 for no bound). If the bound is reached, the "
+              + "least-recently used entries are evicted.")
+  @IntegerOption(min = 0)
+  private long unsatCacheMaxGroupedWeight = 0;
+
   @Option(
       secure = true,
       description =
@@ -100,20 +127,11 @@ public final class Solver implements AutoCloseable {
   private final SolverContext solvingContext;
   private final SolverContext interpolatingContext;
 
-  private final Map<BooleanFormula, Boolean> unsatCache = new HashMap<>();
-
   /**
-   * More complex unsat cache, grouped by an arbitrary key.
-   *
-   * <p>For each node, map a set of constraints to whether it is unsatisfiable
-   * or satisfiable (maps to |true| <=> |UNSAT|).
-   * If a set of constraints is satisfiable, any subset of it is also
-   * satisfiable.
-   * If a set of constraints is unsatisfiable, any superset of it is also
-   * unsatisfiable.
+   * Cache for {@link #isUnsat(BooleanFormula)} and more complex unsat cache for {@link
+   * #isUnsat(Set, Object)}, grouped by an arbitrary key.
    */
-  private final Map<Object, Map<Set<BooleanFormula>, Boolean>>
-      groupedUnsatCache = new HashMap<>();
+  private final UnsatCache unsatCache;
 
   private final LogManager logger;
 
@@ -129,6 +147,8 @@ public final class Solver implements AutoCloseable {
       ShutdownNotifier shutdownNotifier)
       throws InvalidConfigurationException {
     config.inject(this);
+    unsatCache =
+        new UnsatCache(unsatCacheMaxSize, unsatCacheMaxGroupedSize, unsatCacheMaxGroupedWeight);
 
     if (enableLoggingInSolver) {
       logger = pLogger;
@@ -183,6 +203,8 @@ public final class Solver implements AutoCloseable {
       LogManager pLogger)
       throws InvalidConfigurationException {
     pConfig.inject(this);
+    unsatCache =
+        new UnsatCache(unsatCacheMaxSize, unsatCacheMaxGroupedSize, unsatCacheMaxGroupedWeight);
 
     if (solver.equals(interpolationSolver)) {
       // If interpolationSolver is not null, we use SeparateInterpolatingProverEnvironment
@@ -274,6 +296,8 @@ public final class Solver implements AutoCloseable {
    * formulas.
    */
   public void printStatistics(PrintStream pOut) {
+    unsatCache.printStatistics(pOut);
+
     if (solvingContext instanceof StatisticsSolverContext) {
       final SolverStatistics stats =
           ((StatisticsSolverContext) solvingContext).getSolverStatistics();
@@ -395,10 +419,10 @@ public final class Solver implements AutoCloseable {
 
     solverTime.start();
     try {
-      result = isUnsatUncached(f);
+      boolean isUnsat = isUnsatUncached(f);
 
-      unsatCache.put(f, result);
-      return result;
+      unsatCache.put(f, isUnsat);
+      return isUnsat;
 
     } finally {
       solverTime.stop();
@@ -428,32 +452,10 @@ public final class Solver implements AutoCloseable {
       throws InterruptedException, SolverException {
     satChecks++;
 
-    Map<Set<BooleanFormula>, Boolean> stored = groupedUnsatCache.get(cacheKey);
-    if (stored != null) {
-      for (Entry<Set<BooleanFormula>, Boolean> isUnsatResults : stored
-          .entrySet()) {
-        Set<BooleanFormula> cachedConstraints = isUnsatResults.getKey();
-        boolean cachedIsUnsat = isUnsatResults.getValue();
-
-        if (cachedIsUnsat && lemmas.containsAll(cachedConstraints)) {
-
-          // Any superset of unreachable constraints is unreachable.
-          cachedSatChecks++;
-          return true;
-        } else if (!cachedIsUnsat &&
-            cachedConstraints.containsAll(lemmas)) {
-
-          // Any subset of reachable constraints is reachable.
-          cachedSatChecks++;
-          return false;
-        }
-      }
-    }
-
-    if (stored == null) {
-      stored = new HashMap<>();
-    } else {
-      stored = new HashMap<>(stored);
+    Boolean cachedIsUnsat = unsatCache.get(cacheKey, lemmas);
+    if (cachedIsUnsat != null) {
+      cachedSatChecks++;
+      return cachedIsUnsat;
     }
 
     ProverOptions[] opts;
@@ -470,17 +472,15 @@ public final class Solver implements AutoCloseable {
       }
       if (pe.isUnsat()) {
         if (cacheUnsatCores) {
-          stored.put(ImmutableSet.copyOf(pe.getUnsatCore()), true);
+          unsatCache.put(cacheKey, ImmutableSet.copyOf(pe.getUnsatCore()), true);
         } else {
-          stored.put(ImmutableSet.copyOf(lemmas), true);
+          unsatCache.put(cacheKey, lemmas, true);
         }
         return true;
       } else {
-        stored.put(lemmas, false);
+        unsatCache.put(cacheKey, lemmas, false);
         return false;
       }
-    } finally {
-      groupedUnsatCache.put(cacheKey, ImmutableMap.copyOf(stored));
     }
   }
 
@@ -571,6 +571,15 @@ public final class Solver implements AutoCloseable {
     }
   }
 
+  /**
+   * Whether the solver allows to create and use a new prover environment while another prover
+   * environment is still open and has formulas on its stack.
+   */
+  public boolean supportsSeveralOpenProvers() {
+    // SMTInterpol has only a single assertion stack per context
+    return solvingContext.getSolverName() != Solvers.SMTINTERPOL;
+  }
+
   public String getVersion() {
     return solvingContext.getVersion();
   }
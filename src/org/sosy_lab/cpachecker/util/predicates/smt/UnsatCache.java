@@ -0,0 +1,204 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.SetSubsumptionIndex;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/**
+ * The caches for the results of {@link Solver#isUnsat(BooleanFormula)} and {@link
+ * Solver#isUnsat(Set, Object)}.
+ *
+ * <p>Both caches can be bounded, and the least-recently used entries are evicted if the bound is
+ * exceeded. The cache for sets of constraints stores for each group a {@link SetSubsumptionIndex}
+ * of unsatisfiable and one of satisfiable sets, such that a lookup does not need to iterate over
+ * all cached sets of a group. Every superset of an unsatisfiable set is unsatisfiable, and every
+ * subset of a satisfiable set is satisfiable.
+ */
+final class UnsatCache {
+
+  /** An entry of the grouped cache, used for keeping track of the order of accesses. */
+  private static final class GroupedEntry {
+    private final Object group;
+    private final Set<BooleanFormula> constraints;
+
+    private GroupedEntry(Object pGroup, Set<BooleanFormula> pConstraints) {
+      group = pGroup;
+      constraints = pConstraints;
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (this == pObj) {
+        return true;
+      }
+      if (!(pObj instanceof GroupedEntry)) {
+        return false;
+      }
+      GroupedEntry other = (GroupedEntry) pObj;
+      return group.equals(other.group) && constraints.equals(other.constraints);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(group, constraints);
+    }
+  }
+
+  private static final class Group {
+    private final SetSubsumptionIndex<BooleanFormula> unsatSets = new SetSubsumptionIndex<>();
+    private final SetSubsumptionIndex<BooleanFormula> satSets = new SetSubsumptionIndex<>();
+
+    private SetSubsumptionIndex<BooleanFormula> getIndex(boolean pIsUnsat) {
+      return pIsUnsat ? unsatSets : satSets;
+    }
+  }
+
+  private final int maxSize;
+  private final int maxGroupedSize;
+  private final long maxGroupedWeight;
+
+  /** Cache for single formulas in access order. */
+  private final LinkedHashMap<BooleanFormula, Boolean> formulaCache =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  private final Map<Object, Group> groups = new HashMap<>();
+
+  /** All entries of the grouped cache in access order, mapped to whether they are unsat. */
+  private final LinkedHashMap<GroupedEntry, Boolean> groupedEntries =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Sum of the number of constraints of all entries in the grouped cache. */
+  private long groupedWeight = 0;
+
+  final StatCounter hits = new StatCounter("Cache hits for single formulas");
+  final StatCounter misses = new StatCounter("Cache misses for single formulas");
+  final StatCounter evictions = new StatCounter("Evictions for single formulas");
+  final StatCounter groupedHits = new StatCounter("Cache hits for sets of constraints");
+  final StatCounter groupedMisses = new StatCounter("Cache misses for sets of constraints");
+  final StatCounter groupedEvictions = new StatCounter("Evictions for sets of constraints");
+
+  /**
+   * Create new caches.
+   *
+   * @param pMaxSize the maximal number of cached formulas, or 0 for no bound
+   * @param pMaxGroupedSize the maximal number of cached sets of constraints, or 0 for no bound
+   * @param pMaxGroupedWeight the maximal number of constraints in all cached sets together, or 0
+   *     for no bound
+   */
+  UnsatCache(int pMaxSize, int pMaxGroupedSize, long pMaxGroupedWeight) {
+    checkArgument(pMaxSize >= 0 && pMaxGroupedSize >= 0 && pMaxGroupedWeight >= 0);
+    maxSize = pMaxSize;
+    maxGroupedSize = pMaxGroupedSize;
+    maxGroupedWeight = pMaxGroupedWeight;
+  }
+
+  /** Return whether the formula is unsat, or null if the formula is not cached. */
+  @Nullable Boolean get(BooleanFormula pFormula) {
+    Boolean result = formulaCache.get(pFormula);
+    if (result == null) {
+      misses.inc();
+    } else {
+      hits.inc();
+    }
+    return result;
+  }
+
+  void put(BooleanFormula pFormula, boolean pIsUnsat) {
+    formulaCache.put(pFormula, pIsUnsat);
+    if (maxSize > 0 && formulaCache.size() > maxSize) {
+      Iterator<BooleanFormula> it = formulaCache.keySet().iterator();
+      it.next();
+      it.remove();
+      evictions.inc();
+    }
+  }
+
+  /**
+   * Return whether the conjunction of the given constraints is unsat, or null if this cannot be
+   * decided from the cached results for the given group.
+   */
+  @Nullable Boolean get(Object pGroup, Set<BooleanFormula> pConstraints) {
+    Group group = groups.get(pGroup);
+    if (group != null) {
+      Set<BooleanFormula> unsatSubset = group.unsatSets.findSubsetOf(pConstraints);
+      if (unsatSubset != null) {
+        // Any superset of unreachable constraints is unreachable.
+        groupedEntries.get(new GroupedEntry(pGroup, unsatSubset)); // update access order
+        groupedHits.inc();
+        return true;
+      }
+      Set<BooleanFormula> satSuperset = group.satSets.findSupersetOf(pConstraints);
+      if (satSuperset != null) {
+        // Any subset of reachable constraints is reachable.
+        groupedEntries.get(new GroupedEntry(pGroup, satSuperset)); // update access order
+        groupedHits.inc();
+        return false;
+      }
+    }
+    groupedMisses.inc();
+    return null;
+  }
+
+  void put(Object pGroup, Set<BooleanFormula> pConstraints, boolean pIsUnsat) {
+    ImmutableSet<BooleanFormula> constraints = ImmutableSet.copyOf(pConstraints);
+    Group group = groups.computeIfAbsent(pGroup, k -> new Group());
+    if (!group.getIndex(pIsUnsat).add(constraints)) {
+      return;
+    }
+    groupedEntries.put(new GroupedEntry(pGroup, constraints), pIsUnsat);
+    groupedWeight += constraints.size();
+
+    Iterator<Entry<GroupedEntry, Boolean>> it = groupedEntries.entrySet().iterator();
+    while (isGroupedCacheTooLarge() && it.hasNext()) {
+      Entry<GroupedEntry, Boolean> eldest = it.next();
+      it.remove();
+      GroupedEntry entry = eldest.getKey();
+      Group groupOfEntry = groups.get(entry.group);
+      groupOfEntry.getIndex(eldest.getValue()).remove(entry.constraints);
+      if (groupOfEntry.unsatSets.isEmpty() && groupOfEntry.satSets.isEmpty()) {
+        groups.remove(entry.group);
+      }
+      groupedWeight -= entry.constraints.size();
+      groupedEvictions.inc();
+    }
+  }
+
+  private boolean isGroupedCacheTooLarge() {
+    return (maxGroupedSize > 0 && groupedEntries.size() > maxGroupedSize)
+        || (maxGroupedWeight > 0 && groupedWeight > maxGroupedWeight);
+  }
+
+  void printStatistics(PrintStream pOut) {
+    writingStatisticsTo(pOut)
+        .put("Size of unsat cache for single formulas", formulaCache.size())
+        .put(hits)
+        .put(misses)
+        .put(evictions)
+        .put("Size of unsat cache for sets of constraints", groupedEntries.size())
+        .put("Number of constraints in unsat cache for sets", groupedWeight)
+        .put(groupedHits)
+        .put(groupedMisses)
+        .put(groupedEvictions);
+  }
+}